@@ -172,6 +172,7 @@ CREATE INDEX IX_oc_job_date_completed ON oc_job (date_completed);
 CREATE INDEX IX_oc_job_dispatchable ON oc_job (dispatchable);
 CREATE INDEX IX_oc_job_operation ON oc_job (operation);
 CREATE INDEX IX_oc_job_statistics ON oc_job (processor_service, status, queue_time, run_time);
+CREATE INDEX IX_oc_job_status_date_created ON oc_job (status, date_created, id);
 
 CREATE TABLE oc_job_argument (
   id BIGINT NOT NULL,
@@ -290,6 +291,7 @@ CREATE TABLE oc_oaipmh (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8;
 
 CREATE INDEX IX_oc_oaipmh_modification_date ON oc_oaipmh (modification_date);
+CREATE INDEX IX_oc_oaipmh_repo_modification ON oc_oaipmh (repo_id, organization, modification_date, mp_id);
 
 -- set to current date and time on insert
 CREATE TRIGGER oc_init_oaipmh_date BEFORE INSERT ON `oc_oaipmh`
@@ -0,0 +1,2 @@
+CREATE INDEX IX_oc_oaipmh_repo_modification ON oc_oaipmh (repo_id, organization, modification_date, mp_id);
+CREATE INDEX IX_oc_job_status_date_created ON oc_job (status, date_created, id);
@@ -43,12 +43,13 @@ import org.opencastproject.security.api.UserDirectoryService;
 import org.opencastproject.serviceregistry.api.IncidentL10n;
 import org.opencastproject.serviceregistry.api.IncidentService;
 import org.opencastproject.serviceregistry.api.IncidentServiceException;
+import org.opencastproject.serviceregistry.api.JobQuery;
+import org.opencastproject.serviceregistry.api.JobQueryResult;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.util.DateTimeSupport;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.RestUtil;
-import org.opencastproject.util.SmartIterator;
 import org.opencastproject.util.SolrUtils;
 import org.opencastproject.util.data.Tuple;
 import org.opencastproject.util.doc.rest.RestParameter;
@@ -79,8 +80,6 @@ import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -113,10 +112,6 @@ public class JobEndpoint {
   public static final Response NOT_FOUND = Response.status(Response.Status.NOT_FOUND).build();
   public static final Response SERVER_ERROR = Response.serverError().build();
 
-  private enum JobSort {
-    CREATOR, OPERATION, PROCESSINGHOST, STATUS, STARTED, SUBMITTED, TYPE, ID
-  }
-
   private static final String NEGATE_PREFIX = "-";
   private static final String WORKFLOW_STATUS_TRANSLATION_PREFIX = "EVENTS.EVENTS.DETAILS.WORKFLOWS.OPERATION_STATUS.";
   private static final String JOB_STATUS_TRANSLATION_PREFIX = "SYSTEMS.JOBS.STATUS.";
@@ -177,45 +172,12 @@ public class JobEndpoint {
     if (query.getFreeText().isSome())
       fFreeText = StringUtils.trimToNull(query.getFreeText().get());
 
-    List<Job> jobs = new ArrayList<>();
-    try {
-      for (Job job : serviceRegistry.getActiveJobs()) {
-        // filter workflow jobs
-        if (StringUtils.equals(WorkflowService.JOB_TYPE, job.getJobType())
-                && StringUtils.equals("START_WORKFLOW", job.getOperation()))
-          continue;
-
-        // filter by hostname
-        if (fHostname != null && !StringUtils.equalsIgnoreCase(job.getProcessingHost(), fHostname))
-          continue;
-
-        // filter by status
-        if (fStatus != null && !StringUtils.equalsIgnoreCase(job.getStatus().toString(), fStatus))
-          continue;
-
-        // fitler by user free text
-        if (fFreeText != null
-              && !StringUtils.equalsIgnoreCase(job.getProcessingHost(), fFreeText)
-              && !StringUtils.equalsIgnoreCase(job.getJobType(), fFreeText)
-              && !StringUtils.equalsIgnoreCase(job.getOperation(), fFreeText)
-              && !StringUtils.equalsIgnoreCase(job.getCreator(), fFreeText)
-              && !StringUtils.equalsIgnoreCase(job.getStatus().toString(), fFreeText)
-              && !StringUtils.equalsIgnoreCase(Long.toString(job.getId()), fFreeText)
-              && (job.getRootJobId() != null && !StringUtils.equalsIgnoreCase(Long.toString(job.getRootJobId()), fFreeText)))
-          continue;
-        jobs.add(job);
-      }
-    } catch (ServiceRegistryException ex) {
-      logger.error("Failed to retrieve jobs list from service registry.", ex);
-      return RestUtil.R.serverError();
-    }
-
-    JobSort sortKey = JobSort.SUBMITTED;
+    JobQuery.Sort sortKey = JobQuery.Sort.SUBMITTED;
     boolean ascending = true;
     if (StringUtils.isNotBlank(sort)) {
       try {
         SortCriterion sortCriterion = RestUtils.parseSortQueryParameter(sort).iterator().next();
-        sortKey = JobSort.valueOf(sortCriterion.getFieldName().toUpperCase());
+        sortKey = JobQuery.Sort.valueOf(sortCriterion.getFieldName().toUpperCase());
         ascending = SearchQuery.Order.Ascending == sortCriterion.getOrder()
                 || SearchQuery.Order.None == sortCriterion.getOrder();
       } catch (WebApplicationException ex) {
@@ -225,14 +187,26 @@ public class JobEndpoint {
       }
     }
 
-    JobComparator comparator = new JobComparator(sortKey, ascending);
-    Collections.sort(jobs, comparator);
-    List<JValue> json = getJobsAsJSON(new SmartIterator(
-            query.getLimit().getOrElse(0),
-            query.getOffset().getOrElse(0))
-            .applyLimitAndOffset(jobs));
+    // Filtering, sorting and paging are left to the service registry, which can do it in the database
+    JobQuery jobQuery = new JobQuery()
+            .withoutOperation(WorkflowService.JOB_TYPE, "START_WORKFLOW")
+            .withHostname(fHostname)
+            .withStatus(fStatus)
+            .withText(fFreeText)
+            .withSort(sortKey, ascending)
+            .withOffset(query.getOffset().getOrElse(0))
+            .withLimit(query.getLimit().getOrElse(0));
+
+    JobQueryResult result;
+    try {
+      result = serviceRegistry.getActiveJobs(jobQuery);
+    } catch (ServiceRegistryException ex) {
+      logger.error("Failed to retrieve jobs list from service registry.", ex);
+      return RestUtil.R.serverError();
+    }
 
-    return RestUtils.okJsonList(json, offset, limit, jobs.size());
+    List<JValue> json = getJobsAsJSON(result.getJobs());
+    return RestUtils.okJsonList(json, offset, limit, result.getTotal());
   }
 
   @GET
@@ -676,72 +650,4 @@ public class JobEndpoint {
       return true;
     }
   };
-
-  private class JobComparator implements Comparator<Job> {
-
-    private JobSort sortType;
-    private boolean ascending;
-
-    JobComparator(JobSort sortType, boolean ascending) {
-      this.sortType = sortType;
-      this.ascending = ascending;
-    }
-
-    @Override
-    public int compare(Job job1, Job job2) {
-      int result = 0;
-      Object value1 = null;
-      Object value2 = null;
-      switch (sortType) {
-        case CREATOR:
-          value1 = job1.getCreator();
-          value2 = job2.getCreator();
-          break;
-        case OPERATION:
-          value1 = job1.getOperation();
-          value2 = job2.getOperation();
-          break;
-        case PROCESSINGHOST:
-          value1 = job1.getProcessingHost();
-          value2 = job2.getProcessingHost();
-          break;
-        case STARTED:
-          value1 = job1.getDateStarted();
-          value2 = job2.getDateStarted();
-          break;
-        case STATUS:
-          value1 = job1.getStatus();
-          value2 = job2.getStatus();
-          break;
-        case SUBMITTED:
-          value1 = job1.getDateCreated();
-          value2 = job2.getDateCreated();
-          break;
-        case TYPE:
-          value1 = job1.getJobType();
-          value2 = job2.getJobType();
-          break;
-        case ID:
-          value1 = job1.getId();
-          value2 = job2.getId();
-          break;
-        default:
-      }
-
-      if (value1 == null) {
-        return value2 == null ? 0 : 1;
-      }
-      if (value2 == null) {
-        return -1;
-      }
-      try {
-        result = ((Comparable)value1).compareTo(value2);
-      } catch (ClassCastException ex) {
-        logger.debug("Can not compare \"{}\" with \"{}\": {}",
-                value1, value2, ex);
-      }
-
-      return ascending ? result : -1 * result;
-    }
-  }
 }
@@ -27,6 +27,7 @@ import org.opencastproject.job.api.Job.Status;
 import org.opencastproject.job.api.JobImpl;
 import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageBuilderImpl;
+import org.opencastproject.serviceregistry.api.JobQuery;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.util.DateTimeSupport;
 import org.opencastproject.workflow.api.WorkflowDefinition;
@@ -103,6 +104,8 @@ public class TestJobEndpoint extends JobEndpoint {
             .andReturn(workflowSet).anyTimes();
     EasyMock.expect(workflowService.countWorkflowInstances()).andReturn(workflowSet.size()).anyTimes();
     EasyMock.expect(serviceRegistry.getActiveJobs()).andReturn(jobs).anyTimes();
+    EasyMock.expect(serviceRegistry.getActiveJobs(EasyMock.anyObject(JobQuery.class)))
+            .andAnswer(() -> ((JobQuery) EasyMock.getCurrentArguments()[0]).apply(jobs)).anyTimes();
 
     EasyMock.replay(workflowService);
     EasyMock.replay(serviceRegistry);
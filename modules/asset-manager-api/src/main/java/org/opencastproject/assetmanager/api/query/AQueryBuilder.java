@@ -132,6 +132,13 @@ public interface AQueryBuilder {
   /** Select or delete a snapshot. */
   Target snapshot();
 
+  /**
+   * Select or delete a snapshot without fetching its media package. The media package is loaded when it is accessed
+   * for the first time. Use this target if only the metadata of the snapshots like version, availability or storage
+   * location is needed for most of the results.
+   */
+  Target lazySnapshot();
+
   /**
    * Select or delete all properties that belong to the given namespaces.
    * Use an empty list of arguments to handle all properties of the media package.
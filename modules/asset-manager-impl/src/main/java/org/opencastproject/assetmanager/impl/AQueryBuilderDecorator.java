@@ -122,6 +122,10 @@ public class AQueryBuilderDecorator implements AQueryBuilder {
     return delegate.snapshot();
   }
 
+  @Override public Target lazySnapshot() {
+    return delegate.lazySnapshot();
+  }
+
   @Override public Target propertiesOf(String... namespace) {
     return delegate.propertiesOf(namespace);
   }
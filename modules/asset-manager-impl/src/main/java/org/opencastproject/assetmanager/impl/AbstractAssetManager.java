@@ -450,18 +450,23 @@ public abstract class AbstractAssetManager implements AssetManager {
    * Rewrite URIs of all asset elements of a snapshot's media package.
    * This method does not mutate anything.
    */
-  public static Snapshot rewriteUris(Snapshot snapshot, Fn<MediaPackageElement, URI> uriCreator) {
-    final MediaPackage mpCopy = MediaPackageSupport.copy(snapshot.getMediaPackage());
-    for (final MediaPackageElement mpe : assetsOnly(mpCopy).getElements()) {
-      mpe.setURI(uriCreator.apply(mpe));
-    }
+  public static Snapshot rewriteUris(final Snapshot snapshot, final Fn<MediaPackageElement, URI> uriCreator) {
+    // The URIs are rewritten when the media package is accessed so that it is not parsed for callers which only
+    // need the metadata of the snapshot
     return new SnapshotImpl(
+        null,
         snapshot.getVersion(),
         snapshot.getOrganizationId(),
         snapshot.getArchivalDate(),
         snapshot.getAvailability(),
         snapshot.getStorageId(),
         snapshot.getOwner(),
-        mpCopy);
+        () -> {
+          final MediaPackage mpCopy = MediaPackageSupport.copy(snapshot.getMediaPackage());
+          for (final MediaPackageElement mpe : assetsOnly(mpCopy).getElements()) {
+            mpe.setURI(uriCreator.apply(mpe));
+          }
+          return mpCopy;
+        });
   }
 }
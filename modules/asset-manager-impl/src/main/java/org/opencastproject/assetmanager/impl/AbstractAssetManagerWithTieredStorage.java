@@ -103,7 +103,8 @@ public abstract class AbstractAssetManagerWithTieredStorage extends AbstractAsse
       @Override
       public void accept(ARecord record) {
         Snapshot s = record.getSnapshot().get();
-        Opt<String> currentStoreId = getSnapshotStorageLocation(s);
+        // The storage location has been fetched with the snapshot, no need to query it again
+        Opt<String> currentStoreId = Opt.nul(s.getStorageId());
 
         if (currentStoreId.isNone()) {
           logger.warn("IsNone store ID");
@@ -153,7 +154,7 @@ public abstract class AbstractAssetManagerWithTieredStorage extends AbstractAsse
           logger.debug(format("Moving {} from {} to {}, then to {}",
                   s.toString(), currentStoreId, intermediateStore, targetStoreId));
           Version version = s.getVersion();
-          String mpId = s.getMediaPackage().getIdentifier().toString();
+          String mpId = record.getMediaPackageId();
           try {
             moveSnapshotToStore(version, mpId, intermediateStore);
             moveSnapshotToStore(version, mpId, targetStoreId);
@@ -175,7 +176,8 @@ public abstract class AbstractAssetManagerWithTieredStorage extends AbstractAsse
    */
   private ASelectQuery baseQuery(final AQueryBuilder q) {
     RequireUtil.notNull(q, "q");
-    return q.select(q.snapshot());
+    // Most snapshots are only checked for their storage location, so load their media packages on demand
+    return q.select(q.lazySnapshot());
   }
 
   /**
@@ -26,6 +26,7 @@ import org.opencastproject.assetmanager.api.Version;
 import org.opencastproject.mediapackage.MediaPackage;
 
 import java.util.Date;
+import java.util.function.Supplier;
 
 public class SnapshotImpl implements Snapshot {
   private final Long id;
@@ -35,7 +36,9 @@ public class SnapshotImpl implements Snapshot {
   private final Availability availability;
   private final String storageId;
   private final String owner;
-  private final MediaPackage mediaPackage;
+  private MediaPackage mediaPackage;
+  /** Creates the media package on first access if it has not been given up front. */
+  private Supplier<MediaPackage> mediaPackageSupplier;
 
   public SnapshotImpl(
           Version version,
@@ -74,6 +77,23 @@ public class SnapshotImpl implements Snapshot {
     this.storageId = storageId;
   }
 
+  /**
+   * Create a snapshot whose media package is only created when it is accessed for the first time. This avoids parsing
+   * the media package of snapshots which are queried for their metadata only.
+   */
+  public SnapshotImpl(
+          Long id,
+          Version version,
+          String organizationId,
+          Date archivalDate,
+          Availability availability,
+          String storageId,
+          String owner,
+          Supplier<MediaPackage> mediaPackageSupplier) {
+    this(id, version, organizationId, archivalDate, availability, storageId, owner, (MediaPackage) null);
+    this.mediaPackageSupplier = mediaPackageSupplier;
+  }
+
   @Override public Version getVersion() {
     return version;
   }
@@ -90,7 +110,11 @@ public class SnapshotImpl implements Snapshot {
     return availability;
   }
 
-  @Override public MediaPackage getMediaPackage() {
+  @Override public synchronized MediaPackage getMediaPackage() {
+    if (mediaPackageSupplier != null) {
+      mediaPackage = mediaPackageSupplier.get();
+      mediaPackageSupplier = null;
+    }
     return mediaPackage;
   }
 
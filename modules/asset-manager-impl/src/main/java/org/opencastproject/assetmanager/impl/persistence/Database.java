@@ -20,6 +20,7 @@
  */
 package org.opencastproject.assetmanager.impl.persistence;
 
+import org.opencastproject.assetmanager.api.AssetManagerException;
 import org.opencastproject.assetmanager.api.Availability;
 import org.opencastproject.assetmanager.api.Property;
 import org.opencastproject.assetmanager.api.PropertyId;
@@ -28,6 +29,7 @@ import org.opencastproject.assetmanager.impl.PartialMediaPackage;
 import org.opencastproject.assetmanager.impl.VersionImpl;
 import org.opencastproject.assetmanager.impl.persistence.AssetDtos.Full;
 import org.opencastproject.assetmanager.impl.persistence.AssetDtos.Medium;
+import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.util.persistencefn.PersistenceEnv;
 import org.opencastproject.util.persistencefn.PersistenceEnvs;
@@ -316,6 +318,29 @@ public class Database implements EntityPaths {
     });
   }
 
+  /**
+   * Load the media package of a snapshot.
+   *
+   * @param snapshotId
+   *          the database ID of the snapshot
+   * @return the media package of the snapshot
+   * @throws AssetManagerException
+   *           if the snapshot does not exist anymore
+   */
+  public MediaPackage getMediaPackage(final long snapshotId) {
+    final String xml = penv.tx(new Fn<EntityManager, String>() {
+      @Override public String apply(EntityManager em) {
+        return SnapshotDtos.baseQuery(em)
+                .where(QSnapshotDto.snapshotDto.id.eq(snapshotId))
+                .uniqueResult(QSnapshotDto.snapshotDto.mediaPackageXml);
+      }
+    });
+    if (xml == null) {
+      throw new AssetManagerException("Snapshot " + snapshotId + " does not exist anymore");
+    }
+    return Conversions.toMediaPackage(xml);
+  }
+
   public Opt<AssetDtos.Full> findAssetByChecksum(final String checksum) {
     return penv.tx(new Fn<EntityManager, Opt<AssetDtos.Full>>() {
       @Override public Opt<AssetDtos.Full> apply(EntityManager em) {
@@ -180,7 +180,11 @@ public class SnapshotDto {
     return this.assets.remove(asset);
   }
 
+  /**
+   * Convert into a {@link Snapshot}. The media package XML is parsed on first access of the media package.
+   */
   public Snapshot toSnapshot() {
+    final String xml = mediaPackageXml;
     return new SnapshotImpl(
             id,
             Conversions.toVersion(version),
@@ -189,7 +193,7 @@ public class SnapshotDto {
             Availability.valueOf(availability),
             storageId,
             owner,
-            Conversions.toMediaPackage(mediaPackageXml));
+            () -> Conversions.toMediaPackage(xml));
   }
 
   /**
@@ -21,8 +21,11 @@
 package org.opencastproject.assetmanager.impl.persistence;
 
 import org.opencastproject.assetmanager.api.Availability;
+import org.opencastproject.assetmanager.api.Snapshot;
+import org.opencastproject.assetmanager.impl.SnapshotImpl;
 
 import com.entwinemedia.fn.Fn;
+import com.entwinemedia.fn.Stream;
 import com.mysema.query.Tuple;
 import com.mysema.query.jpa.impl.JPAQuery;
 import com.mysema.query.types.Expression;
@@ -102,4 +105,47 @@ public final class SnapshotDtos {
     public static final Expression<?>[] select =
             new Expression[]{QSnapshotDto.snapshotDto, QSnapshotDto.snapshotDto.storageId, QSnapshotDto.snapshotDto.availability, QSnapshotDto.snapshotDto.organizationId};
   }
+
+  /**
+   * Projection of all {@link SnapshotDto} columns except for the media package XML. The media package is loaded from
+   * the database when it is accessed for the first time.
+   */
+  public static final class Lazy {
+    private Lazy() {
+    }
+
+    private static final QSnapshotDto Q = QSnapshotDto.snapshotDto;
+
+    /** The selected columns. */
+    public static final Stream<Expression<?>> select = Stream.<Expression<?>>mk(Q.id, Q.mediaPackageId, Q.version,
+            Q.organizationId, Q.archivalDate, Q.availability, Q.storageId, Q.owner);
+
+    /** Check if a fetch list contains the lazy projection. */
+    public static boolean isSelected(Stream<Expression<?>> fetch) {
+      return fetch.exists(new Fn<Expression<?>, Boolean>() {
+        @Override public Boolean apply(Expression<?> e) {
+          return Q.archivalDate.equals(e);
+        }
+      });
+    }
+
+    /**
+     * Create a snapshot from a result tuple of the projection.
+     *
+     * @param db
+     *          the database to load the media package from
+     */
+    public static Snapshot toSnapshot(final Tuple result, final Database db) {
+      final long id = result.get(Q.id);
+      return new SnapshotImpl(
+              id,
+              Conversions.toVersion(result.get(Q.version)),
+              result.get(Q.organizationId),
+              result.get(Q.archivalDate),
+              Availability.valueOf(result.get(Q.availability)),
+              result.get(Q.storageId),
+              result.get(Q.owner),
+              () -> db.getMediaPackage(id));
+    }
+  }
 }
@@ -40,6 +40,7 @@ import org.opencastproject.assetmanager.impl.RuntimeTypes;
 import org.opencastproject.assetmanager.impl.persistence.EntityPaths;
 import org.opencastproject.assetmanager.impl.persistence.QPropertyDto;
 import org.opencastproject.assetmanager.impl.persistence.QSnapshotDto;
+import org.opencastproject.assetmanager.impl.persistence.SnapshotDtos;
 import org.opencastproject.assetmanager.impl.query.DeleteQueryContribution.Where;
 import org.opencastproject.util.RequireUtil;
 
@@ -293,6 +294,18 @@ public final class AQueryBuilderImpl implements AQueryBuilder, EntityPaths {
     };
   }
 
+  @Override public Target lazySnapshot() {
+    return new AbstractTarget() {
+      @Override public SelectQueryContribution contributeSelect(JPAQueryFactory f) {
+        return SelectQueryContribution.mk().from(FROM_SNAPSHOT).fetch(SnapshotDtos.Lazy.select);
+      }
+
+      @Override public DeleteQueryContribution contributeDelete(String owner) {
+        return DeleteQueryContribution.mk().from(FROM_SNAPSHOT).where(Q_SNAPSHOT.owner.eq(owner));
+      }
+    };
+  }
+
   @Override public Target propertiesOf(final String... namespace) {
     return propertyTarget(namespace);
   }
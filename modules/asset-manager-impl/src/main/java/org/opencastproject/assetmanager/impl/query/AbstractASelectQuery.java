@@ -35,6 +35,7 @@ import org.opencastproject.assetmanager.impl.persistence.EntityPaths;
 import org.opencastproject.assetmanager.impl.persistence.PropertyDto;
 import org.opencastproject.assetmanager.impl.persistence.QPropertyDto;
 import org.opencastproject.assetmanager.impl.persistence.SnapshotDto;
+import org.opencastproject.assetmanager.impl.persistence.SnapshotDtos;
 import org.opencastproject.util.RequireUtil;
 
 import com.entwinemedia.fn.Fn;
@@ -281,6 +282,12 @@ public abstract class AbstractASelectQuery implements ASelectQuery, SelectQueryC
           snapshotDto = RequireUtil.notNull(tuple.get(Q_SNAPSHOT), "[BUG] snapshot table data");
           id = snapshotDto.getId();
           mediaPackageId = snapshotDto.getMediaPackageId();
+        } else if (SnapshotDtos.Lazy.isSelected(c.fetch)) {
+          // The snapshot has been selected without its media package
+          final Snapshot snapshot = SnapshotDtos.Lazy.toSnapshot(tuple, am.getDb());
+          id = RequireUtil.notNull(tuple.get(Q_SNAPSHOT.id), "[BUG] snapshot table id");
+          mediaPackageId = RequireUtil.notNull(tuple.get(Q_SNAPSHOT.mediaPackageId), "[BUG] snapshot table media package id");
+          return new ARecordImpl(id, mediaPackageId, Stream.<Property>empty(), snapshot);
         } else {
           // The media package ID and the snapshot's database ID must always be fetched.
           id = RequireUtil.notNull(tuple.get(Q_SNAPSHOT.id), "[BUG] snapshot table id");
@@ -21,13 +21,20 @@
 package org.opencastproject.assetmanager.impl;
 
 import static java.lang.String.format;
+import static org.opencastproject.assetmanager.api.fn.Enrichments.enrich;
 
+import org.opencastproject.assetmanager.api.Availability;
 import org.opencastproject.assetmanager.api.Snapshot;
+import org.opencastproject.assetmanager.api.query.RichAResult;
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.identifier.IdImpl;
 import org.opencastproject.security.api.DefaultOrganization;
 
 import com.entwinemedia.fn.P1;
 import com.entwinemedia.fn.P1Lazy;
 import com.entwinemedia.fn.P2;
+import com.entwinemedia.fn.Pred;
 import com.entwinemedia.fn.Products;
 import com.entwinemedia.fn.Unit;
 import com.entwinemedia.fn.data.ImmutableIteratorArrayAdapter;
@@ -38,6 +45,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Date;
 import java.util.Iterator;
 import java.util.UUID;
 
@@ -48,6 +56,7 @@ import java.util.UUID;
 public class AbstractAssetManagerPerformanceTest extends AbstractAssetManagerTestBase {
   private static final Logger logger = LoggerFactory.getLogger(AbstractAssetManagerPerformanceTest.class);
   private static final int MEDIAPACKAGES_COUNT = 800;
+  private static final int SYNTHETIC_SNAPSHOTS_COUNT = 100000;
   private static final String[] RANDOM_STRINGS = new String[200000];
 
   static {
@@ -123,6 +132,51 @@ public class AbstractAssetManagerPerformanceTest extends AbstractAssetManagerTes
     });
   }
 
+  /**
+   * Compare selecting snapshots with and without their media packages on a synthetic database. The snapshots are
+   * written directly to the database without any assets.
+   */
+  @Test
+  public void testSelectSnapshotMetadata() throws Exception {
+    final MediaPackage template = mkMediaPackage(mkCatalog(), mkCatalog(), mkCatalog(), mkCatalog());
+    final Pred<MediaPackageElement> noAssets = new Pred<MediaPackageElement>() {
+      @Override public Boolean apply(MediaPackageElement mpe) {
+        return false;
+      }
+    };
+    benchmark("insert synthetic snapshots", new P1Lazy<P2<Unit, Integer>>() {
+      @Override public P2<Unit, Integer> get1() {
+        for (int i = 0; i < SYNTHETIC_SNAPSHOTS_COUNT; i++) {
+          final MediaPackage mp = (MediaPackage) template.clone();
+          mp.setIdentifier(new IdImpl(RANDOM_STRINGS[i]));
+          am.getDb().saveSnapshot(DefaultOrganization.DEFAULT_ORGANIZATION_ID, PartialMediaPackage.mk(mp, noAssets),
+                  new Date(), VersionImpl.FIRST, Availability.ONLINE, "test-store-type", OWNER);
+        }
+        return Products.E.p2(Unit.unit, SYNTHETIC_SNAPSHOTS_COUNT);
+      }
+    });
+    for (int run = 0; run < 3; run++) {
+      benchmark("select snapshots", new P1Lazy<P2<Unit, Integer>>() {
+        @Override public P2<Unit, Integer> get1() {
+          final RichAResult r = enrich(q.select(q.snapshot()).run());
+          for (Snapshot snapshot : r.getSnapshots()) {
+            snapshot.getStorageId();
+          }
+          return Products.E.p2(Unit.unit, r.getSize());
+        }
+      });
+      benchmark("select lazy snapshots", new P1Lazy<P2<Unit, Integer>>() {
+        @Override public P2<Unit, Integer> get1() {
+          final RichAResult r = enrich(q.select(q.lazySnapshot()).run());
+          for (Snapshot snapshot : r.getSnapshots()) {
+            snapshot.getStorageId();
+          }
+          return Products.E.p2(Unit.unit, r.getSize());
+        }
+      });
+    }
+  }
+
   private <A> A randomElem(A[] as) {
     return as[((int) Math.max(0, Math.random() * as.length - 1))];
   }
@@ -49,6 +49,7 @@ import org.opencastproject.assetmanager.api.query.RichAResult;
 import org.opencastproject.assetmanager.api.query.Target;
 import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageParser;
 import org.opencastproject.mediapackage.MediaPackageSupport;
 import org.opencastproject.security.api.DefaultOrganization;
 
@@ -147,6 +148,33 @@ public class AbstractAssetManagerSelectTest extends AbstractAssetManagerTestBase
     assertEquals("The result set should contain media package " + mp[0], mp[0], r.getSnapshots().head2().getMediaPackage().getIdentifier().toString());
   }
 
+  @Test
+  public void testSelectLazySnapshots() throws Exception {
+    final String[] mp = createAndAddMediaPackagesSimple(3, 2, 2);
+    am.setProperty(p.approved.mk(mp[0], true));
+    final RichAResult eager = enrich(q.select(q.snapshot()).where(q.mediaPackageId(mp[0])).orderBy(q.version().asc()).run());
+    final RichAResult lazy = enrich(q.select(q.lazySnapshot()).where(q.mediaPackageId(mp[0])).orderBy(q.version().asc()).run());
+    assertEquals("The result set should contain both versions", 2, lazy.getSize());
+    final List<Snapshot> eagerSnapshots = eager.getSnapshots().toList();
+    final List<Snapshot> lazySnapshots = lazy.getSnapshots().toList();
+    for (int i = 0; i < eagerSnapshots.size(); i++) {
+      assertEquals(eagerSnapshots.get(i).getVersion(), lazySnapshots.get(i).getVersion());
+      assertEquals(eagerSnapshots.get(i).getArchivalDate(), lazySnapshots.get(i).getArchivalDate());
+      assertEquals(eagerSnapshots.get(i).getAvailability(), lazySnapshots.get(i).getAvailability());
+      assertEquals(eagerSnapshots.get(i).getStorageId(), lazySnapshots.get(i).getStorageId());
+      assertEquals(eagerSnapshots.get(i).getOwner(), lazySnapshots.get(i).getOwner());
+      assertEquals("The media package should be loaded on access",
+              MediaPackageParser.getAsXml(eagerSnapshots.get(i).getMediaPackage()),
+              MediaPackageParser.getAsXml(lazySnapshots.get(i).getMediaPackage()));
+    }
+    // combined with properties
+    final RichAResult withProperties = enrich(q.select(q.lazySnapshot(), q.propertiesOf(p.namespace()))
+            .where(q.mediaPackageId(mp[0]).and(q.version().isLatest())).run());
+    assertEquals(1, withProperties.countSnapshots());
+    assertEquals(1, withProperties.countProperties());
+    assertEquals(mp[0], withProperties.getSnapshots().head2().getMediaPackage().getIdentifier().toString());
+  }
+
   @Test
   public void testSelectProperties() throws Exception {
     final MediaPackage mp1 = mkMediaPackage();
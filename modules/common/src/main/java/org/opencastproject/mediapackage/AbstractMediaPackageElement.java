@@ -565,15 +565,19 @@ public abstract class AbstractMediaPackageElement implements MediaPackageElement
   public Object clone() {
     ByteArrayOutputStream out = new ByteArrayOutputStream();
     ByteArrayInputStream in = null;
+    Marshaller marshaller = null;
+    Unmarshaller unmarshaller = null;
     try {
-      Marshaller marshaller = MediaPackageImpl.context.createMarshaller();
+      marshaller = MediaPackageImpl.jaxb.borrowMarshaller();
       marshaller.marshal(this, out);
-      Unmarshaller unmarshaller = MediaPackageImpl.context.createUnmarshaller();
+      unmarshaller = MediaPackageImpl.jaxb.borrowUnmarshaller();
       in = new ByteArrayInputStream(out.toByteArray());
       return unmarshaller.unmarshal(in);
     } catch (JAXBException e) {
       throw new RuntimeException(e.getLinkedException() != null ? e.getLinkedException() : e);
     } finally {
+      MediaPackageImpl.jaxb.release(marshaller);
+      MediaPackageImpl.jaxb.release(unmarshaller);
       IoSupport.closeQuietly(in);
     }
   }
@@ -102,6 +102,24 @@ public class ChainingMediaPackageSerializer implements MediaPackageSerializer {
     });
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The scope of a chain is made up of the scopes of all of its serializers.
+   */
+  @Override
+  public String getDecodingScope() {
+    StringBuilder scope = new StringBuilder();
+    for (MediaPackageSerializer serializer : serializers) {
+      String serializerScope = serializer.getDecodingScope();
+      if (serializerScope == null)
+        return null;
+      if (!serializerScope.isEmpty())
+        scope.append(scope.length() > 0 ? "|" : "").append(serializerScope);
+    }
+    return scope.toString();
+  }
+
   @Override
   public int getRanking() {
     return RANKING;
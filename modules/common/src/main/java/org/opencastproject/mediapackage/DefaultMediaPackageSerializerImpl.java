@@ -164,6 +164,11 @@ public class DefaultMediaPackageSerializerImpl implements MediaPackageSerializer
     return uri;
   }
 
+  @Override
+  public String getDecodingScope() {
+    return "";
+  }
+
   @Override
   public int getRanking() {
     return RANKING;
@@ -23,11 +23,11 @@
 package org.opencastproject.mediapackage;
 
 import org.opencastproject.mediapackage.identifier.Id;
+import org.opencastproject.util.XmlUtil;
 
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
@@ -36,11 +36,12 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 /**
  * This class provides factory methods for the creation of media packages from manifest files, directories or from
@@ -104,12 +105,22 @@ public class MediaPackageBuilderImpl implements MediaPackageBuilder {
   public MediaPackage loadFromXml(InputStream is) throws MediaPackageException {
     if (serializer != null) {
       // FIXME This code runs if *any* serializer is present, regardless of the serializer implementation
+      // The urls are rewritten while streaming the manifest into the unmarshaller, so no DOM needs to be built
+      XMLStreamReader reader = null;
       try {
-        Document xml = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(is);
-        rewriteUrls(xml, serializer);
-        return MediaPackageImpl.valueOf(xml);
-      } catch (Exception e) {
+        reader = new UrlDecodingStreamReader(XmlUtil.newXMLStreamReader(is), serializer);
+        return MediaPackageImpl.valueOf(reader);
+      } catch (XMLStreamException e) {
         throw new MediaPackageException("Error deserializing paths in media package", e);
+      } finally {
+        if (reader != null) {
+          try {
+            reader.close();
+          } catch (XMLStreamException e) {
+            logger.debug("Unable to close media package reader", e);
+          }
+        }
+        IOUtils.closeQuietly(is);
       }
     } else {
       return MediaPackageImpl.valueOf(is);
@@ -168,21 +179,114 @@ public class MediaPackageBuilderImpl implements MediaPackageBuilder {
    */
   private static void rewriteUrls(Node xml, MediaPackageSerializer serializer) throws XPathExpressionException,
   URISyntaxException {
-    XPath xPath = XPathFactory.newInstance().newXPath();
+    XPath xPath = XmlUtil.newXPath();
     NodeList nodes = (NodeList) xPath.evaluate("//*[local-name() = 'url']", xml, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       Node uri = nodes.item(i).getFirstChild();
       if (uri != null) {
-        String uriStr = uri.getNodeValue();
-        String trimmedUriStr = uriStr.trim();
-        /*
-         * Warn the user if trimming is necessary as this means that the URI was technically invalid.
-         */
-        if (!trimmedUriStr.equals(uriStr)) {
-          logger.warn("Detected invalid URI. Trying to fix it by " + "removing spaces from beginning/end.");
+        uri.setNodeValue(decodeUrl(uri.getNodeValue(), serializer));
+      }
+    }
+  }
+
+  /**
+   * Decode a single url of a manifest using the serializer.
+   */
+  private static String decodeUrl(String uriStr, MediaPackageSerializer serializer) throws URISyntaxException {
+    String trimmedUriStr = uriStr.trim();
+    /*
+     * Warn the user if trimming is necessary as this means that the URI was technically invalid.
+     */
+    if (!trimmedUriStr.equals(uriStr)) {
+      logger.warn("Detected invalid URI. Trying to fix it by " + "removing spaces from beginning/end.");
+    }
+    return serializer.decodeURI(new URI(trimmedUriStr)).toString();
+  }
+
+  /**
+   * StAX reader which decodes the text of all <code>url</code> elements using the serializer, like
+   * {@link #rewriteUrls(Node, MediaPackageSerializer)} does for a DOM. The underlying reader has to be coalescing.
+   */
+  private static final class UrlDecodingStreamReader extends StreamReaderDelegate {
+    private final MediaPackageSerializer serializer;
+
+    /** Whether the reader is positioned right after the start of a url element */
+    private boolean urlStarted = false;
+
+    /** The decoded url if the current event is the text of a url element */
+    private char[] url = null;
+
+    UrlDecodingStreamReader(XMLStreamReader reader, MediaPackageSerializer serializer) {
+      super(reader);
+      this.serializer = serializer;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+      url = null;
+      final int event = super.next();
+      if (event == START_ELEMENT) {
+        urlStarted = "url".equals(getLocalName());
+      } else if (urlStarted) {
+        // only the first child of the url element is decoded
+        urlStarted = false;
+        if (event == CHARACTERS || event == CDATA || event == SPACE) {
+          try {
+            url = decodeUrl(super.getText(), serializer).toCharArray();
+          } catch (URISyntaxException e) {
+            throw new XMLStreamException(e);
+          }
         }
-        uri.setNodeValue(serializer.decodeURI(new URI(trimmedUriStr)).toString());
       }
+      return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+      int event = next();
+      while ((event == CHARACTERS && isWhiteSpace()) || (event == CDATA && isWhiteSpace()) || event == SPACE
+              || event == PROCESSING_INSTRUCTION || event == COMMENT) {
+        event = next();
+      }
+      if (event != START_ELEMENT && event != END_ELEMENT) {
+        throw new XMLStreamException("Expected start or end tag", getLocation());
+      }
+      return event;
+    }
+
+    @Override
+    public String getText() {
+      return url != null ? new String(url) : super.getText();
+    }
+
+    @Override
+    public char[] getTextCharacters() {
+      return url != null ? url : super.getTextCharacters();
+    }
+
+    @Override
+    public int getTextCharacters(int sourceStart, char[] target, int targetStart, int length)
+            throws XMLStreamException {
+      if (url == null)
+        return super.getTextCharacters(sourceStart, target, targetStart, length);
+      final int copied = Math.max(0, Math.min(length, url.length - sourceStart));
+      System.arraycopy(url, sourceStart, target, targetStart, copied);
+      return copied;
+    }
+
+    @Override
+    public int getTextStart() {
+      return url != null ? 0 : super.getTextStart();
+    }
+
+    @Override
+    public int getTextLength() {
+      return url != null ? url.length : super.getTextLength();
+    }
+
+    @Override
+    public boolean isWhiteSpace() {
+      return url != null ? url.length == 0 : super.isWhiteSpace();
     }
   }
 
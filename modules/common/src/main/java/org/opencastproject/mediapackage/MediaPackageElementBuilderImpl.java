@@ -27,6 +27,7 @@ import org.opencastproject.mediapackage.elementbuilder.CatalogBuilderPlugin;
 import org.opencastproject.mediapackage.elementbuilder.MediaPackageElementBuilderPlugin;
 import org.opencastproject.mediapackage.elementbuilder.PublicationBuilderPlugin;
 import org.opencastproject.mediapackage.elementbuilder.TrackBuilderPlugin;
+import org.opencastproject.util.XmlUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,7 +39,6 @@ import java.util.List;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 /**
  * Default implementation for a media package element builder.
@@ -132,7 +132,7 @@ public class MediaPackageElementBuilderImpl implements MediaPackageElementBuilde
           buf.append(", ");
         buf.append(plugin.toString());
       }
-      XPath xpath = XPathFactory.newInstance().newXPath();
+      XPath xpath = XmlUtil.newXPath();
       String name = node.getNodeName();
       String elementFlavor = null;
       try {
@@ -64,12 +64,13 @@ public final class MediaPackageElementParser {
     StringWriter writer = new StringWriter();
     Marshaller m = null;
     try {
-      m = MediaPackageImpl.context.createMarshaller();
-      m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+      m = MediaPackageImpl.jaxb.borrowMarshaller();
       m.marshal(element, writer);
       return writer.toString();
     } catch (JAXBException e) {
       throw new MediaPackageException(e.getLinkedException() != null ? e.getLinkedException() : e);
+    } finally {
+      MediaPackageImpl.jaxb.release(m);
     }
   }
 
@@ -94,10 +95,12 @@ public final class MediaPackageElementParser {
   public static MediaPackageElement getFromXml(String xml) throws MediaPackageException {
     Unmarshaller m = null;
     try {
-      m = MediaPackageImpl.context.createUnmarshaller();
+      m = MediaPackageImpl.jaxb.borrowUnmarshaller();
       return (MediaPackageElement) m.unmarshal(new InputSource(toInputStream(xml)));
     } catch (JAXBException e) {
       throw new MediaPackageException(e.getLinkedException() != null ? e.getLinkedException() : e);
+    } finally {
+      MediaPackageImpl.jaxb.release(m);
     }
   }
 
@@ -31,6 +31,8 @@ import org.opencastproject.mediapackage.identifier.IdBuilder;
 import org.opencastproject.mediapackage.identifier.UUIDIdBuilderImpl;
 import org.opencastproject.util.DateTimeSupport;
 import org.opencastproject.util.IoSupport;
+import org.opencastproject.util.XmlUtil;
+import org.opencastproject.util.jaxb.JaxbPool;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -65,8 +67,8 @@ import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 import javax.xml.bind.annotation.adapters.XmlAdapter;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
@@ -93,6 +95,9 @@ public final class MediaPackageImpl implements MediaPackage {
   /** Context for serializing and deserializing */
   static final JAXBContext context;
 
+  /** Marshallers and unmarshallers of {@link #context} */
+  static final JaxbPool jaxb;
+
   /** List of observers */
   private final List<MediaPackageObserver> observers = new ArrayList<MediaPackageObserver>();
 
@@ -156,6 +161,7 @@ public final class MediaPackageImpl implements MediaPackage {
   static {
     try {
       context = JAXBContext.newInstance("org.opencastproject.mediapackage", MediaPackageImpl.class.getClassLoader());
+      jaxb = new JaxbPool(context);
     } catch (JAXBException e) {
       throw new RuntimeException(e);
     }
@@ -1512,16 +1518,37 @@ public final class MediaPackageImpl implements MediaPackage {
    * @return the deserialized media package
    */
   public static MediaPackageImpl valueOf(InputStream xml) throws MediaPackageException {
+    Unmarshaller unmarshaller = null;
     try {
-      Unmarshaller unmarshaller = context.createUnmarshaller();
+      unmarshaller = jaxb.borrowUnmarshaller();
       return unmarshaller.unmarshal(new StreamSource(xml), MediaPackageImpl.class).getValue();
     } catch (JAXBException e) {
       throw new MediaPackageException(e.getLinkedException() != null ? e.getLinkedException() : e);
     } finally {
+      jaxb.release(unmarshaller);
       IoSupport.closeQuietly(xml);
     }
   }
 
+  /**
+   * Reads the media package from a StAX reader positioned at the start of the document or the media package element.
+   *
+   * @param xml
+   *          the reader, which is not closed
+   * @return the deserialized media package
+   */
+  public static MediaPackageImpl valueOf(XMLStreamReader xml) throws MediaPackageException {
+    Unmarshaller unmarshaller = null;
+    try {
+      unmarshaller = jaxb.borrowUnmarshaller();
+      return unmarshaller.unmarshal(xml, MediaPackageImpl.class).getValue();
+    } catch (JAXBException e) {
+      throw new MediaPackageException(e.getLinkedException() != null ? e.getLinkedException() : e);
+    } finally {
+      jaxb.release(unmarshaller);
+    }
+  }
+
   /**
    * Reads the media package from an xml node.
    *
@@ -1532,14 +1559,15 @@ public final class MediaPackageImpl implements MediaPackage {
   public static MediaPackageImpl valueOf(Node xml) throws MediaPackageException {
     InputStream in = null;
     ByteArrayOutputStream out = null;
+    Unmarshaller unmarshaller = null;
     try {
-      Unmarshaller unmarshaller = context.createUnmarshaller();
+      unmarshaller = jaxb.borrowUnmarshaller();
 
       // Serialize the media package
       DOMSource domSource = new DOMSource(xml);
       out = new ByteArrayOutputStream();
       StreamResult result = new StreamResult(out);
-      Transformer transformer = TransformerFactory.newInstance().newTransformer();
+      Transformer transformer = XmlUtil.newTransformer();
       transformer.transform(domSource, result);
       in = new ByteArrayInputStream(out.toByteArray());
 
@@ -1547,6 +1575,7 @@ public final class MediaPackageImpl implements MediaPackage {
     } catch (Exception e) {
       throw new MediaPackageException("Error deserializing media package node", e);
     } finally {
+      jaxb.release(unmarshaller);
       IoSupport.closeQuietly(in);
       IoSupport.closeQuietly(out);
     }
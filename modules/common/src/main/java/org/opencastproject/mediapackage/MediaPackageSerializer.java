@@ -63,4 +63,16 @@ public interface MediaPackageSerializer {
    */
   int getRanking();
 
+  /**
+   * Identifies the circumstances that the URIs returned by {@link #decodeURI(URI)} depend on besides the URI itself,
+   * like the requesting client or the current time. URIs decoded within the same scope are identical, so results
+   * containing them may be shared within that scope.
+   *
+   * @return the scope, an empty string if decoded URIs only depend on the URI itself, or <code>null</code> if they may
+   *         differ for every call
+   */
+  default String getDecodingScope() {
+    return null;
+  }
+
 }
@@ -249,6 +249,11 @@ public class RedirectingMediaPackageSerializer implements MediaPackageSerializer
 
   }
 
+  @Override
+  public String getDecodingScope() {
+    return "";
+  }
+
   @Override
   public int getRanking() {
     return RANKING;
@@ -23,11 +23,11 @@
 package org.opencastproject.mediapackage.elementbuilder;
 
 import org.opencastproject.util.MimeType;
+import org.opencastproject.util.XmlUtil;
 
 import java.util.List;
 
 import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathFactory;
 
 /**
  * This general implementation of a media package element builder supports specialized implementations by providing
@@ -39,7 +39,7 @@ public abstract class AbstractElementBuilderPlugin implements MediaPackageElemen
   protected List<MimeType> mimeTypes = null;
 
   /** The xpath facility */
-  protected XPath xpath = XPathFactory.newInstance().newXPath();
+  protected XPath xpath = XmlUtil.newXPath();
 
   /** The builder's priority */
   protected int priority = -1;
@@ -33,6 +33,7 @@ import org.opencastproject.mediapackage.UnsupportedElementException;
 import org.opencastproject.util.Checksum;
 import org.opencastproject.util.MimeType;
 import org.opencastproject.util.MimeTypes;
+import org.opencastproject.util.XmlUtil;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -47,7 +48,6 @@ import java.security.NoSuchAlgorithmException;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 /**
  * This implementation of the {@link MediaPackageElementBuilderPlugin} recognizes metadata catalogs and provides the
@@ -56,7 +56,7 @@ import javax.xml.xpath.XPathFactory;
 public class CatalogBuilderPlugin implements MediaPackageElementBuilderPlugin {
 
   /** The xpath facility */
-  protected XPath xpath = XPathFactory.newInstance().newXPath();
+  protected XPath xpath = XmlUtil.newXPath();
 
   /**
    * the logging facility provided by log4j
@@ -0,0 +1,228 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.api;
+
+import org.opencastproject.job.api.Job;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Query for a page of the active jobs, as shown in job lists.
+ *
+ * @see ServiceRegistry#getActiveJobs(JobQuery)
+ */
+public final class JobQuery {
+
+  /** The fields jobs can be sorted by */
+  public enum Sort {
+    CREATOR, OPERATION, PROCESSINGHOST, STATUS, STARTED, SUBMITTED, TYPE, ID
+  }
+
+  /** A job type and operation to exclude */
+  public static final class Operation {
+    private final String jobType;
+    private final String operation;
+
+    Operation(String jobType, String operation) {
+      this.jobType = jobType;
+      this.operation = operation;
+    }
+
+    public String getJobType() {
+      return jobType;
+    }
+
+    public String getOperation() {
+      return operation;
+    }
+  }
+
+  private String hostname = null;
+  private String status = null;
+  private String text = null;
+  private final List<Operation> excludedOperations = new ArrayList<>();
+  private Sort sort = Sort.SUBMITTED;
+  private boolean ascending = true;
+  private int offset = 0;
+  private int limit = 0;
+
+  /** Only return jobs processed by the given host, ignoring case. */
+  public JobQuery withHostname(String hostname) {
+    this.hostname = StringUtils.trimToNull(hostname);
+    return this;
+  }
+
+  /** Only return jobs with the given status, ignoring case. */
+  public JobQuery withStatus(String status) {
+    this.status = StringUtils.trimToNull(status);
+    return this;
+  }
+
+  /**
+   * Only return jobs whose processing host, type, operation, creator, status, identifier or root job identifier equals
+   * the given text, ignoring case.
+   */
+  public JobQuery withText(String text) {
+    this.text = StringUtils.trimToNull(text);
+    return this;
+  }
+
+  /** Do not return jobs of the given type and operation. */
+  public JobQuery withoutOperation(String jobType, String operation) {
+    excludedOperations.add(new Operation(jobType, operation));
+    return this;
+  }
+
+  /** Sort the jobs. Jobs are sorted by submission date by default. */
+  public JobQuery withSort(Sort sort, boolean ascending) {
+    this.sort = sort;
+    this.ascending = ascending;
+    return this;
+  }
+
+  /** Skip the given number of jobs. */
+  public JobQuery withOffset(int offset) {
+    this.offset = Math.max(0, offset);
+    return this;
+  }
+
+  /** Return at most the given number of jobs. Zero or less means no limit. */
+  public JobQuery withLimit(int limit) {
+    this.limit = Math.max(0, limit);
+    return this;
+  }
+
+  public String getHostname() {
+    return hostname;
+  }
+
+  public String getStatus() {
+    return status;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  public List<Operation> getExcludedOperations() {
+    return Collections.unmodifiableList(excludedOperations);
+  }
+
+  public Sort getSort() {
+    return sort;
+  }
+
+  public boolean isAscending() {
+    return ascending;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Run this query on a list of jobs in memory.
+   *
+   * @param jobs
+   *          the jobs
+   * @return the requested page of the matching jobs
+   */
+  public JobQueryResult apply(List<Job> jobs) {
+    final List<Job> result = new ArrayList<>();
+    for (Job job : jobs) {
+      if (matches(job))
+        result.add(job);
+    }
+    result.sort(comparator());
+    final int from = Math.min(offset, result.size());
+    final int to = limit > 0 ? Math.min(from + limit, result.size()) : result.size();
+    return new JobQueryResult(new ArrayList<>(result.subList(from, to)), result.size());
+  }
+
+  private boolean matches(Job job) {
+    for (Operation excluded : excludedOperations) {
+      if (StringUtils.equals(excluded.getJobType(), job.getJobType())
+              && StringUtils.equals(excluded.getOperation(), job.getOperation()))
+        return false;
+    }
+    if (hostname != null && !StringUtils.equalsIgnoreCase(job.getProcessingHost(), hostname))
+      return false;
+    if (status != null && !StringUtils.equalsIgnoreCase(job.getStatus().toString(), status))
+      return false;
+    return text == null
+            || StringUtils.equalsIgnoreCase(job.getProcessingHost(), text)
+            || StringUtils.equalsIgnoreCase(job.getJobType(), text)
+            || StringUtils.equalsIgnoreCase(job.getOperation(), text)
+            || StringUtils.equalsIgnoreCase(job.getCreator(), text)
+            || StringUtils.equalsIgnoreCase(job.getStatus().toString(), text)
+            || StringUtils.equals(Long.toString(job.getId()), text)
+            || (job.getRootJobId() != null && StringUtils.equals(Long.toString(job.getRootJobId()), text));
+  }
+
+  private Comparator<Job> comparator() {
+    final Comparator<Job> comparator = Comparator.comparing(this::sortValue,
+            Comparator.nullsLast(Comparator.naturalOrder()));
+    return (ascending ? comparator : comparator.reversed()).thenComparing(Job::getId);
+  }
+
+  @SuppressWarnings("unchecked")
+  private Comparable<Object> sortValue(Job job) {
+    final Comparable<?> value;
+    switch (sort) {
+      case CREATOR:
+        value = job.getCreator();
+        break;
+      case OPERATION:
+        value = job.getOperation();
+        break;
+      case PROCESSINGHOST:
+        value = job.getProcessingHost();
+        break;
+      case STARTED:
+        value = job.getDateStarted();
+        break;
+      case STATUS:
+        value = job.getStatus();
+        break;
+      case TYPE:
+        value = job.getJobType();
+        break;
+      case ID:
+        value = job.getId();
+        break;
+      case SUBMITTED:
+      default:
+        value = job.getDateCreated();
+    }
+    return (Comparable<Object>) value;
+  }
+
+}
@@ -0,0 +1,52 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.serviceregistry.api;
+
+import org.opencastproject.job.api.Job;
+
+import java.util.List;
+
+/**
+ * A page of jobs and the total number of jobs matching a {@link JobQuery}.
+ */
+public final class JobQueryResult {
+  private final List<Job> jobs;
+  private final long total;
+
+  public JobQueryResult(List<Job> jobs, long total) {
+    this.jobs = jobs;
+    this.total = total;
+  }
+
+  /**
+   * The jobs of the requested page. Implementations may return summary information only, without the arguments and
+   * the payload of the jobs.
+   */
+  public List<Job> getJobs() {
+    return jobs;
+  }
+
+  /** The number of all jobs matching the query, regardless of offset and limit. */
+  public long getTotal() {
+    return total;
+  }
+}
@@ -511,6 +511,22 @@ public interface ServiceRegistry {
    */
   List<Job> getActiveJobs() throws ServiceRegistryException;
 
+  /**
+   * Get a filtered and sorted page of the active jobs, e.g. for displaying them in a list. The jobs may lack their
+   * arguments and payload.
+   * <p>
+   * The default implementation loads all active jobs and applies the query in memory.
+   *
+   * @param query
+   *          the filter, sort order, offset and limit
+   * @return the requested page of active jobs and the total number of active jobs matching the filter
+   * @throws ServiceRegistryException
+   *           if there is a problem accessing the service registry
+   */
+  default JobQueryResult getActiveJobs(JobQuery query) throws ServiceRegistryException {
+    return query.apply(getActiveJobs());
+  }
+
   /**
    * Get all child jobs from a job
    *
@@ -34,6 +34,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -46,14 +47,28 @@ import java.util.NoSuchElementException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
 
-/** XML utility functions. */
+/**
+ * XML utility functions.
+ * <p>
+ * Looking up the JAXP factories involves service loading and class path scanning, which is slow. This class keeps the
+ * factories, and the document builders created by them, per thread since none of them are guaranteed to be thread
+ * safe.
+ */
 public final class XmlUtil {
   private static final DocumentBuilderFactory nsDbf;
   private static final DocumentBuilderFactory dbf;
@@ -66,14 +81,106 @@ public final class XmlUtil {
     dbf.setNamespaceAware(false);
   }
 
+  /** Namespace aware document builders */
+  private static final ThreadLocal<DocumentBuilder> nsDocumentBuilders = ThreadLocal.withInitial(() -> {
+    synchronized (nsDbf) {
+      try {
+        return nsDbf.newDocumentBuilder();
+      } catch (ParserConfigurationException e) {
+        return chuck(e);
+      }
+    }
+  });
+
+  /** Document builders without namespace support */
+  private static final ThreadLocal<DocumentBuilder> documentBuilders = ThreadLocal.withInitial(() -> {
+    synchronized (dbf) {
+      try {
+        return dbf.newDocumentBuilder();
+      } catch (ParserConfigurationException e) {
+        return chuck(e);
+      }
+    }
+  });
+
+  /** Namespace aware, non validating SAX parsers */
+  private static final ThreadLocal<SAXParser> saxParsers = ThreadLocal.withInitial(() -> {
+    SAXParserFactory factory = SAXParserFactory.newInstance();
+    factory.setValidating(false);
+    factory.setNamespaceAware(true);
+    try {
+      return factory.newSAXParser();
+    } catch (ParserConfigurationException | SAXException e) {
+      return chuck(e);
+    }
+  });
+
+  private static final ThreadLocal<XPathFactory> xPathFactories = ThreadLocal.withInitial(XPathFactory::newInstance);
+
+  private static final ThreadLocal<TransformerFactory> transformerFactories = ThreadLocal
+          .withInitial(TransformerFactory::newInstance);
+
+  private static final ThreadLocal<XMLInputFactory> xmlInputFactories = ThreadLocal.withInitial(() -> {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
+  });
+
   private XmlUtil() {
   }
 
+  /**
+   * Returns the namespace aware document builder of the current thread. The builder must neither be kept nor be passed
+   * on to other threads.
+   */
+  public static DocumentBuilder documentBuilderNs() {
+    final DocumentBuilder builder = nsDocumentBuilders.get();
+    builder.reset();
+    return builder;
+  }
+
+  /**
+   * Returns the document builder of the current thread which does not support namespaces. The builder must neither be
+   * kept nor be passed on to other threads.
+   */
+  public static DocumentBuilder documentBuilder() {
+    final DocumentBuilder builder = documentBuilders.get();
+    builder.reset();
+    return builder;
+  }
+
+  /**
+   * Returns the namespace aware, non validating SAX parser of the current thread. The parser must neither be kept nor
+   * be passed on to other threads.
+   */
+  public static SAXParser saxParserNs() {
+    final SAXParser parser = saxParsers.get();
+    parser.reset();
+    return parser;
+  }
+
+  /** Create a new {@link XPath} object. Use it for a single document or task only, as it is not thread safe. */
+  public static XPath newXPath() {
+    return xPathFactories.get().newXPath();
+  }
+
+  /** Create a new {@link Transformer} which copies its source to the result. */
+  public static Transformer newTransformer() throws TransformerConfigurationException {
+    return transformerFactories.get().newTransformer();
+  }
+
+  /**
+   * Create a coalescing StAX reader for <code>in</code>. Document type definitions are not supported.
+   */
+  public static XMLStreamReader newXMLStreamReader(InputStream in) throws XMLStreamException {
+    return xmlInputFactories.get().createXMLStreamReader(in);
+  }
+
   /** Namespace aware parsing of <code>src</code>. */
   public static Either<Exception, Document> parseNs(InputSource src) {
     try {
-      DocumentBuilder docBuilder = nsDbf.newDocumentBuilder();
-      return right(docBuilder.parse(src));
+      return right(documentBuilderNs().parse(src));
     } catch (Exception e) {
       return left(e);
     }
@@ -87,8 +194,7 @@ public final class XmlUtil {
   /** Parsing of <code>src</code> without namespaces. */
   public static Either<Exception, Document> parse(InputSource src) {
     try {
-      DocumentBuilder docBuilder = dbf.newDocumentBuilder();
-      return right(docBuilder.parse(src));
+      return right(documentBuilder().parse(src));
     } catch (Exception e) {
       return left(e);
     }
@@ -108,7 +214,7 @@ public final class XmlUtil {
     try {
       DOMSource domSource = new DOMSource(doc);
       StreamResult result = new StreamResult(out);
-      Transformer transformer = TransformerFactory.newInstance().newTransformer();
+      Transformer transformer = newTransformer();
       transformer.setOutputProperty(OutputKeys.VERSION, doc.getXmlVersion());
       transformer.transform(domSource, result);
     } catch (TransformerException e) {
@@ -166,11 +272,7 @@ public final class XmlUtil {
    * @return the document
    */
   public static Document newDocument() {
-    try {
-      return nsDbf.newDocumentBuilder().newDocument();
-    } catch (ParserConfigurationException e) {
-      return chuck(e);
-    }
+    return documentBuilderNs().newDocument();
   }
 
   /** Make a {@link org.w3c.dom.NodeList} iterable. */
@@ -0,0 +1,87 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.util.jaxb;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+/**
+ * Pool of marshallers and unmarshallers of a single {@link JAXBContext}.
+ * <p>
+ * Marshallers and unmarshallers are neither thread safe nor reentrant, so an instance is borrowed for a single
+ * (un)marshalling and then given back to the pool. The pool grows to the number of concurrent users.
+ * <p>
+ * Borrowed instances must be returned in a <code>finally</code> block and the only property a user may change is
+ * {@link Marshaller#JAXB_FORMATTED_OUTPUT}, which is reset on each borrow.
+ */
+public final class JaxbPool {
+  private final JAXBContext ctx;
+
+  private final Queue<Marshaller> marshallers = new ConcurrentLinkedQueue<>();
+
+  private final Queue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<>();
+
+  public JaxbPool(JAXBContext ctx) {
+    this.ctx = ctx;
+  }
+
+  public JAXBContext getCtx() {
+    return ctx;
+  }
+
+  /** Borrow a marshaller which does not format its output. */
+  public Marshaller borrowMarshaller() throws JAXBException {
+    return borrowMarshaller(false);
+  }
+
+  /** Borrow a marshaller. */
+  public Marshaller borrowMarshaller(boolean format) throws JAXBException {
+    Marshaller marshaller = marshallers.poll();
+    if (marshaller == null)
+      marshaller = ctx.createMarshaller();
+    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, format);
+    return marshaller;
+  }
+
+  /** Give a marshaller back to the pool. */
+  public void release(Marshaller marshaller) {
+    if (marshaller != null)
+      marshallers.offer(marshaller);
+  }
+
+  /** Borrow an unmarshaller. */
+  public Unmarshaller borrowUnmarshaller() throws JAXBException {
+    final Unmarshaller unmarshaller = unmarshallers.poll();
+    return unmarshaller != null ? unmarshaller : ctx.createUnmarshaller();
+  }
+
+  /** Give an unmarshaller back to the pool. */
+  public void release(Unmarshaller unmarshaller) {
+    if (unmarshaller != null)
+      unmarshallers.offer(unmarshaller);
+  }
+}
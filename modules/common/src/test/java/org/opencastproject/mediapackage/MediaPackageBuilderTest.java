@@ -36,6 +36,7 @@ import org.w3c.dom.Document;
 import java.io.File;
 import java.io.FileInputStream;
 import java.net.URI;
+import java.net.URL;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -84,6 +85,30 @@ public class MediaPackageBuilderTest extends AbstractMediaPackageTest {
     assertEquals(2, mediaPackage.getPublications()[0].getTracks().length);
   }
 
+  /**
+   * Test method for {@link org.opencastproject.mediapackage.MediaPackageBuilderImpl#loadFromXml(java.io.InputStream)}
+   * using a serializer to decode the element urls.
+   */
+  @Test
+  public void testLoadFromManifestWithSerializer() throws Exception {
+    MediaPackageBuilder builder = new MediaPackageBuilderImpl(
+            new DefaultMediaPackageSerializerImpl(new URL("http://localhost/mediapackage/")));
+    MediaPackage mediaPackage = builder.loadFromXml(new FileInputStream(manifestFile));
+
+    assertEquals(2, mediaPackage.getTracks().length);
+    assertEquals(new URI("http://localhost/mediapackage/tracks/vonly.mov"),
+            mediaPackage.getTrack("track-1").getURI());
+    assertEquals(new URI("http://localhost/mediapackage/metadata/dublincore.xml"),
+            mediaPackage.getCatalog("catalog-1").getURI());
+    assertEquals(new URI("http://engage.opencast.org/engage/ui/player.html?id=597d0b42-5af6-450e-ac0b-c2cb619fc2be"),
+            mediaPackage.getPublications()[0].getURI());
+    assertEquals("Ökologie", mediaPackage.getSubjects()[0]);
+
+    // The result has to match the one of the DOM based implementation
+    Document xml = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(manifestFile);
+    assertEquals(MediaPackageParser.getAsXml(builder.loadFromXml(xml)), MediaPackageParser.getAsXml(mediaPackage));
+  }
+
   @Test
   public void testLoadPublicationElement() throws Exception {
 
@@ -0,0 +1,145 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.mediapackage;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.bind.Marshaller;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+/**
+ * Benchmark for parsing and serializing large media package manifests.
+ * <p>
+ * The <code>legacy</code> benchmarks reproduce the former implementation, which looked up the XML factories and created
+ * a JAXB (un)marshaller for each call and built a DOM to decode the element urls. Run the benchmark with the
+ * <code>main</code> method after compiling the test classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MediaPackageXmlBenchmark {
+
+  /** Number of copies of the elements of the test manifest */
+  @Param({ "1", "50" })
+  private int copies;
+
+  private MediaPackage mediaPackage;
+
+  private String manifest;
+
+  private MediaPackageSerializer serializer;
+
+  @Setup
+  public void setUp() throws Exception {
+    serializer = new DefaultMediaPackageSerializerImpl(new URL("http://localhost/mediapackage/"));
+    try (InputStream in = MediaPackageXmlBenchmark.class.getResourceAsStream("/manifest.xml")) {
+      mediaPackage = new MediaPackageBuilderImpl().loadFromXml(in);
+    }
+    final MediaPackageElement[] elements = mediaPackage.getElements();
+    for (int i = 1; i < copies; i++) {
+      for (MediaPackageElement element : elements) {
+        final MediaPackageElement copy = (MediaPackageElement) element.clone();
+        copy.setIdentifier(element.getIdentifier() + "-" + i);
+        mediaPackage.add(copy);
+      }
+    }
+    manifest = MediaPackageParser.getAsXml(mediaPackage);
+  }
+
+  @Benchmark
+  public MediaPackage parse() throws Exception {
+    return new MediaPackageBuilderImpl().loadFromXml(manifest);
+  }
+
+  @Benchmark
+  public MediaPackage parseWithSerializer() throws Exception {
+    return new MediaPackageBuilderImpl(serializer).loadFromXml(manifest);
+  }
+
+  @Benchmark
+  public MediaPackage parseWithSerializerLegacy() throws Exception {
+    final Document xml = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(IOUtils.toInputStream(manifest, StandardCharsets.UTF_8));
+    final XPath xPath = XPathFactory.newInstance().newXPath();
+    final NodeList nodes = (NodeList) xPath.evaluate("//*[local-name() = 'url']", xml, XPathConstants.NODESET);
+    for (int i = 0; i < nodes.getLength(); i++) {
+      final Node uri = nodes.item(i).getFirstChild();
+      if (uri != null) {
+        uri.setNodeValue(serializer.decodeURI(new URI(uri.getNodeValue().trim())).toString());
+      }
+    }
+    return MediaPackageImpl.valueOf(xml);
+  }
+
+  @Benchmark
+  public String serialize() {
+    return MediaPackageParser.getAsXml(mediaPackage);
+  }
+
+  @Benchmark
+  public String serializeLegacy() throws Exception {
+    final Marshaller marshaller = MediaPackageImpl.context.createMarshaller();
+    marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, false);
+    final StringWriter writer = new StringWriter();
+    marshaller.marshal(mediaPackage, writer);
+    return writer.toString();
+  }
+
+  @Benchmark
+  public Document serializeToDocument() {
+    return MediaPackageParser.getAsXmlDocument(mediaPackage);
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(MediaPackageXmlBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
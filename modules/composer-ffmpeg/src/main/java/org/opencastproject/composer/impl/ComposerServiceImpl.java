@@ -22,6 +22,7 @@
 package org.opencastproject.composer.impl;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
 import static org.opencastproject.serviceregistry.api.Incidents.NO_DETAILS;
 import static org.opencastproject.util.data.Option.none;
@@ -38,6 +39,9 @@ import org.opencastproject.composer.layout.Layout;
 import org.opencastproject.composer.layout.Serializer;
 import org.opencastproject.inspection.api.MediaInspectionException;
 import org.opencastproject.inspection.api.MediaInspectionService;
+import org.opencastproject.inspection.api.util.Options;
+import org.opencastproject.inspection.ffmpeg.FFmpegAnalyzer;
+import org.opencastproject.inspection.ffmpeg.MediaInspector;
 import org.opencastproject.job.api.AbstractJobProducer;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.JobBarrier;
@@ -64,6 +68,8 @@ import org.opencastproject.smil.entity.media.container.api.SmilMediaContainer;
 import org.opencastproject.smil.entity.media.element.api.SmilMediaElement;
 import org.opencastproject.smil.entity.media.param.api.SmilMediaParam;
 import org.opencastproject.smil.entity.media.param.api.SmilMediaParamGroup;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.FileSupport;
 import org.opencastproject.util.JsonObj;
 import org.opencastproject.util.LoadUtil;
@@ -80,6 +86,7 @@ import com.google.gson.Gson;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.osgi.service.cm.ConfigurationException;
@@ -96,6 +103,9 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.time.Duration;
@@ -110,8 +120,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /** FFMPEG based implementation of the composer service api. */
 public class ComposerServiceImpl extends AbstractJobProducer implements ComposerService, ManagedService {
@@ -184,6 +197,25 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
   public static final String JOB_LOAD_MAX_MULTIPLE_PROFILES = "job.load.max.multiple.profiles";
   public static final String JOB_LOAD_FACTOR_PROCESS_SMIL = "job.load.factor.process.smil";
 
+  /** The default bounds of job loads measured for encoding profiles */
+  public static final float DEFAULT_JOB_LOAD_ADAPTIVE_MIN = 0.1f;
+  public static final float DEFAULT_JOB_LOAD_ADAPTIVE_MAX = 4.0f;
+
+  /** Whether job loads are adapted to the resources actually used by the encoding profiles */
+  public static final String JOB_LOAD_ADAPTIVE = "job.load.adaptive";
+  public static final String JOB_LOAD_ADAPTIVE_MIN = "job.load.adaptive.min";
+  public static final String JOB_LOAD_ADAPTIVE_MAX = "job.load.adaptive.max";
+
+  /** Whether encoded files are inspected on the node which produced them instead of by inspection jobs */
+  public static final String LOCAL_INSPECTION = "inspection.local";
+  public static final boolean DEFAULT_LOCAL_INSPECTION = true;
+
+  /**
+   * Encoding profile extension defining the segment length in seconds. If set, recordings longer than twice this length
+   * are split into segments which are encoded in parallel and joined afterwards.
+   */
+  public static final String PROP_SEGMENT_LENGTH = "segment.length";
+
   private float maxMultipleProfilesJobLoad = DEFAULT_JOB_LOAD_MAX_MULTIPLE_PROFILES;
   private float processSmilJobLoadFactor = DEFAULT_PROCESS_SMIL_JOB_LOAD_FACTOR;
   private float multiEncodeJobLoadFactor = DEFAULT_MULTI_ENCODE_JOB_LOAD_FACTOR;
@@ -193,9 +225,23 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
 
   /** List of available operations on jobs */
   enum Operation {
-    Encode, Image, ImageConversion, Mux, Trim, Composite, Concat, ImageToVideo, ParallelEncode, Demux, ProcessSmil, MultiEncode
+    Encode, Image, ImageConversion, Mux, Trim, Composite, Concat, ConcatTimeline, ImageToVideo, ParallelEncode, Demux, ProcessSmil, MultiEncode,
+    EncodeSegment
   }
 
+  /** The resources actually used by the encoding profiles */
+  private final JobLoadStatistics jobLoadStatistics = new JobLoadStatistics(DEFAULT_JOB_LOAD_ADAPTIVE_MIN,
+          DEFAULT_JOB_LOAD_ADAPTIVE_MAX);
+
+  /** Inspects encoded files locally instead of dispatching inspection jobs */
+  private MediaInspector localInspector = null;
+
+  /** Whether encoded files are inspected locally */
+  private boolean localInspection = DEFAULT_LOCAL_INSPECTION;
+
+  /** The checksums of the files put into the workspace, per running job */
+  private final ConcurrentMap<Long, Map<URI, Checksum>> outputChecksums = new ConcurrentHashMap<>();
+
   /** tracked encoder engines */
   private Set<EncoderEngine> activeEncoder = new HashSet<>();
 
@@ -246,6 +292,9 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     ffmpegBinary = StringUtils.defaultString(cc.getBundleContext().getProperty(CONFIG_FFMPEG_PATH),
             FFMPEG_BINARY_DEFAULT);
     logger.debug("ffmpeg binary: {}", ffmpegBinary);
+    final String ffprobeBinary = StringUtils.defaultString(
+            cc.getBundleContext().getProperty(FFmpegAnalyzer.FFPROBE_BINARY_CONFIG), FFmpegAnalyzer.FFPROBE_BINARY_DEFAULT);
+    localInspector = new MediaInspector(workspace, ffprobeBinary);
     logger.info("Activating composer service");
   }
 
@@ -271,7 +320,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     try {
       final EncodingProfile profile = profileScanner.getProfile(profileId);
       return serviceRegistry.createJob(JOB_TYPE, Operation.Encode.toString(),
-              Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack)), profile.getJobLoad());
+              Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack)),
+              jobLoadStatistics.getJobLoad(profile, sourceTrack));
     } catch (ServiceRegistryException e) {
       throw new EncoderException("Unable to create a job", e);
     }
@@ -357,6 +407,14 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     // Get the encoding profile
     final EncodingProfile profile = getProfile(job, profileId);
 
+    // Long recordings may be split into segments which are encoded on multiple nodes
+    final long segmentLength = tracks.size() == 1 ? getSegmentLength(profile, tracks.get("video")) : 0;
+    if (segmentLength > 0) {
+      Track inspectedTrack = segmentedEncode(job, tracks.get("video"), files.get("video"), profile, segmentLength);
+      inspectedTrack.setIdentifier(targetTrackId);
+      return some(inspectedTrack);
+    }
+
     List <String> trackMsg = new LinkedList<>();
     for (Entry<String, Track> track: tracks.entrySet()) {
       trackMsg.add(format("%s: %s", track.getKey(), track.getValue().getIdentifier()));
@@ -380,6 +438,10 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     } finally {
       activeEncoder.remove(encoder);
     }
+    final Track sourceTrack = tracks.getOrDefault("video", tracks.get("audio"));
+    if (sourceTrack != null && sourceTrack.getDuration() != null) {
+      jobLoadStatistics.record(profile, sourceTrack, sourceTrack.getDuration(), encoder.getCpuTime());
+    }
 
     // We expect zero or one file as output
     if (output.size() == 0) {
@@ -402,6 +464,159 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     return some(inspectedTrack);
   }
 
+  /**
+   * Returns the segment length to use for encoding the given track with the given profile.
+   *
+   * @param profile
+   *          the encoding profile
+   * @param track
+   *          the source track
+   * @return the segment length in seconds or zero if the track should be encoded as a whole
+   */
+  private long getSegmentLength(EncodingProfile profile, Track track) {
+    final long segmentLength = NumberUtils.toLong(profile.getExtension(PROP_SEGMENT_LENGTH), 0);
+    if (segmentLength <= 0 || track == null || !track.hasVideo() || track.getDuration() == null
+            || track.getDuration() <= 2 * segmentLength * 1000) {
+      return 0;
+    }
+    return segmentLength;
+  }
+
+  /**
+   * Encodes a track by splitting its video into segments at keyframes, encoding the segments in separate jobs which may
+   * run on different nodes and joining the encoded segments without re-encoding them. The audio is encoded as a whole
+   * while the segments are processed, so encoder delay is only added once and audio and video stay in sync.
+   *
+   * @param job
+   *          Job in which context the encoding is done
+   * @param track
+   *          Source track
+   * @param source
+   *          Source file
+   * @param profile
+   *          the encoding profile
+   * @param segmentLength
+   *          the segment length in seconds
+   * @return the inspected encoded track
+   * @throws EncoderException
+   *           if encoding fails
+   */
+  private Track segmentedEncode(Job job, Track track, File source, EncodingProfile profile, long segmentLength)
+          throws EncoderException {
+    final EncoderEngine encoder = getEncoderEngine();
+    final Map<String, String> params = Collections.map(tuple("video", track.getIdentifier()),
+            tuple("profile", profile.getIdentifier()), tuple("segment.length", Long.toString(segmentLength)));
+    final List<URI> workspaceURIs = new ArrayList<>();
+    File encodedAudio = null;
+    try {
+      // Split the source without re-encoding it
+      final List<File> segments;
+      try {
+        segments = encoder.segment(source, segmentLength);
+      } catch (EncoderException e) {
+        incident().recordFailure(job, ENCODING_FAILED, e, params, detailsFor(e, encoder));
+        throw e;
+      }
+      final List<URI> segmentURIs = putToCollection(job, segments, "segment");
+      workspaceURIs.addAll(segmentURIs);
+      logger.info("Encoding {} in {} segments of {}s using profile {}", track.getIdentifier(), segments.size(),
+              segmentLength, profile.getIdentifier());
+
+      // Encode the segments in parallel
+      final Job[] segmentJobs = new Job[segmentURIs.size()];
+      for (int i = 0; i < segmentURIs.size(); i++) {
+        try {
+          segmentJobs[i] = serviceRegistry.createJob(JOB_TYPE, Operation.EncodeSegment.toString(),
+                  Arrays.asList(profile.getIdentifier(), segmentURIs.get(i).toString()), profile.getJobLoad());
+        } catch (ServiceRegistryException e) {
+          incident().recordJobCreationIncident(job, e);
+          throw new EncoderException("Unable to create segment encoding job", e);
+        }
+      }
+
+      // Encode the audio as a whole while the segments are being encoded
+      if (track.hasAudio()) {
+        File audio = null;
+        try {
+          audio = encoder.extractAudio(source);
+          encodedAudio = encoder.encodeAudio(audio, profile);
+        } catch (EncoderException e) {
+          incident().recordFailure(job, ENCODING_FAILED, e, params, detailsFor(e, encoder));
+          throw e;
+        } finally {
+          FileUtils.deleteQuietly(audio);
+        }
+      }
+
+      final JobBarrier barrier = new JobBarrier(job, serviceRegistry, segmentJobs);
+      final boolean success = barrier.waitForJobs().isSuccess();
+      final List<URI> encodedURIs = new ArrayList<>(segmentJobs.length);
+      for (Job segmentJob : segmentJobs) {
+        if (StringUtils.isNotBlank(segmentJob.getPayload())) {
+          encodedURIs.add(URI.create(segmentJob.getPayload()));
+        }
+      }
+      workspaceURIs.addAll(encodedURIs);
+      if (!success) {
+        throw new EncoderException(format("Encoding segments of %s failed", track.getIdentifier()));
+      }
+
+      // Join the encoded segments
+      final List<File> encodedSegments = new ArrayList<>(encodedURIs.size());
+      for (URI uri : encodedURIs) {
+        encodedSegments.add(loadURIIntoWorkspace(job, "encoded segment", uri));
+      }
+      final File output = new File(source.getAbsoluteFile().getParentFile(), format("%s-%d.%s",
+              FilenameUtils.getBaseName(source.getName()), job.getId(),
+              FilenameUtils.getExtension(encodedSegments.get(0).getName())));
+      final File joined;
+      try {
+        joined = encoder.concat(encodedSegments, encodedAudio, output);
+      } catch (EncoderException e) {
+        incident().recordFailure(job, ENCODING_FAILED, e, params, detailsFor(e, encoder));
+        throw e;
+      }
+
+      // Put the file in the workspace and have it inspected
+      return inspect(job, putToCollection(job, joined, "encoded file"));
+    } finally {
+      activeEncoder.remove(encoder);
+      FileUtils.deleteQuietly(encodedAudio);
+      cleanupWorkspace(workspaceURIs.toArray(new URI[workspaceURIs.size()]));
+    }
+  }
+
+  /**
+   * Encodes a single segment of a track which is encoded in segments.
+   *
+   * @param job
+   *          Job in which context the encoding is done
+   * @param profileId
+   *          the encoding profile
+   * @param segmentURI
+   *          location of the segment in the workspace
+   * @return location of the encoded segment in the workspace
+   * @throws EncoderException
+   *           if encoding fails
+   */
+  private URI encodeSegment(Job job, String profileId, URI segmentURI) throws EncoderException {
+    final EncodingProfile profile = getProfile(job, profileId);
+    final File segment = loadURIIntoWorkspace(job, "segment", segmentURI);
+    final EncoderEngine encoder = getEncoderEngine();
+    final File output;
+    try {
+      output = encoder.encode(segment, profile, null);
+    } catch (EncoderException e) {
+      incident().recordFailure(job, ENCODING_FAILED, e,
+              Collections.map(tuple("segment", segmentURI.toString()), tuple("profile", profileId)),
+              detailsFor(e, encoder));
+      throw e;
+    } finally {
+      activeEncoder.remove(encoder);
+    }
+    return putToCollection(job, output, "encoded segment");
+  }
+
   /**
    * Encodes audio and video track to a file. If both an audio and a video track are given, they are muxed together into
    * one movie container.
@@ -437,6 +652,9 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     source.put("video", mediaFile);
     List<File> outputFiles = encoderEngine.process(source, profile, null);
     activeEncoder.remove(encoderEngine);
+    if (mediaTrack.getDuration() != null) {
+      jobLoadStatistics.record(profile, mediaTrack, mediaTrack.getDuration(), encoderEngine.getCpuTime());
+    }
     for (File encodingOutput: outputFiles) {
       // Put the file in the workspace
       URI returnURL;
@@ -482,9 +700,10 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
   public Job parallelEncode(Track sourceTrack, String profileId) throws EncoderException, MediaPackageException {
     try {
       final EncodingProfile profile = profileScanner.getProfile(profileId);
-      logger.info("Starting parallel encode with profile {} with job load {}", profileId, df.format(profile.getJobLoad()));
+      final float jobLoad = jobLoadStatistics.getJobLoad(profile, sourceTrack);
+      logger.info("Starting parallel encode with profile {} with job load {}", profileId, df.format(jobLoad));
       return serviceRegistry.createJob(JOB_TYPE, Operation.ParallelEncode.toString(),
-              Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack)), profile.getJobLoad());
+              Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack)), jobLoad);
     } catch (ServiceRegistryException e) {
       throw new EncoderException("Unable to create a job", e);
     }
@@ -503,7 +722,7 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       final EncodingProfile profile = profileScanner.getProfile(profileId);
       return serviceRegistry.createJob(JOB_TYPE, Operation.Trim.toString(),
               Arrays.asList(profileId, MediaPackageElementParser.getAsXml(sourceTrack), Long.toString(start),
-                      Long.toString(duration)), profile.getJobLoad());
+                      Long.toString(duration)), jobLoadStatistics.getJobLoad(profile, sourceTrack));
     } catch (ServiceRegistryException e) {
       throw new EncoderException("Unable to create a job", e);
     }
@@ -555,6 +774,7 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     } finally {
       activeEncoder.remove(encoderEngine);
     }
+    jobLoadStatistics.record(profile, sourceTrack, duration, encoderEngine.getCpuTime());
 
     // trim did not return a file
     if (!output.exists() || output.length() == 0)
@@ -796,11 +1016,59 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     }
   }
 
+  @Override
+  public Job concat(String profileId, Dimension outputDimension, float outputFrameRate, double[] gaps,
+          double duration, Track... tracks) throws EncoderException, MediaPackageException {
+    if (gaps.length != tracks.length + 1) {
+      throw new IllegalArgumentException("Expected " + (tracks.length + 1) + " gaps for " + tracks.length
+              + " tracks but got " + gaps.length);
+    }
+    List<String> gapList = new ArrayList<>(gaps.length);
+    for (double gap : gaps) {
+      gapList.add(String.format(Locale.US, "%f", gap));
+    }
+    ArrayList<String> arguments = new ArrayList<String>();
+    arguments.add(profileId);
+    if (outputDimension != null) {
+      arguments.add(Serializer.json(outputDimension).toJson());
+    } else {
+      arguments.add("");
+    }
+    arguments.add(String.format(Locale.US, "%f", outputFrameRate));
+    arguments.add(StringUtils.join(gapList, ","));
+    arguments.add(String.format(Locale.US, "%f", duration));
+    for (Track track : tracks) {
+      arguments.add(MediaPackageElementParser.getAsXml(track));
+    }
+    try {
+      final EncodingProfile profile = profileScanner.getProfile(profileId);
+      return serviceRegistry.createJob(JOB_TYPE, Operation.ConcatTimeline.toString(), arguments,
+              profile.getJobLoad());
+    } catch (ServiceRegistryException e) {
+      throw new EncoderException("Unable to create concat job", e);
+    }
+  }
+
   private Option<Track> concat(Job job, List<Track> tracks, String profileId, Dimension outputDimension,
           float outputFrameRate, boolean sameCodec)
           throws EncoderException, MediaPackageException {
+    return concat(job, tracks, profileId, outputDimension, outputFrameRate, sameCodec, null, -1);
+  }
 
-    if (tracks.size() < 2) {
+  /**
+   * Concatenates the tracks, optionally filling gaps between them and trimming the result.
+   *
+   * @param gaps
+   *          the time in seconds to fill before each track followed by the time to fill after the last track, or
+   *          <code>null</code> to concatenate the tracks as they are
+   * @param duration
+   *          the duration in seconds to trim the result to, or a negative value to not trim it
+   */
+  private Option<Track> concat(Job job, List<Track> tracks, String profileId, Dimension outputDimension,
+          float outputFrameRate, boolean sameCodec, double[] gaps, double duration)
+          throws EncoderException, MediaPackageException {
+
+    if (tracks.size() < (gaps == null ? 2 : 1)) {
       Map<String, String> params = new HashMap<>();
       params.put("tracks-size", Integer.toString(tracks.size()));
       params.put("tracks", StringUtils.join(tracks, ","));
@@ -867,7 +1135,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       }
       concatCommand = "-f concat -safe 0 -i " + fileList.getAbsolutePath();
     } else {
-      concatCommand = buildConcatCommand(onlyAudio, outputDimension, outputFrameRate, trackFiles, tracks);
+      concatCommand = buildConcatCommand(onlyAudio, outputDimension, outputFrameRate, trackFiles, tracks, gaps,
+              duration);
     }
 
     Map<String, String> properties = new HashMap<>();
@@ -1389,6 +1658,9 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
           serialized = encode(job, Collections.map(tuple("video", firstTrack)), encodingProfile).map(
                   MediaPackageElementParser.getAsXml()).getOrElse("");
           break;
+        case EncodeSegment:
+          serialized = encodeSegment(job, encodingProfile, new URI(arguments.get(1))).toString();
+          break;
         case ParallelEncode:
           firstTrack = (Track) MediaPackageElementParser.getFromXml(arguments.get(1));
           serialized = MediaPackageElementParser.getArrayAsXml(parallelEncode(job, firstTrack, encodingProfile));
@@ -1471,6 +1743,24 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
           serialized = concat(job, tracks, encodingProfile, outputDimension, outputFrameRate, sameCodec).map(
                   MediaPackageElementParser.getAsXml()).getOrElse("");
           break;
+        case ConcatTimeline:
+          Dimension timelineDimension = null;
+          if (StringUtils.isNotBlank(arguments.get(1)))
+            timelineDimension = Serializer.dimension(JsonObj.jsonObj(arguments.get(1)));
+          float timelineFrameRate = NumberUtils.toFloat(arguments.get(2), -1.0f);
+          String[] gapStrings = StringUtils.split(arguments.get(3), ',');
+          double[] timelineGaps = new double[gapStrings.length];
+          for (int i = 0; i < gapStrings.length; i++) {
+            timelineGaps[i] = Double.parseDouble(gapStrings[i]);
+          }
+          double timelineDuration = Double.parseDouble(arguments.get(4));
+          List<Track> timelineTracks = new ArrayList<>();
+          for (int i = 5; i < arguments.size(); i++) {
+            timelineTracks.add((Track) MediaPackageElementParser.getFromXml(arguments.get(i)));
+          }
+          serialized = concat(job, timelineTracks, encodingProfile, timelineDimension, timelineFrameRate, false,
+                  timelineGaps, timelineDuration).map(MediaPackageElementParser.getAsXml()).getOrElse("");
+          break;
         case ImageToVideo:
           Attachment image = (Attachment) MediaPackageElementParser.getFromXml(arguments.get(1));
           double time = Double.parseDouble(arguments.get(2));
@@ -1507,6 +1797,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       throw new ServiceRegistryException(format("Invalid arguments for operation '%s'", operation), e);
     } catch (Exception e) {
       throw new ServiceRegistryException(format("Error handling operation '%s'", operation), e);
+    } finally {
+      outputChecksums.remove(job.getId());
     }
   }
 
@@ -1532,6 +1824,21 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
   }
 
   protected List<Track> inspect(Job job, List<URI> uris) throws EncoderException {
+    // Inspect the outputs right here, where the workspace still holds them, instead of dispatching inspection jobs
+    if (localInspection && localInspector != null) {
+      final Map<URI, Checksum> checksums = outputChecksums.getOrDefault(job.getId(), emptyMap());
+      List<Track> results = new ArrayList<>(uris.size());
+      for (URI uri : uris) {
+        try {
+          results.add(localInspector.inspectTrack(uri, checksums.get(uri), Options.NO_OPTION));
+        } catch (MediaInspectionException e) {
+          logger.error("Media inspection of {} failed in job {}", uri, job, e);
+          throw new EncoderException(String.format("Media inspection of %s failed", uri), e);
+        }
+      }
+      return results;
+    }
+
     // Start inspection jobs
     Job[] inspectionJobs = new Job[uris.size()];
     for (int i = 0; i < uris.size(); i++) {
@@ -1601,6 +1908,7 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
 
   private EncoderEngine getEncoderEngine() {
     EncoderEngine engine = new EncoderEngine(ffmpegBinary);
+    engine.setBenchmark(jobLoadStatistics.isEnabled());
     activeEncoder.add(engine);
     return engine;
   }
@@ -1712,7 +2020,8 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     return cmd.toString();
   }
 
-  private String buildConcatCommand(boolean onlyAudio, Dimension dimension, float outputFrameRate, List<File> files, List<Track> tracks) {
+  static String buildConcatCommand(boolean onlyAudio, Dimension dimension, float outputFrameRate, List<File> files,
+          List<Track> tracks, double[] gaps, double duration) {
     StringBuilder sb = new StringBuilder();
 
     // Add input file paths
@@ -1733,7 +2042,7 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       for (int i = 0; i < files.size(); i++) {
         if ((i % 25) == 0)
           characterCount++;
-        sb.append("[").append(i).append(":v]").append(fpsFilter)
+        sb.append("[").append(i).append(":v]").append(fpsFilter).append(videoPadFilter(gaps, i))
                 .append("scale=iw*min(").append(dimension.getWidth()).append("/iw\\,").append(dimension.getHeight())
                 .append("/ih):ih*min(").append(dimension.getWidth()).append("/iw\\,").append(dimension.getHeight())
                 .append("/ih),pad=").append(dimension.getWidth()).append(":").append(dimension.getHeight())
@@ -1752,11 +2061,24 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       if (hasAudio) {
         for (int i = 0; i < files.size(); i++) {
           if (!tracks.get(i).hasAudio())
-            sb.append("aevalsrc=0:d=1[silent").append(i + 1).append("];");
+            sb.append("aevalsrc=0:d=").append(silentDuration(tracks.get(i), gaps, i)).append("[silent").append(i + 1)
+                    .append("];");
         }
       }
     }
 
+    // Fill gaps in the audio with silence
+    List<String> audioPads = new ArrayList<>(files.size());
+    for (int i = 0; i < files.size(); i++) {
+      String padFilter = audioPadFilter(gaps, i);
+      if (tracks.get(i).hasAudio() && !padFilter.isEmpty()) {
+        sb.append("[").append(i).append(":a]").append(padFilter).append("[padded").append(i + 1).append("];");
+        audioPads.add("[padded" + (i + 1) + "]");
+      } else {
+        audioPads.add("[" + i + ":a]");
+      }
+    }
+
     // Add concat segments
     int characterCount = 0;
     for (int i = 0; i < files.size(); i++) {
@@ -1773,7 +2095,7 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
       }
 
       if (tracks.get(i).hasAudio()) {
-        sb.append("[").append(i).append(":a]");
+        sb.append(audioPads.get(i));
       } else if (hasAudio) {
         sb.append("[silent").append(i + 1).append("]");
       }
@@ -1797,17 +2119,82 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     } else {
       sb.append("1[a] -map [a]");
     }
+
+    // Trim the result
+    if (gaps != null && duration > 0) {
+      sb.append(format(Locale.US, " -t %f", duration));
+    }
     return sb.toString();
   }
 
+  /**
+   * Returns the duration of the silence replacing the audio of the track at the given index. Without gaps, this is
+   * one second as the concat filter extends it anyway. With gaps, the silence has to cover the padded track.
+   */
+  private static String silentDuration(Track track, double[] gaps, int index) {
+    if (gaps == null || track.getDuration() == null) {
+      return "1";
+    }
+    double seconds = track.getDuration() / 1000d + gaps[index + 1];
+    if (index == 0) {
+      seconds += gaps[0];
+    }
+    return format(Locale.US, "%f", seconds);
+  }
+
+  /**
+   * Returns the video filter extending the track at the given index by its gaps, cloning its first frame for a gap
+   * before the first track and its last frame for the gap after it.
+   */
+  private static String videoPadFilter(double[] gaps, int index) {
+    if (gaps == null) {
+      return StringUtils.EMPTY;
+    }
+    List<String> options = new ArrayList<>();
+    if (index == 0 && gaps[0] > 0) {
+      options.add(format(Locale.US, "start_mode=clone:start_duration=%f", gaps[0]));
+    }
+    if (gaps[index + 1] > 0) {
+      options.add(format(Locale.US, "stop_mode=clone:stop_duration=%f", gaps[index + 1]));
+    }
+    return options.isEmpty() ? StringUtils.EMPTY : "tpad=" + StringUtils.join(options, ":") + ",";
+  }
+
+  /**
+   * Returns the audio filter extending the track at the given index with silence for its gaps, or an empty string if
+   * the track does not need to be extended.
+   */
+  private static String audioPadFilter(double[] gaps, int index) {
+    if (gaps == null) {
+      return StringUtils.EMPTY;
+    }
+    List<String> filters = new ArrayList<>();
+    if (index == 0 && gaps[0] > 0) {
+      filters.add(format(Locale.US, "adelay=delays=%d:all=1", Math.round(gaps[0] * 1000)));
+    }
+    if (gaps[index + 1] > 0) {
+      filters.add(format(Locale.US, "apad=pad_dur=%f", gaps[index + 1]));
+    }
+    return StringUtils.join(filters, ",");
+  }
+
   private List<URI> putToCollection(Job job, List<File> files, String description) throws EncoderException {
     List<URI> returnURLs = new ArrayList<>(files.size());
     for (File file: files) {
-      try (InputStream in = new FileInputStream(file)) {
+      // Hash the file while it is copied so that the inspection does not have to read it again
+      final MessageDigest digest;
+      try {
+        digest = MessageDigest.getInstance(ChecksumType.DEFAULT_TYPE.getName());
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
         String newFileName = format("%s.%s", job.getId(), FilenameUtils.getName(file.getAbsolutePath()));
         URI newFileURI = workspace.putInCollection(COLLECTION, newFileName, in);
         logger.info("Copied the {} to the workspace at {}", description, newFileURI);
         returnURLs.add(newFileURI);
+        outputChecksums.computeIfAbsent(job.getId(), id -> new ConcurrentHashMap<>()).put(newFileURI,
+                Checksum.create(ChecksumType.DEFAULT_TYPE, Checksum.convertToHex(digest.digest())));
       } catch (Exception e) {
         incident().recordFailure(job, WORKSPACE_PUT_COLLECTION_IO_EXCEPTION, e,
                 getWorkspaceCollectionParams(description, COLLECTION, file.toURI()), NO_DETAILS);
@@ -2055,6 +2442,19 @@ public class ComposerServiceImpl extends AbstractJobProducer implements Composer
     }
     transitionDuration = 1000 * (int) LoadUtil.getConfiguredLoadValue(properties, PROCESS_SMIL_CLIP_TRANSITION_DURATION,
             DEFAULT_PROCESS_SMIL_CLIP_TRANSITION_DURATION, serviceRegistry);
+
+    final boolean adaptiveJobLoad = BooleanUtils.toBoolean(Objects.toString(properties.get(JOB_LOAD_ADAPTIVE), "true"));
+    final float adaptiveJobLoadMin = LoadUtil.getConfiguredLoadValue(properties, JOB_LOAD_ADAPTIVE_MIN,
+            DEFAULT_JOB_LOAD_ADAPTIVE_MIN, serviceRegistry);
+    final float adaptiveJobLoadMax = LoadUtil.getConfiguredLoadValue(properties, JOB_LOAD_ADAPTIVE_MAX,
+            DEFAULT_JOB_LOAD_ADAPTIVE_MAX, serviceRegistry);
+    jobLoadStatistics.configure(adaptiveJobLoad, adaptiveJobLoadMin, adaptiveJobLoadMax);
+
+    localInspection = BooleanUtils.toBoolean(Objects.toString(properties.get(LOCAL_INSPECTION),
+            Boolean.toString(DEFAULT_LOCAL_INSPECTION)));
+    logger.debug("Local inspection of encoded files {}", localInspection ? "enabled" : "disabled");
+    logger.debug("Adaptive job loads {}, bounded by {} and {}", adaptiveJobLoad ? "enabled" : "disabled",
+            adaptiveJobLoadMin, adaptiveJobLoadMax);
   }
 
   /**
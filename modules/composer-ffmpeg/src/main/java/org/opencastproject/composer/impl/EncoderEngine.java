@@ -40,6 +40,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
@@ -75,6 +76,13 @@ public class EncoderEngine implements AutoCloseable {
 
   /** the logging facility provided by log4j */
   private static Logger logger = LoggerFactory.getLogger(EncoderEngine.class.getName());
+  /** Maximum number of images extracted by a single encoder process, bounding the number of concurrently open inputs */
+  private static final int MAX_IMAGES_PER_EXTRACTION = 16;
+
+  /** Audio options of ffmpeg without a stream specifier, which take a single value */
+  private static final Set<String> AUDIO_OPTIONS = new HashSet<>(Arrays.asList("-acodec", "-ab", "-aq", "-ar", "-ac",
+          "-af", "-sample_fmt", "-channel_layout", "-strict"));
+
   /** the encoder binary */
   private String binary = "ffmpeg";
   /** Set of processes to clean up */
@@ -82,6 +90,15 @@ public class EncoderEngine implements AutoCloseable {
 
   private final Pattern outputPattern = Pattern.compile("Output .* to '(.*)':");
 
+  /** Pattern of the resource usage reported by ffmpeg when run with <code>-benchmark</code> */
+  private final Pattern benchmarkPattern = Pattern.compile("bench: utime=([0-9.]+)s(?: stime=([0-9.]+)s)?");
+
+  /** Whether ffmpeg reports the resources used by the encoding processes */
+  private boolean benchmark = false;
+
+  /** The CPU time in seconds used by the encoding processes of this engine */
+  private double cpuTime = 0;
+
   /**
    * Creates a new abstract encoder engine with or without support for multiple job submission.
    */
@@ -119,6 +136,44 @@ public class EncoderEngine implements AutoCloseable {
    */
   List<File> extract(File mediaSource, EncodingProfile format, Map<String, String> properties, double... times)
           throws EncoderException {
+    // Extract one image if no times are specified
+    if (times.length == 0) {
+      return extractSeparately(mediaSource, format, properties, times);
+    }
+
+    List<String> arguments = getExtractionArguments(format, properties);
+    if (times.length == 1 || arguments == null) {
+      return extractSeparately(mediaSource, format, properties, times);
+    }
+
+    List<File> extractedImages = new LinkedList<>();
+    try {
+      for (int i = 0; i < times.length; i += MAX_IMAGES_PER_EXTRACTION) {
+        double[] batch = Arrays.copyOfRange(times, i, Math.min(times.length, i + MAX_IMAGES_PER_EXTRACTION));
+        extractedImages.addAll(extractInSingleRun(mediaSource, format, properties, arguments, batch));
+      }
+    } catch (EncoderException e) {
+      cleanup(extractedImages);
+      throw e;
+    }
+    return extractedImages;
+  }
+
+  /**
+   * Extract several images from a video file, running the encoder once per image.
+   *
+   * @param mediaSource
+   *          File to extract images from
+   * @param format
+   *          Encoding profile to use for extraction
+   * @param properties
+   * @param times
+   *          Times at which to extract the images
+   * @return  List of image files
+   * @throws EncoderException Something went wrong during image extraction
+   */
+  List<File> extractSeparately(File mediaSource, EncodingProfile format, Map<String, String> properties,
+          double... times) throws EncoderException {
 
     List<File> extractedImages = new LinkedList<>();
     try {
@@ -131,11 +186,7 @@ public class EncoderEngine implements AutoCloseable {
         if (properties != null) {
           params.putAll(properties);
         }
-
-        DecimalFormatSymbols ffmpegFormat = new DecimalFormatSymbols();
-        ffmpegFormat.setDecimalSeparator('.');
-        DecimalFormat df = new DecimalFormat("0.00000", ffmpegFormat);
-        params.put("time", df.format(time));
+        params.put("time", formatTime(time));
 
         extractedImages.add(encode(mediaSource, format, params));
       }
@@ -151,6 +202,132 @@ public class EncoderEngine implements AutoCloseable {
     return extractedImages;
   }
 
+  /**
+   * Extracts images at several times using a single encoder process. The source is opened once per requested time,
+   * seeking to that time exactly like a separate encoder run would, and each input is mapped to its own output.
+   *
+   * @param mediaSource
+   *          File to extract images from
+   * @param profile
+   *          Encoding profile to use for extraction
+   * @param properties
+   *          the encoding properties
+   * @param arguments
+   *          the parsed command line arguments of the profile
+   * @param times
+   *          Times at which to extract the images
+   * @return List of image files in the order of the requested times
+   * @throws EncoderException
+   *           Something went wrong during image extraction
+   */
+  private List<File> extractInSingleRun(File mediaSource, EncodingProfile profile, Map<String, String> properties,
+          List<String> arguments, double[] times) throws EncoderException {
+    final int inputIndex = arguments.indexOf("-i");
+    final String input = FilenameUtils.normalize(mediaSource.getAbsolutePath());
+    final String outName = FilenameUtils.getBaseName(mediaSource.getName()) + "_" + UUID.randomUUID().toString();
+
+    List<Map<String, String>> params = new ArrayList<>();
+    for (int i = 0; i < times.length; i++) {
+      Map<String, String> p = new HashMap<>();
+      if (properties != null)
+        p.putAll(properties);
+      p.put("time", formatTime(times[i]));
+      p.put("in.video.path", input);
+      p.put("in.video.name", FilenameUtils.getBaseName(input));
+      p.put("in.video.suffix", FilenameUtils.getExtension(input));
+      p.put("in.video.filename", FilenameUtils.getName(input));
+      p.put("in.video.mimetype", MimetypesFileTypeMap.getDefaultFileTypeMap().getContentType(input));
+      p.put("out.dir", mediaSource.getAbsoluteFile().getParent());
+      p.put("out.name", outName + "_" + i);
+      if (profile.getSuffix() != null)
+        p.put("out.suffix", processParameters(profile.getSuffix(), p));
+      params.add(p);
+    }
+
+    List<String> command = new ArrayList<>();
+    command.add("-nostats");
+    // One seeking input per time
+    for (int i = 0; i < times.length; i++) {
+      for (String arg : arguments.subList(0, inputIndex)) {
+        addArgument(command, processParameters(arg, params.get(i)));
+      }
+      command.add("-i");
+      command.add(input);
+    }
+    // One output per input
+    for (int i = 0; i < times.length; i++) {
+      command.add("-map");
+      command.add(i + ":v:0");
+      for (String arg : arguments.subList(inputIndex + 2, arguments.size())) {
+        addArgument(command, processParameters(arg, params.get(i)));
+      }
+    }
+
+    List<File> extractedImages = process(command);
+    if (extractedImages.size() != times.length) {
+      cleanup(extractedImages);
+      throw new EncoderException(String.format("Extraction of %d images yielded %d files", times.length,
+              extractedImages.size()));
+    }
+    logger.info("Extracted {} images from {} using profile '{}'", times.length, mediaSource, profile.getIdentifier());
+    return extractedImages;
+  }
+
+  /**
+   * Returns the command line arguments of an image extraction profile if all requested times can be extracted in a
+   * single encoder run. This requires the profile to read the video as its only input, with the seek position being an
+   * input option, and to not select streams or use complex filter graphs on its own.
+   *
+   * @param profile
+   *          the encoding profile
+   * @param properties
+   *          the encoding properties
+   * @return the command line arguments or <code>null</code> if one encoder run per image is required
+   */
+  private List<String> getExtractionArguments(EncodingProfile profile, Map<String, String> properties) {
+    List<String> arguments;
+    try {
+      String commandline = replaceCommandExtensions(profile.getExtension(CMD_SUFFIX),
+              properties != null ? properties : new HashMap<>());
+      arguments = Arrays.asList(CommandLineUtils.translateCommandline(commandline));
+    } catch (Exception e) {
+      return null;
+    }
+    final int inputIndex = arguments.indexOf("-i");
+    if (inputIndex < 0 || inputIndex != arguments.lastIndexOf("-i") || inputIndex + 1 >= arguments.size()
+            || !"#{in.video.path}".equals(arguments.get(inputIndex + 1))) {
+      return null;
+    }
+    if (!arguments.subList(0, inputIndex).contains("#{time}")) {
+      return null;
+    }
+    for (String arg : arguments.subList(inputIndex + 2, arguments.size())) {
+      if (arg.contains("#{time}") || "-map".equals(arg) || "-filter_complex".equals(arg) || "-lavfi".equals(arg)) {
+        return null;
+      }
+    }
+    return arguments;
+  }
+
+  /**
+   * Adds a processed argument to a command unless it is blank.
+   */
+  private static void addArgument(List<String> command, String argument) {
+    if (StringUtils.isNotBlank(argument)) {
+      command.add(argument);
+    }
+  }
+
+  /**
+   * Formats a time in seconds the way ffmpeg expects it.
+   */
+  private static String formatTime(double time) {
+    DecimalFormatSymbols ffmpegFormat = new DecimalFormatSymbols();
+    ffmpegFormat.setDecimalSeparator('.');
+    DecimalFormat df = new DecimalFormat("0.00000", ffmpegFormat);
+    return df.format(time);
+  }
+
   /**
    * Executes the command line encoder with the given set of files and properties and using the provided encoding
    * profile.
@@ -342,19 +519,10 @@ public class EncoderEngine implements AutoCloseable {
     List<String> command = new ArrayList<>();
     command.add(binary);
     command.add("-nostats");
+    if (benchmark)
+      command.add("-benchmark");
 
-    String commandline = profile.getExtension(CMD_SUFFIX);
-
-    // Handle command line extensions before parsing:
-    // Example:
-    //   ffmpeg.command = #{concatCmd} -c copy out.mp4
-    //   ffmpeg.command.concatCmd = -i ...
-    for (String key: argumentReplacements.keySet()) {
-      if (key.startsWith(CMD_SUFFIX + '.')) {
-        final String shortKey = key.substring(CMD_SUFFIX.length() + 1);
-        commandline = commandline.replace("#{" + shortKey + "}", argumentReplacements.get(key));
-      }
-    }
+    String commandline = replaceCommandExtensions(profile.getExtension(CMD_SUFFIX), argumentReplacements);
 
     String[] arguments;
     try {
@@ -372,6 +540,24 @@ public class EncoderEngine implements AutoCloseable {
     return command;
   }
 
+  /**
+   * Handles command line extensions before parsing:
+   * Example:
+   *   ffmpeg.command = #{concatCmd} -c copy out.mp4
+   *   ffmpeg.command.concatCmd = -i ...
+   *
+   * @return the commandline
+   */
+  private String replaceCommandExtensions(String commandline, final Map<String, String> argumentReplacements) {
+    for (String key: argumentReplacements.keySet()) {
+      if (key.startsWith(CMD_SUFFIX + '.')) {
+        final String shortKey = key.substring(CMD_SUFFIX.length() + 1);
+        commandline = commandline.replace("#{" + shortKey + "}", argumentReplacements.get(key));
+      }
+    }
+    return commandline;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -391,6 +577,191 @@ public class EncoderEngine implements AutoCloseable {
     return encode(mediaSource, format, properties);
   }
 
+  /**
+   * Splits the video stream of a media file into segments of roughly the given length without re-encoding it. Cuts are
+   * only made at keyframes, which is why segments may be slightly longer than requested. Timestamps of each segment
+   * start at zero so that the segments can be encoded independently and concatenated afterwards. Audio is left out
+   * since encoding it in pieces would add encoder delay at every segment boundary. Use {@link #extractAudio(File)} to
+   * encode it as a whole instead.
+   *
+   * @param mediaSource
+   *          the file to split
+   * @param segmentLength
+   *          the target segment length in seconds
+   * @return the segments in playback order
+   * @throws EncoderException
+   *           if splitting the file fails
+   */
+  List<File> segment(File mediaSource, long segmentLength) throws EncoderException {
+    final File directory = mediaSource.getAbsoluteFile().getParentFile();
+    final String prefix = FilenameUtils.getBaseName(mediaSource.getName()) + "_" + UUID.randomUUID() + "_segment_";
+    List<String> command = Arrays.asList("-nostats", "-i", mediaSource.getAbsolutePath(),
+            "-map", "0:v", "-an", "-c", "copy",
+            "-f", "segment", "-segment_time", Long.toString(segmentLength), "-reset_timestamps", "1",
+            new File(directory, prefix + "%05d.mkv").getAbsolutePath());
+    try {
+      process(command);
+    } catch (EncoderException e) {
+      cleanup(listSegments(directory, prefix));
+      throw e;
+    }
+    List<File> segments = listSegments(directory, prefix);
+    if (segments.isEmpty()) {
+      throw new EncoderException("Splitting " + mediaSource + " did not create any segments");
+    }
+    return segments;
+  }
+
+  /**
+   * Copies the audio streams of a media file into a separate file without re-encoding them.
+   *
+   * @param mediaSource
+   *          the file to take the audio from
+   * @return the audio file
+   * @throws EncoderException
+   *           if the file has no audio or copying it fails
+   */
+  File extractAudio(File mediaSource) throws EncoderException {
+    final File output = new File(mediaSource.getAbsoluteFile().getParentFile(),
+            FilenameUtils.getBaseName(mediaSource.getName()) + "_" + UUID.randomUUID() + "_audio.mka");
+    List<File> result = process(Arrays.asList("-nostats", "-i", mediaSource.getAbsolutePath(),
+            "-map", "0:a", "-vn", "-c", "copy", output.getAbsolutePath()));
+    if (result.size() != 1) {
+      cleanup(result);
+      throw new EncoderException("Extracting the audio of " + mediaSource + " did not create a single file");
+    }
+    return result.get(0);
+  }
+
+  /**
+   * Encodes an audio file, as created by {@link #extractAudio(File)}, with the audio options of an encoding profile
+   * only. Video options like filters or stream mappings are left out as they cannot be applied to audio only input.
+   *
+   * @param audio
+   *          the audio file to encode
+   * @param profile
+   *          the encoding profile to take the audio options from
+   * @return the encoded audio file or <code>null</code> if the profile drops the audio
+   * @throws EncoderException
+   *           if encoding fails
+   */
+  File encodeAudio(File audio, EncodingProfile profile) throws EncoderException {
+    final Map<String, String> properties = new HashMap<>();
+    String[] arguments;
+    try {
+      arguments = CommandLineUtils.translateCommandline(
+              replaceCommandExtensions(profile.getExtension(CMD_SUFFIX), properties));
+    } catch (Exception e) {
+      throw new EncoderException("Could not parse encoding profile command line", e);
+    }
+
+    final File output = new File(audio.getAbsoluteFile().getParentFile(),
+            FilenameUtils.getBaseName(audio.getName()) + "_" + UUID.randomUUID() + "_encoded.mka");
+    List<String> command = new ArrayList<>(Arrays.asList("-nostats", "-i", audio.getAbsolutePath(),
+            "-vn", "-sn", "-dn"));
+    int i = 0;
+    while (i < arguments.length) {
+      if ("-an".equals(arguments[i])) {
+        return null;
+      }
+      if (isAudioOption(arguments[i]) && i + 1 < arguments.length) {
+        String value = processParameters(arguments[i + 1], properties);
+        if (StringUtils.isNotBlank(value)) {
+          command.add(arguments[i]);
+          command.add(value);
+        }
+        i += 2;
+      } else {
+        i++;
+      }
+    }
+    command.addAll(Arrays.asList("-y", output.getAbsolutePath()));
+
+    List<File> result = process(command);
+    if (result.size() != 1) {
+      cleanup(result);
+      throw new EncoderException("Encoding the audio " + audio + " did not create a single file");
+    }
+    return result.get(0);
+  }
+
+  /**
+   * Whether an ffmpeg output option only applies to audio streams and takes a single value.
+   */
+  private static boolean isAudioOption(String option) {
+    return AUDIO_OPTIONS.contains(option) || option.startsWith("-") && (option.endsWith(":a")
+            || option.contains(":a:"));
+  }
+
+  private static List<File> listSegments(File directory, String prefix) {
+    File[] files = directory.listFiles((dir, name) -> name.startsWith(prefix));
+    if (files == null) {
+      return new ArrayList<>();
+    }
+    List<File> segments = new ArrayList<>(Arrays.asList(files));
+    segments.sort((a, b) -> a.getName().compareTo(b.getName()));
+    return segments;
+  }
+
+  /**
+   * Joins media files with identical stream layout and codec parameters into one file without re-encoding them.
+   *
+   * @param segments
+   *          the files to join in playback order
+   * @param output
+   *          the file to write to. Its extension determines the container format.
+   * @return the joined file
+   * @throws EncoderException
+   *           if joining the files fails
+   */
+  File concat(List<File> segments, File output) throws EncoderException {
+    return concat(segments, null, output);
+  }
+
+  /**
+   * Joins media files with identical stream layout and codec parameters into one file without re-encoding them and
+   * adds the audio of another file.
+   *
+   * @param segments
+   *          the files to join in playback order
+   * @param audio
+   *          the file to take the audio from or <code>null</code> to keep all streams of the segments
+   * @param output
+   *          the file to write to. Its extension determines the container format.
+   * @return the joined file
+   * @throws EncoderException
+   *           if joining the files fails
+   */
+  File concat(List<File> segments, File audio, File output) throws EncoderException {
+    File list = new File(output.getAbsoluteFile().getParentFile(), FilenameUtils.getBaseName(output.getName())
+            + "_" + UUID.randomUUID() + ".txt");
+    try {
+      StringBuilder sb = new StringBuilder();
+      for (File segment : segments) {
+        sb.append("file '").append(segment.getAbsolutePath().replace("'", "'\\''")).append("'\n");
+      }
+      FileUtils.writeStringToFile(list, sb.toString(), "UTF-8");
+      List<String> command = new ArrayList<>(Arrays.asList("-nostats", "-f", "concat", "-safe", "0",
+              "-i", list.getAbsolutePath()));
+      if (audio == null) {
+        command.addAll(Arrays.asList("-map", "0"));
+      } else {
+        command.addAll(Arrays.asList("-i", audio.getAbsolutePath(), "-map", "0:v", "-map", "1:a?"));
+      }
+      command.addAll(Arrays.asList("-c", "copy", "-y", output.getAbsolutePath()));
+      List<File> result = process(command);
+      if (result.size() != 1) {
+        cleanup(result);
+        throw new EncoderException("Joining " + segments.size() + " segments did not create a single file");
+      }
+      return result.get(0);
+    } catch (IOException e) {
+      throw new EncoderException("Unable to write segment list " + list, e);
+    } finally {
+      FileUtils.deleteQuietly(list);
+    }
+  }
+
   /**
    * Processes the command options by replacing the templates with their actual values.
    *
@@ -408,6 +779,27 @@ public class EncoderEngine implements AutoCloseable {
     return cmd.replaceAll("#\\{.*?\\}", "");
   }
 
+  /**
+   * Sets whether ffmpeg reports the resources used by the encoding processes of this engine.
+   *
+   * @param benchmark
+   *          whether to run ffmpeg with <code>-benchmark</code>
+   */
+  void setBenchmark(boolean benchmark) {
+    this.benchmark = benchmark;
+  }
+
+  /**
+   * Returns the CPU time used by the encoding processes of this engine, as reported by ffmpeg. This is only measured if
+   * benchmarking is enabled.
+   *
+   * @return the CPU time in seconds
+   * @see #setBenchmark(boolean)
+   */
+  double getCpuTime() {
+    return cpuTime;
+  }
+
   @Override
   public void close() {
     for (Process process: processes) {
@@ -434,6 +826,17 @@ public class EncoderEngine implements AutoCloseable {
           "ffmpeg version", "configuration", "lib", "size=", "frame=", "built with")) {
       logger.trace(message);
 
+    // Resource usage of the encoding process
+    } else if (StringUtils.startsWith(message, "bench:")) {
+      logger.debug(message);
+      Matcher matcher = benchmarkPattern.matcher(message);
+      if (matcher.find()) {
+        cpuTime += Double.parseDouble(matcher.group(1));
+        if (matcher.group(2) != null) {
+          cpuTime += Double.parseDouble(matcher.group(2));
+        }
+      }
+
     // Handle output files
     } else if (StringUtils.startsWith(message, "Output #")) {
       logger.debug(message);
@@ -0,0 +1,221 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.composer.impl;
+
+import org.opencastproject.composer.api.EncodingProfile;
+import org.opencastproject.mediapackage.Stream;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.VideoStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps track of the resources ffmpeg actually used for the encoding profiles and derives the job load of future jobs
+ * from them.
+ * <p>
+ * The CPU time of each run is normalized to CPU seconds per second and megapixel of the input and kept as a moving
+ * average per encoding profile and resolution class, so that an UHD encode and an audio extraction with the same
+ * profile are not treated alike. The job load of a track is the CPU time this average predicts for one second of the
+ * track, i.e. the number of cores needed to encode it in real time, bounded by the configured minimum and maximum.
+ * <p>
+ * The statistics are kept in memory by the composer service instance which ran the encodings. Job loads are looked up
+ * by the instance creating the job, so they reflect the encodings run on that node, not on the node the service
+ * registry eventually dispatches the job to. This is accurate as long as the composer nodes have comparable hardware.
+ */
+class JobLoadStatistics {
+
+  /** The logging facility */
+  private static final Logger logger = LoggerFactory.getLogger(JobLoadStatistics.class);
+
+  /** The weight of a new measurement in the moving averages */
+  static final double SMOOTHING_FACTOR = 0.2;
+
+  /** The number of measurements needed before the configured job load is replaced */
+  static final int MIN_SAMPLES = 3;
+
+  /** The resolution class of audio only tracks */
+  static final String AUDIO = "audio";
+
+  /** The normalized CPU time per encoding profile and resolution class */
+  private final ConcurrentMap<String, Measurement> measurements = new ConcurrentHashMap<>();
+
+  /** Whether measured job loads are used */
+  private volatile boolean enabled = true;
+
+  /** The lower bound of measured job loads */
+  private volatile float minLoad;
+
+  /** The upper bound of measured job loads */
+  private volatile float maxLoad;
+
+  /**
+   * Creates job load statistics.
+   *
+   * @param minLoad
+   *          the lower bound of measured job loads
+   * @param maxLoad
+   *          the upper bound of measured job loads
+   */
+  JobLoadStatistics(float minLoad, float maxLoad) {
+    configure(true, minLoad, maxLoad);
+  }
+
+  /**
+   * Updates the configuration.
+   *
+   * @param enabled
+   *          whether measured job loads are used
+   * @param minLoad
+   *          the lower bound of measured job loads
+   * @param maxLoad
+   *          the upper bound of measured job loads
+   */
+  void configure(boolean enabled, float minLoad, float maxLoad) {
+    this.enabled = enabled;
+    this.minLoad = Math.min(minLoad, maxLoad);
+    this.maxLoad = Math.max(minLoad, maxLoad);
+  }
+
+  /**
+   * Returns whether measured job loads are used, which requires measuring the resources used by ffmpeg.
+   *
+   * @return whether measured job loads are used
+   */
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records the resources used for encoding a track with an encoding profile.
+   *
+   * @param profile
+   *          the encoding profile
+   * @param track
+   *          the source track
+   * @param duration
+   *          the encoded duration of the source track in milliseconds
+   * @param cpuTime
+   *          the CPU time in seconds used by ffmpeg
+   */
+  void record(EncodingProfile profile, Track track, long duration, double cpuTime) {
+    if (duration <= 0 || cpuTime <= 0)
+      return;
+    final double units = duration / 1000.0 * getScale(track);
+    final String key = getKey(profile, track);
+    final Measurement measurement = measurements.computeIfAbsent(key, k -> new Measurement());
+    measurement.add(cpuTime / units);
+    logger.debug("Encoding {} seconds with profile {} used {} CPU seconds, average is now {} CPU seconds per unit",
+            duration / 1000.0, key, cpuTime, measurement.getCpuTime());
+  }
+
+  /**
+   * Returns the job load to use for encoding a track with an encoding profile. This is the configured job load of the
+   * profile until enough measurements are available.
+   *
+   * @param profile
+   *          the encoding profile
+   * @param track
+   *          the source track
+   * @return the job load
+   */
+  float getJobLoad(EncodingProfile profile, Track track) {
+    if (!enabled)
+      return profile.getJobLoad();
+    final Measurement measurement = measurements.get(getKey(profile, track));
+    if (measurement == null || measurement.getSamples() < MIN_SAMPLES)
+      return profile.getJobLoad();
+    final double load = measurement.getCpuTime() * getScale(track);
+    return (float) Math.max(minLoad, Math.min(maxLoad, load));
+  }
+
+  /**
+   * Returns the resolution class of a track.
+   *
+   * @param track
+   *          the track
+   * @return the resolution class
+   */
+  static String getResolutionClass(Track track) {
+    final double megapixels = getMegapixels(track);
+    if (megapixels <= 0) {
+      return AUDIO;
+    } else if (megapixels <= 0.5) {
+      return "sd";
+    } else if (megapixels <= 2.1) {
+      return "hd";
+    }
+    return "uhd";
+  }
+
+  /** Returns the number of units per second of the track, i.e. its megapixels but at least one. */
+  private static double getScale(Track track) {
+    return Math.max(getMegapixels(track), 1.0);
+  }
+
+  /** Returns the number of megapixels of the largest video stream of the track. */
+  private static double getMegapixels(Track track) {
+    double megapixels = 0;
+    if (track != null && track.getStreams() != null) {
+      for (Stream stream : track.getStreams()) {
+        if (stream instanceof VideoStream) {
+          final VideoStream video = (VideoStream) stream;
+          if (video.getFrameWidth() != null && video.getFrameHeight() != null) {
+            megapixels = Math.max(megapixels, video.getFrameWidth() * video.getFrameHeight() / 1e6);
+          }
+        }
+      }
+    }
+    return megapixels;
+  }
+
+  private static String getKey(EncodingProfile profile, Track track) {
+    return profile.getIdentifier() + "/" + getResolutionClass(track);
+  }
+
+  /** Moving average of the normalized CPU time. */
+  private static final class Measurement {
+    private long samples = 0;
+    private double cpuTime = 0;
+
+    synchronized void add(double cpu) {
+      if (samples == 0) {
+        cpuTime = cpu;
+      } else {
+        cpuTime += SMOOTHING_FACTOR * (cpu - cpuTime);
+      }
+      samples++;
+    }
+
+    synchronized long getSamples() {
+      return samples;
+    }
+
+    synchronized double getCpuTime() {
+      return cpuTime;
+    }
+  }
+
+}
@@ -662,6 +662,81 @@ public class ComposerRestService extends AbstractJobProducerEndpoint {
     }
   }
 
+  /**
+   * Concat multiple tracks to a single track of the given duration, filling the gaps between them.
+   *
+   * @param sourceTracksXml
+   *          an array of track to concat in order of the array as XML
+   * @param profileId
+   *          The encoding profile to use
+   * @param outputDimension
+   *          The output dimension as JSON
+   * @param outputFrameRate
+   *          The output frame rate
+   * @param gapsString
+   *          The comma separated time in seconds to fill before each track, followed by the time to fill after the
+   *          last track
+   * @param durationString
+   *          The duration in seconds to trim the result to
+   * @return A {@link Response} with the resulting track in the response body
+   * @throws Exception
+   */
+  @POST
+  @Path("concattimeline")
+  @Produces(MediaType.TEXT_XML)
+  @RestQuery(name = "concattimeline", description = "Starts a video concating process from multiple videos, filling the gaps between them and trimming the result within a single encoding, based on the specified encoding profile ID and the source tracks", restParameters = {
+          @RestParameter(description = "The source tracks to concat as XML", isRequired = true, name = "sourceTracks", type = Type.TEXT),
+          @RestParameter(description = "The encoding profile to use", isRequired = true, name = "profileId", type = Type.STRING),
+          @RestParameter(description = "The resolution dimension of the concat video as JSON", isRequired = false, name = "outputDimension", type = Type.STRING),
+          @RestParameter(description = "The  frame rate of the concat video (should be positive, e.g. 25.0). Negative values and zero will cause no FFmpeg fps filter to be used in the filter chain.",
+      isRequired = false, name = "outputFrameRate", type = Type.STRING),
+          @RestParameter(description = "The comma separated time in seconds to fill before each track, followed by the time to fill after the last track", isRequired = true, name = "gaps", type = Type.STRING),
+          @RestParameter(description = "The duration in seconds to trim the result to. Negative values will not trim the result.", isRequired = false, name = "duration", type = Type.STRING, defaultValue = "-1")}, reponses = {
+    @RestResponse(description = "Results in an xml document containing the video track", responseCode = HttpServletResponse.SC_OK),
+    @RestResponse(description = "If required parameters aren't set, if sourceTracks aren't from the type Track or if the number of gaps does not match the tracks",
+            responseCode = HttpServletResponse.SC_BAD_REQUEST)}, returnDescription = "")
+  public Response concatTimeline(@FormParam("sourceTracks") String sourceTracksXml,
+          @FormParam("profileId") String profileId, @FormParam("outputDimension") String outputDimension,
+          @FormParam("outputFrameRate") String outputFrameRate, @FormParam("gaps") String gapsString,
+          @FormParam("duration") String durationString) throws Exception {
+    // Ensure that the POST parameters are present
+    if (StringUtils.isBlank(sourceTracksXml) || StringUtils.isBlank(profileId) || StringUtils.isBlank(gapsString))
+      return Response.status(Response.Status.BAD_REQUEST).entity("sourceTracks, profileId and gaps must not be null")
+              .build();
+
+    // Deserialize the source track
+    List<? extends MediaPackageElement> tracks = MediaPackageElementParser.getArrayFromXml(sourceTracksXml);
+    if (tracks.isEmpty())
+      return Response.status(Response.Status.BAD_REQUEST).entity("At least one track must be set to concat").build();
+
+    for (MediaPackageElement elem : tracks) {
+      if (!Track.TYPE.equals(elem.getElementType()))
+        return Response.status(Response.Status.BAD_REQUEST).entity("sourceTracks must be of type track").build();
+    }
+
+    String[] gapStrings = StringUtils.split(gapsString, ',');
+    if (gapStrings.length != tracks.size() + 1)
+      return Response.status(Response.Status.BAD_REQUEST).entity("There must be one gap more than tracks").build();
+    double[] gaps = new double[gapStrings.length];
+    for (int i = 0; i < gapStrings.length; i++) {
+      gaps[i] = NumberUtils.toDouble(gapStrings[i].trim(), 0);
+    }
+    float fps = NumberUtils.toFloat(outputFrameRate, -1.0f);
+    double duration = NumberUtils.toDouble(durationString, -1);
+    try {
+      Dimension dimension = null;
+      if (StringUtils.isNotBlank(outputDimension)) {
+        dimension = Serializer.dimension(JsonObj.jsonObj(outputDimension));
+      }
+      Job job = composerService.concat(profileId, dimension, fps, gaps, duration,
+              tracks.toArray(new Track[tracks.size()]));
+      return Response.ok().entity(new JaxbJob(job)).build();
+    } catch (EncoderException e) {
+      logger.warn("Unable to concat videos: " + e.getMessage());
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+    }
+  }
+
   /**
    * Transforms an image attachment to a video track
    *
@@ -23,6 +23,7 @@ package org.opencastproject.composer.impl;
 
 import static org.easymock.EasyMock.capture;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -34,6 +35,8 @@ import org.opencastproject.composer.layout.HorizontalCoverageLayoutSpec;
 import org.opencastproject.composer.layout.LayoutManager;
 import org.opencastproject.composer.layout.MultiShapeLayout;
 import org.opencastproject.composer.layout.Serializer;
+import org.opencastproject.inspection.api.MediaInspectionService;
+import org.opencastproject.inspection.ffmpeg.FFmpegAnalyzer;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.JobImpl;
 import org.opencastproject.mediapackage.Attachment;
@@ -49,6 +52,8 @@ import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.User;
 import org.opencastproject.security.api.UserDirectoryService;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.JsonObj;
 import org.opencastproject.util.MimeType;
 import org.opencastproject.util.data.Option;
@@ -72,11 +77,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Tests the {@link ComposerServiceImpl}.
@@ -94,6 +103,9 @@ public class ComposerServiceTest {
   /** FFmpeg binary location */
   private static final String FFMPEG_BINARY = "ffmpeg";
 
+  /** FFprobe binary location */
+  private static final String FFPROBE_BINARY = "ffprobe";
+
   /** File pointer to the testing dir to not pollute tmp */
   private static File testDir = new File("target");
 
@@ -259,6 +271,66 @@ public class ComposerServiceTest {
     MediaPackageElementParser.getFromXml(job.getPayload());
   }
 
+  @Test
+  public void testEncodeWithLocalInspection() throws Exception {
+    // The workspace mock stores the encoded file here
+    final File stored = new File(testDir, "local-inspection-" + UUID.randomUUID() + ".mp4");
+    Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+    EasyMock.expect(workspace.get(stored.toURI())).andReturn(stored).anyTimes();
+    EasyMock.expect(workspace.get(EasyMock.anyObject(), EasyMock.anyBoolean())).andReturn(sourceVideoOnly).anyTimes();
+    EasyMock.expect(workspace.putInCollection(EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyObject()))
+            .andAnswer(() -> {
+              FileUtils.copyInputStreamToFile((InputStream) EasyMock.getCurrentArguments()[2], stored);
+              return stored.toURI();
+            }).anyTimes();
+
+    // Inspecting locally must not create any inspection jobs
+    MediaInspectionService inspectionService = EasyMock.createMock(MediaInspectionService.class);
+
+    BundleContext bc = EasyMock.createNiceMock(BundleContext.class);
+    EasyMock.expect(bc.getProperty("org.opencastproject.composer.ffmpeg.path")).andReturn(FFMPEG_BINARY).anyTimes();
+    EasyMock.expect(bc.getProperty(FFmpegAnalyzer.FFPROBE_BINARY_CONFIG)).andReturn(FFPROBE_BINARY).anyTimes();
+    ComponentContext cc = EasyMock.createNiceMock(ComponentContext.class);
+    EasyMock.expect(cc.getBundleContext()).andReturn(bc).anyTimes();
+    EasyMock.replay(workspace, inspectionService, bc, cc);
+
+    final List<String> operations = new ArrayList<>();
+    final ComposerServiceImpl localComposerService = new ComposerServiceImpl();
+    ServiceRegistry serviceRegistry = EasyMock.createMock(ServiceRegistry.class);
+    final Capture<String> type = EasyMock.newCapture();
+    final Capture<String> operation = EasyMock.newCapture();
+    final Capture<List<String>> args = EasyMock.newCapture();
+    EasyMock.expect(serviceRegistry.createJob(capture(type), capture(operation), capture(args), EasyMock.anyFloat()))
+            .andAnswer(() -> {
+              operations.add(operation.getValue());
+              Job job = new JobImpl(0);
+              job.setJobType(type.getValue());
+              job.setOperation(operation.getValue());
+              job.setArguments(args.getValue());
+              job.setPayload(localComposerService.process(job));
+              return job;
+            }).anyTimes();
+    EasyMock.replay(serviceRegistry);
+    localComposerService.setServiceRegistry(serviceRegistry);
+    localComposerService.setProfileScanner(profileScanner);
+    localComposerService.setWorkspace(workspace);
+    localComposerService.setMediaInspectionService(inspectionService);
+    localComposerService.activate(cc);
+
+    try {
+      Job job = localComposerService.encode(sourceVideoTrack, "av.work");
+      Track track = (Track) MediaPackageElementParser.getFromXml(job.getPayload());
+      assertEquals(stored.toURI(), track.getURI());
+      assertTrue(track.hasVideo());
+      // The checksum computed while the file was copied to the workspace is used
+      assertEquals(Checksum.create(ChecksumType.DEFAULT_TYPE, stored), track.getChecksum());
+      assertEquals(Collections.singletonList("Encode"), operations);
+      EasyMock.verify(inspectionService);
+    } finally {
+      FileUtils.deleteQuietly(stored);
+    }
+  }
+
   @Test
   public void testParallelEncode() throws Exception {
     assertTrue(sourceVideoOnly.isFile());
@@ -436,6 +508,68 @@ public class ComposerServiceTest {
     Assert.assertEquals(inspectedTrack, concatTrack);
   }
 
+  /**
+   * Test method for {@link ComposerServiceImpl#concat(String, Dimension, float, double[], double, Track...)}
+   */
+  @Test
+  public void testConcatWithGaps() throws Exception {
+    Dimension outputDimension = new Dimension(500, 500);
+    Job concat = composerService.concat("concat.work", outputDimension, -1.0f, new double[] { 1.0, 0.5, 2.0 }, 20.0,
+            sourceVideoTrack, sourceVideoTrack);
+    Track concatTrack = (Track) MediaPackageElementParser.getFromXml(concat.getPayload());
+    Assert.assertNotNull(concatTrack);
+    inspectedTrack.setIdentifier(concatTrack.getIdentifier());
+    inspectedTrack.setMimeType(MimeType.mimeType("video", "mp4"));
+    Assert.assertEquals(inspectedTrack, concatTrack);
+  }
+
+  /**
+   * Tests that the concat command pads the tracks by their gaps, covers audio-less tracks including their gaps with
+   * silence and trims the result to the requested duration.
+   */
+  @Test
+  public void testConcatCommandWithGaps() throws Exception {
+    Dimension outputDimension = new Dimension(500, 500);
+    double[] gaps = new double[] { 1.0, 0.5, 2.0 };
+    List<File> files = Arrays.asList(new File("first.mp4"), new File("second.mp4"));
+
+    // The first track has audio, the second one does not
+    String command = ComposerServiceImpl.buildConcatCommand(false, outputDimension, -1.0f, files,
+            Arrays.asList(mockTrack(true, 2000L), mockTrack(false, 5000L)), gaps, 20.0);
+    assertTrue(command, command.contains(
+            "[0:v]tpad=start_mode=clone:start_duration=1.000000:stop_mode=clone:stop_duration=0.500000,scale="));
+    assertTrue(command, command.contains("[1:v]tpad=stop_mode=clone:stop_duration=2.000000,scale="));
+    assertTrue(command, command.contains("[0:a]adelay=delays=1000:all=1,apad=pad_dur=0.500000[padded1];"));
+    assertTrue(command, command.contains("aevalsrc=0:d=7.000000[silent2];"));
+    assertTrue(command, command.contains("[b][padded1][c][silent2]concat=n=2:v=1:a=1[v][a]"));
+    assertTrue(command, command.endsWith(" -t 20.000000"));
+
+    // The silence replacing the audio of the first track also covers the leading gap
+    command = ComposerServiceImpl.buildConcatCommand(false, outputDimension, -1.0f, files,
+            Arrays.asList(mockTrack(false, 2000L), mockTrack(true, 5000L)), gaps, 20.0);
+    assertTrue(command, command.contains("aevalsrc=0:d=3.500000[silent1];"));
+    assertTrue(command, command.contains("[1:a]apad=pad_dur=2.000000[padded2];"));
+    assertTrue(command, command.contains("[b][silent1][c][padded2]concat=n=2:v=1:a=1[v][a]"));
+    assertTrue(command, command.endsWith(" -t 20.000000"));
+
+    // Without gaps, nothing is padded or trimmed
+    command = ComposerServiceImpl.buildConcatCommand(false, outputDimension, -1.0f, files,
+            Arrays.asList(mockTrack(true, 2000L), mockTrack(false, 5000L)), null, 20.0);
+    assertFalse(command, command.contains("tpad="));
+    assertFalse(command, command.contains("[padded"));
+    assertFalse(command, command.contains(" -t "));
+    assertTrue(command, command.contains("aevalsrc=0:d=1[silent2];"));
+  }
+
+  private static Track mockTrack(boolean hasAudio, long duration) {
+    Track track = EasyMock.createNiceMock(Track.class);
+    EasyMock.expect(track.hasVideo()).andReturn(true).anyTimes();
+    EasyMock.expect(track.hasAudio()).andReturn(hasAudio).anyTimes();
+    EasyMock.expect(track.getDuration()).andReturn(duration).anyTimes();
+    EasyMock.replay(track);
+    return track;
+  }
+
   /**
    * Test method for {@link ComposerServiceImpl#concat(String, Dimension, float, Track...)}
   */
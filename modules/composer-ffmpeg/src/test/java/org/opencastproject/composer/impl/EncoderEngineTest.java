@@ -0,0 +1,329 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.composer.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.composer.api.EncoderException;
+import org.opencastproject.composer.api.EncodingProfile;
+import org.opencastproject.composer.api.EncodingProfile.MediaType;
+import org.opencastproject.composer.api.EncodingProfileImpl;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tests the image extraction and segmented encoding support of the {@link EncoderEngine}.
+ */
+public class EncoderEngineTest {
+
+  /** FFmpeg binary location */
+  private static final String FFMPEG_BINARY = "ffmpeg";
+
+  /** FFprobe binary location */
+  private static final String FFPROBE_BINARY = "ffprobe";
+
+  /** Times at which to extract images */
+  private static final double[] TIMES = { 0.5, 2.0, 4.5, 7.0, 9.5, 12.0, 14.5, 17.0, 19.5, 22.0, 24.5, 27.0 };
+
+  /** Logging facility */
+  private static final Logger logger = LoggerFactory.getLogger(EncoderEngineTest.class);
+
+  /** True to run the tests */
+  private static boolean ffmpegInstalled = true;
+
+  /** The generated sample video */
+  private static File sourceVideo = null;
+
+  private EncoderEngine engine = null;
+
+  private final List<File> outputs = new ArrayList<>();
+
+  /** Number of encoder runs */
+  private int invocations = 0;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    try {
+      Process p = new ProcessBuilder(FFMPEG_BINARY, "-version").start();
+      if (p.waitFor() != 0)
+        throw new IllegalStateException();
+    } catch (Throwable t) {
+      logger.warn("Skipping encoder engine tests due to missing ffmpeg");
+      ffmpegInstalled = false;
+      return;
+    }
+
+    // Generate a 30 second test video with a moving test pattern and a frame counter
+    sourceVideo = File.createTempFile("encoder-engine-test", ".mp4", new File("target"));
+    Process p = new ProcessBuilder(FFMPEG_BINARY, "-y", "-f", "lavfi", "-i", "testsrc=duration=30:size=1280x720:rate=25",
+            "-c:v", "libx264", "-g", "50", "-pix_fmt", "yuv420p", sourceVideo.getAbsolutePath())
+            .redirectErrorStream(true).redirectOutput(new File("target/encoder-engine-test.log")).start();
+    assertEquals(0, p.waitFor());
+  }
+
+  @AfterClass
+  public static void tearDownClass() {
+    FileUtils.deleteQuietly(sourceVideo);
+  }
+
+  @Before
+  public void setUp() {
+    Assume.assumeTrue(ffmpegInstalled);
+    invocations = 0;
+    engine = new EncoderEngine(FFMPEG_BINARY) {
+      @Override
+      List<File> process(Map<String, File> source, EncodingProfile profile, Map<String, String> properties)
+              throws EncoderException {
+        invocations++;
+        return super.process(source, profile, properties);
+      }
+
+      @Override
+      protected List<File> process(List<String> commandopts) throws EncoderException {
+        invocations++;
+        return super.process(commandopts);
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    for (File output : outputs) {
+      FileUtils.deleteQuietly(output);
+    }
+    if (engine != null)
+      engine.close();
+  }
+
+  private static EncodingProfileImpl createProfile(String command) {
+    EncodingProfileImpl profile = new EncodingProfileImpl("preview.test", "preview image", null);
+    profile.setOutputType(MediaType.Image);
+    profile.setSuffix(".#{time}.jpg");
+    profile.addExtension(EncoderEngine.CMD_SUFFIX, command);
+    return profile;
+  }
+
+  @Test
+  public void testExtractInSingleRun() throws Exception {
+    EncodingProfileImpl profile = createProfile(
+            "-ss #{time} -i #{in.video.path} -r 1 -frames:v 1 -filter:v scale=320:-1 #{out.dir}/#{out.name}#{out.suffix}");
+
+    List<File> separate = engine.extractSeparately(sourceVideo, profile, null, TIMES);
+    outputs.addAll(separate);
+    assertEquals(TIMES.length, invocations);
+    assertEquals(TIMES.length, separate.size());
+
+    invocations = 0;
+    List<File> combined = engine.extract(sourceVideo, profile, null, TIMES);
+    outputs.addAll(combined);
+    assertEquals("Images must be extracted by a single encoder run", 1, invocations);
+    assertEquals(TIMES.length, combined.size());
+
+    // Each image belongs to its time and shows the same frame as the image extracted on its own
+    for (int i = 0; i < TIMES.length; i++) {
+      assertTrue(combined.get(i).getName().endsWith(String.format(Locale.ROOT, ".%.5f.jpg", TIMES[i])));
+      assertArrayEquals("Image at " + TIMES[i] + "s differs", Files.readAllBytes(separate.get(i).toPath()),
+              Files.readAllBytes(combined.get(i).toPath()));
+      if (i > 0) {
+        assertFalse("Images at " + TIMES[i - 1] + "s and " + TIMES[i] + "s are equal",
+                Arrays.equals(Files.readAllBytes(combined.get(i - 1).toPath()),
+                        Files.readAllBytes(combined.get(i).toPath())));
+      }
+    }
+  }
+
+  @Test
+  public void testExtractWithOutputSeeking() throws Exception {
+    // Profiles seeking after the input are not combined, but must still yield one image per time
+    EncodingProfileImpl profile = createProfile(
+            "-i #{in.video.path} -ss #{time} -r 1 -frames:v 1 -s 160x90 #{out.dir}/#{out.name}#{out.suffix}");
+    List<File> extracted = engine.extract(sourceVideo, profile, null, 1.0, 2.0, 3.0);
+    outputs.addAll(extracted);
+    assertEquals(3, extracted.size());
+    for (File image : extracted) {
+      assertTrue(image.isFile());
+    }
+  }
+
+  @Test
+  public void testSegmentedEncodingKeepsAudioInSync() throws Exception {
+    // Flash the picture and beep at the start of every second
+    File source = File.createTempFile("encoder-engine-test-av", ".mp4", new File("target"));
+    outputs.add(source);
+    Process p = new ProcessBuilder(FFMPEG_BINARY, "-y", "-f", "lavfi", "-i", "testsrc=duration=30:size=640x360:rate=25",
+            "-f", "lavfi", "-i", "aevalsrc=if(lt(mod(t\\,1)\\,0.04)\\,0.8*sin(2*PI*1000*t)\\,0):s=48000:d=30",
+            "-vf", "drawbox=c=white:t=fill:enable='lt(mod(t,1),0.04)'", "-c:v", "libx264", "-g", "50",
+            "-pix_fmt", "yuv420p", "-c:a", "aac", "-shortest", source.getAbsolutePath())
+            .redirectErrorStream(true).redirectOutput(new File("target/encoder-engine-test-av.log")).start();
+    assertEquals(0, p.waitFor());
+
+    EncodingProfileImpl profile = new EncodingProfileImpl("segment.test", "segment encoding", null);
+    profile.setOutputType(MediaType.AudioVisual);
+    profile.setSuffix("-encoded.mp4");
+    // The video filter and stream mapping cannot be applied to the audio only input
+    profile.addExtension(EncoderEngine.CMD_SUFFIX, "-i #{in.video.path} -filter_complex [0:v]scale=320:-2[v] "
+            + "-map [v] -map 0:a? -c:v libx264 -preset ultrafast -c:a aac -b:a 128k "
+            + "#{out.dir}/#{out.name}#{out.suffix}");
+
+    List<File> segments = engine.segment(source, 8);
+    outputs.addAll(segments);
+    assertTrue("Expected at least three segments", segments.size() >= 3);
+    for (File segment : segments) {
+      assertNull("Segments must not contain audio", getStreamDurations(segment).get("audio"));
+    }
+
+    List<File> encoded = new ArrayList<>();
+    for (File segment : segments) {
+      encoded.add(engine.encode(segment, profile, null));
+    }
+    outputs.addAll(encoded);
+
+    File audio = engine.extractAudio(source);
+    outputs.add(audio);
+    File encodedAudio = engine.encodeAudio(audio, profile);
+    outputs.add(encodedAudio);
+    Map<String, Double> audioDurations = getStreamDurations(encodedAudio);
+    assertNull("Encoded audio must not contain video", audioDurations.get("video"));
+    assertEquals(30.0, audioDurations.get("audio"), 0.1);
+
+    File joined = engine.concat(encoded, encodedAudio,
+            new File(source.getParentFile(), FilenameUtils.getBaseName(source.getName()) + "-joined.mp4"));
+    outputs.add(joined);
+
+    Map<String, Double> durations = getStreamDurations(joined);
+    assertEquals(30.0, durations.get("video"), 0.1);
+    assertEquals(durations.get("video"), durations.get("audio"), 0.1);
+
+    List<Double> flashes = getFlashes(joined);
+    List<Double> beeps = getBeeps(joined);
+    assertEquals(30, flashes.size());
+    assertEquals(30, beeps.size());
+
+    // Check the offset of the first flash after each segment boundary and of all others
+    double boundary = 0;
+    for (File segment : encoded) {
+      boundary += getStreamDurations(segment).get("video");
+      for (int i = 0; i < flashes.size(); i++) {
+        if (flashes.get(i) >= boundary - 0.001) {
+          assertEquals("Audio is out of sync after the segment boundary at " + boundary + "s", flashes.get(i),
+                  beeps.get(i), 0.015);
+          break;
+        }
+      }
+    }
+    for (int i = 0; i < flashes.size(); i++) {
+      assertEquals("Audio is out of sync at " + flashes.get(i) + "s", flashes.get(i), beeps.get(i), 0.015);
+    }
+  }
+
+  /**
+   * Returns the times of all video frames which are almost white.
+   */
+  private static List<Double> getFlashes(File file) throws Exception {
+    byte[] frames = decode(file, "-map", "0:v", "-vf", "scale=32:18", "-f", "rawvideo", "-pix_fmt", "gray");
+    List<Double> flashes = new ArrayList<>();
+    final int frameSize = 32 * 18;
+    for (int i = 0; i + frameSize <= frames.length; i += frameSize) {
+      long sum = 0;
+      for (int j = i; j < i + frameSize; j++) {
+        sum += frames[j] & 0xff;
+      }
+      if (sum / frameSize > 200) {
+        flashes.add(i / frameSize / 25.0);
+      }
+    }
+    return flashes;
+  }
+
+  /**
+   * Returns the times at which a beep starts after at least half a second of silence.
+   */
+  private static List<Double> getBeeps(File file) throws Exception {
+    byte[] samples = decode(file, "-map", "0:a", "-f", "s16le", "-ac", "1", "-ar", "48000");
+    List<Double> beeps = new ArrayList<>();
+    double last = -1;
+    for (int i = 0; i + 1 < samples.length; i += 2) {
+      double time = i / 2 / 48000.0;
+      if (Math.abs((short) ((samples[i] & 0xff) | samples[i + 1] << 8)) > 10000) {
+        if (last < 0 || time - last > 0.5) {
+          beeps.add(time);
+        }
+        last = time;
+      }
+    }
+    return beeps;
+  }
+
+  private static byte[] decode(File file, String... options) throws Exception {
+    List<String> command = new ArrayList<>(Arrays.asList(FFMPEG_BINARY, "-v", "error", "-i", file.getAbsolutePath()));
+    command.addAll(Arrays.asList(options));
+    command.add("-");
+    Process p = new ProcessBuilder(command).redirectError(new File("target/encoder-engine-test-decode.log")).start();
+    byte[] data = IOUtils.toByteArray(p.getInputStream());
+    assertEquals(0, p.waitFor());
+    return data;
+  }
+
+  private static Map<String, Double> getStreamDurations(File file) throws Exception {
+    Process p;
+    try {
+      p = new ProcessBuilder(FFPROBE_BINARY, "-v", "error", "-show_entries", "stream=codec_type,duration",
+              "-of", "csv=p=0", file.getAbsolutePath()).start();
+    } catch (Exception e) {
+      Assume.assumeNoException(e);
+      throw e;
+    }
+    List<String> lines = IOUtils.readLines(p.getInputStream(), "UTF-8");
+    assertEquals(0, p.waitFor());
+    Map<String, Double> durations = new HashMap<>();
+    for (String line : lines) {
+      String[] fields = line.trim().split(",");
+      if (fields.length == 2) {
+        durations.put(fields[0], Double.parseDouble(fields[1]));
+      }
+    }
+    return durations;
+  }
+
+}
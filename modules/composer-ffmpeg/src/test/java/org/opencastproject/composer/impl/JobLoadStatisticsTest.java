@@ -0,0 +1,125 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.composer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.opencastproject.composer.api.EncodingProfileImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.mediapackage.track.VideoStreamImpl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the job loads derived from measured encodings.
+ */
+public class JobLoadStatisticsTest {
+
+  private static final double DELTA = 0.001;
+
+  private JobLoadStatistics statistics;
+  private EncodingProfileImpl profile;
+
+  @Before
+  public void setUp() {
+    statistics = new JobLoadStatistics(0.1f, 4.0f);
+    profile = new EncodingProfileImpl("h264", "H.264", null);
+    profile.setJobLoad(1.5f);
+  }
+
+  private static TrackImpl track(Integer width, Integer height) {
+    TrackImpl track = new TrackImpl();
+    track.setDuration(60000L);
+    if (width != null) {
+      VideoStreamImpl video = new VideoStreamImpl("video-1");
+      video.setFrameWidth(width);
+      video.setFrameHeight(height);
+      track.addStream(video);
+    }
+    return track;
+  }
+
+  @Test
+  public void testResolutionClass() {
+    assertEquals(JobLoadStatistics.AUDIO, JobLoadStatistics.getResolutionClass(track(null, null)));
+    assertEquals("sd", JobLoadStatistics.getResolutionClass(track(640, 480)));
+    assertEquals("hd", JobLoadStatistics.getResolutionClass(track(1920, 1080)));
+    assertEquals("uhd", JobLoadStatistics.getResolutionClass(track(3840, 2160)));
+  }
+
+  @Test
+  public void testConfiguredLoadUntilEnoughSamples() {
+    TrackImpl track = track(1920, 1080);
+    for (int i = 1; i < JobLoadStatistics.MIN_SAMPLES; i++) {
+      statistics.record(profile, track, 60000L, 120.0);
+      assertEquals(1.5f, statistics.getJobLoad(profile, track), DELTA);
+    }
+    statistics.record(profile, track, 60000L, 120.0);
+    // Two CPU seconds per second of the track
+    assertEquals(2.0f, statistics.getJobLoad(profile, track), DELTA);
+  }
+
+  @Test
+  public void testLoadScalesWithResolution() {
+    for (int i = 0; i < JobLoadStatistics.MIN_SAMPLES; i++) {
+      statistics.record(profile, track(1920, 1080), 60000L, 124.416);
+    }
+    // One CPU second per second and megapixel, applied to tracks of the same class with fewer pixels
+    assertEquals(2.0736f, statistics.getJobLoad(profile, track(1920, 1080)), DELTA);
+    assertEquals(1.92f, statistics.getJobLoad(profile, track(1600, 1200)), DELTA);
+    // Tracks below one megapixel are measured per second only
+    assertEquals(1.0f, statistics.getJobLoad(profile, track(1280, 720)), DELTA);
+  }
+
+  @Test
+  public void testLoadPerResolutionClass() {
+    TrackImpl uhd = track(3840, 2160);
+    TrackImpl sd = track(640, 480);
+    for (int i = 0; i < JobLoadStatistics.MIN_SAMPLES; i++) {
+      statistics.record(profile, uhd, 60000L, 180.0);
+      statistics.record(profile, sd, 60000L, 30.0);
+    }
+    assertEquals(3.0f, statistics.getJobLoad(profile, uhd), DELTA);
+    assertEquals(0.5f, statistics.getJobLoad(profile, sd), DELTA);
+    // No measurements for audio only tracks yet
+    assertEquals(1.5f, statistics.getJobLoad(profile, track(null, null)), DELTA);
+  }
+
+  @Test
+  public void testBounds() {
+    TrackImpl track = track(1920, 1080);
+    for (int i = 0; i < JobLoadStatistics.MIN_SAMPLES; i++) {
+      statistics.record(profile, track, 60000L, 1000.0);
+    }
+    assertEquals(4.0f, statistics.getJobLoad(profile, track), DELTA);
+
+    statistics.configure(true, 0.1f, 2.0f);
+    assertEquals(2.0f, statistics.getJobLoad(profile, track), DELTA);
+
+    statistics.configure(false, 0.1f, 2.0f);
+    assertEquals(1.5f, statistics.getJobLoad(profile, track), DELTA);
+    assertFalse(statistics.isEnabled());
+  }
+
+}
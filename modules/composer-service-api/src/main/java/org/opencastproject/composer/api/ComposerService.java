@@ -142,6 +142,24 @@ public interface ComposerService {
   Job concat(String profileId, Dimension outputDimension, float outputFrameRate, boolean sameCodec, Track... tracks) throws EncoderException,
           MediaPackageException;
 
+  /**
+   * Concat multiple tracks to a single track of the given duration within a single encoding. Gaps before and after the
+   * tracks are filled with silence and, for video, a still frame: the first frame of the first track before it and the
+   * last frame of the preceding track after each track. Required ffmpeg version 4.2
+   *
+   * @param profileId The encoding profile to use
+   * @param outputDimension The output dimensions
+   * @param outputFrameRate The output frame rate, or a negative value to keep the frame rate
+   * @param gaps The time in seconds to fill before each of the tracks, followed by the time to fill after the last track
+   * @param duration The duration in seconds to trim the resulting track to, or a negative value to not trim it
+   * @param tracks an array of track to concat in order of the array
+   * @return The receipt for this concat job
+   * @throws EncoderException if encoding fails
+   * @throws MediaPackageException if the mediapackage is invalid
+   */
+  Job concat(String profileId, Dimension outputDimension, float outputFrameRate, double[] gaps, double duration,
+          Track... tracks) throws EncoderException, MediaPackageException;
+
   /**
    * Transforms an image attachment to a video track
    *
@@ -532,6 +532,44 @@ public class ComposerServiceRemoteImpl extends RemoteBase implements ComposerSer
             + " using the remote composer service proxy");
   }
 
+  @Override
+  public Job concat(String profileId, Dimension outputDimension, float outputFrameRate, double[] gaps,
+          double duration, Track... tracks) throws EncoderException, MediaPackageException {
+    HttpPost post = new HttpPost("/concattimeline");
+    try {
+      List<String> gapList = new ArrayList<String>();
+      for (double gap : gaps) {
+        gapList.add(String.format(Locale.US, "%f", gap));
+      }
+      List<BasicNameValuePair> params = new ArrayList<BasicNameValuePair>();
+      params.add(new BasicNameValuePair("profileId", profileId));
+      if (outputDimension != null)
+        params.add(new BasicNameValuePair("outputDimension", Serializer.json(outputDimension).toJson()));
+      params.add(new BasicNameValuePair("outputFrameRate", String.format(Locale.US, "%f", outputFrameRate)));
+      params.add(new BasicNameValuePair("gaps", StringUtils.join(gapList, ",")));
+      params.add(new BasicNameValuePair("duration", String.format(Locale.US, "%f", duration)));
+      params.add(new BasicNameValuePair("sourceTracks", MediaPackageElementParser.getArrayAsXml(Arrays.asList(tracks))));
+      post.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
+    } catch (Exception e) {
+      throw new EncoderException(e);
+    }
+    HttpResponse response = null;
+    try {
+      response = getResponse(post);
+      if (response != null) {
+        Job r = JobParser.parseJob(response.getEntity().getContent());
+        logger.info("Concat video job {} started on a remote composer", r.getId());
+        return r;
+      }
+    } catch (Exception e) {
+      throw new EncoderException(e);
+    } finally {
+      closeConnection(response);
+    }
+    throw new EncoderException("Unable to concat videos from tracks " + tracks
+            + " using the remote composer service proxy");
+  }
+
   @Override
   public Job imageToVideo(Attachment sourceImageAttachment, String profileId, double time) throws EncoderException,
           MediaPackageException {
@@ -110,6 +110,7 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
   private static final String FORCE_ENCODING = "force-encoding";
   private static final String REQUIRED_EXTENSIONS = "required-extensions";
   private static final String ENFORCE_DIVISIBLE_BY_TWO = "enforce-divisible-by-two";
+  private static final String SINGLE_PASS = "single-pass";
 
   /** The logging facility */
   private static final Logger logger = LoggerFactory.getLogger(PartialImportWorkflowOperationHandler.class);
@@ -207,6 +208,7 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
     final boolean forceEncoding = BooleanUtils.toBoolean(getOptConfig(operation, FORCE_ENCODING).getOr("false"));
     final boolean forceDivisible = BooleanUtils.toBoolean(getOptConfig(operation, ENFORCE_DIVISIBLE_BY_TWO).getOr("false"));
     final List<String> requiredExtensions = getRequiredExtensions(operation);
+    final boolean singlePass = BooleanUtils.toBoolean(getOptConfig(operation, SINGLE_PASS).getOr("false"));
 
     //
     // further checks on config options
@@ -273,10 +275,12 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
 
       for (final String mediaType : new String[] { NODE_TYPE_AUDIO, NODE_TYPE_VIDEO }) {
         final List<Track> tracks = new ArrayList<Track>();
+        // In single pass mode, the gaps are filled by the concat job instead of separately generated tracks
+        final List<Double> gaps = singlePass ? new ArrayList<Double>() : null;
         final VCell<String> sourceType = VCell.cell(EMPTY_VALUE);
 
-        final long position = processChildren(0, tracks, item.getChildNodes(), originalTracks, sourceType, mediaType,
-                elementsToClean, operationId);
+        final long position = processChildren(0, tracks, gaps, item.getChildNodes(), originalTracks, sourceType,
+                mediaType, elementsToClean, operationId);
 
         if (tracks.isEmpty()) {
           logger.debug("The tracks list was empty.");
@@ -284,7 +288,9 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
         }
         final Track lastTrack = tracks.get(tracks.size() - 1);
 
-        if (position < trackDurationInMs) {
+        if (gaps != null) {
+          gaps.add(Math.max(trackDurationInMs - position, 0) / 1000d);
+        } else if (position < trackDurationInMs) {
           final double extendingTime = (trackDurationInMs - position) / 1000d;
           if (extendingTime > 0) {
             if (!lastTrack.hasVideo()) {
@@ -299,7 +305,7 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
           }
         }
 
-        if (tracks.size() < 2) {
+        if (tracks.size() < 2 && (gaps == null || !hasGaps(gaps))) {
           logger.debug("There were less than 2 tracks, copying track...");
           if (sourceType.get().startsWith(PRESENTER_KEY)) {
             createCopyOfTrack(mediaPackage, tracks.get(0), targetPresenterFlavor);
@@ -320,10 +326,12 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
 
         if (sourceType.get().startsWith(PRESENTER_KEY)) {
           logger.info("Concatenating {} track", PRESENTER_KEY);
-          jobs.put(sourceType.get(), startConcatJob(concatProfile, tracks, outputFramerate, forceDivisible));
+          jobs.put(sourceType.get(), startConcatJob(concatProfile, tracks, gaps, trackDurationInSeconds,
+                  outputFramerate, forceDivisible));
         } else if (sourceType.get().startsWith(PRESENTATION_KEY)) {
           logger.info("Concatenating {} track", PRESENTATION_KEY);
-          jobs.put(sourceType.get(), startConcatJob(concatProfile, tracks, outputFramerate, forceDivisible));
+          jobs.put(sourceType.get(), startConcatJob(concatProfile, tracks, gaps, trackDurationInSeconds,
+                  outputFramerate, forceDivisible));
         } else {
           logger.warn("Can't handle unknown source type '{}'!", sourceType.get());
         }
@@ -534,6 +542,46 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
     }
   }
 
+  /**
+   * Start job to concatenate a list of tracks, filling the gaps between them and trimming the result to the given
+   * duration within a single encoding. Without gaps, the tracks are concatenated as they are.
+   *
+   * @param profile
+   *          the encoding profile to use
+   * @param tracks
+   *          non empty track list
+   * @param gaps
+   *          the time in seconds to fill before each track, followed by the time to fill after the last track, or
+   *          <code>null</code>
+   * @param duration
+   *          the duration in seconds to trim the result to
+   * @param forceDivisible
+   *          Whether to enforce the track's dimension to be divisible by two
+   */
+  protected Job startConcatJob(EncodingProfile profile, List<Track> tracks, List<Double> gaps, double duration,
+          float outputFramerate, boolean forceDivisible) throws MediaPackageException, EncoderException {
+    if (gaps == null) {
+      return startConcatJob(profile, tracks, outputFramerate, forceDivisible);
+    }
+    final Dimension dim = determineDimension(tracks, forceDivisible);
+    final double[] gapArray = new double[gaps.size()];
+    for (int i = 0; i < gapArray.length; i++) {
+      gapArray[i] = gaps.get(i);
+    }
+    return composerService.concat(profile.getIdentifier(), dim, outputFramerate, gapArray, duration,
+            Collections.toArray(Track.class, tracks));
+  }
+
+  /** Whether any of the gaps needs to be filled. */
+  private static boolean hasGaps(List<Double> gaps) {
+    for (double gap : gaps) {
+      if (gap > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Determines if the extension of a track is non-standard and therefore should be re-encoded.
    *
@@ -870,13 +918,20 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
     return trimJob.getQueueTime();
   }
 
-  private long processChildren(long position, List<Track> tracks, NodeList children, List<Track> originalTracks,
-          VCell<String> type, String mediaType, List<MediaPackageElement> elementsToClean, Long operationId)
+  /**
+   * Collects the tracks of the given media type from the SMIL nodes, in order. Gaps before a track are filled with
+   * generated tracks, or, if <code>gaps</code> is not <code>null</code>, recorded there for each track.
+   *
+   * @return the position after the last track in milliseconds
+   */
+  private long processChildren(long position, List<Track> tracks, List<Double> gaps, NodeList children,
+          List<Track> originalTracks, VCell<String> type, String mediaType, List<MediaPackageElement> elementsToClean,
+          Long operationId)
           throws EncoderException, MediaPackageException, WorkflowOperationException, NotFoundException, IOException {
     for (int j = 0; j < children.getLength(); j++) {
       Node item = children.item(j);
       if (item.hasChildNodes()) {
-        position = processChildren(position, tracks, item.getChildNodes(), originalTracks, type, mediaType,
+        position = processChildren(position, tracks, gaps, item.getChildNodes(), originalTracks, type, mediaType,
                 elementsToClean, operationId);
       } else {
         SMILMediaElement e = (SMILMediaElement) item;
@@ -884,8 +939,11 @@ public class PartialImportWorkflowOperationHandler extends AbstractWorkflowOpera
           Track track = getFromOriginal(e.getId(), originalTracks, type);
           double beginInSeconds = e.getBegin().item(0).getResolvedOffset();
           long beginInMs = Math.round(beginInSeconds * 1000d);
-          // Fill out gaps with first or last frame from video
-          if (beginInMs > position) {
+          if (gaps != null) {
+            gaps.add(Math.max(beginInMs - position, 0) / 1000d);
+            position = Math.max(beginInMs, position);
+          } else if (beginInMs > position) {
+            // Fill out gaps with first or last frame from video
             double positionInSeconds = position / 1000d;
             if (position == 0) {
               if (NODE_TYPE_AUDIO.equals(e.getNodeName())) {
@@ -20,6 +20,7 @@
  */
 package org.opencastproject.workflow.handler.composer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -30,7 +31,9 @@ import org.opencastproject.composer.api.EncodingProfileImpl;
 import org.opencastproject.composer.layout.Dimension;
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.JobBarrier;
+import org.opencastproject.job.api.JobImpl;
 import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageBuilderFactory;
 import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageElementFlavor;
 import org.opencastproject.mediapackage.MediaPackageException;
@@ -40,16 +43,30 @@ import org.opencastproject.mediapackage.track.TrackImpl;
 import org.opencastproject.mediapackage.track.VideoStreamImpl;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.smil.api.util.SmilUtil;
 import org.opencastproject.util.NotFoundException;
+import org.opencastproject.util.XmlUtil;
 import org.opencastproject.util.data.Collections;
+import org.opencastproject.workflow.api.WorkflowInstanceImpl;
 import org.opencastproject.workflow.api.WorkflowOperationException;
 import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstance.OperationState;
+import org.opencastproject.workflow.api.WorkflowOperationInstanceImpl;
+import org.opencastproject.workspace.api.Workspace;
 
+import org.apache.commons.io.FileUtils;
+import org.easymock.Capture;
+import org.easymock.CaptureType;
 import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -71,6 +88,9 @@ public class PartialImportWorkflowOperationHandlerTest {
   private static List<String> defaultExtensions = new ArrayList<String>();
   private static List<String> moreExtensions = new ArrayList<String>();
 
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
   @BeforeClass
   public static void setUpClass() {
     defaultExtensions.add("mp4");
@@ -315,6 +335,85 @@ public class PartialImportWorkflowOperationHandlerTest {
     handler.startConcatJob(encodingProfile, tracks, -1.0F, true);
   }
 
+  @Test
+  public void testSinglePassConcatFillsGapsAndTrimsToSmilDuration() throws Exception {
+    // Two partial presenter tracks starting at 1 s and 8 s within a recording of 20 s
+    MediaPackage mediaPackage = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    mediaPackage.add(createPartialTrack("track-1", 5000L));
+    mediaPackage.add(createPartialTrack("track-2", 6000L));
+
+    Document smil = SmilUtil.createSmil();
+    SmilUtil.addTrack(smil, SmilUtil.TrackType.PRESENTER, true, 1000L, 5000L, URI.create("/track-1.mp4"), "track-1");
+    SmilUtil.addTrack(smil, SmilUtil.TrackType.PRESENTER, true, 8000L, 6000L, URI.create("/track-2.mp4"), "track-2");
+    ((Element) smil.getElementsByTagName("par").item(0)).setAttribute("dur", "20000ms");
+    File smilFile = testFolder.newFile("partial.smil");
+    FileUtils.copyInputStreamToFile(XmlUtil.serializeDocument(smil), smilFile);
+    URI smilUri = URI.create("/partial.smil");
+    mediaPackage.add(smilUri, MediaPackageElement.Type.Catalog, MediaPackageElementFlavor.parseFlavor("smil/partial"));
+
+    Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+    EasyMock.expect(workspace.get(smilUri)).andReturn(smilFile).anyTimes();
+
+    EncodingProfileImpl encodingProfile = new EncodingProfileImpl();
+    encodingProfile.setIdentifier("concat.work");
+    JobImpl concatJob = new JobImpl(1L);
+    concatJob.setStatus(Job.Status.FINISHED);
+
+    Capture<double[]> gaps = EasyMock.newCapture();
+    Capture<Double> duration = EasyMock.newCapture();
+    Capture<Track> tracks = EasyMock.newCapture(CaptureType.ALL);
+    ComposerService composerService = EasyMock.createNiceMock(ComposerService.class);
+    EasyMock.expect(composerService.getProfile(EasyMock.anyString())).andReturn(encodingProfile).anyTimes();
+    EasyMock.expect(composerService.concat(EasyMock.eq("concat.work"), EasyMock.eq(Dimension.dimension(640, 360)),
+            EasyMock.eq(-1.0f), EasyMock.capture(gaps), EasyMock.captureDouble(duration), EasyMock.capture(tracks),
+            EasyMock.capture(tracks))).andReturn(concatJob).once();
+
+    ServiceRegistry serviceRegistry = EasyMock.createNiceMock(ServiceRegistry.class);
+    EasyMock.expect(serviceRegistry.getJob(1L)).andReturn(concatJob).anyTimes();
+    EasyMock.replay(workspace, composerService, serviceRegistry);
+
+    WorkflowOperationInstanceImpl operation = new WorkflowOperationInstanceImpl("partial-import",
+            OperationState.RUNNING);
+    operation.setConfiguration("source-presenter-flavor", "presenter/source");
+    operation.setConfiguration("source-smil-flavor", "smil/partial");
+    operation.setConfiguration("target-presenter-flavor", "presenter/standard");
+    operation.setConfiguration("target-presentation-flavor", "presentation/standard");
+    operation.setConfiguration("concat-encoding-profile", "concat.work");
+    operation.setConfiguration("trim-encoding-profile", "trim.work");
+    operation.setConfiguration("force-encoding-profile", "editor.work");
+    operation.setConfiguration("single-pass", "true");
+    WorkflowInstanceImpl workflowInstance = new WorkflowInstanceImpl();
+    workflowInstance.setMediaPackage(mediaPackage);
+    workflowInstance.setOperations(Collections.list((WorkflowOperationInstance) operation));
+
+    PartialImportWorkflowOperationHandler handler = new PartialImportWorkflowOperationHandler();
+    handler.setComposerService(composerService);
+    handler.setServiceRegistry(serviceRegistry);
+    handler.setWorkspace(workspace);
+    handler.start(workflowInstance, null);
+
+    // The gaps before each track and after the last one are passed along instead of being encoded separately
+    EasyMock.verify(composerService);
+    assertArrayEquals(new double[] { 1.0, 2.0, 6.0 }, gaps.getValue(), 0.0);
+    assertEquals(20.0, duration.getValue(), 0.0);
+    assertEquals(2, tracks.getValues().size());
+    assertEquals("track-1", tracks.getValues().get(0).getIdentifier());
+    assertEquals("track-2", tracks.getValues().get(1).getIdentifier());
+  }
+
+  private static Track createPartialTrack(String id, long duration) {
+    VideoStreamImpl videoStream = new VideoStreamImpl("video-" + id);
+    videoStream.setFrameWidth(640);
+    videoStream.setFrameHeight(360);
+    TrackImpl track = new TrackImpl();
+    track.setIdentifier(id);
+    track.setFlavor(MediaPackageElementFlavor.parseFlavor("presenter/source"));
+    track.setURI(URI.create("/" + id + ".mp4"));
+    track.setDuration(duration);
+    track.setVideo(Collections.list((VideoStream) videoStream));
+    return track;
+  }
+
   /**
    * Test class to verify that muxing is done as expected without circumventing the service registry.
    */
@@ -24,6 +24,9 @@ package org.opencastproject.dictionary.api;
 
 import org.opencastproject.metadata.mpeg7.Textual;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Api for dictionary service, aimed at correcting textual information in catalogs.
  */
@@ -37,4 +40,18 @@ public interface DictionaryService {
    */
   Textual cleanUpText(String text);
 
+  /**
+   * Filter multiple texts, like the text lines of an image, at once.
+   * Implementations may override this to process the texts more efficiently.
+   *
+   * @return filtered texts, in the order of the given texts
+   */
+  default List<Textual> cleanUpText(List<String> texts) {
+    List<Textual> results = new ArrayList<>(texts.size());
+    for (String text : texts) {
+      results.add(cleanUpText(text));
+    }
+    return results;
+  }
+
 }
@@ -34,17 +34,38 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This dictionary service implementation passes the input text
  * to the hunspell spell checker and returns its results.
+ * <p>
+ * To avoid starting hunspell and loading its dictionaries for every text,
+ * the text is checked by a pool of hunspell processes running in pipe mode.
+ * Their results are mapped back to the words hunspell would print with the
+ * configured command. Lines for which this is not possible are passed to a
+ * separate run of the configured command.
  */
 public class DictionaryServiceImpl implements DictionaryService {
 
@@ -58,14 +79,54 @@ public class DictionaryServiceImpl implements DictionaryService {
   public static final String HUNSPELL_COMMAND_CONFIG_KEY =
     "org.opencastproject.dictionary.hunspell.command";
 
+  public static final String HUNSPELL_WORKERS_CONFIG_KEY =
+    "org.opencastproject.dictionary.hunspell.workers";
+
+  public static final String HUNSPELL_TIMEOUT_CONFIG_KEY =
+    "org.opencastproject.dictionary.hunspell.timeout";
+
+  /** The default number of hunspell processes running in pipe mode */
+  public static final int DEFAULT_WORKERS = 2;
+
+  /** The default number of seconds to wait for a hunspell worker */
+  public static final long DEFAULT_TIMEOUT = 60;
+
+  /* Options selecting an output mode, replaced by the pipe mode for workers */
+  private static final List<String> OUTPUT_MODE_OPTIONS =
+    Arrays.asList("-a", "-G", "-l", "-L");
+
+  /* Java names of the affix file encodings only hunspell knows by another
+   * name */
+  private static final Map<String, String> AFFIX_ENCODINGS = new HashMap<String, String>();
+
+  static {
+    AFFIX_ENCODINGS.put("microsoft-cp1251", "windows-1251");
+    AFFIX_ENCODINGS.put("TIS620-2533", "TIS-620");
+  }
+
   /* The hunspell binary to execute */
   private String binary = "hunspell";
 
   /* The regular command line options for filtering */
   private String command = " -i utf-8 -d de_DE,en_GB,en_US -G";
 
+  /* Limits the number of hunspell workers in use */
+  private Semaphore workers = new Semaphore(DEFAULT_WORKERS);
+
+  /* Seconds to wait for a hunspell worker to load its dictionaries or to
+   * check a line */
+  private long timeout = DEFAULT_TIMEOUT;
+
+  /* Hunspell workers not in use */
+  private final Queue<HunspellWorker> idleWorkers =
+    new ConcurrentLinkedQueue<HunspellWorker>();
+
+  /* The definitions loaded from the affix file of the first dictionary */
+  private volatile AffixFile affixFile = null;
+
   public void setBinary(String b) {
     binary = b;
+    resetWorkers();
   }
 
   public String getBinary() {
@@ -74,12 +135,29 @@ public class DictionaryServiceImpl implements DictionaryService {
 
   public void setCommand(String c) {
     command = c;
+    resetWorkers();
   }
 
   public String getCommand() {
     return command;
   }
 
+  /**
+   * Set the maximum number of hunspell processes running in pipe mode.
+   */
+  public void setWorkers(int w) {
+    workers = new Semaphore(Math.max(1, w));
+    resetWorkers();
+  }
+
+  /**
+   * Set the number of seconds to wait for a hunspell worker to load its
+   * dictionaries or to check a line of text.
+   */
+  public void setTimeout(long t) {
+    timeout = Math.max(1, t);
+  }
+
   /**
    * OSGi callback on component activation.
    *
@@ -108,6 +186,47 @@ public class DictionaryServiceImpl implements DictionaryService {
       logger.info("Setting hunspell command line options to '{}'", command);
       this.command = command;
     }
+
+    /* Get number of hunspell workers from config file */
+    String workers = StringUtils.trimToNull((String) ctx.getProperty(HUNSPELL_WORKERS_CONFIG_KEY));
+    if (workers != null) {
+      try {
+        setWorkers(Integer.parseInt(workers));
+        logger.info("Setting number of hunspell workers to {}", workers);
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid number of hunspell workers '{}', using {}", workers, DEFAULT_WORKERS);
+      }
+    }
+
+    /* Get hunspell worker timeout from config file */
+    String timeout = StringUtils.trimToNull((String) ctx.getProperty(HUNSPELL_TIMEOUT_CONFIG_KEY));
+    if (timeout != null) {
+      try {
+        setTimeout(Long.parseLong(timeout));
+        logger.info("Setting hunspell worker timeout to {} seconds", timeout);
+      } catch (NumberFormatException e) {
+        logger.warn("Invalid hunspell worker timeout '{}', using {} seconds", timeout, DEFAULT_TIMEOUT);
+      }
+    }
+  }
+
+  /**
+   * OSGi callback on component deactivation.
+   */
+  void deactivate() {
+    resetWorkers();
+  }
+
+  /**
+   * Stop all idle hunspell workers, so that new ones are started with the
+   * current configuration.
+   */
+  private void resetWorkers() {
+    affixFile = null;
+    HunspellWorker worker;
+    while ((worker = idleWorkers.poll()) != null) {
+      worker.close();
+    }
   }
 
 
@@ -172,23 +291,329 @@ public class DictionaryServiceImpl implements DictionaryService {
    **/
   @Override
   public Textual cleanUpText(String text) {
+    return cleanUpText(Collections.singletonList(text)).get(0);
+  }
 
-    LinkedList<String> words = null;
 
+  /**
+   * Filter the texts using a single hunspell worker.
+   *
+   * @return filtered texts
+   **/
+  @Override
+  public List<Textual> cleanUpText(List<String> texts) {
+    List<Textual> results = new ArrayList<Textual>(texts.size());
+    Semaphore workers = this.workers;
+    try {
+      workers.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error("Interrupted while waiting for a hunspell worker");
+      return Collections.nCopies(texts.size(), null);
+    }
+
+    HunspellWorker worker = idleWorkers.poll();
     try {
-      words = runHunspell(text);
-    } catch (Throwable t) {
-      logger.error("Error executing hunspell");
-      logger.error(t.getMessage(), t);
+      String wordChars = getAffixFile().wordChars;
+      for (String text : texts) {
+        LinkedList<String> words = new LinkedList<String>();
+        try {
+          for (String line : text.split("\\r?\\n|\\r")) {
+            List<String> tokens = tokenize(line, wordChars);
+            if (tokens.isEmpty()) {
+              continue;
+            }
+            List<String> checked = null;
+            try {
+              if (worker != null && !worker.isAlive()) {
+                worker.close();
+                worker = null;
+              }
+              if (worker == null) {
+                Charset encoding = getAffixFile().encoding;
+                worker = new HunspellWorker(getWorkerCommand(encoding), encoding,
+                    TimeUnit.SECONDS.toMillis(timeout));
+              }
+              checked = getCorrectWords(tokens, worker.check(line));
+            } catch (IOException e) {
+              logger.warn("Hunspell worker failed, restarting it: {}", e.getMessage());
+              if (worker != null) {
+                worker.close();
+                worker = null;
+              }
+            }
+            if (checked == null) {
+              /* Let hunspell filter the line itself */
+              checked = runHunspell(line);
+            }
+            words.addAll(checked);
+          }
+        } catch (Throwable t) {
+          logger.error("Error executing hunspell");
+          logger.error(t.getMessage(), t);
+          results.add(null);
+          continue;
+        }
+
+        String result = StringUtils.join(words, " ");
+        if ("".equals(result)) {
+          results.add(null);
+        } else {
+          results.add(new TextualImpl(result));
+        }
+      }
+      return results;
+    } finally {
+      if (worker != null && worker.isAlive() && workers == this.workers) {
+        idleWorkers.offer(worker);
+      } else if (worker != null) {
+        worker.close();
+      }
+      workers.release();
+    }
+  }
+
+
+  /**
+   * Get the command line of a hunspell worker, which is the configured
+   * command in pipe mode.
+   */
+  List<String> getPipeCommand() {
+    List<String> commandList = new ArrayList<String>();
+    for (String option : (binary + ' ' + command).split("\\s+")) {
+      if (!option.isEmpty() && !OUTPUT_MODE_OPTIONS.contains(option)) {
+        commandList.add(option);
+      }
+    }
+    commandList.add("-a");
+    return commandList;
+  }
+
+
+  /**
+   * Get the command line of a hunspell worker, which is the pipe command
+   * with the encoding of the text set explicitly.
+   */
+  List<String> getWorkerCommand(Charset encoding) {
+    List<String> commandList = getPipeCommand();
+    if (!commandList.contains("-i")) {
+      commandList.add(1, "-i");
+      commandList.add(2, encoding.name());
+    }
+    return commandList;
+  }
+
+
+  /**
+   * Get the encoding set by the <code>-i</code> option of a hunspell command
+   * line.
+   *
+   * @return the encoding or <code>null</code> if the option is missing or
+   *         names an unknown encoding
+   */
+  static Charset getConfiguredEncoding(List<String> commandList) {
+    int i = commandList.indexOf("-i");
+    if (i < 0 || i + 1 >= commandList.size()) {
+      return null;
+    }
+    try {
+      return Charset.forName(commandList.get(i + 1));
+    } catch (IllegalArgumentException e) {
+      logger.warn("Unknown hunspell input encoding '{}'", commandList.get(i + 1));
       return null;
     }
+  }
 
 
-    String result = StringUtils.join(words, " ");
-    if ("".equals(result)) {
+  /**
+   * Get the definitions of the affix file of the first dictionary, loading
+   * them if necessary.
+   */
+  private AffixFile getAffixFile() {
+    AffixFile affix = affixFile;
+    if (affix == null) {
+      affix = loadAffixFile();
+      affixFile = affix;
+    }
+    return affix;
+  }
+
+
+  /**
+   * Load the word characters and the encoding from the affix file of the
+   * first dictionary. An encoding set by the <code>-i</code> option takes
+   * precedence over the one of the affix file.
+   */
+  private AffixFile loadAffixFile() {
+    String chars = "";
+    List<String> commandList = getPipeCommand();
+    Charset charset = getConfiguredEncoding(commandList);
+    commandList.add(1, "-D");
+    try {
+      Process p = new ProcessBuilder(commandList).start();
+      p.getOutputStream().close();
+      String affixPath = null;
+      try (BufferedReader bufr = new BufferedReader(new InputStreamReader(p.getErrorStream()))) {
+        boolean loaded = false;
+        String line;
+        while ((line = bufr.readLine()) != null) {
+          if (line.startsWith("LOADED DICTIONARY")) {
+            loaded = true;
+          } else if (loaded && affixPath == null && line.endsWith(".aff")) {
+            affixPath = line.trim();
+          }
+        }
+      }
+      if (!p.waitFor(timeout, TimeUnit.SECONDS)) {
+        p.destroy();
+      }
+      if (affixPath != null) {
+        byte[] affix = Files.readAllBytes(Paths.get(affixPath));
+        chars = readWordCharacters(affix);
+        if (charset == null) {
+          charset = readEncoding(affix);
+        }
+      } else {
+        logger.warn("Could not find the hunspell affix file, assuming words consist of letters only");
+      }
+    } catch (IOException e) {
+      logger.warn("Could not read the hunspell affix file: {}", e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (charset == null) {
+      charset = StandardCharsets.UTF_8;
+    }
+    logger.debug("Hunspell word characters: '{}', encoding: {}", chars, charset);
+    return new AffixFile(chars, charset);
+  }
+
+
+  /**
+   * Read the <code>SET</code> definition of a hunspell affix file. Hunspell
+   * assumes ISO-8859-1 if it is missing.
+   */
+  static Charset readEncoding(byte[] affix) {
+    for (String line : new String(affix, StandardCharsets.ISO_8859_1).split("\\r?\\n")) {
+      String[] definition = line.trim().split("\\s+");
+      if (definition.length > 1 && "SET".equals(definition[0])) {
+        try {
+          return Charset.forName(AFFIX_ENCODINGS.getOrDefault(definition[1], definition[1]));
+        } catch (IllegalArgumentException e) {
+          logger.warn("Unknown hunspell affix file encoding '{}'", definition[1]);
+        }
+        break;
+      }
+    }
+    return StandardCharsets.ISO_8859_1;
+  }
+
+
+  /**
+   * Read the <code>WORDCHARS</code> definition of a hunspell affix file.
+   */
+  static String readWordCharacters(byte[] affix) {
+    for (String line : new String(affix, readEncoding(affix)).split("\\r?\\n")) {
+      String[] definition = line.trim().split("\\s+");
+      if (definition.length > 1 && "WORDCHARS".equals(definition[0])) {
+        return definition[1];
+      }
+    }
+    return "";
+  }
+
+
+  /**
+   * Split a line of text into words the way hunspell does. Words consist of
+   * letters and the additional word characters. An apostrophe followed by a
+   * word character does not end a word.
+   */
+  static List<String> tokenize(String line, String wordChars) {
+    List<String> tokens = new LinkedList<String>();
+    int start = -1;
+    for (int i = 0; i <= line.length(); i++) {
+      if (i < line.length() && isWordChar(line.charAt(i), wordChars)) {
+        if (start < 0) {
+          start = i;
+        }
+      } else if (start >= 0) {
+        if (i + 1 < line.length() && isApostrophe(line.charAt(i))
+            && isWordChar(line.charAt(i + 1), wordChars)) {
+          continue;
+        }
+        tokens.add(line.substring(start, i));
+        start = -1;
+      }
+    }
+    return tokens;
+  }
+
+  private static boolean isWordChar(char c, String wordChars) {
+    return Character.isLetter(c) || wordChars.indexOf(c) >= 0;
+  }
+
+  private static boolean isApostrophe(char c) {
+    return c == '\'' || c == '\u2019';
+  }
+
+
+  /**
+   * Get the correct words of a line from the results of hunspell in pipe
+   * mode.
+   *
+   * @param  tokens   the words of the line
+   * @param  results  the results of hunspell, one per word
+   * @return the correct words or <code>null</code> if the results do not
+   *         match the words
+   */
+  static List<String> getCorrectWords(List<String> tokens, List<String> results) {
+    if (tokens.size() != results.size()) {
       return null;
     }
-    return new TextualImpl(result);
+    List<String> words = new LinkedList<String>();
+    for (int i = 0; i < tokens.size(); i++) {
+      String result = results.get(i);
+      switch (result.isEmpty() ? ' ' : result.charAt(0)) {
+        case '*':
+        case '+':
+        case '-':
+          words.add(tokens.get(i));
+          break;
+        case '&':
+        case '?':
+        case '#':
+          /* Misspelled words are echoed, which tells whether hunspell
+           * split the line the same way */
+          String[] misspelled = result.split(" ");
+          if (misspelled.length < 2 || !misspelled[1].equals(tokens.get(i))) {
+            return null;
+          }
+          break;
+        default:
+          return null;
+      }
+    }
+    return words;
+  }
+
+
+  /**
+   * The definitions of a hunspell affix file needed to talk to hunspell
+   * workers.
+   */
+  private static final class AffixFile {
+
+    /* Characters besides letters hunspell considers part of words */
+    private final String wordChars;
+
+    /* The encoding of the text exchanged with hunspell workers */
+    private final Charset encoding;
+
+    private AffixFile(String wordChars, Charset encoding) {
+      this.wordChars = wordChars;
+      this.encoding = encoding;
+    }
+
   }
 
 }
@@ -0,0 +1,198 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.dictionary.hunspell;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hunspell process running in ispell compatible pipe mode. It keeps the
+ * dictionaries loaded and checks one line of text per request.
+ * <p>
+ * A worker must only be used by one thread at a time.
+ */
+class HunspellWorker {
+
+  /** The logging facility */
+  private static final Logger logger =
+    LoggerFactory.getLogger(HunspellWorker.class);
+
+  /* The hunspell process */
+  private final Process process;
+
+  /* The standard input of the hunspell process */
+  private final BufferedWriter stdin;
+
+  /* The lines of the standard output of the hunspell process, terminated
+   * by an empty value once the output is closed */
+  private final BlockingQueue<Optional<String>> stdout =
+    new LinkedBlockingQueue<Optional<String>>();
+
+  /* Milliseconds to wait for hunspell to print a line */
+  private final long timeout;
+
+  /**
+   * Start a new hunspell process.
+   *
+   * @param  commandList  the hunspell command line, including the
+   *                      <code>-a</code> pipe mode option
+   * @param  encoding     the encoding of the text exchanged with hunspell
+   * @param  timeout      milliseconds to wait for hunspell to load its
+   *                      dictionaries or to print a line of results
+   * @throws IOException  if hunspell could not be started or did not load
+   *                      its dictionaries in time
+   */
+  HunspellWorker(List<String> commandList, Charset encoding, long timeout) throws IOException {
+    logger.info("Starting hunspell worker '{}'", StringUtils.join(commandList, " "));
+    this.timeout = timeout;
+    process = new ProcessBuilder(commandList).start();
+    stdin = new BufferedWriter(new OutputStreamWriter(
+        process.getOutputStream(), encoding));
+
+    /* Read the results in the background, so that waiting for them can be
+     * bounded */
+    Thread outputReader = new Thread(() -> {
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(process.getInputStream(), encoding))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          stdout.add(Optional.of(line));
+        }
+      } catch (IOException e) {
+        logger.debug("Stopped reading hunspell output", e);
+      } finally {
+        stdout.add(Optional.empty());
+      }
+    }, "hunspell-stdout");
+    outputReader.setDaemon(true);
+    outputReader.start();
+
+    /* Log error messages, which also keeps hunspell from blocking on a full
+     * error pipe */
+    Thread errorLogger = new Thread(() -> {
+      try (BufferedReader stderr = new BufferedReader(
+          new InputStreamReader(process.getErrorStream(), encoding))) {
+        String line;
+        while ((line = stderr.readLine()) != null) {
+          logger.warn(line);
+        }
+      } catch (IOException e) {
+        logger.debug("Stopped reading hunspell error output", e);
+      }
+    }, "hunspell-stderr");
+    errorLogger.setDaemon(true);
+    errorLogger.start();
+
+    /* Hunspell announces itself with a version line once the dictionaries
+     * are loaded */
+    String banner;
+    try {
+      banner = readLine();
+    } catch (IOException e) {
+      close();
+      throw new IOException("Hunspell did not start (Missing dictionaries?): " + e.getMessage(), e);
+    }
+    logger.debug("Hunspell worker started: {}", banner);
+  }
+
+  /**
+   * Check the words of a single line of text.
+   *
+   * @param  line  the text, which must not contain line breaks
+   * @return one result line per word found by hunspell, like <code>*</code>
+   *         for correct and <code>&amp; word ...</code> for misspelled words
+   * @throws IOException  if the hunspell process terminated or did not
+   *                      respond in time, in which case it is stopped
+   */
+  List<String> check(String line) throws IOException {
+    /* The leading caret keeps hunspell from interpreting the line as a
+     * command */
+    stdin.write('^');
+    stdin.write(line);
+    stdin.newLine();
+    stdin.flush();
+
+    /* The results for one line are terminated by an empty line */
+    List<String> results = new LinkedList<String>();
+    String result = readLine();
+    while (!result.isEmpty()) {
+      results.add(result);
+      result = readLine();
+    }
+    return results;
+  }
+
+  private String readLine() throws IOException {
+    Optional<String> line;
+    try {
+      line = stdout.poll(timeout, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      close();
+      throw new InterruptedIOException("Interrupted while waiting for hunspell");
+    }
+    if (line == null) {
+      close();
+      throw new IOException(String.format("Hunspell worker did not respond within %d ms", timeout));
+    }
+    if (!line.isPresent()) {
+      stdout.add(line);
+      throw new IOException("Hunspell worker terminated unexpectedly");
+    }
+    return line.get();
+  }
+
+  /**
+   * Whether the hunspell process is still running.
+   */
+  boolean isAlive() {
+    return process.isAlive();
+  }
+
+  /**
+   * Stop the hunspell process.
+   */
+  void close() {
+    try {
+      stdin.close();
+    } catch (IOException e) {
+      logger.debug("Error closing hunspell input", e);
+    }
+    process.destroy();
+  }
+
+}
@@ -21,10 +21,19 @@
 
 package org.opencastproject.dictionary.hunspell;
 
+import org.opencastproject.metadata.mpeg7.Textual;
+
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class DictionaryServiceImplTest {
 
   private static boolean hunspellInstalled = true;
@@ -111,5 +120,102 @@ public class DictionaryServiceImplTest {
     }
   }
 
+  @Test
+  public void testCleanUpMultipleTexts() throws Exception {
+    if (hunspellEngDictAvailable) {
+      DictionaryServiceImpl service = new DictionaryServiceImpl();
+      service.setCommand("-d en_US -G");
+      List<Textual> texts = service.cleanUpText(Arrays.asList(
+          "This is a test sentence.", "", "Another test\nsentence"));
+      Assert.assertEquals(3, texts.size());
+      Assert.assertEquals("This is a test sentence", texts.get(0).getText());
+      Assert.assertNull(texts.get(1));
+      Assert.assertEquals("Another test sentence", texts.get(2).getText());
+    }
+  }
+
+  @Test
+  public void testPipeCommand() throws Exception {
+    DictionaryServiceImpl service = new DictionaryServiceImpl();
+    service.setBinary("hunspell");
+    service.setCommand(" -i utf-8 -d de_DE,en_US -G");
+    Assert.assertEquals(Arrays.asList("hunspell", "-i", "utf-8", "-d", "de_DE,en_US", "-a"),
+        service.getPipeCommand());
+    Assert.assertEquals(Arrays.asList("hunspell", "-i", "utf-8", "-d", "de_DE,en_US", "-a"),
+        service.getWorkerCommand(StandardCharsets.ISO_8859_1));
+
+    service.setCommand("-d de_DE -G");
+    Assert.assertEquals(Arrays.asList("hunspell", "-i", "ISO-8859-1", "-d", "de_DE", "-a"),
+        service.getWorkerCommand(StandardCharsets.ISO_8859_1));
+  }
+
+  @Test
+  public void testConfiguredEncoding() throws Exception {
+    Assert.assertEquals(StandardCharsets.UTF_8,
+        DictionaryServiceImpl.getConfiguredEncoding(Arrays.asList("hunspell", "-i", "utf-8", "-a")));
+    Assert.assertNull(DictionaryServiceImpl.getConfiguredEncoding(Arrays.asList("hunspell", "-a")));
+    Assert.assertNull(DictionaryServiceImpl.getConfiguredEncoding(Arrays.asList("hunspell", "-i")));
+  }
+
+  @Test
+  public void testReadEncoding() throws Exception {
+    Assert.assertEquals(StandardCharsets.UTF_8,
+        DictionaryServiceImpl.readEncoding("SET UTF-8\nTRY abc\n".getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(StandardCharsets.ISO_8859_1,
+        DictionaryServiceImpl.readEncoding("SET ISO8859-1\n".getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(Charset.forName("windows-1251"),
+        DictionaryServiceImpl.readEncoding("SET microsoft-cp1251\n".getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(StandardCharsets.ISO_8859_1,
+        DictionaryServiceImpl.readEncoding("TRY abc\n".getBytes(StandardCharsets.UTF_8)));
+    Assert.assertEquals(StandardCharsets.ISO_8859_1,
+        DictionaryServiceImpl.readEncoding("SET unknown\n".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  public void testWorkerTimeout() throws Exception {
+    /* A process printing a banner but never any results */
+    HunspellWorker worker = new HunspellWorker(Arrays.asList("sh", "-c", "echo banner; sleep 10"),
+        StandardCharsets.UTF_8, 100);
+    try {
+      worker.check("test");
+      Assert.fail("The worker did not time out");
+    } catch (IOException e) {
+      /* Expected */
+    }
+    Assert.assertFalse(worker.isAlive());
+  }
+
+  @Test
+  public void testTokenize() throws Exception {
+    Assert.assertEquals(Arrays.asList("Ich", "hab", "hier", "bloß", "Meinung."),
+        DictionaryServiceImpl.tokenize("Ich hab' hier, bloß: Meinung.", "-."));
+    Assert.assertEquals(Arrays.asList("don't", "stop", "e-mail"),
+        DictionaryServiceImpl.tokenize("don't stop 42 e-mail", "'-"));
+    Assert.assertEquals(Arrays.asList("e", "mail"),
+        DictionaryServiceImpl.tokenize("e-mail", ""));
+  }
+
+  @Test
+  public void testReadWordCharacters() throws Exception {
+    byte[] affix = "SET UTF-8\nTRY abc\nWORDCHARS ß-.\n".getBytes(StandardCharsets.UTF_8);
+    Assert.assertEquals("ß-.", DictionaryServiceImpl.readWordCharacters(affix));
+    affix = "SET ISO8859-1\nWORDCHARS ß\n".getBytes(StandardCharsets.ISO_8859_1);
+    Assert.assertEquals("ß", DictionaryServiceImpl.readWordCharacters(affix));
+    Assert.assertEquals("", DictionaryServiceImpl.readWordCharacters(new byte[0]));
+  }
+
+  @Test
+  public void testCorrectWords() throws Exception {
+    List<String> tokens = Arrays.asList("This", "is", "a", "tset");
+    Assert.assertEquals(Arrays.asList("This", "is", "a"), DictionaryServiceImpl.getCorrectWords(tokens,
+        Arrays.asList("*", "*", "+ A", "& tset 3 10: test, set, tet")));
+
+    /* Results not matching the words */
+    Assert.assertNull(DictionaryServiceImpl.getCorrectWords(tokens, Arrays.asList("*", "*", "*")));
+    Assert.assertNull(DictionaryServiceImpl.getCorrectWords(tokens,
+        Arrays.asList("*", "*", "*", "# set 10")));
+    Assert.assertEquals(Collections.emptyList(),
+        DictionaryServiceImpl.getCorrectWords(Collections.<String>emptyList(), Collections.<String>emptyList()));
+  }
 
 }
@@ -36,6 +36,8 @@ import org.opencastproject.mediapackage.MediaPackageParser;
 import org.opencastproject.mediapackage.VideoStream;
 import org.opencastproject.mediapackage.track.TrackImpl;
 import org.opencastproject.mediapackage.track.TrackImpl.StreamingProtocol;
+import org.opencastproject.security.api.Organization;
+import org.opencastproject.security.api.User;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.util.FileSupport;
 import org.opencastproject.util.LoadUtil;
@@ -46,12 +48,15 @@ import org.opencastproject.util.RequireUtil;
 import org.opencastproject.util.UrlSupport;
 import org.opencastproject.util.data.Option;
 
+import com.google.common.util.concurrent.Striped;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.osgi.service.component.ComponentContext;
@@ -68,20 +73,30 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import javax.ws.rs.core.UriBuilder;
@@ -191,6 +206,12 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
   /** The key to look for in the service configuration file to override the {@link DEFAULT_RETRACT_JOB_LOAD} */
   public static final String RETRACT_JOB_LOAD_KEY = "job.load.streaming.retract";
 
+  /** The key in the properties file that defines how many element files are distributed concurrently */
+  public static final String DISTRIBUTION_CONCURRENCY_KEY = "distribution.concurrency";
+
+  /** The default number of element files distributed concurrently */
+  public static final int DEFAULT_DISTRIBUTION_CONCURRENCY = 4;
+
   /** The load on the system introduced by creating a distribute job */
   private float distributeJobLoad = DEFAULT_DISTRIBUTE_JOB_LOAD;
 
@@ -220,11 +241,28 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
 
   private static final Gson gson = new Gson();
 
+  /** Factory for the parsers of the SMIL files */
+  private static final DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
+
+  /** Factory for the serializers of the SMIL files */
+  private static final TransformerFactory transformerFactory = TransformerFactory.newInstance();
+
+  /** Locks serializing the updates of a SMIL file */
+  private final Striped<Lock> smilLocks = Striped.lazyWeakLock(1024);
+
+  /** The number of element files put in place concurrently */
+  private int distributionConcurrency = DEFAULT_DISTRIBUTION_CONCURRENCY;
+
+  /** The executor putting the element files of all distribution jobs in place */
+  private final ThreadPoolExecutor distributionExecutor = new ThreadPoolExecutor(DEFAULT_DISTRIBUTION_CONCURRENCY,
+          DEFAULT_DISTRIBUTION_CONCURRENCY, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+
   /**
    * Creates a new instance of the streaming distribution service.
    */
   public WowzaAdaptiveStreamingDistributionService() {
     super(JOB_TYPE);
+    distributionExecutor.allowCoreThreadTimeOut(true);
   }
 
   public void activate(ComponentContext cc) {
@@ -288,6 +326,10 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
     }
   }
 
+  public void deactivate() {
+    distributionExecutor.shutdownNow();
+  }
+
   public String getDistributionType() {
     return DISTRIBUTION_TYPE;
   }
@@ -328,6 +370,27 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
             DEFAULT_DISTRIBUTE_JOB_LOAD, serviceRegistry);
     retractJobLoad = LoadUtil.getConfiguredLoadValue(properties, RETRACT_JOB_LOAD_KEY, DEFAULT_RETRACT_JOB_LOAD,
             serviceRegistry);
+
+    distributionConcurrency = DEFAULT_DISTRIBUTION_CONCURRENCY;
+    if (properties != null) {
+      distributionConcurrency = NumberUtils.toInt(
+              OsgiUtil.getOptCfg(properties, DISTRIBUTION_CONCURRENCY_KEY).getOrElse(null),
+              DEFAULT_DISTRIBUTION_CONCURRENCY);
+      if (distributionConcurrency < 1) {
+        logger.warn("Invalid distribution concurrency {}, using {}", distributionConcurrency,
+                DEFAULT_DISTRIBUTION_CONCURRENCY);
+        distributionConcurrency = DEFAULT_DISTRIBUTION_CONCURRENCY;
+      }
+    }
+    // Grow the maximum first and shrink the core size first, as the core size must never exceed the maximum
+    if (distributionConcurrency > distributionExecutor.getMaximumPoolSize()) {
+      distributionExecutor.setMaximumPoolSize(distributionConcurrency);
+      distributionExecutor.setCorePoolSize(distributionConcurrency);
+    } else {
+      distributionExecutor.setCorePoolSize(distributionConcurrency);
+      distributionExecutor.setMaximumPoolSize(distributionConcurrency);
+    }
+    logger.info("Streaming distribution concurrency is {}", distributionConcurrency);
   }
 
   /**
@@ -460,6 +523,9 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
 
   /**
    * Distribute Mediapackage elements to the download distribution service.
+   * <p>
+   * The element files are put in place concurrently. Afterwards, each SMIL file referenced by the elements is updated
+   * once with all of its new videos.
    *
    * @param channelId The id of the publication channel to be distributed to.
    * @param mediapackage The media package that contains the elements to be distributed.
@@ -476,15 +542,97 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
     notNull(elementIds, "elementIds");
     notNull(channelId, "channelId");
 
-    final Set<MediaPackageElement> elements = getElements(mediapackage, elementIds);
+    final List<MediaPackageElement> elements = new ArrayList<>();
+    for (MediaPackageElement element : getElements(mediapackage, elementIds)) {
+      // Streaming servers only deal with tracks
+      if (MediaPackageElement.Type.Track.equals(element.getElementType())) {
+        elements.add(element);
+      } else {
+        logger.debug("Skipping {} {} for distribution to the streaming server",
+                element.getElementType().toString().toLowerCase(), element.getIdentifier());
+      }
+    }
+    if (elements.isEmpty())
+      return new MediaPackageElement[0];
+
+    if (!isRTMPSupported && supportedAdaptiveFormats.isEmpty()) {
+      logger.warn("Skipping distribution of elements {} because no streaming format was specified", elements);
+      return new MediaPackageElement[0];
+    }
+
     List<MediaPackageElement> distributedElements = new ArrayList<>();
 
+    // Put the files in place concurrently, within the security context of the job
+    final Organization organization = securityService.getOrganization();
+    final User user = securityService.getUser();
+    List<Future<MediaPackageElement>> distributions = new ArrayList<>();
+    try {
+      for (final MediaPackageElement element : elements) {
+        distributions.add(distributionExecutor.submit(() -> {
+          securityService.setOrganization(organization);
+          securityService.setUser(user);
+          try {
+            return distributeElementFile(channelId, mediapackage, element);
+          } finally {
+            securityService.setOrganization(null);
+            securityService.setUser(null);
+          }
+        }));
+      }
+      for (Future<MediaPackageElement> distribution : distributions) {
+        MediaPackageElement distributed = distribution.get();
+        if (distributed != null)
+          distributedElements.add(distributed);
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof DistributionException)
+        throw (DistributionException) e.getCause();
+      throw new DistributionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DistributionException("Interrupted while distributing elements", e);
+    } finally {
+      // Do not keep the files of a failed job in the queue
+      for (Future<MediaPackageElement> distribution : distributions) {
+        distribution.cancel(true);
+      }
+    }
+
+    if (supportedAdaptiveFormats.isEmpty())
+      return distributedElements.toArray(new MediaPackageElement[distributedElements.size()]);
+
+    // Group the adaptive streaming elements by the SMIL file they are added to
+    Map<File, List<MediaPackageElement>> smilElements = new LinkedHashMap<>();
     for (MediaPackageElement element : elements) {
-      MediaPackageElement[] distributed = distributeElement(channelId, mediapackage, element.getIdentifier());
-      if (distributed != null) {
-        for (MediaPackageElement e : distributed) {
-          if (e != null) distributedElements.add(e);
+      if (isAdaptiveStreamingFormat(element)) {
+        smilElements.computeIfAbsent(getSmilFile(element, mediapackage, channelId), f -> new ArrayList<>())
+                .add(element);
+      }
+    }
+
+    for (Map.Entry<File, List<MediaPackageElement>> entry : smilElements.entrySet()) {
+      File smilFile = entry.getKey();
+      List<MediaPackageElement> smilFileElements = entry.getValue();
+      try {
+        // Only if the Smil file does not exist we need to distribute adaptive streams
+        // Otherwise the adaptive streams only were extended with new qualities
+        if (addElementsToSmil(smilFile, channelId, mediapackage, smilFileElements)) {
+          URI smilUri = getSmilUri(smilFile);
+          MediaPackageElement element = smilFileElements.get(0);
+          for (StreamingProtocol protocol : supportedAdaptiveFormats) {
+            distributedElements.add(createTrackforStreamingProtocol(element, smilUri, protocol));
+            logger.info("Distributed element {} in {} format to the Wowza Server", element, protocol);
+          }
+        } else {
+          logger.debug("Skipped adding adaptive streaming manifest {} to search index, as it already exists.",
+                  smilFile);
         }
+      } catch (DistributionException e) {
+        logger.warn("Error distributing {} to {}", smilFileElements, smilFile, e);
+        throw e;
+      } catch (Exception e) {
+        logger.warn("Error distributing {} to {}", smilFileElements, smilFile, e);
+        throw new DistributionException(e);
       }
     }
     return distributedElements.toArray(new MediaPackageElement[distributedElements.size()]);
@@ -502,26 +650,27 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
    *           Thrown if the parent directory of the MediaPackageElement cannot be created, if the MediaPackageElement
    *           cannot be copied or another unexpected exception occurs.
    */
-  public synchronized MediaPackageElement[] distributeElement(String channelId, final MediaPackage mediapackage, String elementId)
+  public MediaPackageElement[] distributeElement(String channelId, final MediaPackage mediapackage, String elementId)
           throws DistributionException {
     notNull(mediapackage, "mediapackage");
     notNull(elementId, "elementId");
     notNull(channelId, "channelId");
 
-    final MediaPackageElement element = mediapackage.getElementById(elementId);
-
     // Make sure the element exists
-    if (element == null)
+    if (mediapackage.getElementById(elementId) == null)
       throw new IllegalStateException(
               "No element " + elementId + " found in mediapackage" + mediapackage.getIdentifier());
 
-    // Streaming servers only deal with tracks
-    if (!MediaPackageElement.Type.Track.equals(element.getElementType())) {
-      logger.debug("Skipping {} {} for distribution to the streaming server",
-              element.getElementType().toString().toLowerCase(), element.getIdentifier());
-      return null;
-    }
+    return distributeElements(channelId, mediapackage, Collections.singleton(elementId));
+  }
 
+  /**
+   * Put the file of a track in place in the distribution directory.
+   *
+   * @return the distributed RTMP track or <code>null</code> if RTMP is not supported
+   */
+  private MediaPackageElement distributeElementFile(String channelId, MediaPackage mediapackage,
+          MediaPackageElement element) throws DistributionException {
     try {
       File source;
       try {
@@ -532,22 +681,13 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
         throw new DistributionException("Error loading " + element.getURI() + " from the workspace", e);
       }
 
-      ArrayList<MediaPackageElement> distribution = new ArrayList<MediaPackageElement>();
-
-      if (!isRTMPSupported && supportedAdaptiveFormats.isEmpty()) {
-        logger.warn("Skipping distribution of element \"{}\" because no streaming format was specified", element);
-        return distribution.toArray(new MediaPackageElement[distribution.size()]);
-      }
-
-      // Put the file in place
-
       File destination = getDistributionFile(channelId, mediapackage, element);
       try {
         Files.createDirectories(destination.toPath().getParent());
       } catch (IOException e) {
         throw new DistributionException("Unable to create " + destination.getParentFile(), e);
       }
-      logger.info("Distributing {} to {}", elementId, destination);
+      logger.info("Distributing {} to {}", element.getIdentifier(), destination);
 
       try {
         FileSupport.link(source, destination, true);
@@ -555,9 +695,10 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
         throw new DistributionException("Unable to copy " + source + " to " + destination, e);
       }
 
+      MediaPackageElement distributedElement = null;
       if (isRTMPSupported) {
         // Create a representation of the distributed file in the mediapackage
-        final MediaPackageElement distributedElement = (MediaPackageElement) element.clone();
+        distributedElement = (MediaPackageElement) element.clone();
 
         try {
           distributedElement.setURI(getDistributionUri(channelId, mediapackage, element));
@@ -568,33 +709,10 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
         distributedElement.setIdentifier(null);
         setTransport(distributedElement, TrackImpl.StreamingProtocol.RTMP);
         distributedElement.referTo(element);
-
-        distribution.add(distributedElement);
-      }
-
-      if ((!supportedAdaptiveFormats.isEmpty()) && isAdaptiveStreamingFormat(element)) {
-        // Only if the Smil file does not exist we need to distribute adaptive streams
-        // Otherwise the adaptive streams only were extended with new qualities
-        File smilFile = getSmilFile(element, mediapackage, channelId);
-        Boolean createAdaptiveStreamingEntries = !smilFile.isFile();
-        Document smilXml = getSmilDocument(smilFile);
-        addElementToSmil(smilXml, channelId, mediapackage, element);
-        URI smilUri = getSmilUri(smilFile);
-
-        if (createAdaptiveStreamingEntries) {
-          for (StreamingProtocol protocol : supportedAdaptiveFormats) {
-            distribution.add(createTrackforStreamingProtocol(element, smilUri, protocol));
-            logger.info("Distributed element {} in {} format to the Wowza Server", element, protocol);
-          }
-        } else {
-          logger.debug("Skipped adding adaptive streaming manifest {} to search index, as it already exists.", element);
-        }
-
-        saveSmilFile(smilFile, smilXml);
       }
 
       logger.info("Distributed file {} to Wowza Server", element);
-      return distribution.toArray(new MediaPackageElement[0]);
+      return distributedElement;
 
     } catch (Exception e) {
       logger.warn("Error distributing " + element, e);
@@ -649,11 +767,47 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
     return uriPath.endsWith(".mp4") || uriPath.contains("mp4:");
   }
 
+  /**
+   * Add videos for the given elements to a SMIL file. The file is read and written only once. Updates of the same SMIL
+   * file are serialized, and the file is replaced atomically so that the streaming server never reads a partially
+   * written file.
+   *
+   * @return <code>true</code> if the SMIL file did not exist before
+   */
+  private boolean addElementsToSmil(File smilFile, String channelId, MediaPackage mediapackage,
+          List<MediaPackageElement> elements) throws DistributionException, URISyntaxException {
+    Lock lock = smilLocks.get(smilFile.getAbsolutePath());
+    lock.lock();
+    try {
+      boolean created = !smilFile.isFile();
+      Document smilXml = getSmilDocument(smilFile);
+      for (MediaPackageElement element : elements) {
+        addElementToSmil(smilXml, channelId, mediapackage, element);
+      }
+      saveSmilFile(smilFile, smilXml);
+      return created;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+    // Factories are not guaranteed to be thread safe, the builders they create are used by one thread only
+    synchronized (docBuilderFactory) {
+      return docBuilderFactory.newDocumentBuilder();
+    }
+  }
+
+  private Transformer newTransformer() throws TransformerConfigurationException {
+    synchronized (transformerFactory) {
+      return transformerFactory.newTransformer();
+    }
+  }
+
   private Document getSmilDocument(File smilFile) throws DistributionException {
     if (!smilFile.isFile()) {
       try {
-        DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
+        DocumentBuilder docBuilder = newDocumentBuilder();
         Document doc = docBuilder.newDocument();
         Element smil = doc.createElement("smil");
         doc.appendChild(smil);
@@ -675,9 +829,7 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
     }
 
     try {
-      DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(smilFile);
+      Document doc = newDocumentBuilder().parse(smilFile);
 
       if (!"smil".equalsIgnoreCase(doc.getDocumentElement().getNodeName())) {
         logger.error("XML-File {} is not a SMIL file.", smilFile);
@@ -698,19 +850,28 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
   }
 
   private void saveSmilFile(File smilFile, Document doc) throws DistributionException {
+    Path smilPath = smilFile.toPath();
+    Path tempPath = null;
     try {
-      TransformerFactory transformerFactory = TransformerFactory.newInstance();
-      Transformer transformer = transformerFactory.newTransformer();
-      DOMSource source = new DOMSource(doc);
-      StreamResult stream = new StreamResult(smilFile);
-      transformer.transform(source, stream);
+      // Write to a temporary file next to the SMIL file and move it in place
+      // Created like the SMIL file itself, so that it gets the default permissions
+      tempPath = new File(smilFile.getParentFile(), "." + smilFile.getName() + "." + UUID.randomUUID() + ".tmp")
+              .toPath();
+      newTransformer().transform(new DOMSource(doc), new StreamResult(tempPath.toFile()));
+      try {
+        Files.move(tempPath, smilPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        logger.debug("Atomic move not supported, replacing SMIL file {} non-atomically", smilFile);
+        Files.move(tempPath, smilPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+      tempPath = null;
       logger.info("SMIL file for Wowza server saved at {}", smilFile);
-    } catch (TransformerConfigurationException ex) {
-      logger.error("Could not write SMIL file {} for distribution", smilFile);
-      throw new DistributionException(format("Could not write SMIL file %s for distribution", smilFile));
-    } catch (TransformerException ex) {
-      logger.error("Could not write SMIL file {} for distribution", smilFile);
-      throw new DistributionException(format("Could not write SMIL file %s for distribution", smilFile));
+    } catch (IOException | TransformerException ex) {
+      logger.error("Could not write SMIL file {} for distribution", smilFile, ex);
+      throw new DistributionException(format("Could not write SMIL file %s for distribution", smilFile), ex);
+    } finally {
+      if (tempPath != null)
+        FileUtils.deleteQuietly(tempPath.toFile());
     }
   }
 
@@ -909,9 +1070,12 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
 
     Set<MediaPackageElement> elements = getElements(mediapackage, elementIds);
     List<MediaPackageElement> retractedElements = new ArrayList<>();
+    // The adaptive streaming tracks of a flavor share one SMIL file, which needs to be retracted only once
+    Set<File> retractedSmilFiles = new HashSet<>();
 
     for (MediaPackageElement element : elements) {
-      MediaPackageElement[] retracted = retractElement(channelId, mediapackage, element.getIdentifier());
+      MediaPackageElement[] retracted = retractElement(channelId, mediapackage, element.getIdentifier(),
+              retractedSmilFiles);
       if (retracted != null) {
         for (MediaPackageElement e : retracted) {
           if (e != null) retractedElements.add(e);
@@ -934,6 +1098,11 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
    */
   protected MediaPackageElement[] retractElement(String channelId, final MediaPackage mediapackage, String elementId)
           throws DistributionException {
+    return retractElement(channelId, mediapackage, elementId, new HashSet<>());
+  }
+
+  private MediaPackageElement[] retractElement(String channelId, final MediaPackage mediapackage, String elementId,
+          Set<File> retractedSmilFiles) throws DistributionException {
 
     notNull(mediapackage, "mediapackage");
     notNull(elementId, "elementId");
@@ -959,6 +1128,12 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
       final File smilFile = getSmilFile(element, mediapackage, channelId);
       logger.debug("delete elementFile {}", elementFile);
 
+      if (retractedSmilFiles.contains(elementFile)) {
+        logger.debug("SMIL file {} has already been retracted", elementFile);
+        retractedElements.add(element);
+        return retractedElements.toArray(new MediaPackageElement[0]);
+      }
+
       // Does the file exist? If not, the current element has not been distributed to this channel
       // or has been removed otherwise
       if (elementFile == null || !elementFile.exists()) {
@@ -968,25 +1143,32 @@ public class WowzaAdaptiveStreamingDistributionService extends AbstractDistribut
       } else {
         // If a SMIL file is referenced by this element, delete first all the elements within
         if (elementFile.equals(smilFile)) {
-          Document smilXml = getSmilDocument(smilFile);
-          NodeList videoList = smilXml.getElementsByTagName("video");
-          for (int i = 0; i < videoList.getLength(); i++) {
-            if (videoList.item(i) instanceof Element) {
-              String smilPathStr = ((Element) videoList.item(i)).getAttribute("src");
-              // Patch the streaming tags
-              if (smilPathStr.contains("mp4:"))
-                smilPathStr = smilPathStr.replace("mp4:", "");
-              if (!smilPathStr.endsWith(".mp4"))
-                smilPathStr += ".mp4";
-
-              elementFile = smilFile.toPath().resolveSibling(smilPathStr).toFile();
-              deleteElementFile(elementFile);
+          Lock lock = smilLocks.get(smilFile.getAbsolutePath());
+          lock.lock();
+          try {
+            Document smilXml = getSmilDocument(smilFile);
+            NodeList videoList = smilXml.getElementsByTagName("video");
+            for (int i = 0; i < videoList.getLength(); i++) {
+              if (videoList.item(i) instanceof Element) {
+                String smilPathStr = ((Element) videoList.item(i)).getAttribute("src");
+                // Patch the streaming tags
+                if (smilPathStr.contains("mp4:"))
+                  smilPathStr = smilPathStr.replace("mp4:", "");
+                if (!smilPathStr.endsWith(".mp4"))
+                  smilPathStr += ".mp4";
+
+                elementFile = smilFile.toPath().resolveSibling(smilPathStr).toFile();
+                deleteElementFile(elementFile);
+              }
             }
-          }
 
-          if (smilFile.isFile() && !smilFile.delete()) {
-            logger.warn("The SMIL file {} could not be succesfully deleted. Forcing quite deletion...");
+            if (smilFile.isFile() && !smilFile.delete()) {
+              logger.warn("The SMIL file {} could not be succesfully deleted. Forcing quite deletion...");
+            }
+          } finally {
+            lock.unlock();
           }
+          retractedSmilFiles.add(smilFile);
         } else {
           deleteElementFile(elementFile);
         }
@@ -21,21 +21,57 @@
 package org.opencastproject.distribution.streaming.wowza;
 
 import static java.lang.String.format;
+import static org.easymock.EasyMock.anyObject;
 import static org.easymock.EasyMock.createNiceMock;
 import static org.easymock.EasyMock.expect;
 import static org.easymock.EasyMock.replay;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageBuilderFactory;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.mediapackage.track.VideoStreamImpl;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.junit.Assume;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
 
+import java.io.File;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.xml.parsers.DocumentBuilderFactory;
 
 public class StreamingDistributionServiceTest {
 
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
   // List of URLs for testing
   static final String[] inputStreamingUrls = new String[] {
           "noschema.myserver.com/my/path/to/server",
@@ -167,5 +203,150 @@ public class StreamingDistributionServiceTest {
     }
   }
 
+  @Test
+  public void testDistributeWritesSmilOnce() throws Exception {
+    WowzaAdaptiveStreamingDistributionService sds = createDistributionService();
+    MediaPackage mp = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    Set<String> elementIds = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      elementIds.add(addTrack(mp, "track-" + i, 1000f * (3 - i)));
+    }
+
+    MediaPackageElement[] distributed = sds.distributeElements("engage-player", mp, elementIds);
+
+    // One RTMP track per element and one track per adaptive streaming format for the SMIL file
+    assertEquals(3 + 4, distributed.length);
+    List<String> bitrates = getSmilBitrates(mp);
+    assertEquals(3, bitrates.size());
+    assertEquals("1000", bitrates.get(0));
+    assertEquals("3000", bitrates.get(2));
+
+    // Adding a quality extends the SMIL file without publishing the adaptive streams again
+    String elementId = addTrack(mp, "track-3", 1500f);
+    distributed = sds.distributeElements("engage-player", mp, Collections.singleton(elementId));
+    assertEquals(1, distributed.length);
+    assertEquals(4, getSmilBitrates(mp).size());
+
+    // No temporary files are left behind
+    File[] files = getSmilFile(mp).getParentFile().listFiles((dir, name) -> name.endsWith(".tmp"));
+    assertEquals(0, files.length);
+  }
+
+  @Test
+  public void testSmilFileHasDefaultPermissions() throws Exception {
+    Assume.assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    WowzaAdaptiveStreamingDistributionService sds = createDistributionService();
+    MediaPackage mp = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    sds.distributeElements("engage-player", mp, Collections.singleton(addTrack(mp, "track", 1000f)));
+    sds.distributeElements("engage-player", mp, Collections.singleton(addTrack(mp, "track-2", 2000f)));
+    sds.deactivate();
+
+    // The streaming server may run as another user, so the SMIL file must be created like any other file
+    File smilFile = getSmilFile(mp);
+    File reference = new File(smilFile.getParentFile(), "reference");
+    assertTrue(reference.createNewFile());
+    assertEquals(Files.getPosixFilePermissions(reference.toPath()), Files.getPosixFilePermissions(smilFile.toPath()));
+  }
+
+  @Test
+  public void testConcurrentDistributionKeepsAllVideos() throws Exception {
+    final WowzaAdaptiveStreamingDistributionService sds = createDistributionService();
+    final MediaPackage mp = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    List<String> elementIds = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      elementIds.add(addTrack(mp, "track-" + i, 1000f + i));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(elementIds.size());
+    try {
+      List<Future<MediaPackageElement[]>> jobs = new ArrayList<>();
+      for (final String elementId : elementIds) {
+        jobs.add(executor.submit(() -> sds.distributeElements("engage-player", mp, Collections.singleton(elementId))));
+      }
+      int adaptiveTracks = 0;
+      for (Future<MediaPackageElement[]> job : jobs) {
+        adaptiveTracks += job.get().length - 1;
+      }
+      // Only the job creating the SMIL file publishes the adaptive streams
+      assertEquals(4, adaptiveTracks);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(8, getSmilBitrates(mp).size());
+
+    // Retracting the adaptive streams removes the SMIL file and all of its videos
+    MediaPackage published = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+    Set<String> retractIds = new HashSet<>();
+    for (String protocol : new String[] { "playlist.m3u8", "manifest.f4m" }) {
+      TrackImpl track = TrackImpl.fromURI(new URI("http://wowza.example.com/vod/smil:" + getSmilFile(mp).getName()
+              + "/" + protocol));
+      track.setIdentifier(protocol);
+      track.setFlavor(MediaPackageElementFlavor.parseFlavor("presenter/delivery"));
+      published.add(track);
+      retractIds.add(track.getIdentifier());
+    }
+    sds.retractElements("engage-player", published, retractIds);
+    assertFalse(getSmilFile(mp).exists());
+    assertFalse(getSmilFile(mp).toPath().resolveSibling("engage-player").resolve(mp.getIdentifier().compact())
+            .toFile().exists());
+  }
+
+  private WowzaAdaptiveStreamingDistributionService createDistributionService() throws Exception {
+    File source = testFolder.newFile("source.mp4");
+    File distributionDirectory = testFolder.newFolder("streams");
+
+    BundleContext bc = createNiceMock(BundleContext.class);
+    expect(bc.getProperty(WowzaAdaptiveStreamingDistributionService.STREAMING_URL_KEY))
+            .andReturn("rtmp://wowza.example.com/vod").anyTimes();
+    expect(bc.getProperty(WowzaAdaptiveStreamingDistributionService.ADAPTIVE_STREAMING_URL_KEY))
+            .andReturn("http://wowza.example.com/vod").anyTimes();
+    expect(bc.getProperty("org.opencastproject.streaming.directory"))
+            .andReturn(distributionDirectory.getAbsolutePath()).anyTimes();
+    ComponentContext cc = createNiceMock(ComponentContext.class);
+    expect(cc.getBundleContext()).andReturn(bc).anyTimes();
+    Workspace workspace = createNiceMock(Workspace.class);
+    expect(workspace.get(anyObject(URI.class))).andReturn(source).anyTimes();
+    SecurityService securityService = createNiceMock(SecurityService.class);
+    expect(securityService.getOrganization()).andReturn(new DefaultOrganization()).anyTimes();
+    replay(bc, cc, workspace, securityService);
+
+    WowzaAdaptiveStreamingDistributionService sds = new WowzaAdaptiveStreamingDistributionService();
+    sds.setWorkspace(workspace);
+    sds.setSecurityService(securityService);
+    sds.setServiceRegistry(createNiceMock(ServiceRegistry.class));
+    sds.activate(cc);
+    sds.updated(new Hashtable<String, String>());
+    return sds;
+  }
+
+  private String addTrack(MediaPackage mp, String name, float bitrate) throws URISyntaxException {
+    TrackImpl track = TrackImpl.fromURI(new URI("http://localhost/files/" + name + ".mp4"));
+    track.setIdentifier(name);
+    track.setFlavor(MediaPackageElementFlavor.parseFlavor("presenter/delivery"));
+    VideoStreamImpl video = new VideoStreamImpl();
+    video.setBitRate(bitrate);
+    video.setFrameWidth(1280);
+    video.setFrameHeight(720);
+    track.addStream(video);
+    mp.add(track);
+    return name;
+  }
+
+  private File getSmilFile(MediaPackage mp) {
+    return testFolder.getRoot().toPath().resolve("streams").resolve(DefaultOrganization.DEFAULT_ORGANIZATION_ID)
+            .resolve("engage-player_" + mp.getIdentifier() + "_presenter.smil").toFile();
+  }
+
+  private List<String> getSmilBitrates(MediaPackage mp) throws Exception {
+    File smilFile = getSmilFile(mp);
+    Document smil = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(smilFile);
+    NodeList videos = smil.getElementsByTagName("video");
+    List<String> bitrates = new ArrayList<>();
+    for (int i = 0; i < videos.getLength(); i++) {
+      bitrates.add(videos.item(i).getAttributes().getNamedItem("video-bitrate").getTextContent());
+    }
+    return bitrates;
+  }
+
   // Test port
 }
@@ -33,7 +33,11 @@ import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageElementParser;
 import org.opencastproject.mediapackage.MediaPackageException;
 import org.opencastproject.mediapackage.MediaPackageParser;
+import org.opencastproject.security.api.Organization;
+import org.opencastproject.security.api.User;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.ConfigurationException;
 import org.opencastproject.util.LoadUtil;
 import org.opencastproject.util.NotFoundException;
@@ -57,6 +61,8 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.DeleteVersionRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.ListVersionsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.VersionListing;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.Upload;
@@ -64,11 +70,14 @@ import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
 
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -82,6 +91,10 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -106,6 +119,8 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
   public static final String AWS_S3_SECRET_ACCESS_KEY_CONFIG = "org.opencastproject.distribution.aws.s3.secret.key";
   public static final String AWS_S3_REGION_CONFIG = "org.opencastproject.distribution.aws.s3.region";
   public static final String AWS_S3_BUCKET_CONFIG = "org.opencastproject.distribution.aws.s3.bucket";
+  public static final String AWS_S3_DISTRIBUTION_CONCURRENCY_CONFIG =
+          "org.opencastproject.distribution.aws.s3.distribution.concurrency";
   // config.properties
   public static final String OPENCAST_DOWNLOAD_URL = "org.opencastproject.download.url";
 
@@ -132,12 +147,27 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
   /** The load on the system introduced by creating a restore job */
   private float restoreJobLoad = DEFAULT_RESTORE_JOB_LOAD;
 
+  /** The default number of elements of a job that are distributed concurrently */
+  public static final int DEFAULT_DISTRIBUTION_CONCURRENCY = 4;
+
+  /** The user metadata key of the checksum of a distributed object */
+  public static final String CHECKSUM_METADATA_KEY = "opencast-checksum";
+
   /** Maximum number of tries for checking availability of distributed file */
   private static final int MAX_TRIES = 10;
 
-  /** Interval time in millis to sleep between checks of availability */
+  /** Interval time in millis to sleep after the first failed check of availability */
+  private static final long INITIAL_SLEEP_INTERVAL = 1000L;
+
+  /** Maximum interval time in millis to sleep between checks of availability */
   private static final long SLEEP_INTERVAL = 30000L;
 
+  /** The number of elements of a job that are distributed concurrently */
+  private int distributionConcurrency = DEFAULT_DISTRIBUTION_CONCURRENCY;
+
+  /** The http client used to check the availability of distributed elements */
+  private CloseableHttpClient httpClient = null;
+
   /** The AWS client and transfer manager */
   private AmazonS3 s3 = null;
   private TransferManager s3TransferManager = null;
@@ -197,6 +227,16 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
       restoreJobLoad = LoadUtil.getConfiguredLoadValue(cc.getProperties(), RESTORE_JOB_LOAD_KEY,
               DEFAULT_RESTORE_JOB_LOAD, serviceRegistry);
 
+      distributionConcurrency = NumberUtils.toInt(
+              OsgiUtil.getOptCfg(cc.getProperties(), AWS_S3_DISTRIBUTION_CONCURRENCY_CONFIG).getOrElse(null),
+              DEFAULT_DISTRIBUTION_CONCURRENCY);
+      if (distributionConcurrency < 1) {
+        logger.warn("Invalid distribution concurrency {}, using {}", distributionConcurrency,
+                DEFAULT_DISTRIBUTION_CONCURRENCY);
+        distributionConcurrency = DEFAULT_DISTRIBUTION_CONCURRENCY;
+      }
+      logger.info("AWS S3 distribution concurrency is {}", distributionConcurrency);
+
       // Explicit credentials are optional.
       AWSCredentialsProvider provider = null;
       Option<String> accessKeyIdOpt = OsgiUtil.getOptCfg(cc.getProperties(), AWS_S3_ACCESS_KEY_ID_CONFIG);
@@ -234,6 +274,11 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     if (s3TransferManager != null)
       s3TransferManager.shutdownNow();
 
+    synchronized (this) {
+      IOUtils.closeQuietly(httpClient);
+      httpClient = null;
+    }
+
     logger.info("AwsS3DistributionService deactivated!");
   }
 
@@ -315,10 +360,40 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
 
     final Set<MediaPackageElement> elements = getElements(mediapackage, elementIds);
     List<MediaPackageElement> distributedElements = new ArrayList<>();
-
-    for (MediaPackageElement element : elements) {
-      MediaPackageElement distributedElement = distributeElement(channelId, mediapackage, element, checkAvailability);
-      distributedElements.add(distributedElement);
+    if (elements.isEmpty())
+      return new MediaPackageElement[0];
+
+    // Upload and verify the elements concurrently, but do not flood the connection to S3. The uploads run within the
+    // security context of the job, as the workspace and the trusted http client depend on it.
+    final Organization organization = securityService.getOrganization();
+    final User user = securityService.getUser();
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(distributionConcurrency, elements.size()));
+    try {
+      List<Future<MediaPackageElement>> distributions = new ArrayList<>();
+      for (final MediaPackageElement element : elements) {
+        distributions.add(executor.submit(() -> {
+          securityService.setOrganization(organization);
+          securityService.setUser(user);
+          try {
+            return distributeElement(channelId, mediapackage, element, checkAvailability);
+          } finally {
+            securityService.setOrganization(null);
+            securityService.setUser(null);
+          }
+        }));
+      }
+      for (Future<MediaPackageElement> distribution : distributions) {
+        distributedElements.add(distribution.get());
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof DistributionException)
+        throw (DistributionException) e.getCause();
+      throw new DistributionException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DistributionException("Interrupted while distributing elements", e);
+    } finally {
+      executor.shutdownNow();
     }
     return distributedElements.toArray(new MediaPackageElement[distributedElements.size()]);
   }
@@ -366,20 +441,30 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
         throw new DistributionException("Error loading " + element.getURI() + " from the workspace", e);
       }
 
-      // Use TransferManager to take advantage of multipart upload.
-      // TransferManager processes all transfers asynchronously, so this call will return immediately.
       String objectName = buildObjectName(channelId, mediaPackage.getIdentifier().toString(), element);
-      logger.info("Uploading {} to bucket {}...", objectName, bucketName);
-      Upload upload = s3TransferManager.upload(bucketName, objectName, source);
-      long start = System.currentTimeMillis();
+      String checksum = (element.getChecksum() != null ? element.getChecksum()
+              : Checksum.create(ChecksumType.DEFAULT_TYPE, source)).toString();
 
-      try {
-        // Block and wait for the upload to finish
-        upload.waitForCompletion();
-        logger.info("Upload of {} to bucket {} completed in {} seconds", objectName, bucketName,
-                (System.currentTimeMillis() - start) / 1000);
-      } catch (AmazonClientException e) {
-        throw new DistributionException("AWS error: " + e.getMessage(), e);
+      if (isDistributed(objectName, checksum)) {
+        logger.info("Object {} in bucket {} is up to date, skipping upload", objectName, bucketName);
+      } else {
+        // Use TransferManager to take advantage of multipart upload.
+        // TransferManager processes all transfers asynchronously, so this call will return immediately.
+        logger.info("Uploading {} to bucket {}...", objectName, bucketName);
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.addUserMetadata(CHECKSUM_METADATA_KEY, checksum);
+        Upload upload = s3TransferManager.upload(
+                new PutObjectRequest(bucketName, objectName, source).withMetadata(metadata));
+        long start = System.currentTimeMillis();
+
+        try {
+          // Block and wait for the upload to finish
+          upload.waitForCompletion();
+          logger.info("Upload of {} to bucket {} completed in {} seconds", objectName, bucketName,
+                  (System.currentTimeMillis() - start) / 1000);
+        } catch (AmazonClientException e) {
+          throw new DistributionException("AWS error: " + e.getMessage(), e);
+        }
       }
 
       // Create a representation of the distributed file in the media package
@@ -392,40 +477,9 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
 
       logger.info("Distributed element {}, object {}", element.getIdentifier(), objectName);
 
-      if (checkAvailability) {
-        URI uri = distributedElement.getURI();
-        int tries = 0;
-        CloseableHttpResponse response = null;
-        boolean success = false;
-        while (tries < MAX_TRIES) {
-          try {
-            CloseableHttpClient httpClient = HttpClients.createDefault();
-            logger.trace("Trying to access {}", uri);
-            response = httpClient.execute(new HttpHead(uri));
-            if (response.getStatusLine().getStatusCode() == HttpServletResponse.SC_OK) {
-              logger.trace("Successfully got {}", uri);
-              success = true;
-              break; // Exit the loop, response is closed
-            } else {
-              logger.debug("Http status code when checking distributed element {} is {}", objectName,
-                      response.getStatusLine().getStatusCode());
-            }
-          } catch (Exception e) {
-            logger.info("Checking availability of {} threw exception {}. Trying again.", objectName, e.getMessage());
-            // Just try again
-          } finally {
-            if (null != response) {
-              response.close();
-            }
-          }
-          tries++;
-          logger.trace("Sleeping for {} seconds...", SLEEP_INTERVAL / 1000);
-          Thread.sleep(SLEEP_INTERVAL);
-        }
-        if (!success) {
-          logger.warn("Could not check availability of distributed file {}", uri);
-          // throw new DistributionException("Unable to load distributed file " + uri.toString());
-        }
+      if (checkAvailability && !isAvailable(distributedElement.getURI())) {
+        logger.warn("Could not check availability of distributed file {}", distributedElement.getURI());
+        // throw new DistributionException("Unable to load distributed file " + uri.toString());
       }
 
       return distributedElement;
@@ -439,6 +493,73 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     }
   }
 
+  /**
+   * Checks whether an object with the given checksum has already been distributed.
+   *
+   * @param objectName
+   *          the object name
+   * @param checksum
+   *          the checksum of the element to distribute
+   * @return <code>true</code> if the object exists in the bucket and has the same checksum
+   */
+  protected boolean isDistributed(String objectName, String checksum) {
+    try {
+      ObjectMetadata metadata = s3.getObjectMetadata(bucketName, objectName);
+      return metadata != null && checksum.equals(metadata.getUserMetaDataOf(CHECKSUM_METADATA_KEY));
+    } catch (AmazonServiceException e) {
+      if (e.getStatusCode() == HttpServletResponse.SC_NOT_FOUND)
+        return false;
+      throw e;
+    }
+  }
+
+  /**
+   * Checks the availability of a distributed element via http. The interval between the tries is doubled after each
+   * failed try, up to {@link #SLEEP_INTERVAL}.
+   *
+   * @param uri
+   *          the uri of the distributed element
+   * @return <code>true</code> if the element is available
+   * @throws InterruptedException
+   *           if the thread is interrupted while waiting for the next try
+   */
+  protected boolean isAvailable(URI uri) throws InterruptedException {
+    long interval = INITIAL_SLEEP_INTERVAL;
+    for (int tries = 1; tries <= MAX_TRIES; tries++) {
+      logger.trace("Trying to access {}", uri);
+      try (CloseableHttpResponse response = getHttpClient().execute(new HttpHead(uri))) {
+        if (response.getStatusLine().getStatusCode() == HttpServletResponse.SC_OK) {
+          logger.trace("Successfully got {}", uri);
+          return true;
+        }
+        logger.debug("Http status code when checking distributed element {} is {}", uri,
+                response.getStatusLine().getStatusCode());
+      } catch (IOException e) {
+        logger.info("Checking availability of {} threw exception {}. Trying again.", uri, e.getMessage());
+        // Just try again
+      }
+      if (tries < MAX_TRIES) {
+        logger.trace("Sleeping for {} milliseconds...", interval);
+        Thread.sleep(interval);
+        interval = Math.min(interval * 2, SLEEP_INTERVAL);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the pooled http client shared by all availability checks.
+   */
+  private synchronized CloseableHttpClient getHttpClient() {
+    if (httpClient == null) {
+      PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+      connectionManager.setDefaultMaxPerRoute(distributionConcurrency);
+      connectionManager.setMaxTotal(distributionConcurrency * 2);
+      httpClient = HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+    return httpClient;
+  }
+
   @Override
   public Job retract(String channelId, MediaPackage mediapackage, String elementId) throws DistributionException {
     Set<String> elementIds = new HashSet<>();
@@ -785,4 +906,8 @@ public class AwsS3DistributionServiceImpl extends AbstractDistributionService
     opencastDistributionUrl = distributionUrl;
   }
 
+  protected void setDistributionConcurrency(int distributionConcurrency) {
+    this.distributionConcurrency = distributionConcurrency;
+  }
+
 }
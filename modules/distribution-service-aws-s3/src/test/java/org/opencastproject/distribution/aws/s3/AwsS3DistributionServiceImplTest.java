@@ -25,6 +25,10 @@ import org.opencastproject.mediapackage.MediaPackageBuilder;
 import org.opencastproject.mediapackage.MediaPackageBuilderFactory;
 import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageParser;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.Organization;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.User;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.workspace.api.Workspace;
 
@@ -32,27 +36,45 @@ import com.amazonaws.AmazonServiceException;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.Bucket;
 import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.Upload;
 import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpServer;
 
+import org.apache.commons.io.FileUtils;
 import org.easymock.EasyMock;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AwsS3DistributionServiceImplTest {
   private AmazonS3Client s3;
   private TransferManager tm;
   private Workspace workspace;
+  private SecurityService securityService;
+  private Organization organization = new DefaultOrganization();
+  private User user;
+  private List<Organization> workspaceOrganizations = Collections.synchronizedList(new ArrayList<>());
+  private List<User> workspaceUsers = Collections.synchronizedList(new ArrayList<>());
   private ServiceRegistry serviceRegistry;
   private Gson gson = new Gson();
 
@@ -61,6 +83,9 @@ public class AwsS3DistributionServiceImplTest {
 
   private AwsS3DistributionServiceImpl service = null;
 
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
   private MediaPackage mp = null;
   private MediaPackage distributedMp = null;
 
@@ -71,8 +96,20 @@ public class AwsS3DistributionServiceImplTest {
     tm = EasyMock.createNiceMock(TransferManager.class);
     // Replay will be called in each test
 
+    user = EasyMock.createNiceMock(User.class);
+    securityService = createSecurityService();
+    securityService.setOrganization(organization);
+    securityService.setUser(user);
+
+    // Like the workspace implementation, depend on the security context of the calling thread
     workspace = EasyMock.createNiceMock(Workspace.class);
-    EasyMock.expect(workspace.get(EasyMock.anyObject(URI.class))).andReturn(new File("test"));
+    File source = testFolder.newFile("video-presenter-delivery.mp4");
+    FileUtils.writeStringToFile(source, "video", StandardCharsets.UTF_8);
+    EasyMock.expect(workspace.get(EasyMock.anyObject(URI.class))).andAnswer(() -> {
+      workspaceOrganizations.add(securityService.getOrganization());
+      workspaceUsers.add(securityService.getUser());
+      return source;
+    }).anyTimes();
     EasyMock.replay(workspace);
 
     serviceRegistry = EasyMock.createNiceMock(ServiceRegistry.class);
@@ -84,6 +121,7 @@ public class AwsS3DistributionServiceImplTest {
     service.setS3(s3);
     service.setS3TransferManager(tm);
     service.setWorkspace(workspace);
+    service.setSecurityService(securityService);
 
     MediaPackageBuilder builder = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder();
 
@@ -98,6 +136,38 @@ public class AwsS3DistributionServiceImplTest {
   public void tearDown() throws Exception {
   }
 
+  /**
+   * Creates a security service which, like the actual implementation, keeps the security context per thread. Other
+   * than the implementation, it fails if the context is requested on a thread where it has not been set.
+   */
+  private static SecurityService createSecurityService() {
+    final ThreadLocal<Organization> organization = new ThreadLocal<>();
+    final ThreadLocal<User> user = new ThreadLocal<>();
+    SecurityService securityService = EasyMock.createNiceMock(SecurityService.class);
+    securityService.setOrganization(EasyMock.anyObject());
+    EasyMock.expectLastCall().andAnswer(() -> {
+      organization.set((Organization) EasyMock.getCurrentArguments()[0]);
+      return null;
+    }).anyTimes();
+    securityService.setUser(EasyMock.anyObject());
+    EasyMock.expectLastCall().andAnswer(() -> {
+      user.set((User) EasyMock.getCurrentArguments()[0]);
+      return null;
+    }).anyTimes();
+    EasyMock.expect(securityService.getOrganization()).andAnswer(() -> {
+      if (organization.get() == null)
+        throw new IllegalStateException("No organization set in thread " + Thread.currentThread().getName());
+      return organization.get();
+    }).anyTimes();
+    EasyMock.expect(securityService.getUser()).andAnswer(() -> {
+      if (user.get() == null)
+        throw new IllegalStateException("No user set in thread " + Thread.currentThread().getName());
+      return user.get();
+    }).anyTimes();
+    EasyMock.replay(securityService);
+    return securityService;
+  }
+
   @Test
   public void testDistributeJob() throws Exception {
     Set<String> mpeIds = new LinkedHashSet<String>();
@@ -203,10 +273,7 @@ public class AwsS3DistributionServiceImplTest {
   @Test
   public void testDistributeElement() throws Exception {
     Upload upload = EasyMock.createNiceMock(Upload.class);
-    EasyMock.expect(
-            tm.upload(EasyMock.anyObject(String.class), EasyMock.anyObject(String.class),
-                    EasyMock.anyObject(File.class))).andReturn(
-            upload);
+    EasyMock.expect(tm.upload(EasyMock.anyObject(PutObjectRequest.class))).andReturn(upload);
     EasyMock.replay(upload, tm);
 
     Set<String> mpeIds = new LinkedHashSet<String>();
@@ -220,6 +287,86 @@ public class AwsS3DistributionServiceImplTest {
             mpe.getURI());
   }
 
+  @Test
+  public void testDistributeElementsInSecurityContext() throws Exception {
+    Upload upload = EasyMock.createNiceMock(Upload.class);
+    EasyMock.expect(tm.upload(EasyMock.anyObject(PutObjectRequest.class))).andReturn(upload).anyTimes();
+    EasyMock.replay(upload, tm);
+
+    Set<String> mpeIds = new LinkedHashSet<String>();
+    mpeIds.add("presenter-delivery");
+    mpeIds.add("episode-dc");
+    mpeIds.add("series-dc");
+
+    Assert.assertEquals(3, service.distributeElements("channelId", mp, mpeIds, false).length);
+
+    // Each element was loaded from the workspace within the security context of the job
+    Assert.assertEquals(3, workspaceOrganizations.size());
+    for (Organization org : workspaceOrganizations) {
+      Assert.assertSame(organization, org);
+    }
+    for (User u : workspaceUsers) {
+      Assert.assertSame(user, u);
+    }
+  }
+
+  @Test
+  public void testDistributeUnchangedElements() throws Exception {
+    // In-memory stand-in for the object metadata stored in the bucket
+    final Map<String, ObjectMetadata> bucket = new ConcurrentHashMap<>();
+    EasyMock.expect(s3.getObjectMetadata(EasyMock.eq(BUCKET_NAME), EasyMock.anyObject(String.class)))
+            .andAnswer(() -> {
+              ObjectMetadata metadata = bucket.get((String) EasyMock.getCurrentArguments()[1]);
+              if (metadata == null) {
+                AmazonServiceException e = new AmazonServiceException("Not Found");
+                e.setStatusCode(404);
+                throw e;
+              }
+              return metadata;
+            }).anyTimes();
+    final AtomicInteger uploads = new AtomicInteger();
+    Upload upload = EasyMock.createNiceMock(Upload.class);
+    EasyMock.expect(tm.upload(EasyMock.anyObject(PutObjectRequest.class))).andAnswer(() -> {
+      PutObjectRequest request = (PutObjectRequest) EasyMock.getCurrentArguments()[0];
+      bucket.put(request.getKey(), request.getMetadata());
+      uploads.incrementAndGet();
+      return upload;
+    }).anyTimes();
+    EasyMock.replay(s3, tm, upload);
+
+    Set<String> mpeIds = new LinkedHashSet<String>();
+    mpeIds.add("presenter-delivery");
+    mpeIds.add("episode-dc");
+    mpeIds.add("series-dc");
+
+    Assert.assertEquals(3, service.distributeElements("channelId", mp, mpeIds, false).length);
+    Assert.assertEquals(3, uploads.get());
+
+    // Distributing the same elements again must not upload them again
+    Assert.assertEquals(3, service.distributeElements("channelId", mp, mpeIds, false).length);
+    Assert.assertEquals(3, uploads.get());
+  }
+
+  @Test
+  public void testCheckAvailability() throws Exception {
+    // The distributed element only becomes available on the second try
+    final AtomicInteger requests = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      int status = requests.incrementAndGet() < 2 ? 404 : 200;
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      URI uri = new URI("http://127.0.0.1:" + server.getAddress().getPort() + "/channelId/video.mp4");
+      Assert.assertTrue(service.isAvailable(uri));
+      Assert.assertEquals(2, requests.get());
+    } finally {
+      server.stop(0);
+    }
+  }
+
   @Test
   public void testRetractElements() throws Exception {
     s3.deleteObject(BUCKET_NAME,
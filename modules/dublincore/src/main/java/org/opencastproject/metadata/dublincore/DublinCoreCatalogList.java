@@ -22,6 +22,7 @@
 package org.opencastproject.metadata.dublincore;
 
 import org.opencastproject.util.IoSupport;
+import org.opencastproject.util.XmlUtil;
 
 import org.apache.commons.io.IOUtils;
 import org.json.simple.JSONArray;
@@ -44,17 +45,13 @@ import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathFactory;
 
 /**
  * Simple class that enables storage of {@link DublinCoreCatalog} list and serializing into xml or json string.
@@ -116,9 +113,7 @@ public class DublinCoreCatalogList {
    */
   public String getResultsAsXML() throws IOException {
     try {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder builder = factory.newDocumentBuilder();
-      DOMImplementation impl = builder.getDOMImplementation();
+      DOMImplementation impl = XmlUtil.documentBuilder().getDOMImplementation();
 
       Document doc = impl.createDocument(null, null, null);
       Element root = doc.createElement("dublincorelist");
@@ -129,7 +124,7 @@ public class DublinCoreCatalogList {
         root.appendChild(node);
       }
 
-      Transformer tf = TransformerFactory.newInstance().newTransformer();
+      Transformer tf = XmlUtil.newTransformer();
       DOMSource xmlSource = new DOMSource(doc);
       StringWriter out = new StringWriter();
       tf.transform(xmlSource, new StreamResult(out));
@@ -166,12 +161,9 @@ public class DublinCoreCatalogList {
       // XML
       InputStream is = null;
       try {
-        DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-        docBuilderFactory.setNamespaceAware(true);
-        DocumentBuilder docBuilder = docBuilderFactory.newDocumentBuilder();
         is = IOUtils.toInputStream(dcString, "UTF-8");
-        Document document = docBuilder.parse(is);
-        XPath xPath = XPathFactory.newInstance().newXPath();
+        Document document = XmlUtil.documentBuilderNs().parse(is);
+        XPath xPath = XmlUtil.newXPath();
 
         Number totalCount = (Number) xPath.evaluate("/*[local-name() = 'dublincorelist']/@totalCount", document,
                 XPathConstants.NUMBER);
@@ -206,7 +198,7 @@ public class DublinCoreCatalogList {
   private static InputStream nodeToString(Node node) {
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     try {
-      Transformer t = TransformerFactory.newInstance().newTransformer();
+      Transformer t = XmlUtil.newTransformer();
       t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
       t.setOutputProperty(OutputKeys.INDENT, "yes");
       t.transform(new DOMSource(node), new StreamResult(outputStream));
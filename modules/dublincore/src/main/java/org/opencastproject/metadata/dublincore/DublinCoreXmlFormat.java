@@ -25,6 +25,7 @@ import org.opencastproject.mediapackage.EName;
 import org.opencastproject.mediapackage.XMLCatalogImpl;
 import org.opencastproject.mediapackage.XMLCatalogImpl.CatalogEntry;
 import org.opencastproject.util.XmlNamespaceContext;
+import org.opencastproject.util.XmlUtil;
 
 import com.entwinemedia.fn.Fn;
 import com.entwinemedia.fn.data.Opt;
@@ -51,14 +52,11 @@ import java.util.List;
 
 import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 
@@ -243,12 +241,7 @@ public final class DublinCoreXmlFormat extends DefaultHandler {
   public static Document writeDocument(DublinCoreCatalog dc)
           throws ParserConfigurationException, TransformerException, IOException {
     // Create the DOM document
-    final Document doc;
-    {
-      final DocumentBuilderFactory docBuilderFactory = DocumentBuilderFactory.newInstance();
-      docBuilderFactory.setNamespaceAware(true);
-      doc = docBuilderFactory.newDocumentBuilder().newDocument();
-    }
+    final Document doc = XmlUtil.newDocument();
     if (dc.getRootTag() != null) {
       final Element rootElement = doc.createElementNS(dc.getRootTag().getNamespaceURI(), dc.toQName(dc.getRootTag()));
       doc.appendChild(rootElement);
@@ -273,7 +266,7 @@ public final class DublinCoreXmlFormat extends DefaultHandler {
 
   private DublinCoreCatalog readImpl(Node node) throws TransformerException {
     final Result outputTarget = new SAXResult(this);
-    final Transformer t = TransformerFactory.newInstance().newTransformer();
+    final Transformer t = XmlUtil.newTransformer();
     t.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
     t.transform(new DOMSource(node), outputTarget);
     return dc;
@@ -281,13 +274,8 @@ public final class DublinCoreXmlFormat extends DefaultHandler {
 
   private DublinCoreCatalog readImpl(InputSource in)
           throws ParserConfigurationException, SAXException, IOException {
-    final SAXParserFactory factory = SAXParserFactory.newInstance();
-    // no DTD
-    factory.setValidating(false);
-    // namespaces!
-    factory.setNamespaceAware(true);
-    // read document
-    factory.newSAXParser().parse(in, this);
+    // namespace aware parser without DTD validation
+    XmlUtil.saxParserNs().parse(in, this);
     return dc;
   }
 
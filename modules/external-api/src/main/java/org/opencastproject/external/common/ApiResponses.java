@@ -28,11 +28,17 @@ import com.entwinemedia.fn.data.json.SimpleSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 
 /**
  * A utility class for creating responses from the external api.
@@ -120,6 +126,48 @@ public final class ApiResponses {
       return ok(version, json);
     }
 
+    /**
+     * Create an ok json response for the external api with a json array as body. The items are rendered one at a time
+     * while the response is written, so only a single item is held in memory and the first bytes are sent before the
+     * last item is rendered.
+     * <p>
+     * Since the status line may already be sent, an item failing to render after the first one aborts the response.
+     *
+     * @param version
+     *          The version that was requested for the api
+     * @param items
+     *          The items to render into the array.
+     * @param renderer
+     *          Renders a single item into json.
+     * @return The new {@link Response}
+     */
+    public static <A> Response okArray(ApiVersion version, Iterable<A> items, ItemRenderer<A> renderer) {
+      final StreamingOutput body = out -> {
+        final Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write('[');
+        boolean first = true;
+        for (A item : items) {
+          final JValue json;
+          try {
+            json = renderer.render(item);
+          } catch (IOException e) {
+            throw e;
+          } catch (Exception e) {
+            logger.error("Unable to render item of json array response", e);
+            throw new IOException("Unable to render item of json array response", e);
+          }
+          if (!first) {
+            writer.write(',');
+          }
+          writer.write(serializer.toJson(json));
+          first = false;
+        }
+        writer.write(']');
+        writer.flush();
+      };
+      return Response.ok(body, APPLICATION_PREFIX + version.toExternalForm() + JSON_SUFFIX).build();
+    }
+
     /**
      * Create a created json response for the external api
      *
@@ -165,5 +213,12 @@ public final class ApiResponses {
       return Response.status(Status.CONFLICT).entity(serializer.toJson(json))
           .type(APPLICATION_PREFIX + version.toExternalForm() + JSON_SUFFIX).build();
     }
+
+    /**
+     * Renders a single item of a json array response.
+     */
+    public interface ItemRenderer<A> {
+      JValue render(A item) throws Exception;
+    }
   }
 }
@@ -765,17 +765,13 @@ public class EventsEndpoint implements ManagedService {
       source.updatePreview(previewSubtype);
       events.add(source);
     }
-    try {
-      return getJsonEvents(
-          acceptHeader, events, withAcl, withMetadata, withScheduling, withPublications, sign, requestedVersion);
-    } catch (Exception e) {
-      logger.error("Unable to get events", e);
-      throw new WebApplicationException(Status.INTERNAL_SERVER_ERROR);
-    }
+    return getJsonEvents(
+        acceptHeader, events, withAcl, withMetadata, withScheduling, withPublications, sign, requestedVersion);
   }
 
   /**
-   * Render a collection of {@link Event}s into a json array.
+   * Render a collection of {@link Event}s into a json array. The events are rendered one by one while the response is
+   * written, so ACLs, metadata and publications of only one event are held in memory at a time.
    *
    * @param acceptHeader
    *          The accept header to return to the client.
@@ -792,19 +788,11 @@ public class EventsEndpoint implements ManagedService {
    * @param withSignedUrls
    *          Whether to sign the included urls.
    * @return A {@link Response} with the accept header and body as the Json array of {@link Event}s.
-   * @throws IndexServiceException
-   * @throws SchedulerException
-   * @throws UnauthorizedException
    */
   protected Response getJsonEvents(String acceptHeader, List<IndexObject> events, Boolean withAcl, Boolean withMetadata,
-          Boolean withScheduling, Boolean withPublications, Boolean withSignedUrls, ApiVersion requestedVersion)
-      throws IndexServiceException, UnauthorizedException, SchedulerException {
-    List<JValue> eventsList = new ArrayList<>();
-    for (IndexObject item : events) {
-      eventsList.add(eventToJSON((Event) item, withAcl, withMetadata, withScheduling, withPublications, withSignedUrls,
-              requestedVersion));
-    }
-    return ApiResponses.Json.ok(requestedVersion, arr(eventsList));
+          Boolean withScheduling, Boolean withPublications, Boolean withSignedUrls, ApiVersion requestedVersion) {
+    return ApiResponses.Json.okArray(requestedVersion, events, item -> eventToJSON((Event) item, withAcl, withMetadata,
+            withScheduling, withPublications, withSignedUrls, requestedVersion));
   }
 
   /**
@@ -95,6 +95,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -288,9 +289,10 @@ public class SeriesEndpoint {
 
       SearchResult<Series> result = externalIndex.getByQuery(query);
 
-      return ApiResponses.Json.ok(requestedVersion, arr($(result.getItems()).map(new Fn<SearchResultItem<Series>, JValue>() {
+      return ApiResponses.Json.okArray(requestedVersion, Arrays.asList(result.getItems()),
+              new ApiResponses.Json.ItemRenderer<SearchResultItem<Series>>() {
         @Override
-        public JValue apply(SearchResultItem<Series> a) {
+        public JValue render(SearchResultItem<Series> a) {
           final Series s = a.getSource();
           JValue subjects;
           if (s.getSubject() == null) {
@@ -329,7 +331,7 @@ public class SeriesEndpoint {
           return result;
 
         }
-      }).toList()));
+      });
     } catch (Exception e) {
       logger.warn("Could not perform search query", e);
       throw new WebApplicationException(Response.Status.INTERNAL_SERVER_ERROR);
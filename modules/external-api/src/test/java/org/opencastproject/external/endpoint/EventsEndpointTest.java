@@ -70,6 +70,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -78,6 +79,7 @@ import java.util.List;
 import java.util.Map;
 
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
 import uk.co.datumedge.hamcrest.json.SameJSONAs;
 
@@ -161,7 +163,9 @@ public class EventsEndpointTest {
     Response result = endpoint.getJsonEvents(acceptHeader, events, false, false, false,false, false, ApiVersion.VERSION_1_0_0);
     assertNotNull(result.getMetadata().get("Content-Type"));
     assertEquals("application/v1.0.0+json", result.getMetadata().get("Content-Type").get(0).toString().toLowerCase());
-    assertThat(eventJson, SameJSONAs.sameJSONAs(result.getEntity().toString()).allowingAnyArrayOrdering());
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    ((StreamingOutput) result.getEntity()).write(body);
+    assertThat(eventJson, SameJSONAs.sameJSONAs(body.toString(UTF_8.name())).allowingAnyArrayOrdering());
   }
 
   @Ignore
@@ -1376,7 +1376,7 @@ public class IndexServiceImpl implements IndexService {
   @Override
   public boolean hasSnapshots(String eventId) {
     AQueryBuilder q = assetManager.createQuery();
-    return !enrich(q.select(q.snapshot()).where(q.mediaPackageId(eventId).and(q.version().isLatest())).run()).getSnapshots().isEmpty();
+    return !enrich(q.select(q.lazySnapshot()).where(q.mediaPackageId(eventId).and(q.version().isLatest())).run()).getSnapshots().isEmpty();
   }
 
   @Override
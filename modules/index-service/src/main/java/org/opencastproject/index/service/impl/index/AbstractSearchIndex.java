@@ -272,6 +272,33 @@ public abstract class AbstractSearchIndex extends AbstractElasticsearchIndex {
     }
   }
 
+  /**
+   * Adds the recording events to the search index or updates them accordingly if they are there, using a single bulk
+   * request.
+   *
+   * @param events
+   *          the recording events
+   * @throws SearchIndexException
+   *           if the events cannot be added or updated
+   */
+  public void addOrUpdate(List<Event> events) throws SearchIndexException {
+    if (events.isEmpty())
+      return;
+    logger.debug("Adding {} resources to search index", events.size());
+
+    ElasticsearchDocument[] docs = new ElasticsearchDocument[events.size()];
+    for (int i = 0; i < docs.length; i++) {
+      SearchMetadataCollection inputDocument = EventIndexUtils.toSearchMetadata(events.get(i));
+      docs[i] = new ElasticsearchDocument(inputDocument.getIdentifier(), inputDocument.getDocumentType(),
+              inputDocument.getMetadata());
+    }
+    try {
+      update(docs);
+    } catch (Throwable t) {
+      throw new SearchIndexException("Cannot write " + events.size() + " resources to index", t);
+    }
+  }
+
   /**
    * Adds or updates the group in the search index.
    *
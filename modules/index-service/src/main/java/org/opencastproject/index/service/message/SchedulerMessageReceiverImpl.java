@@ -28,8 +28,10 @@ import static org.opencastproject.index.service.impl.index.event.EventIndexUtils
 import org.opencastproject.index.service.impl.index.event.Event;
 import org.opencastproject.index.service.impl.index.event.EventIndexUtils;
 import org.opencastproject.matterhorn.search.SearchIndexException;
+import org.opencastproject.message.broker.api.MessageItem;
 import org.opencastproject.message.broker.api.MessageSender;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItem;
+import org.opencastproject.message.broker.api.scheduler.SchedulerItemBatch;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItemList;
 import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.security.api.AccessControlParser;
@@ -41,8 +43,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.List;
 
-public class SchedulerMessageReceiverImpl extends BaseMessageReceiverImpl<SchedulerItemList> {
+public class SchedulerMessageReceiverImpl extends BaseMessageReceiverImpl<MessageItem> {
 
   private static final Logger logger = LoggerFactory.getLogger(SchedulerMessageReceiverImpl.class);
 
@@ -54,181 +57,135 @@ public class SchedulerMessageReceiverImpl extends BaseMessageReceiverImpl<Schedu
   }
 
   @Override
-  protected void execute(SchedulerItemList messageContent) {
-    for (SchedulerItem item : messageContent.getItems()) {
-      executeSingle(messageContent.getId(), item);
+  protected void execute(MessageItem messageContent) {
+    if (messageContent instanceof SchedulerItemBatch) {
+      executeBatch((SchedulerItemBatch) messageContent);
+      return;
+    }
+    SchedulerItemList itemList = (SchedulerItemList) messageContent;
+    for (SchedulerItem item : itemList.getItems()) {
+      executeSingle(itemList.getId(), item);
     }
   }
 
-  private void executeSingle(final String mediaPackageId, final SchedulerItem schedulerItem) {
-    DublinCoreCatalog dc = schedulerItem.getEvent();
+  private void executeBatch(final SchedulerItemBatch batch) {
+    String organization = getSecurityService().getOrganization().getId();
+    User user = getSecurityService().getUser();
+    List<Event> events = new ArrayList<>(batch.getLists().size());
+    for (SchedulerItemList itemList : batch.getLists()) {
+      try {
+        Event event = getOrCreateEvent(itemList.getId(), organization, user, getSearchIndex());
+        for (SchedulerItem item : itemList.getItems()) {
+          updateEvent(event, item);
+        }
+        events.add(event);
+      } catch (SearchIndexException e) {
+        logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
+      }
+    }
 
-    Event event;
+    // Persist all scheduling events with a single bulk request
+    try {
+      getSearchIndex().addOrUpdate(events);
+      logger.debug("{} scheduled recordings updated in the {} search index", events.size(),
+        getSearchIndex().getIndexName());
+    } catch (SearchIndexException e) {
+      logger.error("Error updating the recording events in the search index: {}", getStackTrace(e));
+    }
+  }
+
+  private void executeSingle(final String mediaPackageId, final SchedulerItem schedulerItem) {
     String organization = getSecurityService().getOrganization().getId();
     User user = getSecurityService().getUser();
+    if (SchedulerItem.Type.Delete.equals(schedulerItem.getType())) {
+      logger.debug("Received Delete Event {}", mediaPackageId);
+
+      // Remove the scheduling from the search index
+      try {
+        getSearchIndex().deleteScheduling(organization, user, mediaPackageId);
+        logger.debug("Scheduled recording {} removed from the {} search index",
+          mediaPackageId, getSearchIndex().getIndexName());
+      } catch (NotFoundException e) {
+        logger.warn("Scheduled recording {} not found for deletion", mediaPackageId);
+      } catch (SearchIndexException e) {
+        logger.error("Error deleting the recording event from the search index: {}", getStackTrace(e));
+      }
+      return;
+    }
+
+    // Load or create the corresponding recording event
+    Event event;
+    try {
+      event = getOrCreateEvent(mediaPackageId, organization, user, getSearchIndex());
+      updateEvent(event, schedulerItem);
+    } catch (SearchIndexException e) {
+      logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
+      return;
+    }
+
+    // Persist the scheduling event
+    updateEvent(event);
+  }
+
+  /**
+   * Applies a scheduler update to a recording event without persisting it.
+   */
+  private void updateEvent(final Event event, final SchedulerItem schedulerItem) {
+    final String mediaPackageId = event.getIdentifier();
     switch (schedulerItem.getType()) {
       case UpdateCatalog:
         logger.debug("Received Update Catalog");
-
-        // Load or create the corresponding recording event
-        try {
-          event = getOrCreateEvent(mediaPackageId, organization, user, getSearchIndex());
-          if (isBlank(event.getCreator()))
-            event.setCreator(getSecurityService().getUser().getName());
-          if (dc != null)
-            EventIndexUtils.updateEvent(event, dc);
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
+        DublinCoreCatalog dc = schedulerItem.getEvent();
+        if (isBlank(event.getCreator()))
+          event.setCreator(getSecurityService().getUser().getName());
+        if (dc != null)
+          EventIndexUtils.updateEvent(event, dc);
 
         // Update series name if not already done
         try {
-          EventIndexUtils.updateSeriesName(event, organization, user, getSearchIndex());
+          EventIndexUtils.updateSeriesName(event, getSecurityService().getOrganization().getId(),
+                  getSecurityService().getUser(), getSearchIndex());
         } catch (SearchIndexException e) {
           logger.error("Error updating the series name of the event to index: {}", getStackTrace(e));
         }
-
-        // Persist the scheduling event
-        updateEvent(event);
         break;
       case UpdateAcl:
         logger.debug("Received Update ACL");
-
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setAccessPolicy(AccessControlParser.toJsonSilent(schedulerItem.getAcl()));
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setAccessPolicy(AccessControlParser.toJsonSilent(schedulerItem.getAcl()));
+        break;
       case UpdateAgentId:
         logger.debug("Received update event '{}' with agent id to '{}'", mediaPackageId,
                 schedulerItem.getAgentId());
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setAgentId(schedulerItem.getAgentId());
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setAgentId(schedulerItem.getAgentId());
+        break;
       case UpdateProperties:
         logger.debug("Received update event '{}' CA Properties '{}'", mediaPackageId,
                 schedulerItem.getProperties());
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setAgentConfiguration(schedulerItem.getProperties());
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setAgentConfiguration(schedulerItem.getProperties());
+        break;
       case UpdateRecordingStatus:
         logger.debug("Received Update Recording {}", mediaPackageId);
-
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setRecordingStatus(schedulerItem.getRecordingState());
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setRecordingStatus(schedulerItem.getRecordingState());
+        break;
       case DeleteRecordingStatus:
         logger.debug("Received Delete recording status {}", mediaPackageId);
-
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setRecordingStatus(null);
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setRecordingStatus(null);
+        break;
       case UpdateEnd:
         String endTime = schedulerItem.getEnd() == null ? null : DateTimeSupport.toUTC(schedulerItem.getEnd().getTime());
         logger.debug("Received update event '{}' end time '{}'", mediaPackageId, endTime);
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setTechnicalEndTime(endTime);
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setTechnicalEndTime(endTime);
+        break;
       case UpdateStart:
         String startTime = schedulerItem.getStart() == null ? null : DateTimeSupport.toUTC(schedulerItem.getStart().getTime());
         logger.debug("Received update event '{}' start time '{}'", mediaPackageId, startTime);
-        // Load the corresponding recording event
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setTechnicalStartTime(startTime);
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
+        event.setTechnicalStartTime(startTime);
+        break;
       case UpdatePresenters:
         logger.debug("Received update event '{}' with presenters '{}'", mediaPackageId,
                 schedulerItem.getPresenters());
-        try {
-          event = EventIndexUtils.getOrCreateEvent(mediaPackageId, organization, user,
-                  getSearchIndex());
-          event.setTechnicalPresenters(new ArrayList<>(schedulerItem.getPresenters()));
-        } catch (SearchIndexException e) {
-          logger.error("Error retrieving the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        // Persist the scheduling event
-        updateEvent(event);
-        return;
-      case Delete:
-        logger.debug("Received Delete Event {}", mediaPackageId);
-
-        // Remove the scheduling from the search index
-        try {
-          getSearchIndex().deleteScheduling(organization, user, mediaPackageId);
-          logger.debug("Scheduled recording {} removed from the {} search index",
-            mediaPackageId, getSearchIndex().getIndexName());
-        } catch (NotFoundException e) {
-          logger.warn("Scheduled recording {} not found for deletion", mediaPackageId);
-        } catch (SearchIndexException e) {
-          logger.error("Error deleting the recording event from the search index: {}", getStackTrace(e));
-          return;
-        }
-        return;
+        event.setTechnicalPresenters(new ArrayList<>(schedulerItem.getPresenters()));
+        break;
       default:
         throw new IllegalArgumentException("Unhandled type of SchedulerItem");
     }
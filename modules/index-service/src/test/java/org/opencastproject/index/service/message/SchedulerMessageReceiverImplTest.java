@@ -22,9 +22,11 @@ package org.opencastproject.index.service.message;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import org.opencastproject.index.service.impl.index.event.Event;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItem;
+import org.opencastproject.message.broker.api.scheduler.SchedulerItemBatch;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItemList;
 import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.metadata.dublincore.DublinCores;
@@ -34,6 +36,8 @@ import org.opencastproject.security.api.SecurityService;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Collections;
+
 public class SchedulerMessageReceiverImplTest {
 
   private SchedulerMessageReceiverImpl scheduler;
@@ -68,4 +72,18 @@ public class SchedulerMessageReceiverImplTest {
     assertEquals("Creator has been updated", "Hans", event.getCreator());
   }
 
+  @Test
+  public void testBatchUpdate() throws Exception {
+    DublinCoreCatalog catalog = DublinCores.read(getClass().getResourceAsStream("/dublincore.xml"));
+    SchedulerItemList itemList = new SchedulerItemList("uuid", new SchedulerItem[] {
+            SchedulerItem.updateCatalog(catalog), SchedulerItem.updateAgent("agent") });
+
+    scheduler.execute(new SchedulerItemBatch(Collections.singletonList(itemList)));
+    assertNull("Batched events are expected to be written in bulk", index.getEventResult());
+    assertEquals(1, index.getEventsResult().size());
+    Event event = index.getEventsResult().get(0);
+    assertEquals("Creator", event.getCreator());
+    assertEquals("agent", event.getAgentId());
+  }
+
 }
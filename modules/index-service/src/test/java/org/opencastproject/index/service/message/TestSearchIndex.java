@@ -39,18 +39,24 @@ import org.opencastproject.security.api.JaxbUser;
 import org.opencastproject.security.api.SecurityService;
 
 import java.util.HashSet;
+import java.util.List;
 
 public class TestSearchIndex extends AbstractSearchIndex {
 
   private Event initialEvent = new Event();
   private Series initialSeries = new Series();
   private Event eventResult;
+  private List<Event> eventsResult;
   private Series seriesResult;
 
   public Event getEventResult() {
     return eventResult;
   }
 
+  public List<Event> getEventsResult() {
+    return eventsResult;
+  }
+
   public Series getSeriesResult() {
     return seriesResult;
   }
@@ -92,6 +98,11 @@ public class TestSearchIndex extends AbstractSearchIndex {
     this.eventResult = event;
   }
 
+  @Override
+  public void addOrUpdate(List<Event> events) throws SearchIndexException {
+    this.eventsResult = events;
+  }
+
   @Override
   public void addOrUpdate(Series series) throws SearchIndexException {
     this.seriesResult = series;
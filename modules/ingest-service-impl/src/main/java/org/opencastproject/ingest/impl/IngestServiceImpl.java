@@ -56,16 +56,19 @@ import org.opencastproject.metadata.dublincore.EncodingSchemeUtils;
 import org.opencastproject.scheduler.api.SchedulerException;
 import org.opencastproject.scheduler.api.SchedulerService;
 import org.opencastproject.security.api.AuthorizationService;
+import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.OrganizationDirectoryService;
 import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.TrustedHttpClient;
 import org.opencastproject.security.api.UnauthorizedException;
+import org.opencastproject.security.api.User;
 import org.opencastproject.security.api.UserDirectoryService;
 import org.opencastproject.security.util.StandAloneTrustedHttpClientImpl;
 import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.smil.api.util.SmilUtil;
+import org.opencastproject.util.Checksum;
 import org.opencastproject.util.ConfigurationException;
 import org.opencastproject.util.IoSupport;
 import org.opencastproject.util.LoadUtil;
@@ -90,11 +93,15 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
-import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.cxf.jaxrs.ext.multipart.ContentDisposition;
 import org.apache.http.Header;
 import org.apache.http.HttpResponse;
@@ -115,21 +122,33 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.management.ObjectInstance;
@@ -192,6 +211,15 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
   /** The key to look for in the service configuration file to override the {@link DEFAULT_INGEST_ZIP_JOB_LOAD} */
   public static final String ZIP_JOB_LOAD_KEY = "job.load.ingest.zip";
 
+  /** The default number of threads extracting the entries of a zipped media package */
+  public static final int DEFAULT_ZIP_EXTRACTION_THREADS = 4;
+
+  /** The key to look for in the service configuration file to override the {@link DEFAULT_ZIP_EXTRACTION_THREADS} */
+  public static final String ZIP_EXTRACTION_THREADS_KEY = "zip.extraction.threads";
+
+  /** The directory below the storage directory to spool zipped media packages to */
+  public static final String DEFAULT_ZIP_SPOOL_DIR = "tmp/ingest";
+
   /** The source to download from  */
   public static final String DOWNLOAD_SOURCE = "org.opencastproject.download.source";
 
@@ -216,6 +244,12 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
   /** The approximate load placed on the system by ingesting a zip file */
   private float ingestZipJobLoad = DEFAULT_INGEST_ZIP_JOB_LOAD;
 
+  /** The number of threads extracting the entries of a zipped media package */
+  private int zipExtractionThreads = DEFAULT_ZIP_EXTRACTION_THREADS;
+
+  /** The directory to spool zipped media packages to, or <code>null</code> for the system's temporary directory */
+  private File zipSpoolDir = null;
+
   /** The user for download from external sources */
   private static String downloadUser = DOWNLOAD_USER;
 
@@ -301,6 +335,20 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
     if (defaultWorkflowDefinionId == null) {
       defaultWorkflowDefinionId = "schedule-and-upload";
     }
+    // Spool zipped media packages next to the working file repository, as they may be too large for the system's
+    // temporary directory
+    String storageDir = StringUtils.trimToNull(cc.getBundleContext().getProperty("org.opencastproject.storage.dir"));
+    if (storageDir != null) {
+      zipSpoolDir = new File(storageDir, DEFAULT_ZIP_SPOOL_DIR);
+      try {
+        FileUtils.forceMkdir(zipSpoolDir);
+        // Remove archives left over by ingests interrupted by a shutdown
+        FileUtils.cleanDirectory(zipSpoolDir);
+      } catch (IOException e) {
+        logger.error("Could not create the spool directory for zipped media packages {}", zipSpoolDir);
+        throw new IllegalStateException(e);
+      }
+    }
     registerMXBean = JmxUtil.registerMXBean(ingestStatistics, "IngestStatistics");
   }
 
@@ -337,6 +385,14 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
             serviceRegistry);
     ingestZipJobLoad = LoadUtil.getConfiguredLoadValue(properties, ZIP_JOB_LOAD_KEY, DEFAULT_INGEST_ZIP_JOB_LOAD,
             serviceRegistry);
+    zipExtractionThreads = NumberUtils.toInt(Objects.toString(properties.get(ZIP_EXTRACTION_THREADS_KEY), null),
+            DEFAULT_ZIP_EXTRACTION_THREADS);
+    if (zipExtractionThreads < 1) {
+      logger.warn("Invalid number of zip extraction threads {}, using {}", zipExtractionThreads,
+              DEFAULT_ZIP_EXTRACTION_THREADS);
+      zipExtractionThreads = DEFAULT_ZIP_EXTRACTION_THREADS;
+    }
+    logger.debug("Extracting zipped media packages with {} threads", zipExtractionThreads);
     // try to get overwrite series option from config, use default if not configured
     try {
       allowSeriesModifications = Boolean.parseBoolean(((String) properties.get(PROPKEY_OVERWRITE_SERIES)).trim());
@@ -460,8 +516,12 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
       logger.info("Ingesting zipped mediapackage");
     }
 
-    ZipArchiveInputStream zis = null;
-    Set<String> collectionFilenames = new HashSet<>();
+    File spool = null;
+    ZipFile zip = null;
+    ExecutorService extractors = null;
+    String mediaPackageId = null;
+    List<String> extractedElements = new CopyOnWriteArrayList<>();
+    boolean success = false;
     try {
       // We don't need anybody to do the dispatching for us. Therefore we need to make sure that the job is never in
       // QUEUED state but set it to INSTANTIATED in the beginning and then manually switch it to RUNNING.
@@ -469,60 +529,41 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
       job.setStatus(Status.RUNNING);
       job = serviceRegistry.updateJob(job);
 
-      // Create the working file target collection for this ingest operation
-      String wfrCollectionId = Long.toString(job.getId());
+      // Spool the archive once so that its central directory can be used for random access to the entries
+      spool = File.createTempFile("ingest-" + job.getId() + "-", ".zip", zipSpoolDir);
+      Files.copy(zipStream, spool.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      zip = new ZipFile(spool);
 
-      zis = new ZipArchiveInputStream(zipStream);
-      ZipArchiveEntry entry;
       MediaPackage mp = null;
-      Map<String, URI> uris = new HashMap<>();
-      // Sequential number to append to file names so that, if two files have the same
-      // name, one does not overwrite the other (see MH-9688)
-      int seq = 1;
+      Map<String, ZipArchiveEntry> entries = new HashMap<>();
       // Folder name to compare with next one to figure out if there's a root folder
       String folderName = null;
       // Indicates if zip has a root folder or not, initialized as true
       boolean hasRootFolder = true;
-      // While there are entries write them to a collection
-      while ((entry = zis.getNextZipEntry()) != null) {
-        try {
-          if (entry.isDirectory() || entry.getName().contains("__MACOSX"))
-            continue;
-
-          if (entry.getName().endsWith("manifest.xml") || entry.getName().endsWith("index.xml")) {
-            // Build the mediapackage
-            mp = loadMediaPackageFromManifest(new ZipEntryInputStream(zis, entry.getSize()));
-          } else {
-            logger.info("Storing zip entry {}/{} in working file repository collection '{}'", job.getId(),
-                    entry.getName(), wfrCollectionId);
-            // Since the directory structure is not being mirrored, makes sure the file
-            // name is different than the previous one(s) by adding a sequential number
-            String fileName = FilenameUtils.getBaseName(entry.getName()) + "_" + seq++ + "."
-                    + FilenameUtils.getExtension(entry.getName());
-            URI contentUri = workingFileRepository.putInCollection(wfrCollectionId, fileName,
-                    new ZipEntryInputStream(zis, entry.getSize()));
-            collectionFilenames.add(fileName);
-            // Key is the zip entry name as it is
-            String key = entry.getName();
-            uris.put(key, contentUri);
-            ingestStatistics.add(entry.getSize());
-            logger.info("Zip entry {}/{} stored at {}", job.getId(), entry.getName(), contentUri);
-            // Figures out if there's a root folder. Does entry name starts with a folder?
-            int pos = entry.getName().indexOf('/');
-            if (pos == -1) {
-              // No, we can conclude there's no root folder
-              hasRootFolder = false;
-            } else if (hasRootFolder && folderName != null && !folderName.equals(entry.getName().substring(0, pos))) {
-              // Folder name different from previous so there's no root folder
-              hasRootFolder = false;
-            } else if (folderName == null) {
-              // Just initialize folder name
-              folderName = entry.getName().substring(0, pos);
-            }
+      for (ZipArchiveEntry entry : Collections.list(zip.getEntries())) {
+        if (entry.isDirectory() || entry.getName().contains("__MACOSX"))
+          continue;
+
+        if (entry.getName().endsWith("manifest.xml") || entry.getName().endsWith("index.xml")) {
+          // Build the mediapackage
+          try (InputStream manifest = zip.getInputStream(entry)) {
+            mp = loadMediaPackageFromManifest(manifest);
+          }
+        } else {
+          // Key is the zip entry name as it is
+          entries.put(entry.getName(), entry);
+          // Figures out if there's a root folder. Does entry name starts with a folder?
+          int pos = entry.getName().indexOf('/');
+          if (pos == -1) {
+            // No, we can conclude there's no root folder
+            hasRootFolder = false;
+          } else if (hasRootFolder && folderName != null && !folderName.equals(entry.getName().substring(0, pos))) {
+            // Folder name different from previous so there's no root folder
+            hasRootFolder = false;
+          } else if (folderName == null) {
+            // Just initialize folder name
+            folderName = entry.getName().substring(0, pos);
           }
-        } catch (IOException e) {
-          logger.warn("Unable to process zip entry {}: {}", entry.getName(), e);
-          throw e;
         }
       }
 
@@ -533,7 +574,7 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
       if (mp.getIdentifier() == null || isBlank(mp.getIdentifier().toString()))
         mp.setIdentifier(new UUIDIdBuilderImpl().createNew());
 
-      String mediaPackageId = mp.getIdentifier().toString();
+      mediaPackageId = mp.getIdentifier().toString();
 
       logger.info("Ingesting mediapackage {} is named '{}'", mediaPackageId, mp.getTitle());
 
@@ -542,16 +583,57 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
         logger.warn("Mediapackage {} has no media tracks", mediaPackageId);
       }
 
-      // Update the element uris to point to their working file repository location
+      // Map the elements to their zip entries before anything is written
+      Map<MediaPackageElement, ZipArchiveEntry> elementEntries = new LinkedHashMap<>();
       for (MediaPackageElement element : mp.elements()) {
         // Key has root folder name if there is one
-        URI uri = uris.get((hasRootFolder ? folderName + "/" : "") + element.getURI().toString());
+        ZipArchiveEntry entry = entries.get((hasRootFolder ? folderName + "/" : "") + element.getURI().toString());
+        if (entry == null)
+          throw new MediaPackageException("Unable to map element name '" + element.getURI() + "' to zip entry");
+        elementEntries.put(element, entry);
+      }
 
-        if (uri == null)
-          throw new MediaPackageException("Unable to map element name '" + element.getURI() + "' to workspace uri");
-        logger.info("Ingested mediapackage element {}/{} located at {}", mediaPackageId, element.getIdentifier(), uri);
-        URI dest = workingFileRepository.moveTo(wfrCollectionId, FilenameUtils.getName(uri.toString()), mediaPackageId,
-                element.getIdentifier(), FilenameUtils.getName(element.getURI().toString()));
+      // Extract the entries concurrently, straight to their final location in the working file repository
+      final Organization organization = securityService.getOrganization();
+      final User user = securityService.getUser();
+      final ZipFile archive = zip;
+      final String mpId = mediaPackageId;
+      final long jobId = job.getId();
+      extractors = Executors.newFixedThreadPool(Math.max(1, Math.min(zipExtractionThreads, elementEntries.size())));
+      Map<MediaPackageElement, Future<URI>> extractions = new LinkedHashMap<>();
+      for (Entry<MediaPackageElement, ZipArchiveEntry> elementEntry : elementEntries.entrySet()) {
+        final MediaPackageElement element = elementEntry.getKey();
+        final ZipArchiveEntry entry = elementEntry.getValue();
+        extractions.put(element, extractors.submit(() -> {
+          securityService.setOrganization(organization);
+          securityService.setUser(user);
+          try {
+            URI uri = extractZipEntry(archive, entry, mpId, element);
+            extractedElements.add(element.getIdentifier());
+            logger.info("Zip entry {}/{} stored at {}", jobId, entry.getName(), uri);
+            return uri;
+          } finally {
+            securityService.setOrganization(null);
+            securityService.setUser(null);
+          }
+        }));
+      }
+
+      // Update the element uris to point to their working file repository location
+      for (Entry<MediaPackageElement, Future<URI>> extraction : extractions.entrySet()) {
+        MediaPackageElement element = extraction.getKey();
+        URI dest;
+        try {
+          dest = extraction.getValue().get();
+        } catch (ExecutionException e) {
+          logger.warn("Unable to process zip entry {}: {}", elementEntries.get(element).getName(), e.getCause());
+          if (e.getCause() instanceof MediaPackageException)
+            throw (MediaPackageException) e.getCause();
+          if (e.getCause() instanceof IOException)
+            throw (IOException) e.getCause();
+          throw new IngestException(e.getCause());
+        }
+        logger.info("Ingested mediapackage element {}/{} located at {}", mediaPackageId, element.getIdentifier(), dest);
         element.setURI(dest);
 
         // TODO: This should be triggered somehow instead of being handled here
@@ -566,6 +648,7 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
       WorkflowInstance workflowInstance = ingest(mp, workflowDefinitionId, workflowConfig, workflowInstanceId);
       logger.info("Ingest of mediapackage {} done", mediaPackageId);
       job.setStatus(Job.Status.FINISHED);
+      success = true;
       return workflowInstance;
     } catch (ServiceRegistryException e) {
       throw new IngestException(e);
@@ -577,12 +660,70 @@ public class IngestServiceImpl extends AbstractJobProducer implements IngestServ
         throw (IngestException) e;
       throw new IngestException(e);
     } finally {
-      IOUtils.closeQuietly(zis);
+      if (extractors != null)
+        extractors.shutdownNow();
+      IOUtils.closeQuietly(zip);
+      FileUtils.deleteQuietly(spool);
       finallyUpdateJob(job);
-      for (String filename : collectionFilenames) {
-        workingFileRepository.deleteFromCollection(Long.toString(job.getId()), filename, true);
+      if (!success) {
+        for (String elementId : extractedElements) {
+          try {
+            workingFileRepository.delete(mediaPackageId, elementId);
+          } catch (IOException e) {
+            logger.warn("Unable to remove element {}/{} of failed ingest", mediaPackageId, elementId, e);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Extracts a zip entry to the working file repository location of the given element. If the manifest lists a
+   * checksum for the element, it is verified while the entry is being stored.
+   *
+   * @param zip
+   *          the zip archive
+   * @param entry
+   *          the zip entry containing the element
+   * @param mediaPackageId
+   *          the media package identifier
+   * @param element
+   *          the media package element
+   * @return the working file repository uri of the element
+   * @throws IOException
+   *           if reading the entry or writing the element fails
+   * @throws MediaPackageException
+   *           if the element does not match the checksum from the manifest
+   */
+  private URI extractZipEntry(ZipFile zip, ZipArchiveEntry entry, String mediaPackageId, MediaPackageElement element)
+          throws IOException, MediaPackageException {
+    logger.info("Storing zip entry {} as element {}/{}", entry.getName(), mediaPackageId, element.getIdentifier());
+    Checksum expected = element.getChecksum();
+    MessageDigest digest = null;
+    if (expected != null) {
+      try {
+        digest = MessageDigest.getInstance(expected.getType().getName());
+      } catch (NoSuchAlgorithmException e) {
+        logger.warn("Unable to verify checksum of element {}/{}: {}", mediaPackageId, element.getIdentifier(),
+                e.getMessage());
       }
     }
+    URI uri;
+    try (InputStream in = digest == null ? zip.getInputStream(entry)
+            : new DigestInputStream(zip.getInputStream(entry), digest)) {
+      // The working file repository closes the stream, but the digest has to cover the whole entry
+      uri = workingFileRepository.put(mediaPackageId, element.getIdentifier(),
+              FilenameUtils.getName(element.getURI().toString()), new CloseShieldInputStream(in));
+      IOUtils.copy(in, NullOutputStream.NULL_OUTPUT_STREAM);
+    }
+    ingestStatistics.add(entry.getSize());
+    if (digest != null) {
+      String actual = Checksum.convertToHex(digest.digest());
+      if (!actual.equalsIgnoreCase(expected.getValue()))
+        throw new MediaPackageException("Checksum mismatch of zip entry '" + entry.getName() + "': expected "
+                + expected.getValue() + " but was " + actual);
+    }
+    return uri;
   }
 
   private MediaPackage loadMediaPackageFromManifest(InputStream manifest)
@@ -31,6 +31,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Collects the ingest statistics. Ingests run concurrently, so all access to the counters is synchronized.
+ */
 public class IngestStatistics implements IngestStatisticsMXBean {
 
   private long totalNumBytesRead = 0L;
@@ -42,7 +45,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getSuccessfulIngestOperations()
    */
   @Override
-  public int getSuccessfulIngestOperations() {
+  public synchronized int getSuccessfulIngestOperations() {
     return successful;
   }
 
@@ -50,7 +53,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getFailedIngestOperations()
    */
   @Override
-  public int getFailedIngestOperations() {
+  public synchronized int getFailedIngestOperations() {
     return failed;
   }
 
@@ -58,7 +61,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getTotalBytes()
    */
   @Override
-  public long getTotalBytes() {
+  public synchronized long getTotalBytes() {
     return totalNumBytesRead;
   }
 
@@ -66,7 +69,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getBytesInLastMinute()
    */
   @Override
-  public long getBytesInLastMinute() {
+  public synchronized long getBytesInLastMinute() {
     long key = getKeyByTime(new DateTime().minusMinutes(1).getMillis());
     return key != 0 ? totalNumBytesRead - bytesCounter.getIfPresent(key) : 0;
   }
@@ -75,7 +78,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getBytesInLastFiveMinutes()
    */
   @Override
-  public long getBytesInLastFiveMinutes() {
+  public synchronized long getBytesInLastFiveMinutes() {
     long key = getKeyByTime(new DateTime().minusMinutes(5).getMillis());
     return key != 0 ? totalNumBytesRead - bytesCounter.getIfPresent(key) : 0;
   }
@@ -84,7 +87,7 @@ public class IngestStatistics implements IngestStatisticsMXBean {
    * @see org.opencastproject.ingest.impl.jmx.IngestStatisticsMXBean#getBytesInLastFifteenMinutes()
    */
   @Override
-  public long getBytesInLastFifteenMinutes() {
+  public synchronized long getBytesInLastFifteenMinutes() {
     long key = getKeyByTime(new DateTime().minusMinutes(15).getMillis());
     return key != 0 ? totalNumBytesRead - bytesCounter.getIfPresent(key) : 0;
   }
@@ -102,18 +105,18 @@ public class IngestStatistics implements IngestStatisticsMXBean {
     return key;
   }
 
-  public void add(long bytes) {
+  public synchronized void add(long bytes) {
     if (totalNumBytesRead == 0)
       bytesCounter.put(System.currentTimeMillis(), 0L);
     totalNumBytesRead += bytes;
     bytesCounter.put(System.currentTimeMillis(), totalNumBytesRead);
   }
 
-  public void successful() {
+  public synchronized void successful() {
     successful++;
   }
 
-  public void failed() {
+  public synchronized void failed() {
     failed++;
   }
 
@@ -32,6 +32,7 @@ import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageElementParser;
 import org.opencastproject.mediapackage.MediaPackageElements;
+import org.opencastproject.mediapackage.MediaPackageException;
 import org.opencastproject.mediapackage.MediaPackageParser;
 import org.opencastproject.mediapackage.Track;
 import org.opencastproject.mediapackage.track.AudioStreamImpl;
@@ -87,21 +88,32 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 public class IngestServiceImplTest {
   private IngestServiceImpl service = null;
@@ -375,6 +387,71 @@ public class IngestServiceImplTest {
 
   }
 
+  @Test
+  public void testThickClientSpoolsToStorageDirectory() throws Exception {
+    File storageDir = new File(ingestTempDir, "storage");
+    File spoolDir = new File(storageDir, IngestServiceImpl.DEFAULT_ZIP_SPOOL_DIR);
+    FileUtils.forceMkdir(spoolDir);
+    File leftover = new File(spoolDir, "ingest-1-leftover.zip");
+    FileUtils.touch(leftover);
+
+    BundleContext bc = EasyMock.createNiceMock(BundleContext.class);
+    EasyMock.expect(bc.getProperty("org.opencastproject.storage.dir")).andReturn(storageDir.getAbsolutePath())
+            .anyTimes();
+    ComponentContext cc = EasyMock.createNiceMock(ComponentContext.class);
+    EasyMock.expect(cc.getBundleContext()).andReturn(bc).anyTimes();
+    EasyMock.replay(bc, cc);
+    service.activate(cc);
+    service.defaultWorkflowDefinionId = "sample";
+    try {
+      // Archives left over by interrupted ingests are removed
+      Assert.assertFalse(leftover.exists());
+
+      final List<String> spooled = new ArrayList<>();
+      InputStream packageStream = new FilterInputStream(urlPackage.toURL().openStream()) {
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int read = super.read(b, off, len);
+          if (read < 0 && spooled.isEmpty())
+            spooled.addAll(Arrays.asList(spoolDir.list()));
+          return read;
+        }
+      };
+      try {
+        service.addZippedMediaPackage(packageStream);
+      } finally {
+        IOUtils.closeQuietly(packageStream);
+      }
+      Assert.assertEquals(1, spooled.size());
+      Assert.assertEquals(0, spoolDir.list().length);
+    } finally {
+      service.deactivate();
+    }
+  }
+
+  @Test(expected = MediaPackageException.class)
+  public void testThickClientChecksumMismatch() throws Exception {
+    // Copy the package, but break the checksum of one of the elements in the manifest
+    ByteArrayOutputStream brokenPackage = new ByteArrayOutputStream();
+    try (ZipInputStream in = new ZipInputStream(urlPackage.toURL().openStream());
+            ZipOutputStream out = new ZipOutputStream(brokenPackage)) {
+      ZipEntry entry;
+      while ((entry = in.getNextEntry()) != null) {
+        out.putNextEntry(new ZipEntry(entry.getName()));
+        if (entry.getName().endsWith("manifest.xml")) {
+          String manifest = IOUtils.toString(in, StandardCharsets.UTF_8);
+          out.write(manifest.replace("0d1a5dceaa7b41db5ffea381815f6601", "00000000000000000000000000000000")
+                  .getBytes(StandardCharsets.UTF_8));
+        } else {
+          IOUtils.copy(in, out);
+        }
+        out.closeEntry();
+      }
+    }
+
+    service.addZippedMediaPackage(new ByteArrayInputStream(brokenPackage.toByteArray()));
+  }
+
   @Test
   public void testContentDisposition() throws Exception {
     MediaPackage mediaPackage = null;
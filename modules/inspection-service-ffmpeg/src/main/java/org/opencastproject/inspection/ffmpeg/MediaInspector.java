@@ -89,6 +89,23 @@ public class MediaInspector {
    *           if inspection fails
    */
   public Track inspectTrack(URI trackURI, Map<String, String> options) throws MediaInspectionException {
+    return inspectTrack(trackURI, null, options);
+  }
+
+  /**
+   * Inspects the element that is passed in as uri. The checksum is only calculated if it is not already known, e.g.
+   * because the file has been hashed while it was written.
+   *
+   * @param trackURI
+   *          the element uri
+   * @param checksum
+   *          the checksum of the element or <code>null</code> to calculate it
+   * @return the inspected track
+   * @throws org.opencastproject.inspection.api.MediaInspectionException
+   *           if inspection fails
+   */
+  public Track inspectTrack(URI trackURI, Checksum checksum, Map<String, String> options)
+          throws MediaInspectionException {
     logger.debug("inspect(" + trackURI + ") called, using workspace " + workspace);
     throwExceptionIfInvalid(options);
 
@@ -128,10 +145,14 @@ public class MediaInspector {
           track.setDuration(metadata.getDuration());
 
         // Checksum
-        try {
-          track.setChecksum(Checksum.create(ChecksumType.DEFAULT_TYPE, file));
-        } catch (IOException e) {
-          throw new MediaInspectionException("Unable to read " + file, e);
+        if (checksum != null) {
+          track.setChecksum(checksum);
+        } else {
+          try {
+            track.setChecksum(Checksum.create(ChecksumType.DEFAULT_TYPE, file));
+          } catch (IOException e) {
+            throw new MediaInspectionException("Unable to read " + file, e);
+          }
         }
 
         // Mimetype
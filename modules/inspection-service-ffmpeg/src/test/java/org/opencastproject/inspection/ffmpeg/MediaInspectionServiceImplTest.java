@@ -128,6 +128,19 @@ public class MediaInspectionServiceImplTest {
     }
   }
 
+  @Test
+  public void testInspectionWithKnownChecksum() throws Exception {
+    final URI trackUri = getResource("/test.mp4");
+    for (MediaInspector mi : init(trackUri)) {
+      // A checksum calculated while writing the file is used as is
+      Checksum cs = Checksum.create(ChecksumType.DEFAULT_TYPE, "00000000000000000000000000000000");
+      Track track = mi.inspectTrack(trackUri, cs, Options.NO_OPTION);
+      assertEquals(cs, track.getChecksum());
+      assertEquals("video", track.getMimeType().getType());
+      assertNotNull(track.getDuration());
+    }
+  }
+
   @Test
   public void testInspectionEmptyContainer() throws Exception {
     final URI trackUri = getResource("/nostreams.mp4");
@@ -59,6 +59,8 @@ import org.opencastproject.security.api.AclScope;
 import org.opencastproject.security.api.AuthorizationService;
 import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.OrganizationDirectoryService;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.User;
 import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.util.MimeTypes;
@@ -71,6 +73,7 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.http.client.utils.URIUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
@@ -83,13 +86,18 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -111,6 +119,10 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
   private static final String DEFAULT_STREAM_NAME = "live-stream";
   private static final String DEFAULT_LIVE_TARGET_FLAVORS = "presenter/delivery";
   static final String DEFAULT_LIVE_DISTRIBUTION_SERVICE = "download";
+  private static final long DEFAULT_PUBLICATION_DELAY = 5;
+  private static final int DEFAULT_PUBLICATION_THREADS = 4;
+  /** Time in minutes to wait for running updates on deactivation */
+  private static final long DEACTIVATION_TIMEOUT = 5;
 
   // If the capture agent registered this property, we expect to get a resolution and
   // a url in the following format:
@@ -130,6 +142,8 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
   public static final String LIVE_STREAM_RESOLUTION = "live.resolution";
   public static final String LIVE_TARGET_FLAVORS = "live.targetFlavors";
   public static final String LIVE_DISTRIBUTION_SERVICE = "live.distributionService";
+  public static final String LIVE_PUBLICATION_DELAY = "live.publicationDelay";
+  public static final String LIVE_PUBLICATION_THREADS = "live.publicationThreads";
 
   /** The logger */
   private static final Logger logger = LoggerFactory.getLogger(LiveScheduleServiceImpl.class);
@@ -143,6 +157,15 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
   private String serverUrl;
   private Cache<String, Version> snapshotVersionCache = CacheBuilder.newBuilder().expireAfterWrite(5, TimeUnit.MINUTES).build();
 
+  /** Time in milliseconds without further changes before a live media package is updated, 0 to update immediately */
+  private long publicationDelay = TimeUnit.SECONDS.toMillis(DEFAULT_PUBLICATION_DELAY);
+  /** Executes the delayed updates, one media package at a time */
+  private ScheduledExecutorService publicationExecutor;
+  /** The delayed updates by media package id, also used as lock for the running updates */
+  private final Map<String, PendingUpdate> pendingUpdates = new HashMap<String, PendingUpdate>();
+  /** The media packages currently being updated */
+  private final Set<String> runningUpdates = new HashSet<String>();
+
   /** Services */
   private DownloadDistributionService downloadDistributionService; // to distribute episode and series catalogs
   private SearchService searchService; // to publish/retract live media package
@@ -154,6 +177,7 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
   private AssetManager assetManager; // to get current media package
   private AuthorizationService authService;
   private OrganizationDirectoryService organizationService;
+  private SecurityService securityService; // to run delayed updates as the user who caused them
 
   private long jobPollingInterval = JobBarrier.DEFAULT_POLLING_INTERVAL;
 
@@ -218,13 +242,196 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
       distributionServiceType = StringUtils.trimToEmpty((String) properties.get(LIVE_DISTRIBUTION_SERVICE));
     }
 
+    publicationDelay = TimeUnit.SECONDS.toMillis(NumberUtils.toLong(
+            StringUtils.trimToNull((String) properties.get(LIVE_PUBLICATION_DELAY)), DEFAULT_PUBLICATION_DELAY));
+    int publicationThreads = NumberUtils.toInt(
+            StringUtils.trimToNull((String) properties.get(LIVE_PUBLICATION_THREADS)), DEFAULT_PUBLICATION_THREADS);
+    if (publicationDelay > 0) {
+      publicationExecutor = Executors.newScheduledThreadPool(Math.max(publicationThreads, 1));
+    }
+
     logger.info(
             "Configured live stream name: {}, mime type: {}, resolution: {}, target flavors: {}, distribution service: {}",
             streamName, streamMimeType, resolution, flavors, distributionServiceType);
+    logger.info("Live media packages are updated after {} ms without further changes using {} threads",
+            publicationDelay, publicationThreads);
+  }
+
+  /**
+   * OSGi callback on component deactivation. Changes that are still waiting for their quiet period to end are applied
+   * right away, after the running updates are finished.
+   */
+  protected void deactivate() {
+    if (publicationExecutor == null)
+      return;
+    synchronized (pendingUpdates) {
+      for (PendingUpdate update : pendingUpdates.values()) {
+        if (update.future != null)
+          update.future.cancel(false);
+      }
+      publicationExecutor.shutdown();
+    }
+    try {
+      if (!publicationExecutor.awaitTermination(DEACTIVATION_TIMEOUT, TimeUnit.MINUTES)) {
+        synchronized (pendingUpdates) {
+          logger.warn("Updates of live media packages {} are still running", runningUpdates);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    List<String> mpIds;
+    synchronized (pendingUpdates) {
+      mpIds = new ArrayList<>(pendingUpdates.keySet());
+    }
+    if (!mpIds.isEmpty())
+      logger.info("Applying pending updates of live media packages {}", mpIds);
+    for (String mpId : mpIds) {
+      runPendingUpdate(mpId);
+    }
+    synchronized (pendingUpdates) {
+      if (!pendingUpdates.isEmpty())
+        logger.warn("Discarding updates of live media packages {} which are still being updated",
+                pendingUpdates.keySet());
+      pendingUpdates.clear();
+    }
   }
 
   @Override
   public boolean createOrUpdateLiveEvent(String mpId, DublinCoreCatalog episodeDC) throws LiveScheduleException {
+    if (publicationExecutor == null)
+      return doCreateOrUpdateLiveEvent(mpId, episodeDC);
+    synchronized (pendingUpdates) {
+      PendingUpdate update = getPendingUpdate(mpId);
+      update.delete = false;
+      update.episodeDC = episodeDC;
+      schedule(update);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean deleteLiveEvent(String mpId) throws LiveScheduleException {
+    if (publicationExecutor == null)
+      return doDeleteLiveEvent(mpId);
+    synchronized (pendingUpdates) {
+      PendingUpdate update = getPendingUpdate(mpId);
+      update.delete = true;
+      update.episodeDC = null;
+      update.acl = null;
+      schedule(update);
+    }
+    return true;
+  }
+
+  @Override
+  public boolean updateLiveEventAcl(String mpId, AccessControlList acl) throws LiveScheduleException {
+    if (publicationExecutor == null)
+      return doUpdateLiveEventAcl(mpId, acl);
+    synchronized (pendingUpdates) {
+      PendingUpdate update = getPendingUpdate(mpId);
+      // An acl change of an event that is going to be deleted is irrelevant
+      if (!update.delete)
+        update.acl = acl;
+      schedule(update);
+    }
+    return true;
+  }
+
+  /**
+   * The changes of a live media package that are waiting to be applied. Later changes replace earlier ones so that
+   * only the latest state gets published.
+   */
+  private static final class PendingUpdate {
+    private final String mpId;
+    private Organization organization;
+    private User user;
+    private boolean delete = false;
+    private DublinCoreCatalog episodeDC;
+    private AccessControlList acl;
+    private ScheduledFuture<?> future;
+
+    private PendingUpdate(String mpId) {
+      this.mpId = mpId;
+    }
+  }
+
+  /** Returns the pending update of the media package, creating it if needed. Requires the lock on the updates. */
+  private PendingUpdate getPendingUpdate(String mpId) {
+    PendingUpdate update = pendingUpdates.get(mpId);
+    if (update == null) {
+      update = new PendingUpdate(mpId);
+      pendingUpdates.put(mpId, update);
+    }
+    if (securityService != null) {
+      update.organization = securityService.getOrganization();
+      update.user = securityService.getUser();
+    }
+    return update;
+  }
+
+  /**
+   * (Re)starts the quiet period of the pending update. Requires the lock on the updates. Once the service is being
+   * deactivated, the update is left to the deactivation.
+   */
+  private void schedule(final PendingUpdate update) {
+    if (update.future != null)
+      update.future.cancel(false);
+    if (publicationExecutor.isShutdown())
+      return;
+    update.future = publicationExecutor.schedule(new Runnable() {
+      @Override
+      public void run() {
+        runPendingUpdate(update.mpId);
+      }
+    }, publicationDelay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Applies the pending update of the media package. If the media package is still being updated by another thread,
+   * the update is postponed by another quiet period.
+   */
+  void runPendingUpdate(String mpId) {
+    PendingUpdate update;
+    synchronized (pendingUpdates) {
+      update = pendingUpdates.get(mpId);
+      if (update == null)
+        return;
+      if (runningUpdates.contains(mpId)) {
+        schedule(update);
+        return;
+      }
+      pendingUpdates.remove(mpId);
+      runningUpdates.add(mpId);
+    }
+    try {
+      if (securityService != null) {
+        securityService.setOrganization(update.organization);
+        securityService.setUser(update.user);
+      }
+      if (update.delete) {
+        doDeleteLiveEvent(mpId);
+      } else {
+        if (update.episodeDC != null)
+          doCreateOrUpdateLiveEvent(mpId, update.episodeDC);
+        if (update.acl != null)
+          doUpdateLiveEventAcl(mpId, update.acl);
+      }
+    } catch (Exception e) {
+      logger.warn("Unable to update live media package {}", mpId, e);
+    } finally {
+      if (securityService != null) {
+        securityService.setOrganization(null);
+        securityService.setUser(null);
+      }
+      synchronized (pendingUpdates) {
+        runningUpdates.remove(mpId);
+      }
+    }
+  }
+
+  boolean doCreateOrUpdateLiveEvent(String mpId, DublinCoreCatalog episodeDC) throws LiveScheduleException {
     MediaPackage mp = getMediaPackageFromSearch(mpId);
     if (mp == null) {
       // Check if capture not over. We have to check because we may get a notification for past events if
@@ -247,8 +454,7 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
     }
   }
 
-  @Override
-  public boolean deleteLiveEvent(String mpId) throws LiveScheduleException {
+  boolean doDeleteLiveEvent(String mpId) throws LiveScheduleException {
     MediaPackage mp = getMediaPackageFromSearch(mpId);
     if (mp == null) {
       logger.debug("Live media package {} not found in search index", mpId);
@@ -262,8 +468,7 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
     }
   }
 
-  @Override
-  public boolean updateLiveEventAcl(String mpId, AccessControlList acl) throws LiveScheduleException {
+  boolean doUpdateLiveEventAcl(String mpId, AccessControlList acl) throws LiveScheduleException {
     MediaPackage previousMp = getMediaPackageFromSearch(mpId);
     if (previousMp != null) {
       if (!isLive(previousMp)) {
@@ -825,6 +1030,10 @@ public class LiveScheduleServiceImpl implements LiveScheduleService {
   public void setOrganizationService(OrganizationDirectoryService service) {
     this.organizationService = service;
   }
+
+  public void setSecurityService(SecurityService service) {
+    this.securityService = service;
+  }
   // === Set by OSGI - end
 
   // === Used by unit tests - begin
@@ -22,6 +22,7 @@ package org.opencastproject.liveschedule.message;
 
 import org.opencastproject.message.broker.api.MessageItem;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItem;
+import org.opencastproject.message.broker.api.scheduler.SchedulerItemBatch;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItemList;
 import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.scheduler.api.RecordingState;
@@ -49,6 +50,12 @@ public class SchedulerUpdateHandler extends UpdateHandler {
   }
 
   protected void execute(MessageItem messageItem) {
+    if (messageItem instanceof SchedulerItemBatch) {
+      for (SchedulerItemList schedulerItemList : ((SchedulerItemBatch) messageItem).getLists()) {
+        execute(schedulerItemList);
+      }
+      return;
+    }
     SchedulerItemList schedulerItemList = (SchedulerItemList) messageItem;
     for (SchedulerItem item : schedulerItemList.getItems()) {
       executeSingle(schedulerItemList.getId(), item);
@@ -95,6 +95,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class LiveScheduleServiceImplTest {
 
@@ -164,6 +165,7 @@ public class LiveScheduleServiceImplTest {
     props.put(LiveScheduleServiceImpl.LIVE_STREAM_NAME, STREAM_NAME);
     props.put(LiveScheduleServiceImpl.LIVE_STREAM_RESOLUTION, "1920x540,960x270");
     props.put(LiveScheduleServiceImpl.LIVE_TARGET_FLAVORS, "presenter/delivery");
+    props.put(LiveScheduleServiceImpl.LIVE_PUBLICATION_DELAY, "0");
 
     cc = EasyMock.createNiceMock(ComponentContext.class);
     EasyMock.expect(cc.getBundleContext()).andReturn(bc);
@@ -772,6 +774,90 @@ public class LiveScheduleServiceImplTest {
     Assert.assertFalse(service.createOrUpdateLiveEvent(MP_ID, episodeDC));
   }
 
+  /**
+   * Creates a service which delays updates by the given number of seconds and records them instead of applying them.
+   */
+  private static LiveScheduleServiceImpl createDelayedService(final List<String> calls, String delay) {
+    LiveScheduleServiceImpl delayedService = new LiveScheduleServiceImpl() {
+      @Override
+      boolean doCreateOrUpdateLiveEvent(String mpId, DublinCoreCatalog episodeDC) {
+        calls.add("update " + mpId + " " + episodeDC.getFirst(DublinCore.PROPERTY_TITLE));
+        return true;
+      }
+
+      @Override
+      boolean doDeleteLiveEvent(String mpId) {
+        calls.add("delete " + mpId);
+        return true;
+      }
+
+      @Override
+      boolean doUpdateLiveEventAcl(String mpId, AccessControlList acl) {
+        calls.add("acl " + mpId);
+        return true;
+      }
+    };
+    Dictionary<String, Object> props = new Hashtable<String, Object>();
+    props.put(LiveScheduleServiceImpl.LIVE_PUBLICATION_DELAY, delay);
+    ComponentContext delayedCc = EasyMock.createNiceMock(ComponentContext.class);
+    EasyMock.expect(delayedCc.getBundleContext()).andReturn(EasyMock.createNiceMock(BundleContext.class));
+    EasyMock.expect(delayedCc.getProperties()).andReturn(props);
+    EasyMock.replay(delayedCc);
+    delayedService.activate(delayedCc);
+    return delayedService;
+  }
+
+  @Test
+  public void testDelayedUpdatesAreCoalesced() throws Exception {
+    final List<String> calls = new CopyOnWriteArrayList<>();
+    LiveScheduleServiceImpl delayedService = createDelayedService(calls, "1");
+
+    DublinCoreCatalog first = DublinCores.mkOpencastEpisode().getCatalog();
+    first.set(DublinCore.PROPERTY_TITLE, "first");
+    DublinCoreCatalog second = DublinCores.mkOpencastEpisode().getCatalog();
+    second.set(DublinCore.PROPERTY_TITLE, "second");
+    try {
+      Assert.assertTrue(delayedService.createOrUpdateLiveEvent(MP_ID, first));
+      Assert.assertTrue(delayedService.updateLiveEventAcl(MP_ID, new AccessControlList()));
+      Assert.assertTrue(delayedService.createOrUpdateLiveEvent(MP_ID, second));
+      Assert.assertTrue(delayedService.deleteLiveEvent("other"));
+      Assert.assertTrue(delayedService.createOrUpdateLiveEvent("other", first));
+      Assert.assertTrue(delayedService.deleteLiveEvent("other"));
+      // Nothing happens before the quiet period is over
+      Assert.assertTrue(calls.isEmpty());
+
+      long timeout = System.currentTimeMillis() + 10000;
+      while (calls.size() < 3 && System.currentTimeMillis() < timeout) {
+        Thread.sleep(100);
+      }
+      Thread.sleep(100);
+    } finally {
+      delayedService.deactivate();
+    }
+    Assert.assertEquals(3, calls.size());
+    Assert.assertTrue(calls.contains("delete other"));
+    int update = calls.indexOf("update " + MP_ID + " second");
+    Assert.assertTrue(update >= 0);
+    Assert.assertEquals("acl " + MP_ID, calls.get(update + 1));
+  }
+
+  @Test
+  public void testPendingUpdatesAreAppliedOnDeactivation() throws Exception {
+    final List<String> calls = new CopyOnWriteArrayList<>();
+    LiveScheduleServiceImpl delayedService = createDelayedService(calls, "3600");
+
+    DublinCoreCatalog episode = DublinCores.mkOpencastEpisode().getCatalog();
+    episode.set(DublinCore.PROPERTY_TITLE, "episode");
+    Assert.assertTrue(delayedService.createOrUpdateLiveEvent(MP_ID, episode));
+    Assert.assertTrue(delayedService.deleteLiveEvent("other"));
+    Assert.assertTrue(calls.isEmpty());
+
+    delayedService.deactivate();
+    Assert.assertEquals(2, calls.size());
+    Assert.assertTrue(calls.contains("update " + MP_ID + " episode"));
+    Assert.assertTrue(calls.contains("delete other"));
+  }
+
   @Test
   public void testUpdateLiveEvent() throws Exception {
     URI mpURI = LiveScheduleServiceImplTest.class.getResource("/assetmanager-mp-with-live.xml").toURI();
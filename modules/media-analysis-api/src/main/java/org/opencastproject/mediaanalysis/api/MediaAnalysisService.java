@@ -0,0 +1,96 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.api;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+
+import java.util.Map;
+
+/**
+ * This is an api for a service that analyzes a track in a single decoding pass, creating a waveform image, timeline
+ * preview images, the non silent segments and loudness statistics at once.
+ * <p>
+ * The payload of the returned job is the list of the created media package elements. It always contains the analyzed
+ * track, which carries the loudness statistics of its first audio stream if requested. The other elements can be told
+ * apart by their flavor subtype.
+ */
+public interface MediaAnalysisService {
+
+  /** Job type */
+  String JOB_TYPE = "org.opencastproject.mediaanalysis";
+
+  /** Option to create a waveform image, <code>true</code> or <code>false</code> */
+  String OPTION_WAVEFORM = "waveform";
+
+  /** Option for the width of the waveform image in pixels per minute */
+  String OPTION_WAVEFORM_PIXELS_PER_MINUTE = "waveform.pixels-per-minute";
+
+  /** Option for the minimum width of the waveform image */
+  String OPTION_WAVEFORM_MIN_WIDTH = "waveform.min-width";
+
+  /** Option for the maximum width of the waveform image */
+  String OPTION_WAVEFORM_MAX_WIDTH = "waveform.max-width";
+
+  /** Option for the height of the waveform image */
+  String OPTION_WAVEFORM_HEIGHT = "waveform.height";
+
+  /** Option for the colors of the waveform image, separated by <code>|</code> */
+  String OPTION_WAVEFORM_COLOR = "waveform.color";
+
+  /** Option for the number of timeline preview images to create, zero to create none */
+  String OPTION_TIMELINE_PREVIEWS = "timelinepreviews";
+
+  /** Option to detect the non silent segments, <code>true</code> or <code>false</code> */
+  String OPTION_SILENCE = "silence";
+
+  /** Option to measure the loudness, <code>true</code> or <code>false</code> */
+  String OPTION_LOUDNESS = "loudness";
+
+  /** Flavor subtype of the created waveform image attachment */
+  String WAVEFORM_FLAVOR_SUBTYPE = "waveform";
+
+  /** Flavor subtype of the created timeline previews attachment */
+  String TIMELINE_PREVIEWS_FLAVOR_SUBTYPE = "timeline+preview";
+
+  /** Flavor subtype of the created SMIL catalog describing the non silent segments */
+  String SILENCE_FLAVOR_SUBTYPE = "smil";
+
+  /**
+   * Takes the given track and returns the job that will analyze it.
+   *
+   * @param sourceTrack
+   *          the track to analyze
+   * @param referenceTracks
+   *          the tracks to reference in the SMIL describing the non silent segments or <code>null</code> to reference
+   *          the source track
+   * @param options
+   *          the analysis options
+   * @return a job that will analyze the track
+   * @throws MediaPackageException
+   *           if the serialization of the given tracks fails
+   * @throws MediaAnalysisException
+   *           if the job can't be created for any reason
+   */
+  Job analyze(Track sourceTrack, Track[] referenceTracks, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException;
+}
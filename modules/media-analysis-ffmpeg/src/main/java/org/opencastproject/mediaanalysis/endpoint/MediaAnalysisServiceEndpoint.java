@@ -0,0 +1,136 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.endpoint;
+
+import org.opencastproject.job.api.JaxbJob;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobProducer;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediaanalysis.ffmpeg.MediaAnalysisServiceImpl;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.rest.AbstractJobProducerEndpoint;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.util.doc.rest.RestParameter;
+import org.opencastproject.util.doc.rest.RestQuery;
+import org.opencastproject.util.doc.rest.RestResponse;
+import org.opencastproject.util.doc.rest.RestService;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.FormParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+@Path("/")
+@RestService(name = "MediaAnalysisServiceEndpoint", title = "Media Analysis Service REST Endpoint",
+        abstractText = "The Media Analysis Service creates a waveform image, timeline preview images, the non silent "
+                + "segments and loudness statistics of a track while decoding it only once.",
+        notes = {"All paths above are relative to the REST endpoint base (something like http://your.server/mediaanalysis)"})
+public class MediaAnalysisServiceEndpoint extends AbstractJobProducerEndpoint {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceEndpoint.class);
+
+  private ServiceRegistry serviceRegistry = null;
+  private MediaAnalysisService mediaAnalysisService = null;
+
+  @POST
+  @Path("/analyze")
+  @Produces({MediaType.APPLICATION_XML})
+  @RestQuery(name = "analyze", description = "Analyze the given track in a single pass",
+          returnDescription = "The analyzed track followed by the created media package elements.",
+          restParameters = {
+            @RestParameter(name = "track", type = RestParameter.Type.TEXT,
+                    description = "Track to analyze.", isRequired = true),
+            @RestParameter(name = "referenceTracks", type = RestParameter.Type.TEXT,
+                    description = "Tracks to reference in the SMIL describing the non silent segments.",
+                    isRequired = false),
+            @RestParameter(name = "options", type = RestParameter.Type.TEXT,
+                    description = "Analysis options in properties format, e.g. waveform=true", isRequired = false)
+          },
+          reponses = {
+            @RestResponse(description = "Media analysis job successfully created.",
+                    responseCode = HttpServletResponse.SC_OK),
+            @RestResponse(description = "The given tracks or options can't be parsed.",
+                    responseCode = HttpServletResponse.SC_BAD_REQUEST),
+            @RestResponse(description = "Internal server error.",
+                    responseCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR)
+  })
+  @SuppressWarnings("unchecked")
+  public Response analyze(@FormParam("track") String track, @FormParam("referenceTracks") String referenceTracks,
+          @FormParam("options") String options) {
+    try {
+      MediaPackageElement sourceTrack = MediaPackageElementParser.getFromXml(track);
+      if (!Track.TYPE.equals(sourceTrack.getElementType()))
+        return Response.status(Response.Status.BAD_REQUEST).entity("Track element must be of type track").build();
+
+      Track[] references = null;
+      if (StringUtils.isNotBlank(referenceTracks)) {
+        List<Track> tracks = (List<Track>) MediaPackageElementParser.getArrayFromXml(referenceTracks);
+        references = tracks.toArray(new Track[tracks.size()]);
+      }
+
+      Job job = mediaAnalysisService.analyze((Track) sourceTrack, references, MediaAnalysisServiceImpl.parseOptions(options));
+      return Response.ok().entity(new JaxbJob(job)).build();
+    } catch (MediaAnalysisException ex) {
+      logger.error("Creating media analysis job for track {} failed: {}", track, ExceptionUtils.getStackTrace(ex));
+      return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+    } catch (MediaPackageException | ClassCastException ex) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("Track element parsing failure").build();
+    } catch (IOException ex) {
+      return Response.status(Response.Status.BAD_REQUEST).entity("Options parsing failure").build();
+    }
+  }
+
+  @Override
+  public JobProducer getService() {
+    if (mediaAnalysisService instanceof JobProducer) {
+      return (JobProducer) mediaAnalysisService;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public ServiceRegistry getServiceRegistry() {
+    return serviceRegistry;
+  }
+
+  public void setServiceRegistry(ServiceRegistry serviceRegistry) {
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  public void setMediaAnalysisService(MediaAnalysisService mediaAnalysisService) {
+    this.mediaAnalysisService = mediaAnalysisService;
+  }
+}
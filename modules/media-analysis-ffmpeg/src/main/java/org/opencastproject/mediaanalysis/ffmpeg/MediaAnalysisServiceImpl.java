@@ -0,0 +1,648 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.ffmpeg;
+
+import org.opencastproject.job.api.AbstractJobProducer;
+import org.opencastproject.job.api.Job;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.Attachment;
+import org.opencastproject.mediapackage.AudioStream;
+import org.opencastproject.mediapackage.Catalog;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementBuilder;
+import org.opencastproject.mediapackage.MediaPackageElementBuilderFactory;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.identifier.IdBuilderFactory;
+import org.opencastproject.mediapackage.track.AudioStreamImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.security.api.OrganizationDirectoryService;
+import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.security.api.UserDirectoryService;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.serviceregistry.api.ServiceRegistryException;
+import org.opencastproject.silencedetection.api.MediaSegment;
+import org.opencastproject.silencedetection.ffmpeg.FFmpegSilenceDetector;
+import org.opencastproject.silencedetection.impl.SilenceDetectionProperties;
+import org.opencastproject.smil.api.SmilResponse;
+import org.opencastproject.smil.api.SmilService;
+import org.opencastproject.util.IoSupport;
+import org.opencastproject.util.LoadUtil;
+import org.opencastproject.util.MimeTypes;
+import org.opencastproject.util.NotFoundException;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.osgi.service.cm.ConfigurationException;
+import org.osgi.service.cm.ManagedService;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Dictionary;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Media analysis service decoding a track only once using a single FFmpeg filter graph. Depending on the requested
+ * options, the graph creates a waveform image, the timeline preview images, the non silent segments and the loudness
+ * statistics of the track. The results have the same form as the ones of the individual waveform, timeline previews,
+ * silence detection and audio analysis services, so that they can be used in their place.
+ */
+public class MediaAnalysisServiceImpl extends AbstractJobProducer implements MediaAnalysisService, ManagedService {
+
+  /** The logging facility */
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceImpl.class);
+
+  /** Resulting collection in the working file repository */
+  public static final String COLLECTION_ID = "mediaanalysis";
+
+  /** The key to look for in the service configuration file to override the DEFAULT_FFMPEG_BINARY */
+  public static final String FFMPEG_BINARY_CONFIG_KEY = "org.opencastproject.composer.ffmpeg.path";
+
+  /** The default path to the ffmpeg binary */
+  public static final String DEFAULT_FFMPEG_BINARY = "ffmpeg";
+
+  /** The key to look for in the service configuration file to override the DEFAULT_JOB_LOAD */
+  public static final String JOB_LOAD_CONFIG_KEY = "job.load.mediaanalysis";
+
+  /** The default job load of a media analysis job */
+  public static final float DEFAULT_JOB_LOAD = 0.4f;
+
+  /** The default width of the waveform image in pixels per minute */
+  public static final int DEFAULT_WAVEFORM_PIXELS_PER_MINUTE = 200;
+
+  /** The default minimum width of the waveform image */
+  public static final int DEFAULT_WAVEFORM_MIN_WIDTH = 5000;
+
+  /** The default maximum width of the waveform image */
+  public static final int DEFAULT_WAVEFORM_MAX_WIDTH = 20000;
+
+  /** The default height of the waveform image */
+  public static final int DEFAULT_WAVEFORM_HEIGHT = 500;
+
+  /** The default color of the waveform image */
+  public static final String DEFAULT_WAVEFORM_COLOR = "black";
+
+  /** The horizontal resolution of a single timeline preview image */
+  public static final int TIMELINE_PREVIEWS_RESOLUTION_X = 160;
+
+  /** The vertical resolution of a single timeline preview image, keeping the aspect ratio */
+  public static final int TIMELINE_PREVIEWS_RESOLUTION_Y = -1;
+
+  /** Pattern matching the output of the audio statistics filter */
+  private static final Pattern ASTATS_PATTERN = Pattern.compile("^\\[\\S*astats\\S* @ [^\\]]*\\] (.*)$");
+
+  /** List of available operations on jobs */
+  enum Operation {
+    Analyze
+  }
+
+  /** Path to the executable */
+  private String binary = DEFAULT_FFMPEG_BINARY;
+
+  /** The media analysis job load */
+  private float jobLoad = DEFAULT_JOB_LOAD;
+
+  /** The silence detection configuration */
+  private Properties silenceProperties = new Properties();
+
+  /** Reference to the service registry */
+  private ServiceRegistry serviceRegistry = null;
+
+  /** The workspace to use when retrieving remote media files */
+  private Workspace workspace = null;
+
+  /** The SMIL service used to describe the non silent segments */
+  private SmilService smilService = null;
+
+  /** The security service */
+  private SecurityService securityService = null;
+
+  /** The user directory service */
+  private UserDirectoryService userDirectoryService = null;
+
+  /** The organization directory service */
+  private OrganizationDirectoryService organizationDirectoryService = null;
+
+  public MediaAnalysisServiceImpl() {
+    super(JOB_TYPE);
+  }
+
+  @Override
+  public void activate(ComponentContext cc) {
+    super.activate(cc);
+    logger.info("Activate ffmpeg media analysis service");
+    final String path = cc.getBundleContext().getProperty(FFMPEG_BINARY_CONFIG_KEY);
+    binary = (path == null ? DEFAULT_FFMPEG_BINARY : path);
+    logger.debug("ffmpeg binary set to {}", binary);
+  }
+
+  @Override
+  public void updated(Dictionary<String, ?> properties) throws ConfigurationException {
+    if (properties == null) {
+      return;
+    }
+    logger.debug("Configuring the media analysis service");
+    jobLoad = LoadUtil.getConfiguredLoadValue(properties, JOB_LOAD_CONFIG_KEY, DEFAULT_JOB_LOAD, serviceRegistry);
+
+    Properties silence = new Properties();
+    Enumeration<String> keys = properties.keys();
+    while (keys.hasMoreElements()) {
+      String key = keys.nextElement();
+      if (key.startsWith("silence.") || key.equals(SilenceDetectionProperties.VOICE_MIN_LENGTH)) {
+        silence.put(key, properties.get(key));
+      }
+    }
+    silenceProperties = silence;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalysisService#analyze(org.opencastproject.mediapackage.Track,
+   *      org.opencastproject.mediapackage.Track[], java.util.Map)
+   */
+  @Override
+  public Job analyze(Track sourceTrack, Track[] referenceTracks, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException {
+    try {
+      return serviceRegistry.createJob(JOB_TYPE, Operation.Analyze.toString(),
+              Arrays.asList(MediaPackageElementParser.getAsXml(sourceTrack),
+                      referenceTracks == null ? "" : MediaPackageElementParser.getArrayAsXml(Arrays.asList(referenceTracks)),
+                      getOptionsAsString(options)), jobLoad);
+    } catch (ServiceRegistryException e) {
+      throw new MediaAnalysisException("Unable to create media analysis job", e);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.job.api.AbstractJobProducer#process(org.opencastproject.job.api.Job)
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  protected String process(Job job) throws Exception {
+    Operation op = null;
+    String operation = job.getOperation();
+    List<String> arguments = job.getArguments();
+    try {
+      op = Operation.valueOf(operation);
+      switch (op) {
+        case Analyze:
+          Track track = (Track) MediaPackageElementParser.getFromXml(arguments.get(0));
+          List<Track> referenceTracks = null;
+          if (StringUtils.isNotBlank(arguments.get(1))) {
+            referenceTracks = (List<Track>) MediaPackageElementParser.getArrayFromXml(arguments.get(1));
+          }
+          Map<String, String> options = parseOptions(arguments.get(2));
+          return MediaPackageElementParser.getArrayAsXml(analyze(track, referenceTracks, options));
+        default:
+          throw new ServiceRegistryException("This service can't handle operations of type '" + op + "'");
+      }
+    } catch (IndexOutOfBoundsException e) {
+      throw new ServiceRegistryException("This argument list for operation '" + op + "' does not meet expectations", e);
+    } catch (MediaPackageException | MediaAnalysisException e) {
+      throw new ServiceRegistryException("Error handling operation '" + op + "'", e);
+    }
+  }
+
+  /**
+   * Runs all requested analyses of a track in a single ffmpeg process.
+   *
+   * @param track
+   *          the track to analyze
+   * @param referenceTracks
+   *          the tracks to reference in the SMIL describing the non silent segments, or <code>null</code>
+   * @param options
+   *          the analysis options
+   * @return the analyzed track followed by the created attachments and catalogs
+   * @throws MediaAnalysisException
+   *           if the analysis fails
+   * @throws MediaPackageException
+   *           if the track can not be analyzed
+   */
+  protected List<MediaPackageElement> analyze(Track track, List<Track> referenceTracks, Map<String, String> options)
+          throws MediaAnalysisException, MediaPackageException {
+    final boolean waveform = BooleanUtils.toBoolean(options.get(OPTION_WAVEFORM));
+    final int previewCount = NumberUtils.toInt(options.get(OPTION_TIMELINE_PREVIEWS), 0);
+    final boolean silence = BooleanUtils.toBoolean(options.get(OPTION_SILENCE));
+    final boolean loudness = BooleanUtils.toBoolean(options.get(OPTION_LOUDNESS));
+
+    if ((waveform || silence || loudness) && !track.hasAudio()) {
+      throw new MediaAnalysisException("Track " + track.getIdentifier() + " has no audio");
+    }
+    if (previewCount > 0 && !track.hasVideo()) {
+      throw new MediaAnalysisException("Track " + track.getIdentifier() + " has no video");
+    }
+    if (track.getDuration() == null) {
+      throw new MediaPackageException("Track " + track.getIdentifier() + " does not have a duration");
+    }
+
+    // Silence detection settings, validated before decoding anything
+    final long minSilenceLength = getLong(SilenceDetectionProperties.SILENCE_MIN_LENGTH,
+            FFmpegSilenceDetector.DEFAULT_SILENCE_MIN_LENGTH);
+    final long minVoiceLength = getLong(SilenceDetectionProperties.VOICE_MIN_LENGTH,
+            FFmpegSilenceDetector.DEFAULT_VOICE_MIN_LENGTH);
+    final long preSilenceLength = getLong(SilenceDetectionProperties.SILENCE_PRE_LENGTH,
+            FFmpegSilenceDetector.DEFAULT_SILENCE_PRE_LENGTH);
+    final String thresholdDB = silenceProperties.getProperty(SilenceDetectionProperties.SILENCE_THRESHOLD_DB,
+            FFmpegSilenceDetector.DEFAULT_THRESHOLD_DB);
+    if (silence && preSilenceLength > minSilenceLength) {
+      throw new MediaAnalysisException("Pre silence length is configured to be greater than minimum silence length");
+    }
+
+    File mediaFile;
+    try {
+      mediaFile = workspace.get(track.getURI());
+    } catch (NotFoundException e) {
+      throw new MediaAnalysisException("Error finding the media file in the workspace", e);
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Error reading the media file in the workspace", e);
+    }
+
+    final String basePath = FilenameUtils.removeExtension(mediaFile.getAbsolutePath()) + '_' + UUID.randomUUID();
+    final File waveformFile = new File(basePath + "-waveform.png");
+    final File previewsFile = new File(basePath + "_timelinepreviews.png");
+
+    // Build one filter graph with a branch per requested result
+    final List<String> audioChains = new ArrayList<>();
+    final List<String> outputs = new ArrayList<>();
+    if (waveform) {
+      int width = getWaveformImageWidth(track,
+              NumberUtils.toInt(options.get(OPTION_WAVEFORM_PIXELS_PER_MINUTE), DEFAULT_WAVEFORM_PIXELS_PER_MINUTE),
+              NumberUtils.toInt(options.get(OPTION_WAVEFORM_MIN_WIDTH), DEFAULT_WAVEFORM_MIN_WIDTH),
+              NumberUtils.toInt(options.get(OPTION_WAVEFORM_MAX_WIDTH), DEFAULT_WAVEFORM_MAX_WIDTH));
+      int height = NumberUtils.toInt(options.get(OPTION_WAVEFORM_HEIGHT), DEFAULT_WAVEFORM_HEIGHT);
+      String color = StringUtils.defaultIfBlank(options.get(OPTION_WAVEFORM_COLOR), DEFAULT_WAVEFORM_COLOR);
+      audioChains.add(String.format("showwavespic=split_channels=0:s=%dx%d:scale=lin:colors=%s[waveform]",
+              width, height, color));
+      outputs.addAll(Arrays.asList("-map", "[waveform]", "-frames:v", "1", waveformFile.getAbsolutePath()));
+    }
+    if (silence || loudness) {
+      List<String> filters = new ArrayList<>();
+      if (silence) {
+        filters.add(FFmpegSilenceDetector.createFilter(thresholdDB, minSilenceLength));
+      }
+      if (loudness) {
+        filters.add("astats=metadata=0");
+      }
+      audioChains.add(StringUtils.join(filters, ",") + "[statistics]");
+      outputs.addAll(Arrays.asList("-map", "[statistics]", "-f", "null", "-"));
+    }
+
+    final List<String> graph = new ArrayList<>();
+    if (audioChains.size() == 1) {
+      graph.add("[0:a:0]" + audioChains.get(0));
+    } else if (audioChains.size() > 1) {
+      StringBuilder split = new StringBuilder("[0:a:0]asplit=").append(audioChains.size());
+      for (int i = 0; i < audioChains.size(); i++) {
+        split.append("[a").append(i).append("]");
+      }
+      graph.add(split.toString());
+      for (int i = 0; i < audioChains.size(); i++) {
+        graph.add("[a" + i + "]" + audioChains.get(i));
+      }
+    }
+
+    final double duration = track.getDuration() / 1000.0;
+    final double seconds = previewCount > 0 && duration > 0 ? duration / previewCount : 1.0;
+    final int tiles = (int) Math.ceil(Math.sqrt(previewCount));
+    if (previewCount > 0) {
+      graph.add(String.format(Locale.ROOT, "[0:v:0]trim=end=%f,fps=1/%f,scale=%d:%d,tile=%dx%d[previews]",
+              duration - seconds / 2.0, seconds, TIMELINE_PREVIEWS_RESOLUTION_X, TIMELINE_PREVIEWS_RESOLUTION_Y,
+              tiles, tiles));
+      outputs.addAll(Arrays.asList("-map", "[previews]", "-frames:v", "1", previewsFile.getAbsolutePath()));
+    }
+
+    final List<MediaPackageElement> results = new ArrayList<>();
+    results.add(track);
+    if (graph.isEmpty()) {
+      logger.info("Nothing to analyze for track {}", track.getIdentifier());
+      return results;
+    }
+
+    final List<String> command = new ArrayList<>(Arrays.asList(binary, "-nostats", "-nostdin", "-hide_banner",
+            "-i", mediaFile.getAbsolutePath(), "-filter_complex", StringUtils.join(graph, ";")));
+    command.addAll(outputs);
+
+    try {
+      final List<String> silenceOutput = new LinkedList<>();
+      final List<String> statisticsOutput = new LinkedList<>();
+      logger.info("Analyzing track {} in a single pass", track.getIdentifier());
+      runFFmpeg(command, silenceOutput, statisticsOutput);
+
+      if (loudness) {
+        addLoudness(track, statisticsOutput);
+      }
+      if (waveform) {
+        results.add(createAttachment(track, waveformFile, WAVEFORM_FLAVOR_SUBTYPE));
+      }
+      if (previewCount > 0) {
+        Attachment previews = createAttachment(track, previewsFile, TIMELINE_PREVIEWS_FLAVOR_SUBTYPE);
+        previews.setMimeType(MimeTypes.parseMimeType("image/png"));
+        previews.referTo(track);
+        previews.getProperties().put("imageCount", String.valueOf(previewCount));
+        previews.getProperties().put("imageSizeX", String.valueOf(tiles));
+        previews.getProperties().put("imageSizeY", String.valueOf(tiles));
+        previews.getProperties().put("resolutionX", String.valueOf(TIMELINE_PREVIEWS_RESOLUTION_X));
+        previews.getProperties().put("resolutionY", String.valueOf(TIMELINE_PREVIEWS_RESOLUTION_Y));
+        results.add(previews);
+      }
+      if (silence) {
+        List<MediaSegment> segments = FFmpegSilenceDetector.createSegments(silenceOutput, track.getDuration(),
+                minVoiceLength, preSilenceLength);
+        logger.info("Segmentation of track {} yielded {} segments", track.getIdentifier(), segments.size());
+        results.add(createSmilCatalog(track, referenceTracks, segments));
+      }
+      return results;
+    } finally {
+      FileUtils.deleteQuietly(waveformFile);
+      FileUtils.deleteQuietly(previewsFile);
+    }
+  }
+
+  /**
+   * Runs ffmpeg and collects the output of the silence detection and audio statistics filters.
+   */
+  private void runFFmpeg(List<String> command, List<String> silenceOutput, List<String> statisticsOutput)
+          throws MediaAnalysisException {
+    logger.debug("Start media analysis ffmpeg process: {}", StringUtils.join(command, " "));
+    ProcessBuilder pb = new ProcessBuilder(command);
+    pb.redirectErrorStream(true);
+    Process ffmpegProcess = null;
+    int exitCode = 1;
+    BufferedReader errStream = null;
+    try {
+      ffmpegProcess = pb.start();
+      errStream = new BufferedReader(new InputStreamReader(ffmpegProcess.getInputStream()));
+      String line = errStream.readLine();
+      while (line != null) {
+        logger.debug(line);
+        if (line.startsWith("[silencedetect ")) {
+          silenceOutput.add(line);
+        } else {
+          Matcher matcher = ASTATS_PATTERN.matcher(line);
+          if (matcher.matches()) {
+            statisticsOutput.add(matcher.group(1).trim());
+          }
+        }
+        line = errStream.readLine();
+      }
+      exitCode = ffmpegProcess.waitFor();
+    } catch (IOException e) {
+      throw new MediaAnalysisException("Start ffmpeg process failed", e);
+    } catch (InterruptedException e) {
+      throw new MediaAnalysisException("Waiting for ffmpeg process was interrupted unexpectedly", e);
+    } finally {
+      IoSupport.closeQuietly(ffmpegProcess);
+      IoSupport.closeQuietly(errStream);
+    }
+
+    if (exitCode != 0) {
+      throw new MediaAnalysisException(String.format("The ffmpeg process exited abnormally with exit code %s "
+              + "using command\n%s", exitCode, String.join(" ", command)));
+    }
+  }
+
+  /**
+   * Sets the overall loudness statistics reported by the audio statistics filter on the first audio stream of the
+   * track, in the same way the audio analysis of the SoX service does.
+   */
+  private void addLoudness(Track track, List<String> statistics) {
+    List<AudioStream> audio = ((TrackImpl) track).getAudio();
+    AudioStreamImpl audioStream = (AudioStreamImpl) audio.get(0);
+    boolean overall = false;
+    for (String value : statistics) {
+      if (value.startsWith("Overall")) {
+        overall = true;
+      } else if (overall) {
+        Float level = parseLevel(StringUtils.substringAfter(value, ":"));
+        if (level == null) {
+          continue;
+        }
+        if (value.startsWith("Peak level dB")) {
+          audioStream.setPkLevDb(level);
+        } else if (value.startsWith("RMS level dB")) {
+          audioStream.setRmsLevDb(level);
+        } else if (value.startsWith("RMS peak dB")) {
+          audioStream.setRmsPkDb(level);
+        }
+      }
+    }
+    logger.info("Loudness of track {}: RMS level {} dB, RMS peak {} dB, peak level {} dB", track.getIdentifier(),
+            audioStream.getRmsLevDb(), audioStream.getRmsPkDb(), audioStream.getPkLevDb());
+  }
+
+  private static Float parseLevel(String value) {
+    try {
+      return Float.valueOf(value.trim());
+    } catch (NumberFormatException e) {
+      // silent tracks report -inf
+      return null;
+    }
+  }
+
+  /**
+   * Puts a created file into the workspace and returns an attachment for it.
+   */
+  private Attachment createAttachment(Track track, File file, String flavorSubtype) throws MediaAnalysisException {
+    URI uri;
+    try (InputStream in = new FileInputStream(file)) {
+      uri = workspace.putInCollection(COLLECTION_ID, FilenameUtils.getName(file.getAbsolutePath()), in);
+      logger.info("Copied the created {} to the workspace {}", flavorSubtype, uri);
+    } catch (IOException e) {
+      throw new MediaAnalysisException(String.format("Can't write file '%s' to workspace", file), e);
+    }
+    MediaPackageElementBuilder builder = MediaPackageElementBuilderFactory.newInstance().newElementBuilder();
+    Attachment attachment = (Attachment) builder.elementFromURI(uri, MediaPackageElement.Type.Attachment,
+            new MediaPackageElementFlavor(track.getFlavor().getType(), flavorSubtype));
+    attachment.setIdentifier(IdBuilderFactory.newInstance().newIdBuilder().createNew().compact());
+    return attachment;
+  }
+
+  /**
+   * Describes the non silent segments in a SMIL catalog, exactly like the silence detection service does.
+   */
+  private Catalog createSmilCatalog(Track track, List<Track> referenceTracks, List<MediaSegment> segments)
+          throws MediaAnalysisException {
+    Track[] references = referenceTracks == null ? new Track[] { track }
+            : referenceTracks.toArray(new Track[referenceTracks.size()]);
+    try {
+      SmilResponse smilResponse = smilService.createNewSmil();
+      for (MediaSegment segment : segments) {
+        smilResponse = smilService.addParallel(smilResponse.getSmil());
+        String parId = smilResponse.getEntity().getId();
+        smilResponse = smilService.addClips(smilResponse.getSmil(), parId, references, segment.getSegmentStart(),
+                segment.getSegmentStop() - segment.getSegmentStart());
+      }
+      URI uri;
+      try (InputStream in = IOUtils.toInputStream(smilResponse.getSmil().toXML(), "UTF-8")) {
+        uri = workspace.putInCollection(COLLECTION_ID, track.getIdentifier() + "-" + UUID.randomUUID() + ".smil", in);
+      }
+      MediaPackageElementBuilder builder = MediaPackageElementBuilderFactory.newInstance().newElementBuilder();
+      Catalog catalog = (Catalog) builder.elementFromURI(uri, MediaPackageElement.Type.Catalog,
+              new MediaPackageElementFlavor(track.getFlavor().getType(), SILENCE_FLAVOR_SUBTYPE));
+      catalog.setIdentifier(smilResponse.getSmil().getId());
+      return catalog;
+    } catch (Exception e) {
+      throw new MediaAnalysisException("Failed to create the SMIL describing the non silent segments", e);
+    }
+  }
+
+  /**
+   * Return the waveform image width build from input track and requested sizes.
+   */
+  private static int getWaveformImageWidth(Track track, int pixelsPerMinute, int minWidth, int maxWidth) {
+    int imageWidth = minWidth;
+    if (track.getDuration() > 0) {
+      int trackDurationMinutes = (int) TimeUnit.MILLISECONDS.toMinutes(track.getDuration());
+      if (pixelsPerMinute > 0 && trackDurationMinutes > 0) {
+        imageWidth = Math.max(minWidth, trackDurationMinutes * pixelsPerMinute);
+        imageWidth = Math.min(maxWidth, imageWidth);
+      }
+    }
+    return imageWidth;
+  }
+
+  private long getLong(String key, Long defaultValue) {
+    try {
+      return Long.parseLong(silenceProperties.getProperty(key, defaultValue.toString()));
+    } catch (NumberFormatException e) {
+      logger.warn("Configuration value for {} is invalid, using default value of {} instead", key, defaultValue);
+      return defaultValue;
+    }
+  }
+
+  /**
+   * Serializes analysis options for use as a job argument.
+   *
+   * @param options
+   *          the options, may be <code>null</code>
+   * @return the options in properties format
+   */
+  public static String getOptionsAsString(Map<String, String> options) {
+    Properties properties = new Properties();
+    if (options != null) {
+      properties.putAll(options);
+    }
+    StringWriter writer = new StringWriter();
+    try {
+      properties.store(writer, null);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Parses analysis options serialized by {@link #getOptionsAsString(Map)}.
+   *
+   * @param options
+   *          the serialized options
+   * @return the options
+   * @throws IOException
+   *           if the options can not be parsed
+   */
+  public static Map<String, String> parseOptions(String options) throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = IOUtils.toInputStream(StringUtils.defaultString(options), "UTF-8")) {
+      properties.load(in);
+    }
+    Map<String, String> map = new HashMap<>();
+    for (String key : properties.stringPropertyNames()) {
+      map.put(key, properties.getProperty(key));
+    }
+    return map;
+  }
+
+  @Override
+  protected ServiceRegistry getServiceRegistry() {
+    return serviceRegistry;
+  }
+
+  @Override
+  protected SecurityService getSecurityService() {
+    return securityService;
+  }
+
+  @Override
+  protected UserDirectoryService getUserDirectoryService() {
+    return userDirectoryService;
+  }
+
+  @Override
+  protected OrganizationDirectoryService getOrganizationDirectoryService() {
+    return organizationDirectoryService;
+  }
+
+  public void setServiceRegistry(ServiceRegistry serviceRegistry) {
+    this.serviceRegistry = serviceRegistry;
+  }
+
+  public void setSecurityService(SecurityService securityService) {
+    this.securityService = securityService;
+  }
+
+  public void setUserDirectoryService(UserDirectoryService userDirectoryService) {
+    this.userDirectoryService = userDirectoryService;
+  }
+
+  public void setOrganizationDirectoryService(OrganizationDirectoryService organizationDirectoryService) {
+    this.organizationDirectoryService = organizationDirectoryService;
+  }
+
+  public void setWorkspace(Workspace workspace) {
+    this.workspace = workspace;
+  }
+
+  public void setSmilService(SmilService smilService) {
+    this.smilService = smilService;
+  }
+}
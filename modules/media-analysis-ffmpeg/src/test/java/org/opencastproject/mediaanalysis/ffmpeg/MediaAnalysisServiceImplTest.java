@@ -0,0 +1,218 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.ffmpeg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobImpl;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.AudioStream;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.silencedetection.impl.SilenceDetectionProperties;
+import org.opencastproject.smil.api.SmilService;
+import org.opencastproject.smil.entity.api.Smil;
+import org.opencastproject.smil.entity.media.api.SmilMediaObject;
+import org.opencastproject.smil.entity.media.container.api.SmilMediaContainer;
+import org.opencastproject.smil.entity.media.element.api.SmilMediaElement;
+import org.opencastproject.smil.impl.SmilServiceImpl;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.easymock.EasyMock;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test class for MediaAnalysisServiceImpl.
+ */
+public class MediaAnalysisServiceImplTest {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceImplTest.class);
+
+  private static Track audioTrack = null;
+
+  private static boolean ffmpegInstalled = true;
+
+  @BeforeClass
+  public static void setUpClass() throws Exception {
+    audioTrack = (Track) MediaPackageElementParser.getFromXml(IOUtils.toString(
+            MediaAnalysisServiceImplTest.class.getResourceAsStream("/audio-track.xml"), "UTF-8"));
+    audioTrack.setURI(MediaAnalysisServiceImplTest.class.getResource("/test.mp3").toURI());
+    try {
+      Process p = new ProcessBuilder(MediaAnalysisServiceImpl.DEFAULT_FFMPEG_BINARY, "-version").start();
+      if (p.waitFor() != 0)
+        throw new IllegalStateException();
+    } catch (Throwable t) {
+      logger.warn("Skipping media analysis tests due to missing ffmpeg");
+      ffmpegInstalled = false;
+    }
+  }
+
+  /**
+   * Test of the conversion of the options to a job argument and back.
+   */
+  @Test
+  public void testOptions() throws Exception {
+    Map<String, String> options = new HashMap<>();
+    options.put(MediaAnalysisService.OPTION_WAVEFORM, "true");
+    options.put(MediaAnalysisService.OPTION_WAVEFORM_COLOR, "blue|0x2A2A2A");
+    options.put(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS, "100");
+    assertEquals(options,
+            MediaAnalysisServiceImpl.parseOptions(MediaAnalysisServiceImpl.getOptionsAsString(options)));
+  }
+
+  /**
+   * Test of analyze method of class MediaAnalysisServiceImpl.
+   */
+  @Test
+  public void testAnalyze() throws Exception {
+    Job expectedJob = new JobImpl(1);
+    ServiceRegistry serviceRegistry = EasyMock.createNiceMock(ServiceRegistry.class);
+    EasyMock.expect(serviceRegistry.createJob(
+            EasyMock.eq(MediaAnalysisServiceImpl.JOB_TYPE),
+            EasyMock.eq(MediaAnalysisServiceImpl.Operation.Analyze.toString()),
+            (List<String>) EasyMock.anyObject(), EasyMock.anyFloat()))
+            .andReturn(expectedJob);
+    EasyMock.replay(serviceRegistry);
+
+    MediaAnalysisServiceImpl instance = new MediaAnalysisServiceImpl();
+    instance.setServiceRegistry(serviceRegistry);
+    Job job = instance.analyze(audioTrack, null, new HashMap<>());
+    assertEquals(expectedJob, job);
+  }
+
+  /**
+   * Test of process method of class MediaAnalysisServiceImpl, creating a waveform, measuring the loudness and
+   * detecting the silence in a single pass.
+   */
+  @Test
+  public void testProcess() throws Exception {
+    Assume.assumeTrue(ffmpegInstalled);
+
+    // A 440 Hz tone with an amplitude of 0.5, interrupted by silence from 3 to 6 seconds
+    File source = File.createTempFile("media-analysis-test", ".wav", new File("target"));
+    try {
+      Process p = new ProcessBuilder(MediaAnalysisServiceImpl.DEFAULT_FFMPEG_BINARY, "-y", "-f", "lavfi", "-i",
+              "aevalsrc=if(between(t\\,3\\,6)\\,0\\,0.5*sin(2*PI*440*t)):s=44100:d=9", source.getAbsolutePath())
+              .redirectErrorStream(true).redirectOutput(new File("target/media-analysis-test.log")).start();
+      assertEquals(0, p.waitFor());
+
+      TrackImpl track = (TrackImpl) MediaPackageElementParser.getFromXml(IOUtils.toString(
+              MediaAnalysisServiceImplTest.class.getResourceAsStream("/audio-track.xml"), "UTF-8"));
+      track.setURI(source.toURI());
+      track.setDuration(9000L);
+
+      Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+      EasyMock.expect(workspace.get(EasyMock.anyObject())).andReturn(source);
+      Map<String, String> stored = new HashMap<>();
+      EasyMock.expect(workspace.putInCollection(EasyMock.anyString(), EasyMock.anyString(), EasyMock.anyObject()))
+              .andAnswer(() -> {
+                String filename = (String) EasyMock.getCurrentArguments()[1];
+                stored.put(filename, IOUtils.toString((InputStream) EasyMock.getCurrentArguments()[2], "UTF-8"));
+                return new URI(filename);
+              }).anyTimes();
+      ServiceRegistry serviceRegistry = EasyMock.createNiceMock(ServiceRegistry.class);
+      EasyMock.expect(serviceRegistry.getHostRegistrations()).andReturn(new ArrayList<>()).anyTimes();
+      EasyMock.replay(workspace, serviceRegistry);
+
+      MediaAnalysisServiceImpl instance = new MediaAnalysisServiceImpl();
+      instance.setWorkspace(workspace);
+      instance.setServiceRegistry(serviceRegistry);
+      SmilService smilService = new SmilServiceImpl();
+      instance.setSmilService(smilService);
+      Hashtable<String, String> properties = new Hashtable<>();
+      properties.put(SilenceDetectionProperties.SILENCE_MIN_LENGTH, "1000");
+      properties.put(SilenceDetectionProperties.SILENCE_PRE_LENGTH, "0");
+      properties.put(SilenceDetectionProperties.VOICE_MIN_LENGTH, "1000");
+      instance.updated(properties);
+
+      Map<String, String> options = new HashMap<>();
+      options.put(MediaAnalysisService.OPTION_WAVEFORM, "true");
+      options.put(MediaAnalysisService.OPTION_LOUDNESS, "true");
+      options.put(MediaAnalysisService.OPTION_SILENCE, "true");
+      Job job = new JobImpl(1);
+      job.setJobType(MediaAnalysisServiceImpl.JOB_TYPE);
+      job.setOperation(MediaAnalysisServiceImpl.Operation.Analyze.toString());
+      job.setArguments(Arrays.asList(MediaPackageElementParser.getAsXml(track), "",
+              MediaAnalysisServiceImpl.getOptionsAsString(options)));
+      String result = instance.process(job);
+
+      List<? extends MediaPackageElement> elements = MediaPackageElementParser.getArrayFromXml(result);
+      assertEquals(3, elements.size());
+
+      // The loudness is set on the audio stream of the track
+      Track analyzed = (Track) elements.get(0);
+      assertEquals(track.getIdentifier(), analyzed.getIdentifier());
+      AudioStream audio = analyzed.getAudio().get(0);
+      assertEquals(-6.02, audio.getPkLevDb(), 0.1);
+      assertEquals(-9.03, audio.getRmsPkDb(), 0.1);
+      // Two thirds of the track are the tone
+      assertEquals(-10.79, audio.getRmsLevDb(), 0.1);
+
+      MediaPackageElement waveform = elements.get(1);
+      assertEquals(MediaAnalysisService.WAVEFORM_FLAVOR_SUBTYPE, waveform.getFlavor().getSubtype());
+      assertTrue(waveform.getURI().toString().endsWith("-waveform.png"));
+
+      // The SMIL holds the segments before and after the silence
+      MediaPackageElement silence = elements.get(2);
+      assertEquals(MediaAnalysisService.SILENCE_FLAVOR_SUBTYPE, silence.getFlavor().getSubtype());
+      Smil smil = smilService.fromXml(stored.get(silence.getURI().toString())).getSmil();
+      assertEquals(silence.getIdentifier(), smil.getId());
+      List<SmilMediaObject> pars = smil.getBody().getMediaElements();
+      assertEquals(2, pars.size());
+      assertSegment(pars.get(0), source, 0, 3000);
+      assertSegment(pars.get(1), source, 6000, 9000);
+    } finally {
+      FileUtils.deleteQuietly(source);
+    }
+  }
+
+  /**
+   * Asserts that the parallel element contains a single clip of the source covering the given time span.
+   */
+  private static void assertSegment(SmilMediaObject par, File source, long start, long end) throws Exception {
+    List<SmilMediaObject> clips = ((SmilMediaContainer) par).getElements();
+    assertEquals(1, clips.size());
+    SmilMediaElement clip = (SmilMediaElement) clips.get(0);
+    assertEquals(source.toURI(), clip.getSrc());
+    assertEquals(start, clip.getClipBeginMS(), 20);
+    assertEquals(end, clip.getClipEndMS(), 20);
+  }
+}
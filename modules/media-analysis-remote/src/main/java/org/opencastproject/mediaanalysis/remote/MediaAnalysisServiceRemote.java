@@ -0,0 +1,105 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.mediaanalysis.remote;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobParser;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.serviceregistry.api.RemoteBase;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.message.BasicNameValuePair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * This is a remote media analysis service that will call the media analysis service implementation on a remote host.
+ */
+public class MediaAnalysisServiceRemote extends RemoteBase implements MediaAnalysisService {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisServiceRemote.class);
+
+  /** The default constructor. */
+  public MediaAnalysisServiceRemote() {
+    super(JOB_TYPE);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.mediaanalysis.api.MediaAnalysisService#analyze(org.opencastproject.mediapackage.Track,
+   *      org.opencastproject.mediapackage.Track[], java.util.Map)
+   */
+  @Override
+  public Job analyze(Track sourceTrack, Track[] referenceTracks, Map<String, String> options)
+          throws MediaPackageException, MediaAnalysisException {
+    HttpPost post = new HttpPost("/analyze");
+    try {
+      List<BasicNameValuePair> params = new ArrayList<>();
+      params.add(new BasicNameValuePair("track", MediaPackageElementParser.getAsXml(sourceTrack)));
+      if (referenceTracks != null) {
+        params.add(new BasicNameValuePair("referenceTracks",
+                MediaPackageElementParser.getArrayAsXml(Arrays.asList(referenceTracks))));
+      }
+      if (options != null) {
+        Properties properties = new Properties();
+        properties.putAll(options);
+        StringWriter writer = new StringWriter();
+        properties.store(writer, null);
+        params.add(new BasicNameValuePair("options", writer.toString()));
+      }
+      post.setEntity(new UrlEncodedFormEntity(params, "UTF-8"));
+    } catch (MediaPackageException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new MediaAnalysisException(e);
+    }
+    HttpResponse response = null;
+    try {
+      response = getResponse(post);
+      if (response != null) {
+        try {
+          Job receipt = JobParser.parseJob(response.getEntity().getContent());
+          logger.info("Analyzing {} on a remote media analysis server", sourceTrack);
+          return receipt;
+        } catch (Exception e) {
+          throw new MediaAnalysisException("Unable to analyze " + sourceTrack + " using a remote service", e);
+        }
+      }
+    } finally {
+      closeConnection(response);
+    }
+    throw new MediaAnalysisException("Unable to analyze " + sourceTrack + " using a remote service");
+  }
+
+}
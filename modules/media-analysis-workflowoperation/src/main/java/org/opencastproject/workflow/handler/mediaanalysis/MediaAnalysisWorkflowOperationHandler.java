@@ -0,0 +1,355 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.workflow.handler.mediaanalysis;
+
+import static org.opencastproject.mediaanalysis.api.MediaAnalysisService.SILENCE_FLAVOR_SUBTYPE;
+import static org.opencastproject.mediaanalysis.api.MediaAnalysisService.TIMELINE_PREVIEWS_FLAVOR_SUBTYPE;
+import static org.opencastproject.mediaanalysis.api.MediaAnalysisService.WAVEFORM_FLAVOR_SUBTYPE;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobContext;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisException;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageElement;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageException;
+import org.opencastproject.mediapackage.Track;
+import org.opencastproject.mediapackage.selector.TrackSelector;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.util.NotFoundException;
+import org.opencastproject.workflow.api.AbstractWorkflowOperationHandler;
+import org.opencastproject.workflow.api.WorkflowInstance;
+import org.opencastproject.workflow.api.WorkflowOperationException;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationResult;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.osgi.service.component.ComponentContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Workflow operation for the media analysis service. It replaces a combination of the waveform, timeline previews,
+ * silence detection and audio analysis operations, decoding each source track only once.
+ */
+public class MediaAnalysisWorkflowOperationHandler extends AbstractWorkflowOperationHandler {
+  private static final Logger logger = LoggerFactory.getLogger(MediaAnalysisWorkflowOperationHandler.class);
+
+  /** Source flavor configuration property name. */
+  private static final String SOURCE_FLAVOR_PROPERTY = "source-flavor";
+
+  /** Source tags configuration property name. */
+  private static final String SOURCE_TAGS_PROPERTY = "source-tags";
+
+  /** Configuration property name of the flavor of the tracks to reference in the SMIL of the non silent segments. */
+  private static final String REFERENCE_TRACKS_FLAVOR_PROPERTY = "reference-tracks-flavor";
+
+  /** Target flavor of the waveform image configuration property name. */
+  private static final String WAVEFORM_TARGET_FLAVOR_PROPERTY = "waveform-target-flavor";
+
+  /** Pixel per minute of waveform image width configuration property name. */
+  private static final String WAVEFORM_PIXELS_PER_MINUTE_PROPERTY = "waveform-pixels-per-minute";
+
+  /** Minimun width of waveform image configuration property name. */
+  private static final String WAVEFORM_MIN_WIDTH_PROPERTY = "waveform-min-width";
+
+  /** Maximum width of waveform image configuration property name. */
+  private static final String WAVEFORM_MAX_WIDTH_PROPERTY = "waveform-max-width";
+
+  /** Height of waveform image configuration property name. */
+  private static final String WAVEFORM_HEIGHT_PROPERTY = "waveform-height";
+
+  /** Color of waveform image configuration property name. */
+  private static final String WAVEFORM_COLOR_PROPERTY = "waveform-color";
+
+  /** Target flavor of the timeline previews configuration property name. */
+  private static final String TIMELINE_PREVIEWS_TARGET_FLAVOR_PROPERTY = "timelinepreviews-target-flavor";
+
+  /** Number of timeline preview images configuration property name. */
+  private static final String TIMELINE_PREVIEWS_IMAGE_COUNT_PROPERTY = "timelinepreviews-image-count";
+
+  /** Target flavor of the SMIL of the non silent segments configuration property name. */
+  private static final String SILENCE_TARGET_FLAVOR_PROPERTY = "silence-target-flavor";
+
+  /** Loudness measurement configuration property name. */
+  private static final String LOUDNESS_PROPERTY = "loudness";
+
+  /** Target tags configuration property name. */
+  private static final String TARGET_TAGS_PROPERTY = "target-tags";
+
+  /** Default number of timeline preview images. */
+  private static final int DEFAULT_TIMELINE_PREVIEWS_IMAGE_COUNT = 100;
+
+  /** The file names of the created elements in the workspace by their flavor subtype. */
+  private static final Map<String, String> FILE_NAMES = new HashMap<>();
+
+  static {
+    FILE_NAMES.put(WAVEFORM_FLAVOR_SUBTYPE, "waveform.png");
+    FILE_NAMES.put(TIMELINE_PREVIEWS_FLAVOR_SUBTYPE, "timelinepreviews.png");
+    FILE_NAMES.put(SILENCE_FLAVOR_SUBTYPE, "smil.smil");
+  }
+
+  /** The media analysis service. */
+  private MediaAnalysisService mediaAnalysisService = null;
+
+  /** The workspace service. */
+  private Workspace workspace = null;
+
+  @Override
+  public void activate(ComponentContext cc) {
+    super.activate(cc);
+    logger.info("Registering media analysis workflow operation handler");
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see
+   * org.opencastproject.workflow.api.WorkflowOperationHandler#start(org.opencastproject.workflow.api.WorkflowInstance,
+   * org.opencastproject.job.api.JobContext)
+   */
+  @Override
+  public WorkflowOperationResult start(WorkflowInstance workflowInstance, JobContext context)
+          throws WorkflowOperationException {
+
+    MediaPackage mediaPackage = workflowInstance.getMediaPackage();
+    WorkflowOperationInstance operation = workflowInstance.getCurrentOperation();
+    logger.info("Start media analysis workflow operation for mediapackage {}", mediaPackage);
+
+    String sourceFlavorProperty = StringUtils.trimToNull(operation.getConfiguration(SOURCE_FLAVOR_PROPERTY));
+    String sourceTagsProperty = StringUtils.trimToNull(operation.getConfiguration(SOURCE_TAGS_PROPERTY));
+    if (StringUtils.isEmpty(sourceFlavorProperty) && StringUtils.isEmpty(sourceTagsProperty)) {
+      throw new WorkflowOperationException(
+              String.format("Required property %s or %s not set", SOURCE_FLAVOR_PROPERTY, SOURCE_TAGS_PROPERTY));
+    }
+
+    // the target flavors of the elements to create, by their flavor subtype
+    Map<String, MediaPackageElementFlavor> targetFlavors = new HashMap<>();
+    putTargetFlavor(targetFlavors, WAVEFORM_FLAVOR_SUBTYPE, operation, WAVEFORM_TARGET_FLAVOR_PROPERTY);
+    putTargetFlavor(targetFlavors, TIMELINE_PREVIEWS_FLAVOR_SUBTYPE, operation,
+            TIMELINE_PREVIEWS_TARGET_FLAVOR_PROPERTY);
+    putTargetFlavor(targetFlavors, SILENCE_FLAVOR_SUBTYPE, operation, SILENCE_TARGET_FLAVOR_PROPERTY);
+    boolean loudness = BooleanUtils.toBoolean(operation.getConfiguration(LOUDNESS_PROPERTY));
+    if (targetFlavors.isEmpty() && !loudness) {
+      throw new WorkflowOperationException(String.format("None of %s, %s, %s or %s is set",
+              WAVEFORM_TARGET_FLAVOR_PROPERTY, TIMELINE_PREVIEWS_TARGET_FLAVOR_PROPERTY,
+              SILENCE_TARGET_FLAVOR_PROPERTY, LOUDNESS_PROPERTY));
+    }
+
+    String targetTagsProperty = StringUtils.trimToNull(operation.getConfiguration(TARGET_TAGS_PROPERTY));
+
+    Map<String, String> options = new HashMap<>();
+    if (targetFlavors.containsKey(WAVEFORM_FLAVOR_SUBTYPE)) {
+      options.put(MediaAnalysisService.OPTION_WAVEFORM, Boolean.TRUE.toString());
+      putOption(options, MediaAnalysisService.OPTION_WAVEFORM_PIXELS_PER_MINUTE, operation,
+              WAVEFORM_PIXELS_PER_MINUTE_PROPERTY);
+      putOption(options, MediaAnalysisService.OPTION_WAVEFORM_MIN_WIDTH, operation, WAVEFORM_MIN_WIDTH_PROPERTY);
+      putOption(options, MediaAnalysisService.OPTION_WAVEFORM_MAX_WIDTH, operation, WAVEFORM_MAX_WIDTH_PROPERTY);
+      putOption(options, MediaAnalysisService.OPTION_WAVEFORM_HEIGHT, operation, WAVEFORM_HEIGHT_PROPERTY);
+      putOption(options, MediaAnalysisService.OPTION_WAVEFORM_COLOR, operation, WAVEFORM_COLOR_PROPERTY);
+    }
+    if (targetFlavors.containsKey(TIMELINE_PREVIEWS_FLAVOR_SUBTYPE)) {
+      String imageCount = StringUtils.trimToNull(operation.getConfiguration(TIMELINE_PREVIEWS_IMAGE_COUNT_PROPERTY));
+      options.put(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS,
+              StringUtils.defaultString(imageCount, Integer.toString(DEFAULT_TIMELINE_PREVIEWS_IMAGE_COUNT)));
+    }
+    if (targetFlavors.containsKey(SILENCE_FLAVOR_SUBTYPE)) {
+      options.put(MediaAnalysisService.OPTION_SILENCE, Boolean.TRUE.toString());
+    }
+    options.put(MediaAnalysisService.OPTION_LOUDNESS, Boolean.toString(loudness));
+
+    try {
+      TrackSelector trackSelector = new TrackSelector();
+      for (String flavor : asList(sourceFlavorProperty)) {
+        trackSelector.addFlavor(flavor);
+      }
+      for (String tag : asList(sourceTagsProperty)) {
+        trackSelector.addTag(tag);
+      }
+      Collection<Track> sourceTracks = trackSelector.select(mediaPackage, false);
+      if (sourceTracks.isEmpty()) {
+        logger.info("No tracks found in mediapackage {} with specified {} = {}", mediaPackage, SOURCE_FLAVOR_PROPERTY,
+                sourceFlavorProperty);
+        return createResult(mediaPackage, WorkflowOperationResult.Action.SKIP);
+      }
+
+      Track[] referenceTracks = null;
+      String referenceTracksFlavor = StringUtils.trimToNull(
+              operation.getConfiguration(REFERENCE_TRACKS_FLAVOR_PROPERTY));
+      if (referenceTracksFlavor != null) {
+        trackSelector = new TrackSelector();
+        for (String flavor : asList(referenceTracksFlavor)) {
+          trackSelector.addFlavor(flavor);
+        }
+        Collection<Track> tracks = trackSelector.select(mediaPackage, false);
+        if (tracks.isEmpty()) {
+          throw new WorkflowOperationException(String.format("No tracks found filtered by flavor(s) '%s'",
+                  referenceTracksFlavor));
+        }
+        referenceTracks = tracks.toArray(new Track[tracks.size()]);
+      }
+
+      Map<Job, Track> analysisJobs = new LinkedHashMap<>();
+      for (Track sourceTrack : sourceTracks) {
+        // Drop the analyses the track has no stream for
+        Map<String, String> trackOptions = new HashMap<>(options);
+        if (!sourceTrack.hasAudio()) {
+          trackOptions.remove(MediaAnalysisService.OPTION_WAVEFORM);
+          trackOptions.remove(MediaAnalysisService.OPTION_SILENCE);
+          trackOptions.put(MediaAnalysisService.OPTION_LOUDNESS, Boolean.FALSE.toString());
+        }
+        if (!sourceTrack.hasVideo()) {
+          trackOptions.remove(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS);
+        }
+        if (!trackOptions.containsKey(MediaAnalysisService.OPTION_WAVEFORM)
+                && !trackOptions.containsKey(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS)
+                && !trackOptions.containsKey(MediaAnalysisService.OPTION_SILENCE)
+                && !BooleanUtils.toBoolean(trackOptions.get(MediaAnalysisService.OPTION_LOUDNESS))) {
+          logger.info("Skipping media analysis of track {} since it has no stream to analyze",
+                  sourceTrack.getIdentifier());
+          continue;
+        }
+        try {
+          logger.info("Creating media analysis job for track '{}' in mediapackage '{}'", sourceTrack.getIdentifier(),
+                  mediaPackage);
+          analysisJobs.put(mediaAnalysisService.analyze(sourceTrack, referenceTracks, trackOptions), sourceTrack);
+        } catch (MediaPackageException | MediaAnalysisException e) {
+          throw new WorkflowOperationException(String.format("Creating media analysis job for track '%s' failed",
+                  sourceTrack.getIdentifier()), e);
+        }
+      }
+
+      logger.debug("Waiting for media analysis jobs for media package {}", mediaPackage);
+      if (!waitForStatus(analysisJobs.keySet().toArray(new Job[analysisJobs.size()])).isSuccess()) {
+        throw new WorkflowOperationException(String.format(
+                "Media analysis jobs for media package '%s' have not completed successfully",
+                mediaPackage.getIdentifier()));
+      }
+
+      long totalTimeInQueue = 0;
+      for (Map.Entry<Job, Track> entry : analysisJobs.entrySet()) {
+        Job job = entry.getKey();
+        totalTimeInQueue += job.getQueueTime();
+        List<? extends MediaPackageElement> elements;
+        try {
+          elements = MediaPackageElementParser.getArrayFromXml(job.getPayload());
+        } catch (MediaPackageException e) {
+          throw new WorkflowOperationException("Can't parse media analysis results from job " + job.getId(), e);
+        }
+
+        // the analyzed track comes first and carries the loudness statistics
+        if (loudness && entry.getValue().hasAudio()) {
+          ((TrackImpl) entry.getValue()).setAudio(((TrackImpl) elements.get(0)).getAudio());
+        }
+        for (MediaPackageElement element : elements.subList(1, elements.size())) {
+          String subtype = element.getFlavor().getSubtype();
+          MediaPackageElementFlavor targetFlavor = targetFlavors.get(subtype);
+          if (targetFlavor == null) {
+            continue;
+          }
+          addElement(mediaPackage, element, targetFlavor, FILE_NAMES.get(subtype), targetTagsProperty);
+        }
+      }
+
+      logger.info("Media analysis workflow operation for mediapackage {} completed", mediaPackage);
+      return createResult(mediaPackage, WorkflowOperationResult.Action.CONTINUE, totalTimeInQueue);
+
+    } finally {
+      try {
+        workspace.cleanup(mediaPackage.getIdentifier(), true);
+      } catch (IOException e) {
+        throw new WorkflowOperationException(e);
+      }
+    }
+  }
+
+  /**
+   * Moves a created element into the media package directory of the workspace, sets its flavor and tags and adds it
+   * to the media package.
+   */
+  private void addElement(MediaPackage mediaPackage, MediaPackageElement element,
+          MediaPackageElementFlavor targetFlavor, String fileName, String targetTags)
+          throws WorkflowOperationException {
+    try {
+      URI newURI = workspace.moveTo(element.getURI(), mediaPackage.getIdentifier().toString(),
+              element.getIdentifier(), fileName);
+      element.setURI(newURI);
+    } catch (NotFoundException e) {
+      throw new WorkflowOperationException("Media analysis result '" + element.getURI() + "' not found", e);
+    } catch (IOException e) {
+      throw new WorkflowOperationException("Can't get media analysis result '" + element.getURI()
+              + "' from workspace", e);
+    }
+
+    if ("*".equals(targetFlavor.getType())) {
+      targetFlavor = new MediaPackageElementFlavor(element.getFlavor().getType(), targetFlavor.getSubtype());
+    }
+    if ("*".equals(targetFlavor.getSubtype())) {
+      targetFlavor = new MediaPackageElementFlavor(targetFlavor.getType(), element.getFlavor().getSubtype());
+    }
+    element.setFlavor(targetFlavor);
+    for (String tag : asList(targetTags)) {
+      element.addTag(tag);
+    }
+    mediaPackage.add(element);
+  }
+
+  private static void putTargetFlavor(Map<String, MediaPackageElementFlavor> targetFlavors, String subtype,
+          WorkflowOperationInstance operation, String property) throws WorkflowOperationException {
+    String flavor = StringUtils.trimToNull(operation.getConfiguration(property));
+    if (flavor == null) {
+      return;
+    }
+    try {
+      targetFlavors.put(subtype, MediaPackageElementFlavor.parseFlavor(flavor));
+    } catch (IllegalArgumentException e) {
+      throw new WorkflowOperationException(String.format("Target flavor '%s' of %s is malformed", flavor, property));
+    }
+  }
+
+  private static void putOption(Map<String, String> options, String option, WorkflowOperationInstance operation,
+          String property) {
+    String value = StringUtils.trimToNull(operation.getConfiguration(property));
+    if (value != null) {
+      options.put(option, value);
+    }
+  }
+
+  public void setMediaAnalysisService(MediaAnalysisService mediaAnalysisService) {
+    this.mediaAnalysisService = mediaAnalysisService;
+  }
+
+  public void setWorkspace(Workspace workspace) {
+    this.workspace = workspace;
+  }
+}
@@ -0,0 +1,152 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.workflow.handler.mediaanalysis;
+
+import org.opencastproject.job.api.Job;
+import org.opencastproject.job.api.JobBarrier;
+import org.opencastproject.job.api.JobImpl;
+import org.opencastproject.mediaanalysis.api.MediaAnalysisService;
+import org.opencastproject.mediapackage.Attachment;
+import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.mediapackage.MediaPackageBuilderImpl;
+import org.opencastproject.mediapackage.MediaPackageElementFlavor;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.attachment.AttachmentImpl;
+import org.opencastproject.mediapackage.identifier.IdImpl;
+import org.opencastproject.mediapackage.track.TrackImpl;
+import org.opencastproject.mediapackage.track.VideoStreamImpl;
+import org.opencastproject.workflow.api.WorkflowInstanceImpl;
+import org.opencastproject.workflow.api.WorkflowOperationInstance;
+import org.opencastproject.workflow.api.WorkflowOperationInstanceImpl;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class MediaAnalysisWorkflowOperationHandlerTest {
+
+  private MediaPackage mediaPackage;
+  private MediaAnalysisWorkflowOperationHandler handler;
+  private WorkflowInstanceImpl workflow;
+  private WorkflowOperationInstance instance;
+  private MediaAnalysisService mediaAnalysisService;
+  private Capture<Map<String, String>> options;
+
+  @Before
+  public void setUp() throws Exception {
+    handler = new MediaAnalysisWorkflowOperationHandler() {
+      @Override
+      protected JobBarrier.Result waitForStatus(Job... jobs) throws IllegalStateException, IllegalArgumentException {
+        JobBarrier.Result result = EasyMock.createNiceMock(JobBarrier.Result.class);
+        EasyMock.expect(result.isSuccess()).andReturn(true).anyTimes();
+        EasyMock.replay(result);
+        return result;
+      }
+    };
+
+    // A track with a video but no audio stream
+    TrackImpl track = new TrackImpl();
+    track.setIdentifier("track");
+    track.setFlavor(MediaPackageElementFlavor.parseFlavor("presenter/source"));
+    track.setVideo(Collections.singletonList(new VideoStreamImpl("video-1")));
+
+    mediaPackage = new MediaPackageBuilderImpl().createNew();
+    mediaPackage.setIdentifier(new IdImpl("123-456"));
+    mediaPackage.add(track);
+
+    instance = EasyMock.createNiceMock(WorkflowOperationInstanceImpl.class);
+    EasyMock.expect(instance.getConfiguration("source-flavor")).andReturn("*/source").anyTimes();
+
+    workflow = EasyMock.createNiceMock(WorkflowInstanceImpl.class);
+    EasyMock.expect(workflow.getMediaPackage()).andReturn(mediaPackage).anyTimes();
+    EasyMock.expect(workflow.getCurrentOperation()).andReturn(instance).anyTimes();
+
+    // The service returns the analyzed track followed by the timeline previews
+    TrackImpl analyzed = new TrackImpl();
+    analyzed.setIdentifier("track");
+    analyzed.setFlavor(track.getFlavor());
+    Attachment previews = new AttachmentImpl();
+    previews.setIdentifier("previews");
+    previews.setFlavor(new MediaPackageElementFlavor("presenter", MediaAnalysisService.TIMELINE_PREVIEWS_FLAVOR_SUBTYPE));
+    Job job = new JobImpl(0);
+    job.setPayload(MediaPackageElementParser.getArrayAsXml(Arrays.asList(analyzed, previews)));
+
+    options = Capture.newInstance();
+    mediaAnalysisService = EasyMock.createNiceMock(MediaAnalysisService.class);
+    EasyMock.expect(mediaAnalysisService.analyze(EasyMock.anyObject(), EasyMock.anyObject(),
+            EasyMock.capture(options))).andReturn(job);
+
+    Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+    EasyMock.replay(mediaAnalysisService, workspace, workflow);
+
+    handler.setMediaAnalysisService(mediaAnalysisService);
+    handler.setWorkspace(workspace);
+  }
+
+  @Test
+  public void testVideoOnlyTrackGetsTimelinePreviews() throws Exception {
+    EasyMock.expect(instance.getConfiguration("timelinepreviews-target-flavor"))
+            .andReturn("*/timeline+preview").anyTimes();
+    EasyMock.replay(instance);
+
+    Assert.assertTrue(handler.start(workflow, null).allowsContinue());
+    Assert.assertTrue(options.hasCaptured());
+    Assert.assertEquals("100", options.getValue().get(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS));
+    Assert.assertFalse(options.getValue().containsKey(MediaAnalysisService.OPTION_WAVEFORM));
+    Assert.assertFalse(options.getValue().containsKey(MediaAnalysisService.OPTION_SILENCE));
+    Assert.assertEquals(1, mediaPackage.getAttachments(
+            MediaPackageElementFlavor.parseFlavor("presenter/timeline+preview")).length);
+  }
+
+  @Test
+  public void testVideoOnlyTrackDropsAudioAnalyses() throws Exception {
+    EasyMock.expect(instance.getConfiguration("timelinepreviews-target-flavor"))
+            .andReturn("*/timeline+preview").anyTimes();
+    EasyMock.expect(instance.getConfiguration("waveform-target-flavor")).andReturn("*/waveform").anyTimes();
+    EasyMock.expect(instance.getConfiguration("silence-target-flavor")).andReturn("*/smil").anyTimes();
+    EasyMock.expect(instance.getConfiguration("loudness")).andReturn("true").anyTimes();
+    EasyMock.replay(instance);
+
+    Assert.assertTrue(handler.start(workflow, null).allowsContinue());
+    Assert.assertTrue(options.hasCaptured());
+    Assert.assertFalse(options.getValue().containsKey(MediaAnalysisService.OPTION_WAVEFORM));
+    Assert.assertFalse(options.getValue().containsKey(MediaAnalysisService.OPTION_SILENCE));
+    Assert.assertEquals("false", options.getValue().get(MediaAnalysisService.OPTION_LOUDNESS));
+    Assert.assertEquals("100", options.getValue().get(MediaAnalysisService.OPTION_TIMELINE_PREVIEWS));
+  }
+
+  @Test
+  public void testVideoOnlyTrackIsSkippedForAudioAnalysesOnly() throws Exception {
+    EasyMock.expect(instance.getConfiguration("waveform-target-flavor")).andReturn("*/waveform").anyTimes();
+    EasyMock.replay(instance);
+
+    Assert.assertTrue(handler.start(workflow, null).allowsContinue());
+    Assert.assertFalse(options.hasCaptured());
+  }
+
+}
@@ -0,0 +1,54 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.message.broker.api.scheduler;
+
+import org.opencastproject.message.broker.api.MessageItem;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The updates of multiple scheduled events sent as a single message, allowing receivers to process them in bulk.
+ */
+public class SchedulerItemBatch implements MessageItem, Serializable {
+  private final String id;
+  private final List<SchedulerItemList> lists;
+
+  public SchedulerItemBatch(final List<SchedulerItemList> lists) {
+    this.id = UUID.randomUUID().toString();
+    this.lists = new ArrayList<>(lists);
+  }
+
+  /**
+   * @return the item lists of the events, one list per event
+   */
+  public List<SchedulerItemList> getLists() {
+    return lists;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+}
@@ -20,6 +20,8 @@
  */
 package org.opencastproject.oaipmh.persistence;
 
+import java.util.Objects;
+
 /**
  * IdClass for OaiPmhEntity
  */
@@ -29,7 +31,10 @@ public class OaiPmhEntityId {
   private String repositoryId;
   private String organization;
 
-  OaiPmhEntityId(String mediaPackageId, String repositoryId, String organization) {
+  public OaiPmhEntityId() {
+  }
+
+  public OaiPmhEntityId(String mediaPackageId, String repositoryId, String organization) {
     this.mediaPackageId = mediaPackageId;
     this.repositoryId = repositoryId;
     this.organization = organization;
@@ -59,4 +64,20 @@ public class OaiPmhEntityId {
     this.organization = organization;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o)
+      return true;
+    if (!(o instanceof OaiPmhEntityId))
+      return false;
+    OaiPmhEntityId other = (OaiPmhEntityId) o;
+    return Objects.equals(mediaPackageId, other.mediaPackageId) && Objects.equals(repositoryId, other.repositoryId)
+            && Objects.equals(organization, other.organization);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(mediaPackageId, repositoryId, organization);
+  }
+
 }
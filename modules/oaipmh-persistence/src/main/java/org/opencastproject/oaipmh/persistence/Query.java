@@ -21,6 +21,7 @@
 package org.opencastproject.oaipmh.persistence;
 
 import org.opencastproject.util.data.Option;
+import org.opencastproject.util.data.Tuple;
 
 import java.util.Date;
 
@@ -44,5 +45,11 @@ public interface Query {
 
   Option<Integer> getOffset();
 
+  /**
+   * Keyset cursor of the last item of the previous page, consisting of its modification date and media package id.
+   * Only items after the cursor are returned.
+   */
+  Option<Tuple<Date, String>> getResumeAfter();
+
   boolean isSubsequentRequest();
 }
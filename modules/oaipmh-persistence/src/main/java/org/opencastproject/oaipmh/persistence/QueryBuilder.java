@@ -25,6 +25,7 @@ import static org.opencastproject.util.data.Option.some;
 
 import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.util.data.Option;
+import org.opencastproject.util.data.Tuple;
 
 import java.util.Date;
 
@@ -38,6 +39,7 @@ public class QueryBuilder {
   private Option<Date> modifiedBefore = none();
   private Option<Integer> limit = none();
   private Option<Integer> offset = none();
+  private Option<Tuple<Date, String>> resumeAfter = none();
   private boolean subsequentRequest = false;
 
   public static QueryBuilder query() {
@@ -128,6 +130,15 @@ public class QueryBuilder {
     return this;
   }
 
+  /**
+   * Return only items after the item with the given modification date and media package id. Use this instead of an
+   * offset to page through large results.
+   */
+  public QueryBuilder resumeAfter(Date modificationDate, String mediaPackageId) {
+    this.resumeAfter = some(Tuple.tuple(modificationDate, mediaPackageId));
+    return this;
+  }
+
   /** Defaults to false. */
   public QueryBuilder subsequentRequest(boolean subsequentRequest) {
     this.subsequentRequest = subsequentRequest;
@@ -144,6 +155,7 @@ public class QueryBuilder {
     final Option<Date> modifiedBefore = this.modifiedBefore;
     final Option<Integer> limit = this.limit;
     final Option<Integer> offset = this.offset;
+    final Option<Tuple<Date, String>> resumeAfter = this.resumeAfter;
     final boolean subsequentRequest = this.subsequentRequest;
 
     return new Query() {
@@ -179,6 +191,10 @@ public class QueryBuilder {
         return offset;
       }
 
+      @Override public Option<Tuple<Date, String>> getResumeAfter() {
+        return resumeAfter;
+      }
+
       @Override public boolean isSubsequentRequest() {
         return subsequentRequest;
       }
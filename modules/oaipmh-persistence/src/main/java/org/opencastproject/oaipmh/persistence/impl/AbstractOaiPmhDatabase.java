@@ -27,6 +27,7 @@ import org.opencastproject.oaipmh.persistence.OaiPmhDatabase;
 import org.opencastproject.oaipmh.persistence.OaiPmhDatabaseException;
 import org.opencastproject.oaipmh.persistence.OaiPmhElementEntity;
 import org.opencastproject.oaipmh.persistence.OaiPmhEntity;
+import org.opencastproject.oaipmh.persistence.OaiPmhEntityId;
 import org.opencastproject.oaipmh.persistence.Query;
 import org.opencastproject.oaipmh.persistence.SearchResult;
 import org.opencastproject.oaipmh.persistence.SearchResultItem;
@@ -34,6 +35,7 @@ import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.util.MimeTypes;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.XmlUtil;
+import org.opencastproject.util.data.Tuple;
 import org.opencastproject.workspace.api.Workspace;
 
 import org.apache.commons.io.IOUtils;
@@ -49,10 +51,10 @@ import java.util.List;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityTransaction;
-import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 
@@ -83,6 +85,7 @@ public abstract class AbstractOaiPmhDatabase implements OaiPmhDatabase {
         tx = em.getTransaction();
         tx.begin();
 
+        // upsert by primary key
         OaiPmhEntity entity = getOaiPmhEntity(mediaPackage.getIdentifier().toString(), repository, em);
         if (entity == null) {
           // no entry found, create new entity
@@ -90,9 +93,8 @@ public abstract class AbstractOaiPmhDatabase implements OaiPmhDatabase {
           updateEntity(entity, mediaPackage, repository);
           em.persist(entity);
         } else {
-          // entry found, update existing
+          // entry found, the managed entity is updated on commit
           updateEntity(entity, mediaPackage, repository);
-          em.merge(entity);
         }
         tx.commit();
         success = true;
@@ -248,9 +250,16 @@ public abstract class AbstractOaiPmhDatabase implements OaiPmhDatabase {
       }
       for (Date p : query.getModifiedBefore())
         predicates.add(cb.lessThanOrEqualTo(c.get("modificationDate").as(Date.class), p));
+      for (Tuple<Date, String> p : query.getResumeAfter()) {
+        // keyset pagination, so that the database can seek to the next page in the index
+        final Path<Date> modificationDate = c.get("modificationDate");
+        predicates.add(cb.or(
+                cb.greaterThan(modificationDate, p.getA()),
+                cb.and(cb.equal(modificationDate, p.getA()), cb.greaterThan(c.<String>get("mediaPackageId"), p.getB()))));
+      }
 
       q.where(cb.and(predicates.toArray(new Predicate[predicates.size()])));
-      q.orderBy(cb.asc(c.get("modificationDate")));
+      q.orderBy(cb.asc(c.get("modificationDate")), cb.asc(c.get("mediaPackageId")));
 
       TypedQuery<OaiPmhEntity> typedQuery = em.createQuery(q);
       for (int maxResult : query.getLimit())
@@ -277,13 +286,7 @@ public abstract class AbstractOaiPmhDatabase implements OaiPmhDatabase {
    */
   private OaiPmhEntity getOaiPmhEntity(String id, String repository, EntityManager em) {
     final String orgId = getSecurityService().getOrganization().getId();
-    javax.persistence.Query q = em.createNamedQuery("OaiPmh.findById").setParameter("mediaPackageId", id)
-            .setParameter("repository", repository).setParameter("organization", orgId);
-    try {
-      return (OaiPmhEntity) q.getSingleResult();
-    } catch (NoResultException e) {
-      return null;
-    }
+    return em.find(OaiPmhEntity.class, new OaiPmhEntityId(id, repository, orgId));
   }
 
   /**
@@ -28,7 +28,7 @@ import static org.opencastproject.util.persistence.PersistenceUtil.newTestEntity
 import org.opencastproject.mediapackage.MediaPackage;
 import org.opencastproject.mediapackage.MediaPackageElement;
 import org.opencastproject.mediapackage.MediaPackageSupport;
-import org.opencastproject.mediapackage.identifier.IdBuilderFactory;
+import org.opencastproject.mediapackage.identifier.IdImpl;
 import org.opencastproject.oaipmh.persistence.SearchResult;
 import org.opencastproject.oaipmh.persistence.SearchResultElementItem;
 import org.opencastproject.oaipmh.persistence.SearchResultItem;
@@ -45,7 +45,14 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.net.URI;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 
 /**
  * Tests persistence: storing, merging, retrieving and removing.
@@ -55,6 +62,7 @@ public class OaiPmhPersistenceTest {
   public static final String REPOSITORY_ID_1 = "repo-1";
   public static final String REPOSITORY_ID_2 = "repo-2";
   private OaiPmhDatabaseImpl oaiPmhDatabase;
+  private EntityManagerFactory emf;
 
   private MediaPackage mp1;
   private MediaPackage mp2;
@@ -85,8 +93,9 @@ public class OaiPmhPersistenceTest {
             .andAnswer(() -> getClass().getResourceAsStream("/series-xacml.xml")).anyTimes();
     EasyMock.replay(workspace);
 
+    emf = newTestEntityManagerFactory(OaiPmhDatabaseImpl.PERSISTENCE_UNIT_NAME);
     oaiPmhDatabase = new OaiPmhDatabaseImpl();
-    oaiPmhDatabase.setEntityManagerFactory(newTestEntityManagerFactory(OaiPmhDatabaseImpl.PERSISTENCE_UNIT_NAME));
+    oaiPmhDatabase.setEntityManagerFactory(emf);
     oaiPmhDatabase.setSecurityService(securityService);
     oaiPmhDatabase.setWorkspace(workspace);
     oaiPmhDatabase.activate(null);
@@ -208,7 +217,7 @@ public class OaiPmhPersistenceTest {
   public void testLimitOffset() throws Exception {
     oaiPmhDatabase.store(mp1, REPOSITORY_ID_1);
     MediaPackage mp2 = (MediaPackage) mp1.clone();
-    mp2.setIdentifier(IdBuilderFactory.newInstance().newIdBuilder().createNew());
+    mp2.setIdentifier(new IdImpl("mp2"));
     oaiPmhDatabase.store(mp2, REPOSITORY_ID_2);
     SearchResult search = oaiPmhDatabase.search(query().limit(2).build());
     Assert.assertEquals(2, search.size());
@@ -222,6 +231,91 @@ public class OaiPmhPersistenceTest {
     Assert.assertEquals(mp2.getIdentifier().toString(), search.getItems().get(0).getId());
   }
 
+  @Test
+  public void testResumeAfter() throws Exception {
+    oaiPmhDatabase.store(mp1, REPOSITORY_ID_1);
+    MediaPackage mp2 = (MediaPackage) mp1.clone();
+    mp2.setIdentifier(new IdImpl("mp2"));
+    oaiPmhDatabase.store(mp2, REPOSITORY_ID_1);
+
+    SearchResult search = oaiPmhDatabase.search(queryRepo(REPOSITORY_ID_1).limit(1).build());
+    Assert.assertEquals(1, search.size());
+    SearchResultItem first = search.getItems().get(0);
+    Assert.assertEquals(mp1.getIdentifier().toString(), first.getId());
+
+    search = oaiPmhDatabase.search(queryRepo(REPOSITORY_ID_1)
+            .resumeAfter(first.getModificationDate(), first.getId()).limit(1).build());
+    Assert.assertEquals(1, search.size());
+    SearchResultItem second = search.getItems().get(0);
+    Assert.assertEquals(mp2.getIdentifier().toString(), second.getId());
+
+    search = oaiPmhDatabase.search(queryRepo(REPOSITORY_ID_1)
+            .resumeAfter(second.getModificationDate(), second.getId()).limit(1).build());
+    Assert.assertEquals(0, search.size());
+  }
+
+  @Test
+  public void testResumeAfterWithinSameModificationDate() throws Exception {
+    allowSharedModificationDates();
+    for (String id : new String[] { "mp-d", "mp-b", "mp-a", "mp-c" }) {
+      MediaPackage mp = (MediaPackage) mp1.clone();
+      mp.setIdentifier(new IdImpl(id));
+      oaiPmhDatabase.store(mp, REPOSITORY_ID_1);
+    }
+    setModificationDate(new Date(1500000000000L), "mp-a", "mp-b", "mp-c", "mp-d");
+    // Modified later, so it comes last although its id sorts first
+    MediaPackage mp0 = (MediaPackage) mp1.clone();
+    mp0.setIdentifier(new IdImpl("mp-0"));
+    oaiPmhDatabase.store(mp0, REPOSITORY_ID_1);
+
+    List<String> ids = new ArrayList<>();
+    SearchResult search = oaiPmhDatabase.search(queryRepo(REPOSITORY_ID_1).limit(3).build());
+    while (search.size() > 0) {
+      Assert.assertTrue(search.size() <= 3);
+      for (SearchResultItem item : search.getItems()) {
+        ids.add(item.getId());
+      }
+      SearchResultItem last = search.getItems().get(search.getItems().size() - 1);
+      search = oaiPmhDatabase.search(queryRepo(REPOSITORY_ID_1)
+              .resumeAfter(last.getModificationDate(), last.getId()).limit(3).build());
+    }
+    Assert.assertEquals(Arrays.asList("mp-a", "mp-b", "mp-c", "mp-d", "mp-0"), ids);
+  }
+
+  /**
+   * Removes the unique constraint and the generated value of the modification date column so that tests can create
+   * records sharing a modification date.
+   */
+  private void allowSharedModificationDates() {
+    EntityManager em = emf.createEntityManager();
+    try {
+      em.getTransaction().begin();
+      for (Object constraint : em.createNativeQuery("SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.CONSTRAINTS "
+              + "WHERE TABLE_NAME = 'OC_OAIPMH' AND CONSTRAINT_TYPE = 'UNIQUE'").getResultList()) {
+        em.createNativeQuery("ALTER TABLE oc_oaipmh DROP CONSTRAINT " + constraint).executeUpdate();
+      }
+      em.createNativeQuery("ALTER TABLE oc_oaipmh ALTER COLUMN modification_date TIMESTAMP DEFAULT CURRENT_TIMESTAMP()")
+              .executeUpdate();
+      em.getTransaction().commit();
+    } finally {
+      em.close();
+    }
+  }
+
+  private void setModificationDate(Date date, String... mediaPackageIds) {
+    EntityManager em = emf.createEntityManager();
+    try {
+      em.getTransaction().begin();
+      for (String id : mediaPackageIds) {
+        em.createNativeQuery("UPDATE oc_oaipmh SET modification_date = ?1 WHERE mp_id = ?2")
+                .setParameter(1, new Timestamp(date.getTime())).setParameter(2, id).executeUpdate();
+      }
+      em.getTransaction().commit();
+    } finally {
+      em.close();
+    }
+  }
+
   @Test
   public void testRemovalOfOrphanedElements() throws Exception {
     oaiPmhDatabase.store(mp1, REPOSITORY_ID_1);
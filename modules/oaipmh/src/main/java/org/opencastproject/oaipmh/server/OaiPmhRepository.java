@@ -37,6 +37,7 @@ import org.opencastproject.oaipmh.OaiPmhConstants;
 import org.opencastproject.oaipmh.OaiPmhUtil;
 import org.opencastproject.oaipmh.persistence.OaiPmhDatabase;
 import org.opencastproject.oaipmh.persistence.OaiPmhDatabaseException;
+import org.opencastproject.oaipmh.persistence.QueryBuilder;
 import org.opencastproject.oaipmh.persistence.SearchResult;
 import org.opencastproject.oaipmh.persistence.SearchResultItem;
 import org.opencastproject.oaipmh.util.XmlGen;
@@ -127,7 +128,6 @@ public abstract class OaiPmhRepository {
 
   /** Add an item to the repository. */
   public void addItem(MediaPackage mp) {
-    getPersistence().search(queryRepo(getRepositoryId()).build());
     try {
       getPersistence().store(mp, getRepositoryId());
     } catch (OaiPmhDatabaseException e) {
@@ -484,12 +484,14 @@ public abstract class OaiPmhRepository {
               @Override
               public SearchResult some(ResumableQuery rq) {
                 set[0] = rq.getSet();
-                return getPersistence().search(
-                        queryRepo(getRepositoryId())
-                                .modifiedAfter(rq.getLastResult())
-                                .modifiedBefore(rq.getUntil())
-                                .limit(getResultLimit())
-                                .subsequentRequest(true).build());
+                final QueryBuilder query = queryRepo(getRepositoryId())
+                        .modifiedBefore(rq.getUntil())
+                        .limit(getResultLimit());
+                for (String lastResultId : rq.getLastResultId()) {
+                  // continue after the last result using the keyset cursor
+                  return getPersistence().search(query.resumeAfter(rq.getLastResult(), lastResultId).build());
+                }
+                return getPersistence().search(query.modifiedAfter(rq.getLastResult()).subsequentRequest(true).build());
               }
 
               @Override
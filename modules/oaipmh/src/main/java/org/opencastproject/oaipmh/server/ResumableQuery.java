@@ -34,12 +34,19 @@ public class ResumableQuery {
   private final String metadataPrefix;
   private final Date until;
   private final Date lastResult;
+  private final Option<String> lastResultId;
   private final Option<String> set;
 
   ResumableQuery(String metadataPrefix, Date lastResult, Date until, Option<String> set) {
+    this(metadataPrefix, lastResult, Option.<String>none(), until, set);
+  }
+
+  ResumableQuery(String metadataPrefix, Date lastResult, Option<String> lastResultId, Date until,
+          Option<String> set) {
     this.until = until;
     this.metadataPrefix = metadataPrefix;
     this.lastResult = lastResult;
+    this.lastResultId = lastResultId;
     this.set = set;
   }
 
@@ -55,6 +62,11 @@ public class ResumableQuery {
     return lastResult;
   }
 
+  /** The media package id of the last result, which completes the keyset cursor together with its date. */
+  Option<String> getLastResultId() {
+    return lastResultId;
+  }
+
   Option<String> getSet() {
     return set;
   }
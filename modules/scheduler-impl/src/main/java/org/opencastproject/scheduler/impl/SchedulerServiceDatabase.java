@@ -115,6 +115,15 @@ public interface SchedulerServiceDatabase {
       Opt<Map<String,String>> captureAgentProperties
   ) throws SchedulerServiceDatabaseException;
 
+  /**
+   * Create multiple new events within a single transaction.
+   *
+   * @param events
+   *          the events to create, none of which may exist already
+   * @throws SchedulerServiceDatabaseException in case the events cannot be stored.
+   */
+  void storeEvents(List<ExtendedEventDto> events) throws SchedulerServiceDatabaseException;
+
   /**
    * Get the mediapackage IDs of all events scheduled on the given capture agent between the given start/end time.
    * Events which are only partially contained within the given interval are also included in the result set. The
@@ -63,6 +63,7 @@ import org.opencastproject.message.broker.api.index.AbstractIndexProducer;
 import org.opencastproject.message.broker.api.index.IndexRecreateObject;
 import org.opencastproject.message.broker.api.index.IndexRecreateObject.Service;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItem;
+import org.opencastproject.message.broker.api.scheduler.SchedulerItemBatch;
 import org.opencastproject.message.broker.api.scheduler.SchedulerItemList;
 import org.opencastproject.metadata.dublincore.DCMIPeriod;
 import org.opencastproject.metadata.dublincore.DublinCore;
@@ -154,8 +155,10 @@ import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Implementation of {@link SchedulerService}.
@@ -546,82 +549,119 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
 
       final Organization org = securityService.getOrganization();
       final User user = securityService.getUser();
-      periods.parallelStream().forEach(event -> SecurityUtil.runAs(securityService, org, user, () -> {
-        final int currentCounter = periods.indexOf(event);
-        MediaPackage mediaPackage = (MediaPackage) templateMp.clone();
-        Date startDate = new Date(event.getStart().getTime());
-        Date endDate = new Date(event.getEnd().getTime());
-        Id id = ids.get(currentCounter);
-
-        //Get, or make, the DC catalog
-        DublinCoreCatalog dc;
-        Opt<DublinCoreCatalog> dcOpt = DublinCoreUtil.loadEpisodeDublinCore(workspace,
-                templateMp);
-        if (dcOpt.isSome()) {
-          dc = dcOpt.get();
-          dc = (DublinCoreCatalog) dc.clone();
-          // make sure to bind the OC_PROPERTY namespace
-          dc.addBindings(XmlNamespaceContext
-                  .mk(XmlNamespaceBinding.mk(DublinCores.OC_PROPERTY_NS_PREFIX, DublinCores.OC_PROPERTY_NS_URI)));
-        } else {
-          dc = DublinCores.mkOpencastEpisode().getCatalog();
-        }
 
-        // Set the new media package identifier
-        mediaPackage.setIdentifier(id);
+      // Parse the template catalog and resolve the access control list once for all occurrences
+      final Opt<DublinCoreCatalog> templateDc = DublinCoreUtil.loadEpisodeDublinCore(workspace, templateMp);
+      final AccessControlList acl = authorizationService.getActiveAcl(templateMp).getA();
+      final List<MediaPackageElementFlavor> catalogFlavors = getEventCatalogUIAdapterFlavors();
+      final MediaPackage template = (MediaPackage) templateMp.clone();
+      for (Catalog catalog : template.getCatalogs()) {
+        if (catalogFlavors.contains(catalog.getFlavor()) && catalog.getChecksum() == null) {
+          catalog.setChecksum(DublinCoreUtil.calculateChecksum(DublinCoreUtil.loadDublinCore(workspace, catalog)));
+        }
+      }
 
-        // Update dublincore title and temporal
-        String newTitle = dc.getFirst(DublinCore.PROPERTY_TITLE) + String.format(" %0" + Integer.toString(periods.size()).length() + "d", currentCounter + 1);
-        dc.set(DublinCore.PROPERTY_TITLE, newTitle);
-        DublinCoreValue eventTime = EncodingSchemeUtils.encodePeriod(new DCMIPeriod(startDate, endDate),
-                Precision.Second);
-        dc.set(DublinCore.PROPERTY_TEMPORAL, eventTime);
-        try {
-          mediaPackage = updateDublincCoreCatalog(mediaPackage, dc);
-        } catch (Exception e) {
-          Misc.chuck(e);
+      final List<ExtendedEventDto> extendedEvents = Collections.synchronizedList(new ArrayList<>(periods.size()));
+      final List<SchedulerItemList> schedulerItems = Collections.synchronizedList(new ArrayList<>(periods.size()));
+      final int counterDigits = Integer.toString(periods.size()).length();
+      // Occurrences failing do not stop the others, so that no snapshot is taken after the batch is rolled back
+      final List<String> snapshots = Collections.synchronizedList(new ArrayList<>(periods.size()));
+      final AtomicReference<Exception> failure = new AtomicReference<>();
+      IntStream.range(0, periods.size()).parallel().forEach(currentCounter -> {
+        if (failure.get() != null) {
+          return;
         }
-        mediaPackage.setTitle(newTitle);
-
-        String mediaPackageId = mediaPackage.getIdentifier().compact();
-        //Converting from iCal4j DateTime objects to plain Date objects to prevent AMQ issues below
-        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        cal.setTime(event.getStart());
-        Date startDateTime = cal.getTime();
-        cal.setTime(event.getEnd());
-        Date endDateTime = cal.getTime();
-        // Load dublincore and acl for update
-        Opt<DublinCoreCatalog> dublinCore = DublinCoreUtil.loadEpisodeDublinCore(workspace, mediaPackage);
-        AccessControlList acl = authorizationService.getActiveAcl(mediaPackage).getA();
-
-        // Get updated agent properties
-        Map<String, String> finalCaProperties = getFinalAgentProperties(caMetadata, wfProperties, captureAgentId,
-                seriesId, dublinCore);
-
-        // Persist asset
-        String checksum = calculateChecksum(workspace, getEventCatalogUIAdapterFlavors(), startDateTime, endDateTime,
-                captureAgentId, userIds, mediaPackage, dublinCore, wfProperties, finalCaProperties, acl);
         try {
-          persistEvent(mediaPackageId, checksum, Opt.some(startDateTime), Opt.some(endDateTime),
-                Opt.some(captureAgentId), Opt.some(userIds), Opt.some(mediaPackage), Opt.some(wfProperties),
-                Opt.some(finalCaProperties), schedulingSource);
+          SecurityUtil.runAs(securityService, org, user, () -> {
+            final Period event = periods.get(currentCounter);
+            MediaPackage mediaPackage = (MediaPackage) template.clone();
+            Date startDate = new Date(event.getStart().getTime());
+            Date endDate = new Date(event.getEnd().getTime());
+            Id id = ids.get(currentCounter);
+
+            //Get, or make, the DC catalog
+            DublinCoreCatalog dc;
+            if (templateDc.isSome()) {
+              dc = (DublinCoreCatalog) templateDc.get().clone();
+              // make sure to bind the OC_PROPERTY namespace
+              dc.addBindings(XmlNamespaceContext
+                      .mk(XmlNamespaceBinding.mk(DublinCores.OC_PROPERTY_NS_PREFIX, DublinCores.OC_PROPERTY_NS_URI)));
+            } else {
+              dc = DublinCores.mkOpencastEpisode().getCatalog();
+            }
+
+            // Set the new media package identifier
+            mediaPackage.setIdentifier(id);
+
+            // Update dublincore title and temporal
+            String newTitle = dc.getFirst(DublinCore.PROPERTY_TITLE) + String.format(" %0" + counterDigits + "d",
+                    currentCounter + 1);
+            dc.set(DublinCore.PROPERTY_TITLE, newTitle);
+            DublinCoreValue eventTime = EncodingSchemeUtils.encodePeriod(new DCMIPeriod(startDate, endDate),
+                    Precision.Second);
+            dc.set(DublinCore.PROPERTY_TEMPORAL, eventTime);
+            try {
+              mediaPackage = updateDublincCoreCatalog(mediaPackage, dc);
+            } catch (Exception e) {
+              Misc.chuck(e);
+            }
+            mediaPackage.setTitle(newTitle);
+
+            String mediaPackageId = mediaPackage.getIdentifier().compact();
+            //Converting from iCal4j DateTime objects to plain Date objects to prevent AMQ issues below
+            Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            cal.setTime(event.getStart());
+            Date startDateTime = cal.getTime();
+            cal.setTime(event.getEnd());
+            Date endDateTime = cal.getTime();
+            // The catalog was just built in memory, so there is no need to load it back from the workspace
+            Opt<DublinCoreCatalog> dublinCore = Opt.some(dc);
+
+            // Get updated agent properties
+            Map<String, String> finalCaProperties = getFinalAgentProperties(caMetadata, wfProperties, captureAgentId,
+                    seriesId, dublinCore);
+
+            // Persist asset
+            String checksum = calculateChecksum(workspace, catalogFlavors, startDateTime, endDateTime,
+                    captureAgentId, userIds, mediaPackage, dublinCore, wfProperties, finalCaProperties, acl);
+            assetManager.takeSnapshot(SNAPSHOT_OWNER, mediaPackage);
+            snapshots.add(mediaPackageId);
+
+            // The scheduler records and index updates are written in bulk once all occurrences are prepared
+            extendedEvents.add(mkExtendedEvent(mediaPackageId, org.getId(), checksum, startDateTime, endDateTime,
+                    captureAgentId, userIds, wfProperties, finalCaProperties, schedulingSource));
+            List<SchedulerItem> items = updateAddEventItems(some(acl), dublinCore, Opt.some(startDateTime),
+                    Opt.some(endDateTime), Opt.some(userIds), Opt.some(captureAgentId), Opt.some(finalCaProperties));
+            schedulerItems.add(new SchedulerItemList(mediaPackageId, items.toArray(new SchedulerItem[0])));
+
+            scheduledEvents.put(mediaPackageId, event);
+            // Only the episode catalog has been written to the workspace for the new media package
+            for (Catalog catalog : mediaPackage.getCatalogs(MediaPackageElements.EPISODE)) {
+              try {
+                workspace.delete(mediaPackageId, catalog.getIdentifier());
+              } catch (NotFoundException | IOException e) {
+                logger.warn("Failed to delete media package element", e);
+              }
+            }
+          });
         } catch (Exception e) {
-          Misc.chuck(e);
+          failure.compareAndSet(null, e);
         }
+      });
 
-        // Send updates
-        sendUpdateAddEvent(mediaPackageId, some(acl), dublinCore, Opt.some(startDateTime), Opt.some(endDateTime),
-                Opt.some(userIds), Opt.some(captureAgentId), Opt.some(finalCaProperties));
-
-        scheduledEvents.put(mediaPackageId, event);
-        for (MediaPackageElement mediaPackageElement : mediaPackage.getElements()) {
-          try {
-            workspace.delete(mediaPackage.getIdentifier().toString(), mediaPackageElement.getIdentifier());
-          } catch (NotFoundException | IOException e) {
-            logger.warn("Failed to delete media package element", e);
-          }
+      try {
+        if (failure.get() != null) {
+          throw failure.get();
         }
-      }));
+        // Store all scheduler records within a single transaction
+        persistence.storeEvents(extendedEvents);
+      } catch (Exception e) {
+        // Do not leave snapshots without scheduler records behind
+        deleteSnapshots(snapshots);
+        scheduledEvents.clear();
+        throw e;
+      }
+      sendSchedulerMessage(new SchedulerItemBatch(schedulerItems));
       return scheduledEvents;
     } catch (SchedulerException e) {
       throw e;
@@ -635,6 +675,22 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     }
   }
 
+  /**
+   * Deletes the scheduler snapshots of the given media packages, rolling back a batch of events that failed.
+   */
+  private void deleteSnapshots(List<String> mediaPackageIds) {
+    for (String mediaPackageId : mediaPackageIds) {
+      try {
+        AQueryBuilder query = assetManager.createQuery();
+        query.delete(SNAPSHOT_OWNER, query.snapshot())
+                .where(withOrganization(query).and(query.mediaPackageId(mediaPackageId)))
+                .name("delete episode").run();
+      } catch (Exception e) {
+        logger.warn("Failed to delete the snapshot of event '{}' of a failed batch", mediaPackageId, e);
+      }
+    }
+  }
+
   @Override
   public void updateEvent(final String mpId, Opt<Date> startDateTime, Opt<Date> endDateTime, Opt<String> captureAgentId,
           Opt<Set<String>> userIds, Opt<MediaPackage> mediaPackage, Opt<Map<String, String>> wfProperties,
@@ -1394,6 +1450,26 @@ public class SchedulerServiceImpl extends AbstractIndexProducer implements Sched
     );
   }
 
+  private ExtendedEventDto mkExtendedEvent(String mpId, String orgId, String checksum, Date startDateTime,
+          Date endDateTime, String captureAgentId, Set<String> userIds, Map<String, String> wfProperties,
+          Map<String, String> caProperties, Opt<String> schedulingSource) {
+    ExtendedEventDto entity = new ExtendedEventDto();
+    entity.setMediaPackageId(mpId);
+    entity.setOrganization(orgId);
+    entity.setCaptureAgentId(captureAgentId);
+    entity.setStartDate(startDateTime);
+    entity.setEndDate(endDateTime);
+    if (schedulingSource.isSome()) {
+      entity.setSource(schedulingSource.get());
+    }
+    entity.setPresenters(String.join(",", userIds));
+    entity.setLastModifiedDate(new Date());
+    entity.setChecksum(checksum);
+    entity.setWorkflowProperties(gson.toJson(wfProperties));
+    entity.setCaptureAgentProperties(gson.toJson(caProperties));
+    return entity;
+  }
+
   private List<SchedulerItem> updateAddEventItems(Opt<AccessControlList> acl, Opt<DublinCoreCatalog> dublinCore, Opt<Date> startTime, Opt<Date> endTime, Opt<Set<String>> presenters,
           Opt<String> agentId, Opt<Map<String, String>> properties) {
     List<SchedulerItem> items = new ArrayList<>();
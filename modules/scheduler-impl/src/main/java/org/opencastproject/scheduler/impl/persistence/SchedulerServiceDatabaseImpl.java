@@ -63,6 +63,9 @@ public class SchedulerServiceDatabaseImpl implements SchedulerServiceDatabase {
 
   private static final Gson gson = new Gson();
 
+  /** Number of events written before the persistence context is flushed when storing multiple events */
+  private static final int BATCH_SIZE = 50;
+
   /** OSGi DI */
   public void setEntityManagerFactory(EntityManagerFactory emf) {
     this.emf = emf;
@@ -221,6 +224,33 @@ public class SchedulerServiceDatabaseImpl implements SchedulerServiceDatabase {
     }
   }
 
+  @Override
+  public void storeEvents(List<ExtendedEventDto> events) throws SchedulerServiceDatabaseException {
+    EntityManager em = null;
+    EntityTransaction tx = null;
+    try {
+      em = emf.createEntityManager();
+      tx = em.getTransaction();
+      tx.begin();
+      for (int i = 0; i < events.size(); i++) {
+        em.persist(events.get(i));
+        // Keep the persistence context small for large series of events
+        if ((i + 1) % BATCH_SIZE == 0) {
+          em.flush();
+          em.clear();
+        }
+      }
+      tx.commit();
+    } catch (Exception e) {
+      if (tx != null && tx.isActive())
+        tx.rollback();
+      throw new SchedulerServiceDatabaseException(e);
+    } finally {
+      if (em != null)
+        em.close();
+    }
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public List<String> getEvents(String captureAgentId, Date start, Date end, int separationMillis) throws SchedulerServiceDatabaseException {
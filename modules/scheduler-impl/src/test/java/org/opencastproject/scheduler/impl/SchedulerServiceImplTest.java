@@ -112,6 +112,7 @@ import org.opencastproject.scheduler.api.TechnicalMetadata;
 import org.opencastproject.scheduler.api.TechnicalMetadataImpl;
 import org.opencastproject.scheduler.api.Util;
 import org.opencastproject.scheduler.endpoint.SchedulerRestService;
+import org.opencastproject.scheduler.impl.persistence.ExtendedEventDto;
 import org.opencastproject.scheduler.impl.persistence.SchedulerServiceDatabaseImpl;
 import org.opencastproject.security.api.AccessControlEntry;
 import org.opencastproject.security.api.AccessControlList;
@@ -909,6 +910,45 @@ public class SchedulerServiceImplTest {
     }
   }
 
+  @Test
+  public void testAddMultipleEventsRollsBackSnapshots() throws Exception {
+    final RRule rrule = new RRule("FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR;BYHOUR=7;BYMINUTE=0");
+    final Date start = new Date(1546844400000L); // 2019-01-07T07:00:00Z
+    final Date end = new Date(1548054000000L); // 2019-01-21T07:00:00Z
+    final TimeZone tz = TimeZone.getTimeZone("America/Los_Angeles");
+    final String captureAgentId = "Device A";
+    final MediaPackage mpTemplate = generateEvent(Opt.some("Recording1"));
+    addDublinCore(Opt.some(mpTemplate.getIdentifier().toString()), mpTemplate, generateEvent(captureAgentId,
+            Opt.some(mpTemplate.getIdentifier().toString()), Opt.some("Test Title"), start, end));
+
+    // The scheduler records cannot be stored
+    SchedulerServiceDatabaseImpl failingDatabase = new SchedulerServiceDatabaseImpl() {
+      @Override
+      public void storeEvents(List<ExtendedEventDto> events) throws SchedulerServiceDatabaseException {
+        throw new SchedulerServiceDatabaseException("Failed to store the events");
+      }
+    };
+    failingDatabase.setEntityManagerFactory(mkEntityManagerFactory(SchedulerServiceDatabaseImpl.PERSISTENCE_UNIT));
+    failingDatabase.setSecurityService(securityService);
+    failingDatabase.activate(null);
+    schedSvc.setPersistence(failingDatabase);
+
+    final AQueryBuilder q = assetManager.createQuery();
+    final long snapshots = q.select(q.snapshot()).run().getSize();
+    try {
+      schedSvc.addMultipleEvents(rrule, start, end, 6900000L, tz, captureAgentId, Collections.emptySet(), mpTemplate,
+              wfProperties, Collections.singletonMap("foo", "bar"), Opt.none());
+      fail("Adding the events must fail if their scheduler records cannot be stored");
+    } catch (SchedulerException e) {
+      assertTrue(e.getCause() instanceof SchedulerServiceDatabaseException);
+    } finally {
+      schedSvc.setPersistence(schedulerDatabase);
+    }
+
+    // No snapshot of the failed batch remains
+    assertEquals(snapshots, q.select(q.snapshot()).run().getSize());
+  }
+
   @Test
   public void testGetArchivedOnly() throws Exception {
     MediaPackage mediaPackage = generateEvent(Opt.some("1"));
@@ -35,6 +35,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -142,6 +143,31 @@ public class SchedulerServiceDatabaseImplTest {
     Assert.assertEquals(new Gson().toJson(caProperties), newEvent.get().getCaptureAgentProperties());
   }
 
+  @Test
+  public void testCreateEvents() throws Exception {
+    final String orgId = new DefaultOrganization().getId();
+    final Date start = new Date(1546844400000L); // 2019-01-07T07:00:00Z
+    final List<ExtendedEventDto> events = new ArrayList<>();
+    for (int i = 0; i < 120; i++) {
+      ExtendedEventDto event = new ExtendedEventDto();
+      event.setMediaPackageId("mpid" + i);
+      event.setOrganization(orgId);
+      event.setCaptureAgentId("agent1");
+      event.setStartDate(new Date(start.getTime() + i * 3600000L));
+      event.setEndDate(new Date(start.getTime() + i * 3600000L + 1800000L));
+      event.setChecksum("checksum" + i);
+      events.add(event);
+    }
+
+    schedulerDatabase.storeEvents(events);
+    Assert.assertEquals(120, schedulerDatabase.countEvents());
+    final Opt<ExtendedEventDto> event = schedulerDatabase.getEvent("mpid99");
+    Assert.assertTrue(event.isSome());
+    Assert.assertEquals("agent1", event.get().getCaptureAgentId());
+    Assert.assertEquals("checksum99", event.get().getChecksum());
+    Assert.assertEquals(new Date(start.getTime() + 99 * 3600000L), event.get().getStartDate());
+  }
+
   @Test
   public void testUpdateEvent() throws Exception {
     final String mpId = "mpid";
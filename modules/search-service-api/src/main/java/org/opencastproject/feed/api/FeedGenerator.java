@@ -88,6 +88,18 @@ public interface FeedGenerator {
    */
   Feed createFeed(Feed.Type type, String[] query, int size, Organization organization);
 
+  /**
+   * Returns the identifier of the series that the feed described by the query is limited to. Rendered copies of such a
+   * feed only need to be dropped when episodes of that series change.
+   *
+   * @param query
+   *          the request
+   * @return the series identifier or <code>null</code> if the feed may contain episodes of any series
+   */
+  default String getSeriesId(String[] query) {
+    return null;
+  }
+
   /**
    * Returns the copyright for the feed.
    *
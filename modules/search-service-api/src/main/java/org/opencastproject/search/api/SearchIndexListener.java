@@ -0,0 +1,48 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.search.api;
+
+/**
+ * Gets notified about changes of the search index. Register an implementation as an OSGi service to receive the
+ * notifications of the local search service.
+ */
+public interface SearchIndexListener {
+
+  /**
+   * Called after a media package was added to, updated in or removed from the search index.
+   *
+   * @param mediaPackageId
+   *          the media package identifier
+   * @param seriesId
+   *          the identifier of the series the media package belongs to, or <code>null</code> if it has no series
+   * @param previousSeriesId
+   *          the identifier of the series the media package belonged to before the change, or <code>null</code> if it
+   *          had no series or was not in the index before
+   */
+  void mediaPackageChanged(String mediaPackageId, String seriesId, String previousSeriesId);
+
+  /**
+   * Called after all media packages were removed from the search index.
+   */
+  void indexCleared();
+
+}
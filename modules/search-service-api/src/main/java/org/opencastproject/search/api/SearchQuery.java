@@ -42,6 +42,8 @@ public class SearchQuery {
   protected Date deletedDate = null;
   protected Sort sort = Sort.DATE_CREATED;
   protected boolean sortAscending = true;
+  protected boolean lazyMediaPackage = false;
+  protected boolean readOnlyMediaPackage = false;
 
   public enum Sort {
     DATE_CREATED, DATE_PUBLISHED, TITLE, SERIES_ID, MEDIA_PACKAGE_ID, CREATOR, CONTRIBUTOR, LANGUAGE, LICENSE, SUBJECT, DESCRIPTION, PUBLISHER
@@ -187,4 +189,48 @@ public class SearchQuery {
   public boolean isSortAscending() {
     return sortAscending;
   }
+
+  /**
+   * Defer parsing the media packages of the result items until they are accessed. Use this for queries that do not
+   * need the media packages at all. Media packages that have not been accessed are not part of a serialized result.
+   *
+   * @param lazy
+   *          whether to load media packages lazily
+   */
+  public SearchQuery withLazyMediaPackage(boolean lazy) {
+    this.lazyMediaPackage = lazy;
+    return this;
+  }
+
+  /**
+   * Return whether the media packages of the result items are loaded on first access.
+   *
+   * @return whether to load media packages lazily
+   */
+  public boolean isLazyMediaPackage() {
+    return lazyMediaPackage;
+  }
+
+  /**
+   * Declare that the media packages of the result items are only read, which allows the search service to serve them
+   * from a cache instead of parsing each media package again. Each result item still gets its own copy.
+   *
+   * @param readOnly
+   *          whether the media packages of the result items are only read
+   */
+  public SearchQuery withReadOnlyMediaPackage(boolean readOnly) {
+    this.readOnlyMediaPackage = readOnly;
+    return this;
+  }
+
+  /**
+   * Return whether the media packages of the result items will only be read. Read only media packages may be served
+   * from a cache with their URLs already rewritten for the client, e.g. signed, so they must not be modified and
+   * stored again, e.g. via {@link SearchService#add(org.opencastproject.mediapackage.MediaPackage)}.
+   *
+   * @return whether the media packages are read only
+   */
+  public boolean isReadOnlyMediaPackage() {
+    return readOnlyMediaPackage;
+  }
 }
@@ -23,6 +23,8 @@
 package org.opencastproject.search.api;
 
 import org.opencastproject.mediapackage.MediaPackage;
+import org.opencastproject.util.data.Function0;
+import org.opencastproject.util.data.Lazy;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -37,6 +39,7 @@ import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlElementWrapper;
 import javax.xml.bind.annotation.XmlID;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
 import javax.xml.bind.annotation.XmlType;
 
 /**
@@ -63,6 +66,10 @@ public class SearchResultItemImpl implements SearchResultItem {
   @XmlElement(name = "mediapackage", namespace = "http://mediapackage.opencastproject.org")
   private MediaPackage mediaPackage = null;
 
+  /** Loader for a media package that is parsed on first access */
+  @XmlTransient
+  private transient Lazy<MediaPackage> lazyMediaPackage = null;
+
   /** Dublin core field 'dc:extent' */
   @XmlElement
   private long dcExtent = -1;
@@ -580,6 +587,19 @@ public class SearchResultItemImpl implements SearchResultItem {
    */
   public void setMediaPackage(MediaPackage mediaPackage) {
     this.mediaPackage = mediaPackage;
+    this.lazyMediaPackage = null;
+  }
+
+  /**
+   * Sets the media package that is associated with the search result item to be loaded on first access. A media
+   * package that has not been accessed yet is not part of the serialized search result item.
+   *
+   * @param mediaPackage
+   *          the lazily loaded media package
+   */
+  public void setMediaPackage(Lazy<MediaPackage> mediaPackage) {
+    this.mediaPackage = null;
+    this.lazyMediaPackage = mediaPackage;
   }
 
   /**
@@ -588,6 +608,10 @@ public class SearchResultItemImpl implements SearchResultItem {
    * @see org.opencastproject.search.api.SearchResultItem#getMediaPackage()
    */
   public MediaPackage getMediaPackage() {
+    if (mediaPackage == null && lazyMediaPackage != null) {
+      mediaPackage = lazyMediaPackage.value();
+      lazyMediaPackage = null;
+    }
     return mediaPackage;
   }
 
@@ -690,10 +714,31 @@ public class SearchResultItemImpl implements SearchResultItem {
    * Build a result item from an anonymously implemented interface to ensure you don't miss any fields.
    */
   public static SearchResultItemImpl fill(SearchResultItem from) {
+    return fill(from, false);
+  }
+
+  /**
+   * Build a result item from an anonymously implemented interface to ensure you don't miss any fields.
+   *
+   * @param from
+   *          the item to copy
+   * @param lazyMediaPackage
+   *          whether to defer loading the media package of <code>from</code> until it is accessed
+   */
+  public static SearchResultItemImpl fill(final SearchResultItem from, boolean lazyMediaPackage) {
     SearchResultItemImpl item = new SearchResultItemImpl();
     item.setId(from.getId());
     item.setOrganization(from.getOrganization());
-    item.setMediaPackage(from.getMediaPackage());
+    if (lazyMediaPackage) {
+      item.setMediaPackage(Lazy.lazy(new Function0<MediaPackage>() {
+        @Override
+        public MediaPackage apply() {
+          return from.getMediaPackage();
+        }
+      }));
+    } else {
+      item.setMediaPackage(from.getMediaPackage());
+    }
     item.setDcExtent(from.getDcExtent());
     item.setDcTitle(from.getDcTitle());
     item.setDcSubject(from.getDcSubject());
@@ -485,6 +485,7 @@ public abstract class AbstractFeedGenerator implements FeedGenerator {
     searchQuery.withLimit(limit);
     searchQuery.withOffset(offset);
     searchQuery.withSort(SearchQuery.Sort.DATE_CREATED);
+    searchQuery.withReadOnlyMediaPackage(true);
     switch (type) {
       case Atom:
         if (atomTags != null && atomTags.size() > 0)
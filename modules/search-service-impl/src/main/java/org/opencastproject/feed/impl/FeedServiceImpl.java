@@ -24,14 +24,20 @@ package org.opencastproject.feed.impl;
 
 import org.opencastproject.feed.api.Feed;
 import org.opencastproject.feed.api.FeedGenerator;
+import org.opencastproject.mediapackage.MediaPackageSerializer;
+import org.opencastproject.search.api.SearchIndexListener;
 import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.SecurityService;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.doc.rest.RestParameter;
 import org.opencastproject.util.doc.rest.RestParameter.Type;
 import org.opencastproject.util.doc.rest.RestQuery;
 import org.opencastproject.util.doc.rest.RestResponse;
 import org.opencastproject.util.doc.rest.RestService;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.rometools.rome.io.FeedException;
 import com.rometools.rome.io.SyndFeedOutput;
 import com.rometools.rome.io.WireFeedOutput;
@@ -40,8 +46,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -49,8 +58,11 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.Variant;
 
@@ -77,7 +89,7 @@ import javax.ws.rs.core.Variant;
  * If the feed could not be found because the query is unknown a HTTP error 404 is returned
  * If the feed could not be build (wrong RSS or Atom version, corrupt data, etc) an HTTP error 500 is returned.
  */
-public class FeedServiceImpl {
+public class FeedServiceImpl implements SearchIndexListener {
 
   /** The serial version uid */
   private static final long serialVersionUID = -4623160106007127801L;
@@ -94,6 +106,26 @@ public class FeedServiceImpl {
   /** The security service */
   private SecurityService securityService = null;
 
+  /** The optional serializer rewriting the URLs of the search results, e.g. to sign them */
+  private MediaPackageSerializer serializer = null;
+
+  /** Maximum number of rendered feeds in the cache */
+  private static final int FEED_CACHE_SIZE = 500;
+
+  /**
+   * Time in seconds after which a rendered feed is created again. Feeds are dropped as soon as the local search index
+   * changes, this bounds how long other nodes sharing the index serve an outdated feed and how much of the lifetime of
+   * rewritten URLs may be used up.
+   */
+  private static final long FEED_CACHE_EXPIRY = 60L;
+
+  /** Separator of the parts of a feed cache key */
+  private static final char CACHE_KEY_SEPARATOR = '|';
+
+  /** Rendered feeds by organization, user, feed type, version, query and size */
+  private final Cache<String, RenderedFeed> feedCache = CacheBuilder.newBuilder().maximumSize(FEED_CACHE_SIZE)
+          .expireAfterWrite(FEED_CACHE_EXPIRY, TimeUnit.SECONDS).build();
+
   /*
    * Note: We're using Regex matching for the path here, instead of normal JAX-RS paths.  Previously this class was a servlet,
    * which was fine except that it had auth issues.  Removing the servlet fixed the auth issues, but then the paths (as written
@@ -115,7 +147,7 @@ public class FeedServiceImpl {
           @RestResponse(description = "Return the feed of the appropriate type", responseCode = HttpServletResponse.SC_OK),
           @RestResponse(description = "", responseCode = HttpServletResponse.SC_BAD_REQUEST),
           @RestResponse(description = "", responseCode = HttpServletResponse.SC_INTERNAL_SERVER_ERROR) }, returnDescription = "")
-  public Response getFeed(@Context HttpServletRequest request) {
+  public Response getFeed(@Context HttpServletRequest request, @Context Request preconditions) {
     String contentType = null;
 
     logger.debug("Requesting RSS or Atom feed.");
@@ -135,42 +167,97 @@ public class FeedServiceImpl {
     else if (feedInfo.getType().equals(Feed.Type.RSS))
       contentType = "application/rss+xml";
 
-    // Have a feed generator create the requested feed
-    Feed feed = null;
-    for (FeedGenerator generator : feeds) {
-      if (generator.accept(feedInfo.getQuery())) {
-        feed = generator.createFeed(feedInfo.getType(), feedInfo.getQuery(), feedInfo.getSize(), organization);
-        if (feed == null) {
-          return Response.serverError().build();
+    // Feeds mostly stay the same between requests, so try to use a rendered copy
+    String key = cacheKey(organization, feedInfo);
+    RenderedFeed rendered = feedCache.getIfPresent(key);
+    if (rendered == null) {
+      // Have a feed generator create the requested feed
+      Feed feed = null;
+      String seriesId = null;
+      for (FeedGenerator generator : feeds) {
+        if (generator.accept(feedInfo.getQuery())) {
+          feed = generator.createFeed(feedInfo.getType(), feedInfo.getQuery(), feedInfo.getSize(), organization);
+          if (feed == null) {
+            return Response.serverError().build();
+          }
+          seriesId = generator.getSeriesId(feedInfo.getQuery());
+          break;
         }
-        break;
       }
+
+      // Have we found a feed generator?
+      if (feed == null) {
+        logger.debug("RSS/Atom feed could not be generated");
+        return Response.status(Status.NOT_FOUND).build();
+      }
+
+      String outputString = null;
+      try {
+        if (feedInfo.getType().equals(Feed.Type.RSS)) {
+          logger.debug("Creating RSS feed output.");
+          SyndFeedOutput output = new SyndFeedOutput();
+          outputString = output.outputString(new RomeRssFeed(feed, feedInfo));
+        } else {
+          logger.debug("Creating Atom feed output.");
+          WireFeedOutput output = new WireFeedOutput();
+          outputString = output.outputString(new RomeAtomFeed(feed, feedInfo));
+        }
+        rendered = new RenderedFeed(outputString, feed.getEncoding(), seriesId);
+      } catch (FeedException | IOException e) {
+        return Response.serverError().build();
+      }
+      feedCache.put(key, rendered);
     }
 
-    // Have we found a feed generator?
-    if (feed == null) {
-      logger.debug("RSS/Atom feed could not be generated");
-      return Response.status(Status.NOT_FOUND).build();
+    // Let clients which already have this feed know that it did not change
+    ResponseBuilder notModified = preconditions.evaluatePreconditions(rendered.getLastModified(), rendered.getTag());
+    if (notModified != null) {
+      return notModified.tag(rendered.getTag()).lastModified(rendered.getLastModified()).build();
     }
 
     // Set character encoding
-    Variant v = new Variant(MediaType.valueOf(contentType), null, feed.getEncoding());
-    String outputString = null;
-    try {
-      if (feedInfo.getType().equals(Feed.Type.RSS)) {
-        logger.debug("Creating RSS feed output.");
-        SyndFeedOutput output = new SyndFeedOutput();
-        outputString = output.outputString(new RomeRssFeed(feed, feedInfo));
-      } else {
-        logger.debug("Creating Atom feed output.");
-        WireFeedOutput output = new WireFeedOutput();
-        outputString = output.outputString(new RomeAtomFeed(feed, feedInfo));
-      }
-    } catch (FeedException e) {
-      return Response.serverError().build();
-    }
+    Variant v = new Variant(MediaType.valueOf(contentType), null, rendered.getEncoding());
+    return Response.ok(rendered.getBody(), v).tag(rendered.getTag()).lastModified(rendered.getLastModified()).build();
+  }
+
+  /**
+   * Creates the cache key of a rendered feed. Since the search results depend on the permissions of the user, feeds are
+   * not shared between users. If a serializer rewrites the URLs, they are not shared between clients either.
+   */
+  private String cacheKey(Organization organization, FeedInfo feedInfo) {
+    StringBuilder key = new StringBuilder(organization.getId()).append(CACHE_KEY_SEPARATOR)
+            .append(securityService.getUser().getUsername()).append(CACHE_KEY_SEPARATOR);
+    if (serializer != null)
+      key.append(securityService.getUserIP());
+    key.append(CACHE_KEY_SEPARATOR).append(feedInfo.getType()).append(CACHE_KEY_SEPARATOR)
+            .append(feedInfo.getVersion()).append(CACHE_KEY_SEPARATOR).append(feedInfo.getSize())
+            .append(CACHE_KEY_SEPARATOR).append(StringUtils.join(feedInfo.getQuery(), '/'));
+    return key.toString();
+  }
 
-    return Response.ok(outputString, v).build();
+  /**
+   * {@inheritDoc}
+   *
+   * Drops the rendered feeds which may contain the media package. These are all feeds except those limited to another
+   * series than the one the media package belongs to now or belonged to before.
+   *
+   * @see org.opencastproject.search.api.SearchIndexListener#mediaPackageChanged(java.lang.String, java.lang.String,
+   *      java.lang.String)
+   */
+  @Override
+  public void mediaPackageChanged(String mediaPackageId, String seriesId, String previousSeriesId) {
+    feedCache.asMap().values().removeIf(feed -> feed.getSeriesId() == null || feed.getSeriesId().equals(seriesId)
+            || feed.getSeriesId().equals(previousSeriesId));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.search.api.SearchIndexListener#indexCleared()
+   */
+  @Override
+  public void indexCleared() {
+    feedCache.invalidateAll();
   }
 
   /**
@@ -232,6 +319,7 @@ public class FeedServiceImpl {
   public void addFeedGenerator(FeedGenerator generator) {
     logger.info("Registering '{}' feed", generator.getIdentifier());
     feeds.add(generator);
+    feedCache.invalidateAll();
   }
 
   /**
@@ -243,6 +331,7 @@ public class FeedServiceImpl {
   public void removeFeedGenerator(FeedGenerator generator) {
     logger.info("Removing '{}' feed", generator.getIdentifier());
     feeds.remove(generator);
+    feedCache.invalidateAll();
   }
 
   /**
@@ -255,4 +344,66 @@ public class FeedServiceImpl {
     this.securityService = securityService;
   }
 
+  /**
+   * OSGi callback to set the optional media package serializer.
+   *
+   * @param serializer
+   *          the serializer
+   */
+  void setMediaPackageSerializer(MediaPackageSerializer serializer) {
+    this.serializer = serializer;
+    feedCache.invalidateAll();
+  }
+
+  /**
+   * OSGi callback to unset the optional media package serializer.
+   *
+   * @param serializer
+   *          the serializer
+   */
+  void unsetMediaPackageSerializer(MediaPackageSerializer serializer) {
+    if (this.serializer == serializer) {
+      this.serializer = null;
+      feedCache.invalidateAll();
+    }
+  }
+
+  /** A feed rendered to XML */
+  private static final class RenderedFeed {
+    private final String body;
+    private final String encoding;
+    private final String seriesId;
+    private final EntityTag tag;
+    private final Date lastModified;
+
+    RenderedFeed(String body, String encoding, String seriesId) throws IOException {
+      this.body = body;
+      this.encoding = encoding;
+      this.seriesId = seriesId;
+      this.tag = new EntityTag(Checksum.createFor(ChecksumType.DEFAULT_TYPE, body).getValue());
+      // HTTP dates have a resolution of seconds
+      this.lastModified = new Date(System.currentTimeMillis() / 1000L * 1000L);
+    }
+
+    String getBody() {
+      return body;
+    }
+
+    String getEncoding() {
+      return encoding;
+    }
+
+    String getSeriesId() {
+      return seriesId;
+    }
+
+    EntityTag getTag() {
+      return tag;
+    }
+
+    Date getLastModified() {
+      return lastModified;
+    }
+  }
+
 }
@@ -91,21 +91,11 @@ public class SeriesFeedService extends AbstractFeedService implements FeedGenera
     if (!generalChecksPassed)
       return false;
 
-    // Build the series id, first parameter is the selector. Note that if the series identifier
-    // contained slashes (e. g. in the case of a handle or doi), we need to reassemble the
-    // identifier
-    StringBuffer sId = new StringBuffer();
-    int idparts = query.length - 1;
-    if (idparts < 1)
+    final String seriesId = getSeriesId(query);
+    if (seriesId == null)
       return false;
-    for (int i = 1; i <= idparts; i++) {
-      if (sId.length() > 0)
-        sId.append("/");
-      sId.append(query[i]);
-    }
 
     // Remember the series id
-    final String seriesId = sId.toString();
     series.set(seriesId);
 
     try {
@@ -124,6 +114,28 @@ public class SeriesFeedService extends AbstractFeedService implements FeedGenera
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.feed.api.FeedGenerator#getSeriesId(java.lang.String[])
+   */
+  @Override
+  public String getSeriesId(String[] query) {
+    // Build the series id, first parameter is the selector. Note that if the series identifier
+    // contained slashes (e. g. in the case of a handle or doi), we need to reassemble the
+    // identifier
+    StringBuffer sId = new StringBuffer();
+    int idparts = query.length - 1;
+    if (idparts < 1)
+      return null;
+    for (int i = 1; i <= idparts; i++) {
+      if (sId.length() > 0)
+        sId.append("/");
+      sId.append(query[i]);
+    }
+    return sId.toString();
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -205,6 +217,7 @@ public class SeriesFeedService extends AbstractFeedService implements FeedGenera
       q.includeEpisodes(false);
       q.includeSeries(true);
       q.withId(id);
+      q.withLazyMediaPackage(true);
       SearchResult result = searchService.getByQuery(q);
       if (result.getItems().length > 0) {
         logger.trace("Metadata for series {} loaded from search service", id);
@@ -198,6 +198,7 @@ public class SearchRestService extends AbstractJobProducerEndpoint {
     }
     query.withLimit(limit);
     query.withOffset(offset);
+    query.withReadOnlyMediaPackage(true);
 
     // Build the response
     ResponseBuilder rb = Response.ok();
@@ -254,7 +255,7 @@ public class SearchRestService extends AbstractJobProducerEndpoint {
     SearchQuery search = new SearchQuery();
     search.withId(id).withSeriesId(seriesId)
             .withElementFlavors(flavorSet.toArray(new MediaPackageElementFlavor[flavorSet.size()]))
-            .withElementTags(tags).withLimit(limit).withOffset(offset);
+            .withElementTags(tags).withLimit(limit).withOffset(offset).withReadOnlyMediaPackage(true);
 
     if (StringUtils.isNotBlank(text)) {
       search.withText(text);
@@ -341,6 +342,7 @@ public class SearchRestService extends AbstractJobProducerEndpoint {
     }
     query.withLimit(limit);
     query.withOffset(offset);
+    query.withReadOnlyMediaPackage(true);
 
     // Build the response
     ResponseBuilder rb = Response.ok();
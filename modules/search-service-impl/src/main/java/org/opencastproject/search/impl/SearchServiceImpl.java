@@ -32,14 +32,17 @@ import org.opencastproject.mediapackage.MediaPackageSerializer;
 import org.opencastproject.metadata.api.StaticMetadataService;
 import org.opencastproject.metadata.mpeg7.Mpeg7CatalogService;
 import org.opencastproject.search.api.SearchException;
+import org.opencastproject.search.api.SearchIndexListener;
 import org.opencastproject.search.api.SearchQuery;
 import org.opencastproject.search.api.SearchResult;
 import org.opencastproject.search.api.SearchService;
+import org.opencastproject.search.impl.persistence.SearchEntity;
 import org.opencastproject.search.impl.persistence.SearchServiceDatabase;
 import org.opencastproject.search.impl.persistence.SearchServiceDatabaseException;
 import org.opencastproject.search.impl.solr.SolrIndexManager;
 import org.opencastproject.search.impl.solr.SolrRequester;
 import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.security.api.AccessControlParser;
 import org.opencastproject.security.api.AuthorizationService;
 import org.opencastproject.security.api.Organization;
 import org.opencastproject.security.api.OrganizationDirectoryService;
@@ -54,7 +57,6 @@ import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.solr.SolrServerFactory;
 import org.opencastproject.util.LoadUtil;
 import org.opencastproject.util.NotFoundException;
-import org.opencastproject.util.data.Tuple;
 import org.opencastproject.workspace.api.Workspace;
 
 import org.apache.commons.io.FileUtils;
@@ -63,6 +65,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrServer;
 import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.common.SolrInputDocument;
 import org.osgi.framework.ServiceException;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
@@ -80,8 +83,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Dictionary;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * A Solr-based {@link SearchService} implementation.
@@ -118,6 +126,18 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
   /** The load introduced on the system by creating a delete job */
   private float deleteJobLoad = DEFAULT_DELETE_JOB_LOAD;
 
+  /** Number of search entries loaded from the database at once while populating the index */
+  private static final int POPULATE_INDEX_PAGE_SIZE = 100;
+
+  /** Number of search entries after which the index is committed while populating the index */
+  private static final int POPULATE_INDEX_COMMIT_SIZE = 1000;
+
+  /** Maximum time in milliseconds between two commits while populating the index */
+  private static final long POPULATE_INDEX_COMMIT_INTERVAL = 60000L;
+
+  /** Number of threads used to build solr documents while populating the index */
+  private static final int POPULATE_INDEX_THREADS = Runtime.getRuntime().availableProcessors();
+
   /** counter how often the index has already been tried to populate */
   private int retriesToPopulateIndex = 0;
 
@@ -163,6 +183,9 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
   /** The optional Mediapackage serializer */
   protected MediaPackageSerializer serializer = null;
 
+  /** Listeners to changes of the search index */
+  private final List<SearchIndexListener> indexListeners = new CopyOnWriteArrayList<>();
+
   /**
    * Creates a new instance of the search service.
    */
@@ -365,9 +388,13 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
     AccessControlList acl = authorizationService.getActiveAcl(mediaPackage).getA();
 
     Date now = new Date();
+    String previousSeriesId = getPreviousSeriesId(mediaPackage.getIdentifier().toString());
 
     try {
-      if (indexManager.add(mediaPackage, acl, now)) {
+      boolean added = indexManager.add(mediaPackage, acl, now);
+      solrRequester.invalidateMediaPackage(mediaPackage.getIdentifier().toString());
+      fireMediaPackageChanged(mediaPackage.getIdentifier().toString(), mediaPackage.getSeries(), previousSeriesId);
+      if (added) {
         logger.info("Added mediapackage `{}` to the search index, using ACL `{}`", mediaPackage, acl);
       } else {
         logger.warn("Failed to add mediapackage {} to the search index", mediaPackage.getIdentifier());
@@ -436,7 +463,11 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
         throw new SearchException(e);
       }
 
-      return indexManager.delete(mediaPackageId, now);
+      boolean deleted = indexManager.delete(mediaPackageId, now);
+      solrRequester.invalidateMediaPackage(mediaPackageId);
+      String seriesId = result.getItems()[0].getDcIsPartOf();
+      fireMediaPackageChanged(mediaPackageId, seriesId, seriesId);
+      return deleted;
     } catch (SolrServerException e) {
       logger.info("Could not delete media package with id {} from search index", mediaPackageId);
       throw new SearchException(e);
@@ -453,6 +484,14 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
     try {
       logger.info("Clearing the search index");
       indexManager.clear();
+      solrRequester.invalidateMediaPackages();
+      for (SearchIndexListener listener : indexListeners) {
+        try {
+          listener.indexCleared();
+        } catch (Exception e) {
+          logger.warn("Search index listener {} failed to handle clearing of the index", listener, e);
+        }
+      }
     } catch (SolrServerException e) {
       throw new SearchException(e);
     }
@@ -507,45 +546,106 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
     if (instancesInSolr == 0L) {
       logger.info("No search index found");
       logger.info("Starting population of search index from database");
-      Iterator<Tuple<MediaPackage, String>> mediaPackages;
+      ExecutorService executor = Executors.newFixedThreadPool(POPULATE_INDEX_THREADS);
+      int errors = 0;
+      int indexed = 0;
+      int uncommitted = 0;
+      long lastCommit = System.currentTimeMillis();
       try {
-        mediaPackages = persistence.getAllMediaPackages();
+        String lastMediaPackageId = null;
+        while (true) {
+          List<SearchEntity> entities = persistence.getSearchEntities(lastMediaPackageId, POPULATE_INDEX_PAGE_SIZE);
+          if (entities.isEmpty())
+            break;
+          lastMediaPackageId = entities.get(entities.size() - 1).getMediaPackageId();
+
+          // Build the documents of this page in parallel
+          List<Future<List<SolrInputDocument>>> futures = new ArrayList<Future<List<SolrInputDocument>>>();
+          for (SearchEntity entity : entities) {
+            futures.add(executor.submit(createInputDocumentsTask(entity, systemUserName)));
+          }
+          List<SolrInputDocument> documents = new ArrayList<SolrInputDocument>();
+          for (Future<List<SolrInputDocument>> future : futures) {
+            try {
+              documents.addAll(future.get());
+            } catch (ExecutionException e) {
+              logger.error("Unable to index search instances:", e.getCause());
+              if (retryToPopulateIndex(systemUserName)) {
+                logger.warn("Trying to re-index search index later. Aborting for now.");
+                return;
+              }
+              errors++;
+            }
+          }
+
+          // Post the page and commit on batch or time boundaries
+          indexManager.add(documents, false);
+          indexed += entities.size();
+          uncommitted += entities.size();
+          if (uncommitted >= POPULATE_INDEX_COMMIT_SIZE
+                  || System.currentTimeMillis() - lastCommit >= POPULATE_INDEX_COMMIT_INTERVAL) {
+            indexManager.commit();
+            logger.info("Indexed {} search entries", indexed);
+            uncommitted = 0;
+            lastCommit = System.currentTimeMillis();
+          }
+
+          if (entities.size() < POPULATE_INDEX_PAGE_SIZE)
+            break;
+        }
+        indexManager.commit();
       } catch (SearchServiceDatabaseException e) {
         logger.error("Unable to load the search entries: {}", e.getMessage());
         throw new ServiceException(e.getMessage());
+      } catch (SolrServerException e) {
+        logger.error("Unable to index search instances:", e);
+        if (retryToPopulateIndex(systemUserName)) {
+          logger.warn("Trying to re-index search index later. Aborting for now.");
+        }
+        return;
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted while populating the search index");
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        executor.shutdownNow();
       }
-      int errors = 0;
-      while (mediaPackages.hasNext()) {
-        try {
-          Tuple<MediaPackage, String> mediaPackage = mediaPackages.next();
-
-          String mediaPackageId = mediaPackage.getA().getIdentifier().toString();
+      if (errors > 0)
+        logger.error("Skipped {} erroneous search entries while populating the search index", errors);
+      logger.info("Finished populating search index");
+    }
+  }
 
-          Organization organization = organizationDirectory.getOrganization(mediaPackage.getB());
+  /**
+   * Creates a task that builds the solr input documents for a persisted search entry in the entry's organization.
+   *
+   * @param entity
+   *          the search entry
+   * @param systemUserName
+   *          the name of the system user
+   * @return the task
+   */
+  private Callable<List<SolrInputDocument>> createInputDocumentsTask(final SearchEntity entity,
+          final String systemUserName) {
+    return new Callable<List<SolrInputDocument>>() {
+      @Override
+      public List<SolrInputDocument> call() throws Exception {
+        try {
+          Organization organization = organizationDirectory.getOrganization(entity.getOrganization());
           securityService.setOrganization(organization);
           securityService.setUser(SecurityUtil.createSystemUser(systemUserName, organization));
 
-          AccessControlList acl = persistence.getAccessControlList(mediaPackageId);
-          Date modificationDate = persistence.getModificationDate(mediaPackageId);
-          Date deletionDate = persistence.getDeletionDate(mediaPackageId);
-
-          indexManager.add(mediaPackage.getA(), acl, deletionDate, modificationDate);
-        } catch (Exception e) {
-          logger.error("Unable to index search instances:", e);
-          if (retryToPopulateIndex(systemUserName)) {
-            logger.warn("Trying to re-index search index later. Aborting for now.");
-            return;
-          }
-          errors++;
+          MediaPackage mediaPackage = MediaPackageParser.getFromXml(entity.getMediaPackageXML());
+          AccessControlList acl = entity.getAccessControl() == null ? new AccessControlList()
+                  : AccessControlParser.parseAcl(entity.getAccessControl());
+          return indexManager.createInputDocuments(mediaPackage, acl, entity.getDeletionDate(),
+                  entity.getModificationDate());
         } finally {
           securityService.setOrganization(null);
           securityService.setUser(null);
         }
       }
-      if (errors > 0)
-        logger.error("Skipped {} erroneous search entries while populating the search index", errors);
-      logger.info("Finished populating search index");
-    }
+    };
   }
 
   private boolean retryToPopulateIndex(final String systemUserName) {
@@ -717,6 +817,56 @@ public final class SearchServiceImpl extends AbstractJobProducer implements Sear
     return userDirectoryService;
   }
 
+  /**
+   * Returns the series a media package belongs to before it is updated, if anybody listens to changes of the index.
+   */
+  private String getPreviousSeriesId(String mediaPackageId) {
+    if (indexListeners.isEmpty())
+      return null;
+    try {
+      return persistence.getSeriesId(mediaPackageId);
+    } catch (NotFoundException e) {
+      return null;
+    } catch (SearchServiceDatabaseException e) {
+      logger.warn("Unable to get the previous series of media package {}", mediaPackageId, e);
+      return null;
+    }
+  }
+
+  /**
+   * Notifies the index listeners about a changed media package.
+   */
+  private void fireMediaPackageChanged(String mediaPackageId, String seriesId, String previousSeriesId) {
+    for (SearchIndexListener listener : indexListeners) {
+      try {
+        listener.mediaPackageChanged(mediaPackageId, seriesId, previousSeriesId);
+      } catch (Exception e) {
+        logger.warn("Search index listener {} failed to handle change of media package {}", listener, mediaPackageId,
+                e);
+      }
+    }
+  }
+
+  /**
+   * OSGi callback to add a listener to changes of the search index.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void addSearchIndexListener(SearchIndexListener listener) {
+    indexListeners.add(listener);
+  }
+
+  /**
+   * OSGi callback to remove a listener to changes of the search index.
+   *
+   * @param listener
+   *          the listener
+   */
+  public void removeSearchIndexListener(SearchIndexListener listener) {
+    indexListeners.remove(listener);
+  }
+
   /**
    * Sets the optional MediaPackage serializer.
    *
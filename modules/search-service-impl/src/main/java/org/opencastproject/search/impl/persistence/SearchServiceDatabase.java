@@ -29,6 +29,7 @@ import org.opencastproject.util.data.Tuple;
 
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * API that defines persistent storage of series.
@@ -45,6 +46,22 @@ public interface SearchServiceDatabase {
    */
   Iterator<Tuple<MediaPackage, String>> getAllMediaPackages() throws SearchServiceDatabaseException;
 
+  /**
+   * Returns a page of search entries in persistent storage, ordered by media package identifier. Each entry carries the
+   * media package, organization, access control list and dates, so no further lookups are needed to index it. Pages
+   * continue after the last entry of the previous page, so the database does not need to skip the entries before.
+   *
+   * @param lastMediaPackageId
+   *          the media package identifier of the last entry of the previous page or <code>null</code> for the first
+   *          page
+   * @param limit
+   *          the maximum number of entries to return
+   * @return the search entries
+   * @throws SearchServiceDatabaseException
+   *           if exception occurs
+   */
+  List<SearchEntity> getSearchEntities(String lastMediaPackageId, int limit) throws SearchServiceDatabaseException;
+
   /**
    * Returns the organization id of the selected media package
    *
@@ -58,6 +75,20 @@ public interface SearchServiceDatabase {
    */
   String getOrganizationId(String mediaPackageId) throws NotFoundException, SearchServiceDatabaseException;
 
+  /**
+   * Returns the series id of the selected media package as stored. Access is not checked, as this is meant for
+   * keeping derived data like caches consistent.
+   *
+   * @param mediaPackageId
+   *          the media package id to select
+   * @return the series id or <code>null</code> if the media package does not belong to a series
+   * @throws NotFoundException
+   *           if there is no media package with this identifier
+   * @throws SearchServiceDatabaseException
+   *           if an error occurs
+   */
+  String getSeriesId(String mediaPackageId) throws NotFoundException, SearchServiceDatabaseException;
+
   /**
    * Gets a single media package by its identifier.
    *
@@ -206,6 +206,35 @@ public class SearchServiceDatabaseImpl implements SearchServiceDatabase {
     return mediaPackageList.iterator();
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.search.impl.persistence.SearchServiceDatabase#getSearchEntities(String, int)
+   */
+  @Override
+  public List<SearchEntity> getSearchEntities(String lastMediaPackageId, int limit)
+          throws SearchServiceDatabaseException {
+    EntityManager em = null;
+    try {
+      em = emf.createEntityManager();
+      TypedQuery<SearchEntity> query;
+      if (lastMediaPackageId == null) {
+        query = em.createNamedQuery("Search.findAllOrderedById", SearchEntity.class);
+      } else {
+        query = em.createNamedQuery("Search.findAllAfterIdOrderedById", SearchEntity.class);
+        query.setParameter("mediaPackageId", lastMediaPackageId);
+      }
+      query.setMaxResults(limit);
+      return query.getResultList();
+    } catch (Exception e) {
+      logger.error("Could not retrieve search entries: {}", e.getMessage());
+      throw new SearchServiceDatabaseException(e);
+    } finally {
+      if (em != null)
+        em.close();
+    }
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -423,6 +452,31 @@ public class SearchServiceDatabaseImpl implements SearchServiceDatabase {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.search.impl.persistence.SearchServiceDatabase#getSeriesId(String)
+   */
+  @Override
+  public String getSeriesId(String mediaPackageId) throws NotFoundException, SearchServiceDatabaseException {
+    EntityManager em = null;
+    try {
+      em = emf.createEntityManager();
+      SearchEntity searchEntity = getSearchEntity(mediaPackageId, em);
+      if (searchEntity == null)
+        throw new NotFoundException("No media package with id=" + mediaPackageId + " exists");
+      return searchEntity.getSeriesId();
+    } catch (NotFoundException e) {
+      throw e;
+    } catch (Exception e) {
+      logger.error("Could not get series id of {}: {}", mediaPackageId, e.getMessage());
+      throw new SearchServiceDatabaseException(e);
+    } finally {
+      if (em != null)
+        em.close();
+    }
+  }
+
   /**
    * {@inheritDoc}
    *
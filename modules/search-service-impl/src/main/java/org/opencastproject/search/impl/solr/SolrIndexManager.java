@@ -321,6 +321,42 @@ public class SolrIndexManager {
    */
   public boolean add(MediaPackage sourceMediaPackage, AccessControlList acl, Date deletionDate, Date modificationDate)
           throws SolrServerException {
+    try {
+      solrServer.add(createInputDocuments(sourceMediaPackage, acl, deletionDate, modificationDate));
+      solrServer.commit();
+      return true;
+    } catch (Exception e) {
+      try {
+        solrServer.rollback();
+      } catch (IOException e1) {
+        throw new SolrServerException(e1);
+      }
+      throw new SolrServerException(e);
+    }
+  }
+
+  /**
+   * Creates the solr input documents for a media package without posting them to solr. Depending on what is referenced
+   * in the media package, the list contains the episode document and the document of the series that the episode
+   * belongs to.
+   * <p>
+   * This method does not modify the index and may be called concurrently, as long as the calling thread has its
+   * organization set on the security service.
+   *
+   * @param sourceMediaPackage
+   *          the media package to index
+   * @param acl
+   *          the access control list for this mediapackage
+   * @param deletionDate
+   *          the deletion date or <code>null</code>
+   * @param modificationDate
+   *          the modification date
+   * @return the input documents
+   * @throws SolrServerException
+   *           if the documents cannot be created
+   */
+  public List<SolrInputDocument> createInputDocuments(MediaPackage sourceMediaPackage, AccessControlList acl,
+          Date deletionDate, Date modificationDate) throws SolrServerException {
     try {
       SolrInputDocument episodeDocument = createEpisodeInputDocument(sourceMediaPackage, acl);
 
@@ -332,16 +368,48 @@ public class SolrIndexManager {
       if (deletionDate != null)
         Schema.setOcDeleted(episodeDocument, deletionDate);
 
-      solrServer.add(episodeDocument);
-      solrServer.add(seriesDocument);
-      solrServer.commit();
-      return true;
+      List<SolrInputDocument> documents = new ArrayList<SolrInputDocument>(2);
+      documents.add(episodeDocument);
+      if (seriesDocument != null)
+        documents.add(seriesDocument);
+      return documents;
     } catch (Exception e) {
-      try {
-        solrServer.rollback();
-      } catch (IOException e1) {
-        throw new SolrServerException(e1);
-      }
+      throw new SolrServerException(e);
+    }
+  }
+
+  /**
+   * Posts a batch of input documents to solr in a single request. The documents only become visible once the index
+   * is committed, either by passing <code>commit</code> or by calling {@link #commit()} later on.
+   *
+   * @param documents
+   *          the documents to post
+   * @param commit
+   *          whether to commit the index after posting the documents
+   * @throws SolrServerException
+   *           if an errors occurs while talking to solr
+   */
+  public void add(Collection<SolrInputDocument> documents, boolean commit) throws SolrServerException {
+    try {
+      if (!documents.isEmpty())
+        solrServer.add(documents);
+      if (commit)
+        solrServer.commit();
+    } catch (IOException e) {
+      throw new SolrServerException(e);
+    }
+  }
+
+  /**
+   * Commits all pending changes to the search index.
+   *
+   * @throws SolrServerException
+   *           if an errors occurs while talking to solr
+   */
+  public void commit() throws SolrServerException {
+    try {
+      solrServer.commit();
+    } catch (IOException e) {
       throw new SolrServerException(e);
     }
   }
@@ -688,6 +756,11 @@ public class SolrIndexManager {
     return b.substring(0, b.length() - sep.length());
   }
 
+  /**
+   * Loads an mpeg7 catalog of a media package. The catalog content is neither part of the media package nor of the
+   * search database, so it has to be read from its location even when repopulating the index. The workspace reads it
+   * straight from the working file repository or the asset manager where possible and only downloads it otherwise.
+   */
   private Mpeg7Catalog loadMpeg7Catalog(Catalog catalog) throws IOException {
     try (InputStream in = workspace.read(catalog.getURI())) {
       return mpeg7CatalogService.load(in);
@@ -49,6 +49,9 @@ import org.opencastproject.util.data.Function0;
 import org.opencastproject.util.data.Option;
 import org.opencastproject.util.data.Predicate;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrQuery.ORDER;
@@ -67,6 +70,7 @@ import java.util.List;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -80,6 +84,22 @@ public class SolrRequester {
    */
   private static Logger logger = LoggerFactory.getLogger(SolrRequester.class);
 
+  /**
+   * Maximum number of parsed media packages in the cache
+   */
+  private static final int MEDIA_PACKAGE_CACHE_SIZE = 1000;
+
+  /**
+   * Time in seconds after which a cached media package is parsed again. This bounds how much of the lifetime of URLs
+   * rewritten by the serializer (e.g. signed URLs) may already be used up when a media package is handed out.
+   */
+  private static final long MEDIA_PACKAGE_CACHE_EXPIRY = 60L;
+
+  /**
+   * Separator of the parts of a media package cache key
+   */
+  private static final char CACHE_KEY_SEPARATOR = '|';
+
   /**
    * The connection to the solr database
    */
@@ -95,6 +115,13 @@ public class SolrRequester {
    */
   private MediaPackageSerializer serializer = null;
 
+  /**
+   * Cache of parsed media packages handed out to read only queries, keyed by media package id, modification date and
+   * the scope of the serializer
+   */
+  private final Cache<String, MediaPackage> mediaPackageCache = CacheBuilder.newBuilder()
+          .maximumSize(MEDIA_PACKAGE_CACHE_SIZE).expireAfterWrite(MEDIA_PACKAGE_CACHE_EXPIRY, TimeUnit.SECONDS).build();
+
   /**
    * Creates a new requester for solr that will be using the given connection object to query the search index.
    *
@@ -148,11 +175,13 @@ public class SolrRequester {
    *
    * @param query
    *          The solr query.
+   * @param q
+   *          The search query, defining how the media packages of the result items are loaded.
    * @return The search result.
    * @throws SolrServerException
    *           if the solr server is not working as expected
    */
-  private SearchResult createSearchResult(final SolrQuery query) throws SolrServerException {
+  private SearchResult createSearchResult(final SolrQuery query, final SearchQuery q) throws SolrServerException {
 
     // Execute the query and try to get hold of a query response
     QueryResponse solrResponse = null;
@@ -191,18 +220,9 @@ public class SolrRequester {
 
         @Override
         public MediaPackage getMediaPackage() {
-          MediaPackageBuilder builder = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder();
-          if (serializer != null)
-            builder.setSerializer(serializer);
-          String mediaPackageFieldValue = Schema.getOcMediapackage(doc);
-          if (mediaPackageFieldValue != null) {
-            try {
-              return builder.loadFromXml(mediaPackageFieldValue);
-            } catch (Exception e) {
-              logger.warn("Unable to read media package from search result", e);
-            }
-          }
-          return null;
+          if (q.isReadOnlyMediaPackage())
+            return getCachedMediaPackage(doc);
+          return loadMediaPackage(Schema.getOcMediapackage(doc));
         }
 
         @Override
@@ -370,7 +390,7 @@ public class SolrRequester {
           else
             return new MediaSegmentImpl[0];
         }
-      });
+      }, q.isLazyMediaPackage());
 
       // Add the item to the result set
       result.addItem(item);
@@ -379,6 +399,82 @@ public class SolrRequester {
     return result;
   }
 
+  /**
+   * Parses a media package, applying the serializer if there is one.
+   *
+   * @param mediaPackageXml
+   *          the media package xml or <code>null</code>
+   * @return the media package or <code>null</code> if it cannot be read
+   */
+  private MediaPackage loadMediaPackage(String mediaPackageXml) {
+    if (mediaPackageXml == null)
+      return null;
+    MediaPackageBuilder builder = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder();
+    if (serializer != null)
+      builder.setSerializer(serializer);
+    try {
+      return builder.loadFromXml(mediaPackageXml);
+    } catch (Exception e) {
+      logger.warn("Unable to read media package from search result", e);
+      return null;
+    }
+  }
+
+  /**
+   * Returns the media package of a result document from the cache, parsing it on a cache miss. Since the serializer
+   * may rewrite URLs depending on the client (e.g. when signing URLs), media packages are cached per decoding scope of
+   * the serializer, or per client address if the serializer has no known scope. Every caller gets its own copy, which
+   * keeps the URLs already rewritten by the serializer, so modifications never leak into other results.
+   *
+   * @param doc
+   *          the result document
+   * @return a copy of the cached media package or <code>null</code> if it cannot be read
+   */
+  private MediaPackage getCachedMediaPackage(SolrDocument doc) {
+    String mediaPackageXml = Schema.getOcMediapackage(doc);
+    if (mediaPackageXml == null)
+      return null;
+
+    Date modified = Schema.getOcModified(doc);
+    StringBuilder key = new StringBuilder(Schema.getId(doc)).append(CACHE_KEY_SEPARATOR)
+            .append(modified != null ? modified.getTime() : "");
+    if (serializer != null) {
+      // Serializers with a known scope (e.g. time-bucketed URL signing) allow sharing media packages within it,
+      // others may rewrite URLs differently for every client
+      String scope = serializer.getDecodingScope();
+      if (scope == null && securityService != null)
+        scope = securityService.getUserIP();
+      key.append(CACHE_KEY_SEPARATOR).append(scope);
+    }
+
+    MediaPackage mediaPackage = mediaPackageCache.getIfPresent(key.toString());
+    if (mediaPackage == null) {
+      mediaPackage = loadMediaPackage(mediaPackageXml);
+      if (mediaPackage != null)
+        mediaPackageCache.put(key.toString(), mediaPackage);
+    }
+    return mediaPackage != null ? (MediaPackage) mediaPackage.clone() : null;
+  }
+
+  /**
+   * Removes all cached versions of a media package. Needs to be called whenever the media package changes in the
+   * index.
+   *
+   * @param mediaPackageId
+   *          the media package identifier
+   */
+  public void invalidateMediaPackage(String mediaPackageId) {
+    String prefix = mediaPackageId + CACHE_KEY_SEPARATOR;
+    mediaPackageCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  /**
+   * Removes all media packages from the cache.
+   */
+  public void invalidateMediaPackages() {
+    mediaPackageCache.invalidateAll();
+  }
+
   /**
    * Creates a list of <code>MediaSegment</code>s from the given result document.
    *
@@ -776,7 +872,7 @@ public class SolrRequester {
    */
   public SearchResult getForAdministrativeRead(SearchQuery q) throws SolrServerException {
     SolrQuery query = getForAction(q, READ.toString(), false);
-    return createSearchResult(query);
+    return createSearchResult(query, q);
   }
 
   /**
@@ -789,7 +885,7 @@ public class SolrRequester {
    */
   public SearchResult getForRead(SearchQuery q) throws SolrServerException {
     SolrQuery query = getForAction(q, READ.toString(), true);
-    return createSearchResult(query);
+    return createSearchResult(query, q);
   }
 
   /**
@@ -802,7 +898,7 @@ public class SolrRequester {
    */
   public SearchResult getForWrite(SearchQuery q) throws SolrServerException {
     SolrQuery query = getForAction(q, WRITE.toString(), true);
-    return createSearchResult(query);
+    return createSearchResult(query, q);
   }
 
   /**
@@ -823,6 +919,7 @@ public class SolrRequester {
    */
   public void setMediaPackageSerializer(MediaPackageSerializer serializer) {
     this.serializer = serializer;
+    invalidateMediaPackages();
   }
 
   /**
@@ -0,0 +1,187 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.feed.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.opencastproject.feed.api.Content.Mode;
+import org.opencastproject.feed.api.Feed;
+import org.opencastproject.feed.api.FeedGenerator;
+import org.opencastproject.security.api.DefaultOrganization;
+import org.opencastproject.security.api.JaxbRole;
+import org.opencastproject.security.api.JaxbUser;
+import org.opencastproject.security.api.SecurityService;
+
+import org.apache.cxf.jaxrs.impl.RequestImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Tests the caching of rendered feeds by the {@link FeedServiceImpl}.
+ */
+public class FeedServiceImplTest {
+
+  private FeedServiceImpl service;
+
+  /** Number of feeds created by the generator, by query */
+  private final Map<String, Integer> created = new HashMap<>();
+
+  @Before
+  public void setUp() throws Exception {
+    DefaultOrganization organization = new DefaultOrganization();
+    JaxbUser user = new JaxbUser("user", "test", organization, new JaxbRole("ROLE_USER", organization));
+    SecurityService securityService = EasyMock.createNiceMock(SecurityService.class);
+    EasyMock.expect(securityService.getOrganization()).andReturn(organization).anyTimes();
+    EasyMock.expect(securityService.getUser()).andReturn(user).anyTimes();
+
+    // Serves the feeds "latest" and "series/<series id>"
+    FeedGenerator generator = EasyMock.createNiceMock(FeedGenerator.class);
+    EasyMock.expect(generator.accept(EasyMock.anyObject())).andReturn(true).anyTimes();
+    EasyMock.expect(generator.getSeriesId(EasyMock.anyObject())).andAnswer(() -> {
+      String[] query = (String[]) EasyMock.getCurrentArguments()[0];
+      return query.length > 1 ? query[1] : null;
+    }).anyTimes();
+    EasyMock.expect(generator.createFeed(EasyMock.anyObject(), EasyMock.anyObject(), EasyMock.anyInt(),
+            EasyMock.anyObject())).andAnswer(() -> {
+              String query = String.join("/", (String[]) EasyMock.getCurrentArguments()[1]);
+              created.merge(query, 1, Integer::sum);
+              String link = "http://localhost/feeds/rss/2.0/" + query;
+              return new FeedImpl(Feed.Type.RSS, link, new PlainTextContent(query + " " + created.get(query)),
+                      new HtmlContent("Feed " + query, Mode.Escaped), link);
+            }).anyTimes();
+    EasyMock.replay(securityService, generator);
+
+    service = new FeedServiceImpl();
+    service.setSecurityService(securityService);
+    service.addFeedGenerator(generator);
+  }
+
+  @Test
+  public void testFeedIsServedFromCache() throws Exception {
+    Response first = getFeed("series/series-1", null);
+    Response second = getFeed("series/series-1", null);
+
+    assertEquals(200, first.getStatus());
+    assertEquals(200, second.getStatus());
+    assertEquals(first.getEntity(), second.getEntity());
+    assertEquals(1, (int) created.get("series/series-1"));
+  }
+
+  @Test
+  public void testChangedMediaPackageEvictsFeedsOfItsSeries() throws Exception {
+    getFeed("series/series-1", null);
+    getFeed("latest", null);
+
+    service.mediaPackageChanged("mp-1", "series-1", "series-1");
+
+    getFeed("series/series-1", null);
+    getFeed("latest", null);
+    assertEquals(2, (int) created.get("series/series-1"));
+    assertEquals(2, (int) created.get("latest"));
+  }
+
+  @Test
+  public void testFeedOfOtherSeriesStaysCached() throws Exception {
+    getFeed("series/series-1", null);
+    getFeed("series/series-2", null);
+
+    service.mediaPackageChanged("mp-1", "series-1", "series-1");
+
+    getFeed("series/series-2", null);
+    assertEquals(1, (int) created.get("series/series-2"));
+  }
+
+  @Test
+  public void testMovedMediaPackageEvictsFeedsOfBothSeries() throws Exception {
+    getFeed("series/series-1", null);
+    getFeed("series/series-2", null);
+    getFeed("series/series-3", null);
+
+    service.mediaPackageChanged("mp-1", "series-2", "series-1");
+
+    getFeed("series/series-1", null);
+    getFeed("series/series-2", null);
+    getFeed("series/series-3", null);
+    assertEquals(2, (int) created.get("series/series-1"));
+    assertEquals(2, (int) created.get("series/series-2"));
+    assertEquals(1, (int) created.get("series/series-3"));
+  }
+
+  @Test
+  public void testConditionalRequestIsNotModified() throws Exception {
+    Response response = getFeed("series/series-1", null);
+    assertEquals(200, response.getStatus());
+    EntityTag tag = getEntityTag(response);
+    assertNotNull(tag);
+
+    response = getFeed("series/series-1", tag);
+    assertEquals(304, response.getStatus());
+    assertNull(response.getEntity());
+    assertEquals(tag, getEntityTag(response));
+
+    // A recreated feed has a new tag
+    service.mediaPackageChanged("mp-1", "series-1", "series-1");
+    response = getFeed("series/series-1", tag);
+    assertEquals(200, response.getStatus());
+    assertNotNull(response.getEntity());
+  }
+
+  /**
+   * Requests the RSS feed with the given query, optionally with an If-None-Match header.
+   */
+  private Response getFeed(String query, EntityTag ifNoneMatch) {
+    HttpServletRequest request = EasyMock.createNiceMock(HttpServletRequest.class);
+    EasyMock.expect(request.getPathInfo()).andReturn("/rss/2.0/" + query).anyTimes();
+    EasyMock.replay(request);
+
+    Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    if (ifNoneMatch != null)
+      headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(ifNoneMatch.toString()));
+    Message message = new MessageImpl();
+    message.put(Message.HTTP_REQUEST_METHOD, "GET");
+    message.put(Message.PROTOCOL_HEADERS, headers);
+    Request preconditions = new RequestImpl(message);
+
+    return service.getFeed(request, preconditions);
+  }
+
+  private static EntityTag getEntityTag(Response response) {
+    return (EntityTag) response.getMetadata().getFirst(HttpHeaders.ETAG);
+  }
+
+}
@@ -24,6 +24,7 @@ package org.opencastproject.search.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.opencastproject.security.api.Permissions.Action.READ;
 import static org.opencastproject.security.api.Permissions.Action.WRITE;
 import static org.opencastproject.util.persistence.PersistenceUtil.newTestEntityManagerFactory;
@@ -44,6 +45,7 @@ import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
 import org.opencastproject.metadata.dublincore.DublinCores;
 import org.opencastproject.metadata.dublincore.StaticMetadataServiceDublinCoreImpl;
 import org.opencastproject.metadata.mpeg7.Mpeg7CatalogService;
+import org.opencastproject.search.api.SearchIndexListener;
 import org.opencastproject.search.api.SearchQuery;
 import org.opencastproject.search.api.SearchResult;
 import org.opencastproject.search.api.SearchResultItem;
@@ -333,6 +335,68 @@ public class SearchServiceImplTest {
     return mediaPackage;
   }
 
+  /**
+   * Tests that read only queries reuse parsed media packages until the media package is updated, without sharing
+   * modifications between results.
+   */
+  @Test
+  public void testReadOnlyAndLazyMediaPackages() throws Exception {
+    MediaPackage mediaPackage = getMediaPackage("/manifest-simple.xml");
+    Job job = service.add(mediaPackage);
+    JobBarrier barrier = new JobBarrier(null, serviceRegistry, 1000, job);
+    barrier.waitForJobs();
+    assertEquals("Job to add mediapckage did not finish", Job.Status.FINISHED, job.getStatus());
+
+    SearchQuery q = new SearchQuery().withId("10.0000/1").withReadOnlyMediaPackage(true);
+    MediaPackage first = service.getByQuery(q).getItems()[0].getMediaPackage();
+    assertNotNull(first);
+    String title = first.getTitle();
+
+    // Modifying a result does not affect the cached instance
+    first.setTitle("Modified");
+    MediaPackage second = service.getByQuery(q).getItems()[0].getMediaPackage();
+    assertNotSame(first, second);
+    assertEquals(title, second.getTitle());
+
+    // Updating the media package invalidates the cached instance
+    mediaPackage.setTitle("Updated");
+    service.addSynchronously(mediaPackage);
+    assertEquals("Updated", service.getByQuery(q).getItems()[0].getMediaPackage().getTitle());
+
+    // Lazily loaded media packages are parsed on first access
+    SearchQuery lazy = new SearchQuery().withId("10.0000/1").withLazyMediaPackage(true);
+    SearchResultItem item = service.getByQuery(lazy).getItems()[0];
+    assertEquals(mediaPackage.getIdentifier(), item.getMediaPackage().getIdentifier());
+  }
+
+  /**
+   * Tests that listeners get notified about changes of the search index.
+   */
+  @Test
+  public void testSearchIndexListener() throws Exception {
+    MediaPackage mediaPackage = getMediaPackage("/manifest-simple.xml");
+    String mediaPackageId = mediaPackage.getIdentifier().toString();
+    String seriesId = mediaPackage.getSeries();
+    SearchIndexListener listener = EasyMock.createStrictMock(SearchIndexListener.class);
+    listener.mediaPackageChanged(mediaPackageId, seriesId, null);
+    EasyMock.expectLastCall().once();
+    // Moving the media package to another series reports both series
+    listener.mediaPackageChanged(mediaPackageId, "moved", seriesId);
+    EasyMock.expectLastCall().once();
+    listener.indexCleared();
+    EasyMock.expectLastCall().once();
+    EasyMock.replay(listener);
+
+    service.addSearchIndexListener(listener);
+    service.addSynchronously(mediaPackage);
+    mediaPackage.setSeries("moved");
+    service.addSynchronously(mediaPackage);
+    service.clear();
+    service.removeSearchIndexListener(listener);
+    service.addSynchronously(mediaPackage);
+    EasyMock.verify(listener);
+  }
+
   /**
    * Tests whether an episode can be found based on its series metadata.
    */
@@ -42,6 +42,8 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -161,4 +163,28 @@ public class SearchServicePersistenceTest {
     Assert.assertEquals(1, i);
   }
 
+  @Test
+  public void testGetSearchEntitiesByPage() throws Exception {
+    List<String> ids = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      MediaPackage mp = MediaPackageBuilderFactory.newInstance().newMediaPackageBuilder().createNew();
+      searchDatabase.storeMediaPackage(mp, accessControlList, new Date());
+      ids.add(mp.getIdentifier().toString());
+    }
+    Collections.sort(ids);
+
+    List<String> paged = new ArrayList<>();
+    String lastMediaPackageId = null;
+    List<SearchEntity> page;
+    do {
+      page = searchDatabase.getSearchEntities(lastMediaPackageId, 2);
+      Assert.assertTrue(page.size() <= 2);
+      for (SearchEntity entity : page) {
+        paged.add(entity.getMediaPackageId());
+        lastMediaPackageId = entity.getMediaPackageId();
+      }
+    } while (!page.isEmpty());
+    Assert.assertEquals(ids, paged);
+  }
+
 }
@@ -50,6 +50,8 @@ import org.opencastproject.series.api.SeriesException;
 import org.opencastproject.series.api.SeriesQuery;
 import org.opencastproject.series.api.SeriesService;
 import org.opencastproject.systems.OpencastConstants;
+import org.opencastproject.util.Checksum;
+import org.opencastproject.util.ChecksumType;
 import org.opencastproject.util.NotFoundException;
 import org.opencastproject.util.RestUtil.R;
 import org.opencastproject.util.SolrUtils;
@@ -96,8 +98,11 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 /**
  * REST endpoint for Series Service.
@@ -232,11 +237,11 @@ public class SeriesRestService {
           @RestResponse(responseCode = SC_NOT_FOUND, description = "No series with this identifier was found."),
           @RestResponse(responseCode = SC_FORBIDDEN, description = "You do not have permission to view this series."),
           @RestResponse(responseCode = SC_UNAUTHORIZED, description = "You do not have permission to view this series. Maybe you need to authenticate.") })
-  public Response getSeriesXml(@PathParam("seriesID") String seriesID) {
+  public Response getSeriesXml(@Context Request request, @PathParam("seriesID") String seriesID) {
     logger.debug("Series Lookup: {}", seriesID);
     try {
       DublinCoreCatalog dc = this.seriesService.getSeries(seriesID);
-      return Response.ok(dc.toXmlString()).build();
+      return okWithEntityTag(request, dc.toXmlString());
     } catch (NotFoundException e) {
       return Response.status(Response.Status.NOT_FOUND).build();
     } catch (UnauthorizedException e) {
@@ -279,8 +284,17 @@ public class SeriesRestService {
   @RestQuery(name = "getAclAsXml", description = "Returns the access control list for the series with the given identifier", returnDescription = "Returns the series ACL as XML", pathParameters = { @RestParameter(name = "seriesID", isRequired = true, description = "The series identifier", type = STRING) }, reponses = {
           @RestResponse(responseCode = SC_OK, description = "The access control list."),
           @RestResponse(responseCode = SC_NOT_FOUND, description = "No series with this identifier was found.") })
-  public Response getSeriesAccessControlListXml(@PathParam("seriesID") String seriesID) {
-    return getSeriesAccessControlList(seriesID);
+  public Response getSeriesAccessControlListXml(@Context Request request, @PathParam("seriesID") String seriesID) {
+    logger.debug("Series ACL lookup: {}", seriesID);
+    try {
+      AccessControlList acl = seriesService.getSeriesAccessControl(seriesID);
+      return okWithEntityTag(request, AccessControlParser.toXml(acl));
+    } catch (NotFoundException e) {
+      return Response.status(NOT_FOUND).build();
+    } catch (Exception e) {
+      logger.warn("Could not retrieve series ACL: {}", e.getMessage());
+    }
+    throw new WebApplicationException(Response.Status.INTERNAL_SERVER_ERROR);
   }
 
   @GET
@@ -293,6 +307,24 @@ public class SeriesRestService {
     return getSeriesAccessControlList(seriesID);
   }
 
+  /**
+   * Creates an ok response tagged with a hash of its body. If the client already holds a copy with the same tag, the
+   * body is not sent again and the client gets a not modified response instead.
+   *
+   * @param request
+   *          the request carrying the client's preconditions
+   * @param body
+   *          the response body
+   * @return the ok or not modified response
+   */
+  private Response okWithEntityTag(Request request, String body) throws IOException {
+    EntityTag tag = new EntityTag(Checksum.createFor(ChecksumType.DEFAULT_TYPE, body).getValue());
+    ResponseBuilder notModified = request.evaluatePreconditions(tag);
+    if (notModified != null)
+      return notModified.tag(tag).build();
+    return Response.ok(body).tag(tag).build();
+  }
+
   /**
    * Retrieves ACL associated with series.
    *
@@ -552,8 +584,8 @@ public class SeriesRestService {
   @RestQuery(name = "getSeriesProperties", description = "Returns the series properties", returnDescription = "Returns the series properties as JSON", pathParameters = { @RestParameter(name = "id", description = "ID of series", isRequired = true, type = Type.STRING) }, reponses = {
           @RestResponse(responseCode = SC_OK, description = "The access control list."),
           @RestResponse(responseCode = SC_UNAUTHORIZED, description = "If the current user is not authorized to perform this action") })
-  public Response getSeriesPropertiesAsJson(@PathParam("id") String seriesId) throws UnauthorizedException,
-          NotFoundException {
+  public Response getSeriesPropertiesAsJson(@Context Request request, @PathParam("id") String seriesId)
+          throws UnauthorizedException, NotFoundException {
     if (StringUtils.isBlank(seriesId)) {
       logger.warn("Series id parameter is blank '{}'.", seriesId);
       return Response.status(BAD_REQUEST).build();
@@ -566,7 +598,7 @@ public class SeriesRestService {
         property.put(name, properties.get(name));
         jsonProperties.add(property);
       }
-      return Response.ok(jsonProperties.toString()).build();
+      return okWithEntityTag(request, jsonProperties.toString());
     } catch (UnauthorizedException e) {
       throw e;
     } catch (NotFoundException e) {
@@ -0,0 +1,137 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.series.endpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.opencastproject.metadata.dublincore.DublinCore;
+import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
+import org.opencastproject.metadata.dublincore.DublinCores;
+import org.opencastproject.security.api.AccessControlEntry;
+import org.opencastproject.security.api.AccessControlList;
+import org.opencastproject.series.api.SeriesService;
+
+import org.apache.cxf.jaxrs.impl.RequestImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Tests the entity tags and conditional requests of the {@link SeriesRestService}.
+ */
+public class SeriesRestServiceTest {
+
+  private static final String SERIES_ID = "series-1";
+
+  private SeriesRestService restService;
+
+  private DublinCoreCatalog series;
+
+  private AccessControlList acl;
+
+  @Before
+  public void setUp() throws Exception {
+    series = DublinCores.mkOpencastSeries(SERIES_ID).getCatalog();
+    series.set(DublinCore.PROPERTY_TITLE, "Title");
+    acl = new AccessControlList(new AccessControlEntry("ROLE_USER", "read", true));
+
+    SeriesService seriesService = EasyMock.createNiceMock(SeriesService.class);
+    EasyMock.expect(seriesService.getSeries(SERIES_ID)).andAnswer(() -> series).anyTimes();
+    EasyMock.expect(seriesService.getSeriesAccessControl(SERIES_ID)).andAnswer(() -> acl).anyTimes();
+    EasyMock.replay(seriesService);
+
+    restService = new SeriesRestService();
+    restService.setService(seriesService);
+    restService.activate(null);
+  }
+
+  @Test
+  public void testSeriesXmlEntityTag() throws Exception {
+    Response response = restService.getSeriesXml(request(null), SERIES_ID);
+    assertEquals(200, response.getStatus());
+    assertNotNull(response.getEntity());
+    EntityTag tag = getEntityTag(response);
+    assertNotNull(tag);
+
+    // A client holding the current version gets no body
+    response = restService.getSeriesXml(request(tag), SERIES_ID);
+    assertEquals(304, response.getStatus());
+    assertNull(response.getEntity());
+    assertEquals(tag, getEntityTag(response));
+
+    // A changed series gets a new tag
+    series.set(DublinCore.PROPERTY_TITLE, "New title");
+    response = restService.getSeriesXml(request(tag), SERIES_ID);
+    assertEquals(200, response.getStatus());
+    assertNotNull(response.getEntity());
+    assertNotEquals(tag, getEntityTag(response));
+  }
+
+  @Test
+  public void testSeriesAclXmlEntityTag() throws Exception {
+    Response response = restService.getSeriesAccessControlListXml(request(null), SERIES_ID);
+    assertEquals(200, response.getStatus());
+    EntityTag tag = getEntityTag(response);
+    assertNotNull(tag);
+
+    response = restService.getSeriesAccessControlListXml(request(tag), SERIES_ID);
+    assertEquals(304, response.getStatus());
+    assertNull(response.getEntity());
+
+    acl = new AccessControlList(new AccessControlEntry("ROLE_USER", "write", true));
+    response = restService.getSeriesAccessControlListXml(request(tag), SERIES_ID);
+    assertEquals(200, response.getStatus());
+    assertNotEquals(tag, getEntityTag(response));
+  }
+
+  /**
+   * Creates a GET request, optionally with an If-None-Match header.
+   */
+  private static Request request(EntityTag ifNoneMatch) {
+    Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    if (ifNoneMatch != null)
+      headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(ifNoneMatch.toString()));
+    Message message = new MessageImpl();
+    message.put(Message.HTTP_REQUEST_METHOD, "GET");
+    message.put(Message.PROTOCOL_HEADERS, headers);
+    return new RequestImpl(message);
+  }
+
+  private static EntityTag getEntityTag(Response response) {
+    return (EntityTag) response.getMetadata().getFirst(HttpHeaders.ETAG);
+  }
+
+}
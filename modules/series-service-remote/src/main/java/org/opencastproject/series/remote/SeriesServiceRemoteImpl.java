@@ -29,6 +29,7 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.http.HttpStatus.SC_CREATED;
 import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.apache.http.HttpStatus.SC_NO_CONTENT;
 import static org.apache.http.HttpStatus.SC_UNAUTHORIZED;
 import static org.opencastproject.util.doc.rest.RestParameter.Type.BOOLEAN;
@@ -40,6 +41,7 @@ import org.opencastproject.metadata.dublincore.DublinCoreCatalogList;
 import org.opencastproject.metadata.dublincore.DublinCores;
 import org.opencastproject.security.api.AccessControlList;
 import org.opencastproject.security.api.AccessControlParser;
+import org.opencastproject.security.api.SecurityService;
 import org.opencastproject.security.api.UnauthorizedException;
 import org.opencastproject.series.api.SeriesException;
 import org.opencastproject.series.api.SeriesQuery;
@@ -54,10 +56,14 @@ import org.opencastproject.util.doc.rest.RestService;
 
 
 import com.entwinemedia.fn.data.Opt;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
@@ -83,7 +89,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
@@ -109,6 +117,27 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   private static final Logger logger = LoggerFactory.getLogger(SeriesServiceRemoteImpl.class);
 
+  /** How long a cached series resource is used without asking the series service whether it changed */
+  private static final long CACHE_FRESHNESS_MILLIS = 10 * 1000;
+
+  /** How long a cached series resource is kept for revalidation */
+  private static final long CACHE_EXPIRATION_MINUTES = 10;
+
+  /** The maximum number of cached series resources */
+  private static final long CACHE_SIZE = 1000;
+
+  /** Series catalogs, ACLs and properties by organization, user, series and resource */
+  private final Cache<CacheKey, CachedResource<?>> cache = CacheBuilder.newBuilder()
+          .maximumSize(CACHE_SIZE)
+          .expireAfterWrite(CACHE_EXPIRATION_MINUTES, TimeUnit.MINUTES)
+          .build();
+
+  /** How long a cached series resource is used without revalidation */
+  private long cacheFreshnessMillis = CACHE_FRESHNESS_MILLIS;
+
+  /** The security service */
+  private SecurityService securityService;
+
   public SeriesServiceRemoteImpl() {
     super(JOB_TYPE);
   }
@@ -116,6 +145,26 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
   /** Default number of items on page */
   private static final int DEFAULT_LIMIT = 20;
 
+  /**
+   * Sets the security service
+   *
+   * @param securityService
+   *          the security service
+   */
+  public void setSecurityService(SecurityService securityService) {
+    this.securityService = securityService;
+  }
+
+  /**
+   * Sets how long cached series resources are used without asking the series service whether they changed.
+   *
+   * @param millis
+   *          the freshness in milliseconds
+   */
+  void setCacheFreshness(long millis) {
+    this.cacheFreshnessMillis = millis;
+  }
+
   @Override
   public DublinCoreCatalog updateSeries(DublinCoreCatalog dc) throws SeriesException, UnauthorizedException {
     String seriesId = dc.getFirst(DublinCore.PROPERTY_IDENTIFIER);
@@ -134,6 +183,7 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
       if (response != null) {
         int statusCode = response.getStatusLine().getStatusCode();
         if (SC_NO_CONTENT == statusCode) {
+          invalidateCache(seriesId);
           logger.info("Successfully updated series {} in the series service", seriesId);
           return null;
         } else if (SC_UNAUTHORIZED == statusCode) {
@@ -181,11 +231,13 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
         if (SC_NOT_FOUND == status) {
           throw new NotFoundException("Series not found: " + seriesID);
         } else if (SC_NO_CONTENT == status) {
+          invalidateCache(seriesID);
           logger.info("Successfully updated ACL of {} to the series service", seriesID);
           return true;
         } else if (SC_UNAUTHORIZED == status) {
           throw new UnauthorizedException("Not authorized to update series ACL of " + seriesID);
         } else if (SC_CREATED == status) {
+          invalidateCache(seriesID);
           logger.info("Successfully created ACL of {} to the series service", seriesID);
           return false;
         }
@@ -208,6 +260,7 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
         } else if (SC_UNAUTHORIZED == statusCode) {
           throw new UnauthorizedException("Not authorized to delete series " + seriesID);
         } else if (SC_OK == statusCode) {
+          invalidateCache(seriesID);
           logger.info("Successfully deleted {} from the remote series index", seriesID);
           return;
         }
@@ -254,18 +307,31 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   @Override
   public DublinCoreCatalog getSeries(String seriesID) throws SeriesException, NotFoundException, UnauthorizedException {
+    CacheKey key = cacheKey(seriesID, "catalog");
+    CachedResource<DublinCoreCatalog> cached = getCached(key);
+    if (cached != null && cached.isFresh(cacheFreshnessMillis))
+      return (DublinCoreCatalog) cached.getValue().clone();
+
     HttpGet get = new HttpGet(seriesID + ".xml");
-    HttpResponse response = getResponse(get, SC_OK, SC_NOT_FOUND, SC_UNAUTHORIZED);
+    HttpResponse response = getResponse(revalidate(get, cached), SC_OK, SC_NOT_MODIFIED, SC_NOT_FOUND,
+            SC_UNAUTHORIZED);
     try {
       if (response != null) {
         if (SC_NOT_FOUND == response.getStatusLine().getStatusCode()) {
+          cache.invalidate(key);
           throw new NotFoundException("Series " + seriesID + " not found in remote series index!");
         } else if (SC_UNAUTHORIZED == response.getStatusLine().getStatusCode()) {
+          cache.invalidate(key);
           throw new UnauthorizedException("Not authorized to get series " + seriesID);
+        } else if (SC_NOT_MODIFIED == response.getStatusLine().getStatusCode() && cached != null) {
+          cache.put(key, cached.revalidated());
+          logger.debug("Series {} in the remote series index has not changed", seriesID);
+          return (DublinCoreCatalog) cached.getValue().clone();
         } else {
           DublinCoreCatalog dublinCoreCatalog = DublinCores.read(response.getEntity().getContent());
           logger.debug("Successfully received series {} from the remote series index", seriesID);
-          return dublinCoreCatalog;
+          putCached(key, response, dublinCoreCatalog);
+          return (DublinCoreCatalog) dublinCoreCatalog.clone();
         }
       }
     } catch (UnauthorizedException e) {
@@ -282,16 +348,27 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
 
   @Override
   public AccessControlList getSeriesAccessControl(String seriesID) throws NotFoundException, SeriesException {
+    CacheKey key = cacheKey(seriesID, "acl");
+    CachedResource<AccessControlList> cached = getCached(key);
+    if (cached != null && cached.isFresh(cacheFreshnessMillis))
+      return copy(cached.getValue());
+
     HttpGet get = new HttpGet(seriesID + "/acl.xml");
-    HttpResponse response = getResponse(get, SC_OK, SC_NOT_FOUND);
+    HttpResponse response = getResponse(revalidate(get, cached), SC_OK, SC_NOT_MODIFIED, SC_NOT_FOUND);
     try {
       if (response != null) {
         if (SC_NOT_FOUND == response.getStatusLine().getStatusCode()) {
+          cache.invalidate(key);
           throw new NotFoundException("Series ACL " + seriesID + " not found on remote series index!");
+        } else if (SC_NOT_MODIFIED == response.getStatusLine().getStatusCode() && cached != null) {
+          cache.put(key, cached.revalidated());
+          logger.debug("Series ACL {} in the remote series index has not changed", seriesID);
+          return copy(cached.getValue());
         } else {
           AccessControlList acl = AccessControlParser.parseAcl(response.getEntity().getContent());
           logger.info("Successfully get series ACL {} from the remote series index", seriesID);
-          return acl;
+          putCached(key, response, acl);
+          return copy(acl);
         }
       }
     } catch (NotFoundException e) {
@@ -495,15 +572,27 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
   @Override
   public Map<String, String> getSeriesProperties(String seriesID)
           throws SeriesException, NotFoundException, UnauthorizedException {
+    CacheKey key = cacheKey(seriesID, "properties");
+    CachedResource<Map<String, String>> cached = getCached(key);
+    if (cached != null && cached.isFresh(cacheFreshnessMillis))
+      return new TreeMap<>(cached.getValue());
+
     HttpGet get = new HttpGet(seriesID + "/properties.json");
-    HttpResponse response = getResponse(get, SC_OK, SC_NOT_FOUND, SC_UNAUTHORIZED);
+    HttpResponse response = getResponse(revalidate(get, cached), SC_OK, SC_NOT_MODIFIED, SC_NOT_FOUND,
+            SC_UNAUTHORIZED);
     JSONParser parser = new JSONParser();
     try {
       if (response != null) {
         if (SC_NOT_FOUND == response.getStatusLine().getStatusCode()) {
+          cache.invalidate(key);
           throw new NotFoundException("Series " + seriesID + " not found in remote series index!");
         } else if (SC_UNAUTHORIZED == response.getStatusLine().getStatusCode()) {
+          cache.invalidate(key);
           throw new UnauthorizedException("Not authorized to get series " + seriesID);
+        } else if (SC_NOT_MODIFIED == response.getStatusLine().getStatusCode() && cached != null) {
+          cache.put(key, cached.revalidated());
+          logger.debug("Series {} properties in the remote series index have not changed", seriesID);
+          return new TreeMap<>(cached.getValue());
         } else {
           logger.debug("Successfully received series {} properties from the remote series index", seriesID);
           StringWriter writer = new StringWriter();
@@ -517,7 +606,8 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
               properties.put(names.get(j).toString(), property.get(names.get(j).toString()).toString());
             }
           }
-          return properties;
+          putCached(key, response, properties);
+          return new TreeMap<>(properties);
         }
       }
     } catch (UnauthorizedException e) {
@@ -582,6 +672,7 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
       if (response != null) {
         int statusCode = response.getStatusLine().getStatusCode();
         if (SC_NO_CONTENT == statusCode) {
+          invalidateCache(seriesID);
           logger.info("Successfully updated series {} with property name {} and value {} in the series service",
                   seriesID, propertyName, propertyValue);
           return;
@@ -613,6 +704,7 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
         } else if (SC_UNAUTHORIZED == statusCode) {
           throw new UnauthorizedException("Not authorized to delete series " + seriesID);
         } else if (SC_OK == statusCode) {
+          invalidateCache(seriesID);
           logger.info("Successfully deleted {} from the remote series index", seriesID);
           return;
         }
@@ -885,4 +977,120 @@ public class SeriesServiceRemoteImpl extends RemoteBase implements SeriesService
     }
     return q;
   }
+
+  /**
+   * Creates the cache key of a series resource for the current organization and user. Since the series service
+   * checks permissions, resources are never shared between users.
+   */
+  private CacheKey cacheKey(String seriesId, String resource) {
+    String organization = null;
+    String user = null;
+    if (securityService != null) {
+      if (securityService.getOrganization() != null)
+        organization = securityService.getOrganization().getId();
+      if (securityService.getUser() != null)
+        user = securityService.getUser().getUsername();
+    }
+    return new CacheKey(organization, user, seriesId, resource);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <A> CachedResource<A> getCached(CacheKey key) {
+    return (CachedResource<A>) cache.getIfPresent(key);
+  }
+
+  /**
+   * Caches a resource if the series service tagged the response, so it can be revalidated later on.
+   */
+  private <A> void putCached(CacheKey key, HttpResponse response, A value) {
+    Header tag = response.getFirstHeader(HttpHeaders.ETAG);
+    if (tag != null && StringUtils.isNotBlank(tag.getValue())) {
+      cache.put(key, new CachedResource<>(tag.getValue(), value));
+    } else {
+      cache.invalidate(key);
+    }
+  }
+
+  /**
+   * Asks the series service to only send a resource if it changed since it was cached.
+   */
+  private static HttpGet revalidate(HttpGet get, CachedResource<?> cached) {
+    if (cached != null)
+      get.setHeader(HttpHeaders.IF_NONE_MATCH, cached.getTag());
+    return get;
+  }
+
+  /**
+   * Removes all cached resources of a series, for any user.
+   */
+  private void invalidateCache(String seriesId) {
+    if (seriesId != null)
+      cache.asMap().keySet().removeIf(key -> seriesId.equals(key.seriesId));
+  }
+
+  private static AccessControlList copy(AccessControlList acl) {
+    return new AccessControlList(new ArrayList<>(acl.getEntries()));
+  }
+
+  /** Identifies a cached series resource */
+  private static final class CacheKey {
+    private final String organization;
+    private final String user;
+    private final String seriesId;
+    private final String resource;
+
+    CacheKey(String organization, String user, String seriesId, String resource) {
+      this.organization = organization;
+      this.user = user;
+      this.seriesId = seriesId;
+      this.resource = resource;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o)
+        return true;
+      if (!(o instanceof CacheKey))
+        return false;
+      CacheKey other = (CacheKey) o;
+      return Objects.equals(organization, other.organization) && Objects.equals(user, other.user)
+              && Objects.equals(seriesId, other.seriesId) && Objects.equals(resource, other.resource);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(organization, user, seriesId, resource);
+    }
+  }
+
+  /** A parsed series resource with the entity tag it was sent with */
+  private static final class CachedResource<A> {
+    private final String tag;
+    private final A value;
+    private final long validated;
+
+    CachedResource(String tag, A value) {
+      this.tag = tag;
+      this.value = value;
+      this.validated = System.currentTimeMillis();
+    }
+
+    String getTag() {
+      return tag;
+    }
+
+    A getValue() {
+      return value;
+    }
+
+    /** Whether the resource was validated recently enough to be used without asking the series service */
+    boolean isFresh(long freshnessMillis) {
+      return System.currentTimeMillis() - validated < freshnessMillis;
+    }
+
+    /** A copy of this resource, confirmed to be current by the series service just now */
+    CachedResource<A> revalidated() {
+      return new CachedResource<>(tag, value);
+    }
+  }
 }
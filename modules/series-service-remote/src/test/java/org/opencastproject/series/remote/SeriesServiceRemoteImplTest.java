@@ -0,0 +1,168 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.series.remote;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import org.opencastproject.metadata.dublincore.DublinCore;
+import org.opencastproject.metadata.dublincore.DublinCoreCatalog;
+import org.opencastproject.metadata.dublincore.DublinCores;
+import org.opencastproject.security.api.TrustedHttpClient;
+import org.opencastproject.serviceregistry.api.ServiceRegistration;
+import org.opencastproject.serviceregistry.api.ServiceRegistry;
+import org.opencastproject.util.NotFoundException;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Tests the caching of series resources by the {@link SeriesServiceRemoteImpl}.
+ */
+public class SeriesServiceRemoteImplTest {
+
+  private static final String SERIES_ID = "series-1";
+
+  private SeriesServiceRemoteImpl service;
+
+  /** The responses the series service sends, in order */
+  private final Queue<HttpResponse> responses = new LinkedList<>();
+
+  /** The requests sent to the series service */
+  private final List<HttpUriRequest> requests = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    TrustedHttpClient client = EasyMock.createNiceMock(TrustedHttpClient.class);
+    EasyMock.expect(client.execute(EasyMock.anyObject(HttpUriRequest.class))).andAnswer(() -> {
+      requests.add((HttpUriRequest) EasyMock.getCurrentArguments()[0]);
+      if (responses.isEmpty())
+        fail("Unexpected request to the series service");
+      return responses.remove();
+    }).anyTimes();
+    ServiceRegistration registration = EasyMock.createNiceMock(ServiceRegistration.class);
+    EasyMock.expect(registration.getHost()).andReturn("http://localhost:8080").anyTimes();
+    EasyMock.expect(registration.getPath()).andReturn("/series").anyTimes();
+    ServiceRegistry registry = EasyMock.createNiceMock(ServiceRegistry.class);
+    EasyMock.expect(registry.getServiceRegistrationsByLoad(EasyMock.anyString()))
+            .andReturn(Collections.singletonList(registration)).anyTimes();
+    EasyMock.replay(client, registration, registry);
+
+    service = new SeriesServiceRemoteImpl();
+    service.setTrustedHttpClient(client);
+    service.setRemoteServiceManager(registry);
+  }
+
+  @Test
+  public void testFreshCatalogIsServedFromCache() throws Exception {
+    responses.add(catalogResponse("Title", "\"tag-1\""));
+
+    assertEquals("Title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals("Title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  public void testNotModifiedReusesCachedCatalog() throws Exception {
+    service.setCacheFreshness(0);
+    responses.add(catalogResponse("Title", "\"tag-1\""));
+    responses.add(response(304));
+
+    assertEquals("Title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals("Title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(2, requests.size());
+    assertNull(requests.get(0).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+    assertEquals("\"tag-1\"", requests.get(1).getFirstHeader(HttpHeaders.IF_NONE_MATCH).getValue());
+  }
+
+  @Test
+  public void testUpdateInvalidatesCachedCatalog() throws Exception {
+    responses.add(catalogResponse("Title", "\"tag-1\""));
+    responses.add(response(204));
+    responses.add(catalogResponse("New title", "\"tag-2\""));
+
+    DublinCoreCatalog dc = service.getSeries(SERIES_ID);
+    dc.set(DublinCore.PROPERTY_TITLE, "New title");
+    service.updateSeries(dc);
+
+    assertEquals("New title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(3, requests.size());
+    assertNull(requests.get(2).getFirstHeader(HttpHeaders.IF_NONE_MATCH));
+  }
+
+  @Test
+  public void testDeleteInvalidatesCachedCatalog() throws Exception {
+    responses.add(catalogResponse("Title", "\"tag-1\""));
+    responses.add(response(200));
+    responses.add(response(404));
+
+    service.getSeries(SERIES_ID);
+    service.deleteSeries(SERIES_ID);
+    try {
+      service.getSeries(SERIES_ID);
+      fail("The deleted series must not be served from the cache");
+    } catch (NotFoundException e) {
+      // expected
+    }
+    assertEquals(3, requests.size());
+  }
+
+  @Test
+  public void testModifyingReturnedCatalogDoesNotChangeCache() throws Exception {
+    responses.add(catalogResponse("Title", "\"tag-1\""));
+
+    DublinCoreCatalog dc = service.getSeries(SERIES_ID);
+    dc.set(DublinCore.PROPERTY_TITLE, "Changed by the caller");
+
+    assertEquals("Title", service.getSeries(SERIES_ID).getFirst(DublinCore.PROPERTY_TITLE));
+    assertEquals(1, requests.size());
+  }
+
+  private static HttpResponse response(int status) {
+    return new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, status, null));
+  }
+
+  private static HttpResponse catalogResponse(String title, String tag) throws Exception {
+    DublinCoreCatalog dc = DublinCores.mkOpencastSeries(SERIES_ID).getCatalog();
+    dc.set(DublinCore.PROPERTY_TITLE, title);
+    HttpResponse response = response(200);
+    response.setEntity(new StringEntity(dc.toXmlString(), StandardCharsets.UTF_8));
+    response.setHeader(HttpHeaders.ETAG, tag);
+    return response;
+  }
+
+}
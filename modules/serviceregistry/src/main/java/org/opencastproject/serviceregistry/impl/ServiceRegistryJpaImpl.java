@@ -39,6 +39,7 @@ import static org.opencastproject.util.OsgiUtil.getOptContextProperty;
 
 import org.opencastproject.job.api.Job;
 import org.opencastproject.job.api.Job.Status;
+import org.opencastproject.job.api.JobImpl;
 import org.opencastproject.job.jpa.JpaJob;
 import org.opencastproject.rest.RestConstants;
 import org.opencastproject.security.api.Organization;
@@ -52,6 +53,8 @@ import org.opencastproject.serviceregistry.api.HostRegistration;
 import org.opencastproject.serviceregistry.api.IncidentService;
 import org.opencastproject.serviceregistry.api.Incidents;
 import org.opencastproject.serviceregistry.api.JaxbServiceStatistics;
+import org.opencastproject.serviceregistry.api.JobQuery;
+import org.opencastproject.serviceregistry.api.JobQueryResult;
 import org.opencastproject.serviceregistry.api.ServiceRegistration;
 import org.opencastproject.serviceregistry.api.ServiceRegistry;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
@@ -121,6 +124,13 @@ import javax.persistence.Query;
 import javax.persistence.RollbackException;
 import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 
 /** JPA implementation of the {@link ServiceRegistry} */
 public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
@@ -1822,6 +1832,142 @@ public class ServiceRegistryJpaImpl implements ServiceRegistry, ManagedService {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The query is run in the database and only the columns shown in job lists are loaded.
+   *
+   * @see org.opencastproject.serviceregistry.api.ServiceRegistry#getActiveJobs(JobQuery)
+   */
+  @Override
+  public JobQueryResult getActiveJobs(JobQuery query) throws ServiceRegistryException {
+    List<Integer> statuses = new ArrayList<>();
+    for (Status status : Status.values()) {
+      if (status.isActive() && (query.getStatus() == null || status.name().equalsIgnoreCase(query.getStatus())))
+        statuses.add(status.ordinal());
+    }
+    if (statuses.isEmpty())
+      return new JobQueryResult(Collections.<Job> emptyList(), 0);
+
+    EntityManager em = null;
+    try {
+      em = emf.createEntityManager();
+      CriteriaBuilder cb = em.getCriteriaBuilder();
+
+      CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+      JobListPaths countPaths = new JobListPaths(cb, countQuery.from(JpaJob.class));
+      countQuery.select(cb.count(countPaths.job)).where(countPaths.predicates(cb, query, statuses));
+      long total = em.createQuery(countQuery).getSingleResult();
+      if (total == 0 || query.getOffset() >= total)
+        return new JobQueryResult(Collections.<Job> emptyList(), total);
+
+      CriteriaQuery<Object[]> pageQuery = cb.createQuery(Object[].class);
+      JobListPaths paths = new JobListPaths(cb, pageQuery.from(JpaJob.class));
+      pageQuery.multiselect(paths.job.get("id"), paths.job.get("creator"), paths.job.get("organization"),
+              paths.jobType, paths.job.get("operation"), paths.job.get("status"), paths.creatorHost.get("baseUrl"),
+              paths.processorHost.get("baseUrl"), paths.job.get("dateCreated"), paths.job.get("dateStarted"),
+              paths.job.get("dateCompleted"), paths.rootJob.get("id"));
+      pageQuery.where(paths.predicates(cb, query, statuses));
+      Expression<?> sortBy = paths.sortExpression(query.getSort());
+      pageQuery.orderBy(query.isAscending() ? cb.asc(sortBy) : cb.desc(sortBy), cb.asc(paths.job.get("id")));
+
+      TypedQuery<Object[]> q = em.createQuery(pageQuery).setFirstResult(query.getOffset());
+      if (query.getLimit() > 0)
+        q.setMaxResults(query.getLimit());
+
+      List<Job> jobs = new ArrayList<>();
+      for (Object[] row : q.getResultList()) {
+        jobs.add(new JobImpl((Long) row[0], (String) row[1], (String) row[2], 0, (String) row[3], (String) row[4],
+                null, Status.values()[(Integer) row[5]], (String) row[6], (String) row[7], (Date) row[8],
+                (Date) row[9], (Date) row[10], null, null, null, null, (Long) row[11], false, null, null));
+      }
+      return new JobQueryResult(jobs, total);
+    } catch (Exception e) {
+      throw new ServiceRegistryException(e);
+    } finally {
+      if (em != null)
+        em.close();
+    }
+  }
+
+  /**
+   * The joins needed to filter and sort job lists, created for one query root.
+   */
+  private static final class JobListPaths {
+    private final Root<JpaJob> job;
+    private final Join<JpaJob, ServiceRegistrationJpaImpl> creatorService;
+    private final Join<JpaJob, ServiceRegistrationJpaImpl> processorService;
+    private final Join<ServiceRegistrationJpaImpl, HostRegistrationJpaImpl> creatorHost;
+    private final Join<ServiceRegistrationJpaImpl, HostRegistrationJpaImpl> processorHost;
+    private final Join<JpaJob, JpaJob> rootJob;
+    /** The job type is the type of the processing service or, if not yet dispatched, of the creating service */
+    private final Expression<String> jobType;
+
+    JobListPaths(CriteriaBuilder cb, Root<JpaJob> job) {
+      this.job = job;
+      creatorService = job.join("creatorServiceRegistration", JoinType.LEFT);
+      processorService = job.join("processorServiceRegistration", JoinType.LEFT);
+      creatorHost = creatorService.join("hostRegistration", JoinType.LEFT);
+      processorHost = processorService.join("hostRegistration", JoinType.LEFT);
+      rootJob = job.join("rootJob", JoinType.LEFT);
+      jobType = cb.coalesce(processorService.<String> get("serviceType"), creatorService.<String> get("serviceType"));
+    }
+
+    Predicate[] predicates(CriteriaBuilder cb, JobQuery query, List<Integer> statuses) {
+      List<Predicate> predicates = new ArrayList<>();
+      predicates.add(job.get("status").in(statuses));
+      for (JobQuery.Operation excluded : query.getExcludedOperations()) {
+        Expression<String> operation = job.get("operation");
+        predicates.add(cb.or(cb.isNull(jobType), cb.isNull(operation),
+                cb.notEqual(jobType, excluded.getJobType()), cb.notEqual(operation, excluded.getOperation())));
+      }
+      if (query.getHostname() != null) {
+        predicates.add(cb.equal(cb.lower(processorHost.<String> get("baseUrl")), query.getHostname().toLowerCase()));
+      }
+      if (query.getText() != null) {
+        String text = query.getText().toLowerCase();
+        List<Predicate> matches = new ArrayList<>();
+        matches.add(cb.equal(cb.lower(processorHost.<String> get("baseUrl")), text));
+        matches.add(cb.equal(cb.lower(jobType), text));
+        matches.add(cb.equal(cb.lower(job.<String> get("operation")), text));
+        matches.add(cb.equal(cb.lower(job.<String> get("creator")), text));
+        for (Status status : Status.values()) {
+          if (status.name().equalsIgnoreCase(text))
+            matches.add(cb.equal(job.get("status"), status.ordinal()));
+        }
+        if (StringUtils.isNumeric(text) && text.length() < 19) {
+          Long id = Long.valueOf(text);
+          matches.add(cb.equal(job.get("id"), id));
+          matches.add(cb.equal(rootJob.get("id"), id));
+        }
+        predicates.add(cb.or(matches.toArray(new Predicate[matches.size()])));
+      }
+      return predicates.toArray(new Predicate[predicates.size()]);
+    }
+
+    Expression<?> sortExpression(JobQuery.Sort sort) {
+      switch (sort) {
+        case CREATOR:
+          return job.get("creator");
+        case OPERATION:
+          return job.get("operation");
+        case PROCESSINGHOST:
+          return processorHost.get("baseUrl");
+        case STARTED:
+          return job.get("dateStarted");
+        case STATUS:
+          return job.get("status");
+        case TYPE:
+          return jobType;
+        case ID:
+          return job.get("id");
+        case SUBMITTED:
+        default:
+          return job.get("dateCreated");
+      }
+    }
+  }
+
   /**
    * Get the list of jobs with status from the given statuses.
    *
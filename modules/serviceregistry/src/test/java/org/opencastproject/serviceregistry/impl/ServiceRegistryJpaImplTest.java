@@ -37,6 +37,8 @@ import org.opencastproject.security.api.TrustedHttpClient;
 import org.opencastproject.security.api.TrustedHttpClientException;
 import org.opencastproject.security.api.User;
 import org.opencastproject.security.api.UserDirectoryService;
+import org.opencastproject.serviceregistry.api.JobQuery;
+import org.opencastproject.serviceregistry.api.JobQueryResult;
 import org.opencastproject.serviceregistry.api.ServiceRegistration;
 import org.opencastproject.serviceregistry.api.ServiceRegistryException;
 import org.opencastproject.systems.OpencastConstants;
@@ -247,6 +249,50 @@ public class ServiceRegistryJpaImplTest {
     assertEquals(Status.RUNNING, undispatchableJob2.getStatus());
   }
 
+  @Test
+  public void testGetActiveJobsQuery() throws Exception {
+    serviceRegistryJpaImpl.activate(null);
+    registerTestHostAndService();
+    serviceRegistryJpaImpl.registerService(TEST_SERVICE_3, TEST_HOST, TEST_PATH_3);
+    Job job1 = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_OPERATION, null, null, false, null);
+    Job job2 = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE_2, "encode", null, null, false, null);
+    Job workflowJob = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE_3, "START_WORKFLOW", null, null, false,
+            null);
+    Job finishedJob = serviceRegistryJpaImpl.createJob(TEST_HOST, TEST_SERVICE, TEST_OPERATION, null, null, false,
+            null);
+    finishedJob.setStatus(Status.FINISHED);
+    serviceRegistryJpaImpl.updateJob(finishedJob);
+
+    JobQueryResult result = serviceRegistryJpaImpl.getActiveJobs(
+            new JobQuery().withoutOperation(TEST_SERVICE_3, "START_WORKFLOW"));
+    assertEquals(2, result.getTotal());
+    assertEquals(job1.getId(), result.getJobs().get(0).getId());
+    assertEquals(job2.getId(), result.getJobs().get(1).getId());
+    assertEquals(TEST_SERVICE_2, result.getJobs().get(1).getJobType());
+    assertEquals("encode", result.getJobs().get(1).getOperation());
+
+    result = serviceRegistryJpaImpl.getActiveJobs(new JobQuery().withSort(JobQuery.Sort.ID, false).withLimit(1));
+    assertEquals(3, result.getTotal());
+    assertEquals(1, result.getJobs().size());
+    assertEquals(workflowJob.getId(), result.getJobs().get(0).getId());
+
+    result = serviceRegistryJpaImpl.getActiveJobs(new JobQuery().withOffset(1).withLimit(1));
+    assertEquals(3, result.getTotal());
+    assertEquals(job2.getId(), result.getJobs().get(0).getId());
+
+    result = serviceRegistryJpaImpl.getActiveJobs(new JobQuery().withText("ENCODE"));
+    assertEquals(1, result.getTotal());
+    assertEquals(job2.getId(), result.getJobs().get(0).getId());
+
+    result = serviceRegistryJpaImpl.getActiveJobs(new JobQuery().withText(Long.toString(job1.getId())));
+    assertEquals(1, result.getTotal());
+    assertEquals(job1.getId(), result.getJobs().get(0).getId());
+
+    result = serviceRegistryJpaImpl.getActiveJobs(new JobQuery().withStatus("finished"));
+    assertEquals(0, result.getTotal());
+    assertEquals(0, result.getJobs().size());
+  }
+
   @Test
   public void testHostAddedToPriorityList() throws Exception {
     if (serviceRegistryJpaImpl.scheduledExecutor != null)
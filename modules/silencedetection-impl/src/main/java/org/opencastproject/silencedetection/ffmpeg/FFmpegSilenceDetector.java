@@ -60,10 +60,10 @@ public class FFmpegSilenceDetector {
   public static final String FFMPEG_BINARY_CONFIG = "org.opencastproject.composer.ffmpeg.path";
   public static final String FFMPEG_BINARY_DEFAULT = "ffmpeg";
 
-  private static final Long DEFAULT_SILENCE_MIN_LENGTH = 5000L;
-  private static final Long DEFAULT_SILENCE_PRE_LENGTH = 2000L;
-  private static final String DEFAULT_THRESHOLD_DB = "-40dB";
-  private static final Long DEFAULT_VOICE_MIN_LENGTH = 60000L;
+  public static final Long DEFAULT_SILENCE_MIN_LENGTH = 5000L;
+  public static final Long DEFAULT_SILENCE_PRE_LENGTH = 2000L;
+  public static final String DEFAULT_THRESHOLD_DB = "-40dB";
+  public static final Long DEFAULT_VOICE_MIN_LENGTH = 60000L;
 
   private static String binary = FFMPEG_BINARY_DEFAULT;
   private String filePath;
@@ -149,9 +149,7 @@ public class FFmpegSilenceDetector {
 
     logger.info("Starting silence detection of {}", filePath);
     String mediaPath = filePath.replaceAll(" ", "\\ ");
-    DecimalFormat decimalFmt = new DecimalFormat("0.000", new DecimalFormatSymbols(Locale.US));
-    String minSilenceLengthInSeconds = decimalFmt.format((double) minSilenceLength / 1000.0);
-    String filter = "silencedetect=noise=" + thresholdDB + ":duration=" + minSilenceLengthInSeconds;
+    String filter = createFilter(thresholdDB, minSilenceLength);
     String[] command = new String[] {binary, "-nostats", "-i", mediaPath, "-filter:a", filter, "-f", "null", "-"};
     String commandline = StringUtils.join(command, " ");
 
@@ -178,17 +176,54 @@ public class FFmpegSilenceDetector {
       reader.close();
     }
 
+    List<MediaSegment> segmentsTmp = createSegments(segmentsStrings, track.getDuration(), minVoiceLength,
+            preSilenceLength);
+    logger.info("Segmentation of track {} yielded {} segments", trackId, segmentsTmp.size());
+    segments = segmentsTmp;
+
+  }
+
+  /**
+   * Creates the silence detection filter for ffmpeg.
+   *
+   * @param thresholdDB
+   *          the volume level below which audio is considered silent, e.g. <code>-40dB</code>
+   * @param minSilenceLength
+   *          the minimum length of a silence in milliseconds
+   * @return the filter description
+   */
+  public static String createFilter(String thresholdDB, long minSilenceLength) {
+    DecimalFormat decimalFmt = new DecimalFormat("0.000", new DecimalFormatSymbols(Locale.US));
+    String minSilenceLengthInSeconds = decimalFmt.format((double) minSilenceLength / 1000.0);
+    return "silencedetect=noise=" + thresholdDB + ":duration=" + minSilenceLengthInSeconds;
+  }
+
+  /**
+   * Creates the non silent segments of a track from the output of the ffmpeg silence detection filter.
+   *
+   * @param segmentsStrings
+   *          the output lines of the silence detection filter
+   * @param duration
+   *          the duration of the track in milliseconds
+   * @param minVoiceLength
+   *          the minimum length of a non silent segment in milliseconds
+   * @param preSilenceLength
+   *          the time in milliseconds a segment starts before the end of the preceding silence
+   * @return the non silent segments
+   */
+  public static List<MediaSegment> createSegments(List<String> segmentsStrings, long duration, long minVoiceLength,
+          long preSilenceLength) {
     /**
      * Example output:
      * [silencedetect @ 0x2968e40] silence_start: 466.486
      * [silencedetect @ 0x2968e40] silence_end: 469.322 | silence_duration: 2.83592
      */
 
-    LinkedList<MediaSegment> segmentsTmp = new LinkedList<MediaSegment>();
+    List<MediaSegment> segmentsTmp = new LinkedList<MediaSegment>();
     if (segmentsStrings.size() == 0) {
       /* No silence found -> Add one segment for the whole track */
       logger.info("No silence found. Adding one large segment.");
-      segmentsTmp.add(new MediaSegment(0, track.getDuration()));
+      segmentsTmp.add(new MediaSegment(0, duration));
     } else {
       long lastSilenceEnd = 0;
       long lastSilenceStart = 0;
@@ -228,16 +263,13 @@ public class FFmpegSilenceDetector {
         }
       }
       /* Add last segment if it is no silence and the segment is long enough */
-      if (lastSilenceStart < lastSilenceEnd && track.getDuration() - lastSilenceEnd > minVoiceLength) {
+      if (lastSilenceStart < lastSilenceEnd && duration - lastSilenceEnd > minVoiceLength) {
         long segmentStart = java.lang.Math.max(0, lastSilenceEnd - preSilenceLength);
-        logger.info("Adding final segment from {} to {}", segmentStart, track.getDuration());
-        segmentsTmp.add(new MediaSegment(segmentStart, track.getDuration()));
+        logger.info("Adding final segment from {} to {}", segmentStart, duration);
+        segmentsTmp.add(new MediaSegment(segmentStart, duration));
       }
     }
-
-    logger.info("Segmentation of track {} yielded {} segments", trackId, segmentsTmp.size());
-    segments = segmentsTmp;
-
+    return segmentsTmp;
   }
 
   private Long parseLong(Properties properties, String key, Long defaultValue) {
@@ -23,6 +23,8 @@ package org.opencastproject.textextractor.api;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Interface for implementations that are able to extract text from an image.
@@ -42,4 +44,24 @@ public interface TextExtractor {
    */
   TextFrame extract(File image) throws IOException, TextExtractorException;
 
+  /**
+   * Extracts text from several images. Implementations may override this to process the images in fewer runs than
+   * calling {@link #extract(File)} for each of them.
+   *
+   * @param images
+   *          the images
+   * @return the text of each image, in the order of the images
+   * @throws IOException
+   *           if a file can't be read
+   * @throws TextExtractorException
+   *           if text extraction fails
+   */
+  default List<TextFrame> extract(List<File> images) throws IOException, TextExtractorException {
+    List<TextFrame> frames = new ArrayList<>(images.size());
+    for (File image : images) {
+      frames.add(extract(image));
+    }
+    return frames;
+  }
+
 }
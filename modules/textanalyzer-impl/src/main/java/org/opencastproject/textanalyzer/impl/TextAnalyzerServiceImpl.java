@@ -70,6 +70,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Media analysis service that takes takes an image and returns text as extracted from that image.
@@ -81,7 +82,7 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
 
   /** List of available operations on jobs */
   private enum Operation {
-    Extract
+    Extract, ExtractBatch
   };
 
   /** Resulting collection in the working file repository */
@@ -154,6 +155,21 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * @see org.opencastproject.textanalyzer.api.TextAnalyzerService#extract(java.util.List)
+   */
+  @Override
+  public Job extract(List<Attachment> images) throws TextAnalyzerException, MediaPackageException {
+    try {
+      return serviceRegistry.createJob(JOB_TYPE, Operation.ExtractBatch.toString(),
+              Arrays.asList(MediaPackageElementParser.getArrayAsXml(images)), analysisJobLoad);
+    } catch (ServiceRegistryException e) {
+      throw new TextAnalyzerException("Unable to create job", e);
+    }
+  }
+
   /**
    * Starts text extraction on the image and returns a receipt containing the final result in the form of an
    * Mpeg7Catalog.
@@ -203,21 +219,7 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
 
       logger.info("Text extraction of {} finished, {} lines found", attachment.getURI(), videoTexts.length);
 
-      URI uri;
-      InputStream in;
-      try {
-        in = mpeg7CatalogService.serialize(mpeg7);
-      } catch (IOException e) {
-        throw new TextAnalyzerException("Error serializing mpeg7", e);
-      }
-      try {
-        uri = workspace.putInCollection(COLLECTION_ID, job.getId() + ".xml", in);
-      } catch (IOException e) {
-        throw new TextAnalyzerException("Unable to put mpeg7 into the workspace", e);
-      }
-      Catalog catalog = (Catalog) MediaPackageElementBuilderFactory.newInstance().newElementBuilder()
-              .newElement(Catalog.TYPE, MediaPackageElements.TEXTS);
-      catalog.setURI(uri);
+      Catalog catalog = storeCatalog(job, mpeg7);
 
       logger.debug("Created MPEG7 catalog for {}", imageUrl);
 
@@ -238,6 +240,106 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
     }
   }
 
+  /**
+   * Starts text extraction on all of the images and returns a single Mpeg7Catalog that contains one video segment
+   * per image, in the order of the images.
+   *
+   * @param job
+   *          the job
+   * @param images
+   *          the elements to analyze
+   * @return the resulting mpeg-7 catalog
+   * @throws TextAnalyzerException
+   */
+  private Catalog extract(Job job, List<Attachment> images) throws TextAnalyzerException {
+    try {
+      List<File> imageFiles = new ArrayList<File>(images.size());
+      List<String> ids = new ArrayList<String>(images.size());
+      for (int i = 0; i < images.size(); i++) {
+        URI imageUrl = images.get(i).getURI();
+        try {
+          imageFiles.add(workspace.get(imageUrl));
+        } catch (NotFoundException e) {
+          throw new TextAnalyzerException("Image " + imageUrl + " not found in workspace", e);
+        } catch (IOException e) {
+          throw new TextAnalyzerException("Unable to access " + imageUrl + " in workspace", e);
+        }
+        ids.add(Objects.toString(images.get(i).getIdentifier(), "image-" + i));
+      }
+
+      logger.info("Starting text extraction from {} images", images.size());
+      List<VideoText[]> videoTexts = analyze(imageFiles, ids);
+
+      // Create a temporal decomposition with one segment per image
+      Mpeg7CatalogImpl mpeg7 = Mpeg7CatalogImpl.newInstance();
+      MediaTime mediaTime = new MediaTimeImpl(0, 0);
+      Video avContent = mpeg7.addVideoContent("images", mediaTime, null);
+      TemporalDecomposition<VideoSegment> temporalDecomposition = (TemporalDecomposition<VideoSegment>) avContent
+              .getTemporalDecomposition();
+
+      int lines = 0;
+      for (int i = 0; i < videoTexts.size(); i++) {
+        VideoSegment videoSegment = temporalDecomposition.createSegment("segment-" + i);
+        videoSegment.setMediaTime(mediaTime);
+        SpatioTemporalDecomposition spatioTemporalDecomposition = videoSegment.createSpatioTemporalDecomposition(true,
+                false);
+        for (VideoText videoText : videoTexts.get(i)) {
+          spatioTemporalDecomposition.addVideoText(videoText);
+        }
+        lines += videoTexts.get(i).length;
+      }
+
+      logger.info("Text extraction of {} images finished, {} lines found", images.size(), lines);
+
+      return storeCatalog(job, mpeg7);
+    } catch (Exception e) {
+      logger.warn("Error extracting text from {} images", images.size(), e);
+      if (e instanceof TextAnalyzerException) {
+        throw (TextAnalyzerException) e;
+      } else {
+        throw new TextAnalyzerException(e);
+      }
+    } finally {
+      for (Attachment image : images) {
+        try {
+          workspace.delete(image.getURI());
+        } catch (Exception e) {
+          logger.warn("Unable to delete temporary text analysis image {}: {}", image.getURI(), e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Puts the mpeg-7 catalog into the workspace.
+   *
+   * @param job
+   *          the job the catalog was created by
+   * @param mpeg7
+   *          the catalog
+   * @return the catalog element
+   * @throws TextAnalyzerException
+   *           if the catalog cannot be stored
+   */
+  private Catalog storeCatalog(Job job, Mpeg7CatalogImpl mpeg7) throws TextAnalyzerException {
+    URI uri;
+    InputStream in;
+    try {
+      in = mpeg7CatalogService.serialize(mpeg7);
+    } catch (IOException e) {
+      throw new TextAnalyzerException("Error serializing mpeg7", e);
+    }
+    try {
+      uri = workspace.putInCollection(COLLECTION_ID, job.getId() + ".xml", in);
+    } catch (IOException e) {
+      throw new TextAnalyzerException("Unable to put mpeg7 into the workspace", e);
+    }
+    Catalog catalog = (Catalog) MediaPackageElementBuilderFactory.newInstance().newElementBuilder()
+            .newElement(Catalog.TYPE, MediaPackageElements.TEXTS);
+    catalog.setURI(uri);
+    return catalog;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -255,6 +357,10 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
           Attachment element = (Attachment) MediaPackageElementParser.getFromXml(arguments.get(0));
           Catalog catalog = extract(job, element);
           return MediaPackageElementParser.getAsXml(catalog);
+        case ExtractBatch:
+          @SuppressWarnings("unchecked")
+          List<Attachment> images = (List<Attachment>) MediaPackageElementParser.getArrayFromXml(arguments.get(0));
+          return MediaPackageElementParser.getAsXml(extract(job, images));
         default:
           throw new IllegalStateException("Don't know how to handle operation '" + operation + "'");
       }
@@ -279,37 +385,70 @@ public class TextAnalyzerServiceImpl extends AbstractJobProducer implements Text
    *           if accessing the image fails
    */
   protected VideoText[] analyze(File imageFile, String id) throws TextAnalyzerException {
+    return analyze(Arrays.asList(imageFile), Arrays.asList(id)).get(0);
+  }
+
+  /**
+   * Returns the video text elements for the given images.
+   *
+   * @param imageFiles
+   *          the images
+   * @param ids
+   *          the video text id for each image
+   * @return the video text found on each image, in the order of the images
+   * @throws TextAnalyzerException
+   *           if accessing the images fails
+   */
+  protected List<VideoText[]> analyze(List<File> imageFiles, List<String> ids) throws TextAnalyzerException {
 
     /* Call the text extractor implementation to extract the text from the
-     * provided image file */
-    List<VideoText> videoTexts = new ArrayList<VideoText>();
-    TextFrame textFrame = null;
+     * provided image files */
+    List<TextFrame> textFrames = null;
     try {
-      textFrame = textExtractor.extract(imageFile);
+      textFrames = textExtractor.extract(imageFiles);
     } catch (IOException e) {
-      logger.warn("Error reading image file {}: {}", imageFile, e.getMessage());
+      logger.warn("Error reading image files {}: {}", imageFiles, e.getMessage());
       throw new TextAnalyzerException(e);
     } catch (TextExtractorException e) {
-      logger.warn("Error extracting text from {}: {}", imageFile, e.getMessage());
+      logger.warn("Error extracting text from {}: {}", imageFiles, e.getMessage());
       throw new TextAnalyzerException(e);
     }
 
     /* Get detected text as raw string */
-    int i = 1;
-    for (TextLine line : textFrame.getLines()) {
-      if (line.getText() != null) {
-        VideoText videoText = new VideoTextImpl(id + "-" + i++);
-        videoText.setBoundary(line.getBoundaries());
-        Textual text = dictionaryService.cleanUpText(line.getText());
+    List<List<TextLine>> lines = new ArrayList<List<TextLine>>();
+    List<String> rawTexts = new ArrayList<String>();
+    for (TextFrame textFrame : textFrames) {
+      List<TextLine> frameLines = new ArrayList<TextLine>();
+      for (TextLine line : textFrame.getLines()) {
+        if (line.getText() != null) {
+          frameLines.add(line);
+          rawTexts.add(line.getText());
+        }
+      }
+      lines.add(frameLines);
+    }
+
+    /* Clean up all lines of all images at once */
+    List<Textual> texts = dictionaryService.cleanUpText(rawTexts);
+    List<VideoText[]> result = new ArrayList<VideoText[]>(lines.size());
+    int offset = 0;
+    for (int f = 0; f < lines.size(); f++) {
+      List<TextLine> frameLines = lines.get(f);
+      List<VideoText> videoTexts = new ArrayList<VideoText>();
+      for (int i = 0; i < frameLines.size(); i++) {
+        VideoText videoText = new VideoTextImpl(ids.get(f) + "-" + (i + 1));
+        videoText.setBoundary(frameLines.get(i).getBoundaries());
+        Textual text = texts.get(offset + i);
         if (text != null) {
           videoText.setText(text);
           videoTexts.add(videoText);
         }
       }
+      offset += frameLines.size();
+      result.add(videoTexts.toArray(new VideoText[videoTexts.size()]));
     }
 
-
-    return videoTexts.toArray(new VideoText[videoTexts.size()]);
+    return result;
   }
 
   /**
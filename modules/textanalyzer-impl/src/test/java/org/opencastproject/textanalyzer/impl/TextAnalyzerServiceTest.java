@@ -0,0 +1,218 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+package org.opencastproject.textanalyzer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.opencastproject.dictionary.api.DictionaryService;
+import org.opencastproject.job.api.JobImpl;
+import org.opencastproject.mediapackage.Attachment;
+import org.opencastproject.mediapackage.Catalog;
+import org.opencastproject.mediapackage.MediaPackageElementParser;
+import org.opencastproject.mediapackage.MediaPackageElements;
+import org.opencastproject.mediapackage.attachment.AttachmentImpl;
+import org.opencastproject.metadata.mpeg7.Mpeg7Catalog;
+import org.opencastproject.metadata.mpeg7.Mpeg7CatalogService;
+import org.opencastproject.metadata.mpeg7.Segment;
+import org.opencastproject.metadata.mpeg7.TemporalDecomposition;
+import org.opencastproject.metadata.mpeg7.Textual;
+import org.opencastproject.metadata.mpeg7.TextualImpl;
+import org.opencastproject.metadata.mpeg7.VideoSegment;
+import org.opencastproject.metadata.mpeg7.VideoText;
+import org.opencastproject.textextractor.api.TextExtractor;
+import org.opencastproject.textextractor.api.TextExtractorException;
+import org.opencastproject.textextractor.api.TextFrame;
+import org.opencastproject.textextractor.api.TextLine;
+import org.opencastproject.workspace.api.Workspace;
+
+import org.easymock.EasyMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests the {@link TextAnalyzerServiceImpl}.
+ */
+public class TextAnalyzerServiceTest {
+
+  /** The text frames the text extractor finds, by image file name */
+  private final Map<String, TextFrame> frames = new HashMap<>();
+
+  /** Number of batches passed to the text extractor */
+  private int extractions = 0;
+
+  /** Number of batches passed to the dictionary service */
+  private int cleanUps = 0;
+
+  /** The last catalog stored by the service */
+  private Mpeg7Catalog mpeg7 = null;
+
+  private TextAnalyzerServiceImpl service;
+
+  @Before
+  public void setUp() throws Exception {
+    TextExtractor textExtractor = new TextExtractor() {
+      @Override
+      public TextFrame extract(File image) {
+        return frames.get(image.getName());
+      }
+
+      @Override
+      public List<TextFrame> extract(List<File> images) throws IOException, TextExtractorException {
+        extractions++;
+        return TextExtractor.super.extract(images);
+      }
+    };
+
+    // Capitalizes the text and drops the line "noise"
+    DictionaryService dictionaryService = new DictionaryService() {
+      @Override
+      public Textual cleanUpText(String text) {
+        return "noise".equals(text) ? null : new TextualImpl(text.toUpperCase());
+      }
+
+      @Override
+      public List<Textual> cleanUpText(List<String> texts) {
+        cleanUps++;
+        return DictionaryService.super.cleanUpText(texts);
+      }
+    };
+
+    Workspace workspace = EasyMock.createNiceMock(Workspace.class);
+    EasyMock.expect(workspace.get(EasyMock.anyObject(URI.class))).andAnswer(() -> {
+      URI uri = (URI) EasyMock.getCurrentArguments()[0];
+      return new File(uri.getPath());
+    }).anyTimes();
+    EasyMock.expect(workspace.putInCollection(EasyMock.anyString(), EasyMock.anyString(),
+            EasyMock.anyObject(InputStream.class))).andReturn(URI.create("http://localhost/texts.xml")).anyTimes();
+    EasyMock.replay(workspace);
+
+    service = new TextAnalyzerServiceImpl();
+    service.setTextExtractor(textExtractor);
+    service.setDictionaryService(dictionaryService);
+    service.setWorkspace(workspace);
+    service.setMpeg7CatalogService(new Mpeg7CatalogService() {
+      @Override
+      public InputStream serialize(Mpeg7Catalog catalog) throws IOException {
+        mpeg7 = catalog;
+        return super.serialize(catalog);
+      }
+    });
+  }
+
+  @Test
+  public void testBatchExtractionKeepsTextsWithTheirImages() throws Exception {
+    frames.put("image-1.jpg", frame("Welcome", "noise", "to the lecture"));
+    frames.put("image-2.jpg", frame());
+    frames.put("image-3.jpg", frame(null, "Summary"));
+    List<Attachment> images = Arrays.asList(image("image-1"), image("image-2"), image("image-3"));
+
+    JobImpl job = new JobImpl(1L);
+    job.setOperation("ExtractBatch");
+    job.setArguments(Arrays.asList(MediaPackageElementParser.getArrayAsXml(images)));
+    Catalog catalog = (Catalog) MediaPackageElementParser.getFromXml(service.process(job));
+
+    assertEquals(MediaPackageElements.TEXTS, catalog.getFlavor());
+    assertEquals(URI.create("http://localhost/texts.xml"), catalog.getURI());
+
+    // All images are extracted and cleaned up at once
+    assertEquals(1, extractions);
+    assertEquals(1, cleanUps);
+
+    // One segment per image, each with the texts of its own image
+    List<VideoSegment> segments = getSegments();
+    assertEquals(3, segments.size());
+    assertVideoTexts(segments.get(0), "image-1-1", "WELCOME", "image-1-3", "TO THE LECTURE");
+    assertVideoTexts(segments.get(1));
+    assertVideoTexts(segments.get(2), "image-3-1", "SUMMARY");
+  }
+
+  private List<VideoSegment> getSegments() {
+    TemporalDecomposition<? extends Segment> decomposition = mpeg7.videoContent().next().getTemporalDecomposition();
+    List<VideoSegment> segments = new ArrayList<>();
+    for (Iterator<? extends Segment> i = decomposition.segments(); i.hasNext();) {
+      segments.add((VideoSegment) i.next());
+    }
+    return segments;
+  }
+
+  /**
+   * Asserts that the segment contains exactly the given video texts, as pairs of identifier and text, in order.
+   */
+  private static void assertVideoTexts(VideoSegment segment, String... expected) {
+    VideoText[] videoTexts = segment.getSpatioTemporalDecomposition().getVideoText();
+    assertEquals(expected.length / 2, videoTexts.length);
+    for (int i = 0; i < videoTexts.length; i++) {
+      assertEquals(expected[2 * i], videoTexts[i].getIdentifier());
+      assertEquals(expected[2 * i + 1], videoTexts[i].getText().getText());
+      assertFalse(videoTexts[i].getBoundary().isEmpty());
+    }
+  }
+
+  private static Attachment image(String id) {
+    Attachment image = AttachmentImpl.fromURI(URI.create("http://localhost/" + id + ".jpg"));
+    image.setIdentifier(id);
+    return image;
+  }
+
+  private static TextFrame frame(String... texts) {
+    final TextLine[] lines = new TextLine[texts.length];
+    for (int i = 0; i < texts.length; i++) {
+      final String text = texts[i];
+      final Rectangle boundaries = new Rectangle(10, 20 * (i + 1), 100, 15);
+      lines[i] = new TextLine() {
+        @Override
+        public String getText() {
+          return text;
+        }
+
+        @Override
+        public Rectangle getBoundaries() {
+          return boundaries;
+        }
+      };
+    }
+    return new TextFrame() {
+      @Override
+      public boolean hasText() {
+        return lines.length > 0;
+      }
+
+      @Override
+      public TextLine[] getLines() {
+        return lines;
+      }
+    };
+  }
+
+}
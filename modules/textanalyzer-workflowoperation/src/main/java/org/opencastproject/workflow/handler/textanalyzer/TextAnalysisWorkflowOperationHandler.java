@@ -84,8 +84,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.concurrent.ExecutionException;
 
 /**
@@ -212,7 +210,7 @@ public class TextAnalysisWorkflowOperationHandler extends AbstractWorkflowOperat
 
     // Loop over all existing segment catalogs
     for (Entry<Catalog, Mpeg7Catalog> mapEntry : catalogs.entrySet()) {
-      Map<VideoSegment, Job> jobs = new HashMap<VideoSegment, Job>();
+      Job analysisJob = null;
       List<Attachment> images = new LinkedList<Attachment>();
       Catalog segmentCatalog = mapEntry.getKey();
       try {
@@ -247,7 +245,7 @@ public class TextAnalysisWorkflowOperationHandler extends AbstractWorkflowOperat
         }
 
         // argument array for image extraction
-        long[] times = new long[videoSegments.size()];
+        double[] times = new double[videoSegments.size()];
 
         for (int i = 0; i < videoSegments.size(); i++) {
           VideoSegment videoSegment = videoSegments.get(i);
@@ -270,81 +268,67 @@ public class TextAnalysisWorkflowOperationHandler extends AbstractWorkflowOperat
           times[i] = Math.max(startTimeSeconds + durationSeconds - stabilityThreshold + 1, 0);
         }
 
-        // Have the ocr image(s) created.
-
-        // TODO: Note that the way of having one image extracted after the other is suited for
-        // the ffmpeg-based encoder. When switching to other encoding engines such as gstreamer, it might be preferable
-        // to pass in all timepoints to the image extraction method at once.
-        SortedMap<Long, Job> extractImageJobs = new TreeMap<Long, Job>();
-
-        try {
-          for (long time : times) {
-            extractImageJobs.put(time, composer.image(sourceTrack, IMAGE_EXTRACTION_PROFILE, time));
-          }
-          if (!waitForStatus(extractImageJobs.values().toArray(new Job[extractImageJobs.size()])).isSuccess())
-            throw new WorkflowOperationException("Extracting scene image from " + sourceTrack + " failed");
-          for (Map.Entry<Long, Job> entry : extractImageJobs.entrySet()) {
-            Job job = serviceRegistry.getJob(entry.getValue().getId());
-            Attachment image = (Attachment) MediaPackageElementParser.getFromXml(job.getPayload());
-            images.add(image);
+        if (videoSegments.isEmpty()) {
+          logger.info("Segments catalog {} does not contain any video segments", segmentCatalog);
+        } else {
+          // Have all ocr images created within a single job, so the track is only fetched and opened once
+          try {
+            Job extractImageJob = composer.image(sourceTrack, IMAGE_EXTRACTION_PROFILE, times);
+            if (!waitForStatus(extractImageJob).isSuccess())
+              throw new WorkflowOperationException("Extracting scene images from " + sourceTrack + " failed");
+            Job job = serviceRegistry.getJob(extractImageJob.getId());
+            for (MediaPackageElement image : MediaPackageElementParser.getArrayFromXml(job.getPayload())) {
+              images.add((Attachment) image);
+            }
             totalTimeInQueue += job.getQueueTime();
+          } catch (EncoderException e) {
+            logger.error("Error creating still image(s) from {}", sourceTrack);
+            throw e;
+          }
+          if (images.size() != videoSegments.size()) {
+            throw new WorkflowOperationException("Extracted " + images.size() + " images from " + sourceTrack
+                    + " for " + videoSegments.size() + " segments");
           }
-        } catch (EncoderException e) {
-          logger.error("Error creating still image(s) from {}", sourceTrack);
-          throw e;
-        }
-
-        // Run text extraction on each of the images
-        Iterator<VideoSegment> it = videoSegments.iterator();
-        for (MediaPackageElement element : images) {
-          Attachment image = (Attachment) element;
-          VideoSegment videoSegment = it.next();
-          jobs.put(videoSegment, analysisService.extract(image));
-        }
-
-        // Wait for all jobs to be finished
-        if (!waitForStatus(jobs.values().toArray(new Job[jobs.size()])).isSuccess()) {
-          throw new WorkflowOperationException("Text extraction failed on images from " + sourceTrack);
-        }
-
-        // Process the text extraction results
-        for (Map.Entry<VideoSegment, Job> entry : jobs.entrySet()) {
-          Job job = serviceRegistry.getJob(entry.getValue().getId());
-          totalTimeInQueue += job.getQueueTime();
 
-          VideoSegment videoSegment = entry.getKey();
-          MediaDuration segmentDuration = videoSegment.getMediaTime().getMediaDuration();
-          Catalog catalog = (Catalog) MediaPackageElementParser.getFromXml(job.getPayload());
-          if (catalog == null) {
-            logger.warn("Text analysis did not return a valid mpeg7 for segment {}", videoSegment);
-            continue;
+          // Run text extraction on all of the images within a single job as well
+          analysisJob = analysisService.extract(images);
+          if (!waitForStatus(analysisJob).isSuccess()) {
+            throw new WorkflowOperationException("Text extraction failed on images from " + sourceTrack);
           }
-          Mpeg7Catalog videoTextCatalog = loadMpeg7Catalog(catalog);
-          if (videoTextCatalog == null)
-            throw new IllegalStateException("Text analysis service did not return a valid mpeg7");
+          analysisJob = serviceRegistry.getJob(analysisJob.getId());
+          totalTimeInQueue += analysisJob.getQueueTime();
 
-          // Add the spatiotemporal decompositions from the new catalog to the existing video segments
+          // Process the text extraction results, which contain one segment per image
+          Catalog analysisCatalog = (Catalog) MediaPackageElementParser.getFromXml(analysisJob.getPayload());
+          if (analysisCatalog == null)
+            throw new IllegalStateException("Text analysis service did not return a valid mpeg7");
+          Mpeg7Catalog videoTextCatalog = loadMpeg7Catalog(analysisCatalog);
           Iterator<Video> videoTextContents = videoTextCatalog.videoContent();
           if (videoTextContents == null || !videoTextContents.hasNext()) {
-            logger.debug("Text analysis was not able to extract any text from {}", job.getArguments().get(0));
-            break;
-          }
-
-          try {
-            Video textVideoContent = videoTextContents.next();
-            VideoSegment textVideoSegment = (VideoSegment) textVideoContent.getTemporalDecomposition().segments()
-                    .next();
-            VideoText[] videoTexts = textVideoSegment.getSpatioTemporalDecomposition().getVideoText();
-            SpatioTemporalDecomposition std = videoSegment.createSpatioTemporalDecomposition(true, false);
-            for (VideoText videoText : videoTexts) {
-              MediaTime mediaTime = new MediaTimeImpl(new MediaRelTimePointImpl(0), segmentDuration);
-              SpatioTemporalLocator locator = new SpatioTemporalLocatorImpl(mediaTime);
-              videoText.setSpatioTemporalLocator(locator);
-              std.addVideoText(videoText);
+            logger.debug("Text analysis was not able to extract any text from the images of {}", sourceTrack);
+          } else {
+            Iterator<? extends Segment> textSegments = videoTextContents.next().getTemporalDecomposition().segments();
+            for (VideoSegment videoSegment : videoSegments) {
+              if (!textSegments.hasNext()) {
+                logger.warn("Text analysis did not return a segment for {}", videoSegment);
+                break;
+              }
+              try {
+                VideoSegment textVideoSegment = (VideoSegment) textSegments.next();
+                MediaDuration segmentDuration = videoSegment.getMediaTime().getMediaDuration();
+                VideoText[] videoTexts = textVideoSegment.getSpatioTemporalDecomposition().getVideoText();
+                SpatioTemporalDecomposition std = videoSegment.createSpatioTemporalDecomposition(true, false);
+                for (VideoText videoText : videoTexts) {
+                  MediaTime mediaTime = new MediaTimeImpl(new MediaRelTimePointImpl(0), segmentDuration);
+                  SpatioTemporalLocator locator = new SpatioTemporalLocatorImpl(mediaTime);
+                  videoText.setSpatioTemporalLocator(locator);
+                  std.addVideoText(videoText);
+                }
+              } catch (Exception e) {
+                logger.warn("The mpeg-7 structure returned by the text analyzer is not what is expected", e);
+                continue;
+              }
             }
-          } catch (Exception e) {
-            logger.warn("The mpeg-7 structure returned by the text analyzer is not what is expected", e);
-            continue;
           }
         }
 
@@ -384,20 +368,20 @@ public class TextAnalysisWorkflowOperationHandler extends AbstractWorkflowOperat
           }
         }
         // Remove the temporary text
-        for (Job j : jobs.values()) {
+        if (analysisJob != null) {
           Catalog catalog = null;
           try {
-            Job job = serviceRegistry.getJob(j.getId());
-            if (!Job.Status.FINISHED.equals(job.getStatus()))
-              continue;
-            catalog = (Catalog) MediaPackageElementParser.getFromXml(job.getPayload());
-            if (catalog != null)
-              workspace.delete(catalog.getURI());
+            Job job = serviceRegistry.getJob(analysisJob.getId());
+            if (Job.Status.FINISHED.equals(job.getStatus())) {
+              catalog = (Catalog) MediaPackageElementParser.getFromXml(job.getPayload());
+              if (catalog != null)
+                workspace.delete(catalog.getURI());
+            }
           } catch (Exception e) {
             if (catalog != null) {
               logger.warn("Unable to delete temporary text file {}: {}", catalog.getURI(), e);
             } else {
-              logger.warn("Unable to parse textextraction payload of job {}", j.getId());
+              logger.warn("Unable to parse textextraction payload of job {}", analysisJob.getId());
             }
           }
         }
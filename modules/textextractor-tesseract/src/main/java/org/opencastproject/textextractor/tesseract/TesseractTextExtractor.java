@@ -42,8 +42,13 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Commandline wrapper around tesseract' <code>tesseract</code> command.
@@ -69,9 +74,19 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
   /** Binary of the tesseract command */
   protected String binary = null;
 
+  /** Configuration property that defines the number of tesseract processes to run in parallel on a batch of images */
+  public static final String TESSERACT_WORKERS_CONFIG_KEY =
+    "org.opencastproject.textanalyzer.tesseract.workers";
+
+  /** Default number of tesseract processes to run in parallel on a batch of images */
+  public static final int DEFAULT_WORKERS = 2;
+
   /** Additional options for the tesseract command */
   protected String addOptions = "";
 
+  /** Number of tesseract processes to run in parallel on a batch of images */
+  protected int workers = DEFAULT_WORKERS;
+
   /** Tesseract stderr lines not to log */
   private static final List<String> stderrFilter = java.util.Arrays.asList(
           "Page",
@@ -122,6 +137,25 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
     return addOptions;
   }
 
+  /**
+   * Sets the number of tesseract processes to run in parallel on a batch of images.
+   *
+   * @param workers
+   *          the number of processes
+   */
+  public void setWorkers(int workers) {
+    this.workers = Math.max(1, workers);
+  }
+
+  /**
+   * Returns the number of tesseract processes to run in parallel on a batch of images.
+   *
+   * @return the number of processes
+   */
+  public int getWorkers() {
+    return workers;
+  }
+
   /**
    * Sets the path to the <code>tesseract</code> binary.
    *
@@ -144,24 +178,9 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
     InputStream is = null;
     File outputFile = null;
     File outputFileBase = new File(image.getParentFile(), FilenameUtils.getBaseName(image.getName()));
-    // Run tesseract
-    String opts = getAnalysisOptions(image, outputFileBase);
-    logger.info("Running Tesseract: {} {}", binary, opts);
     try {
-      final int exitCode = ProcessRunner.run(ProcessRunner.mk(binary, opts), fnLogDebug, new Pred<String>() {
-        @Override public Boolean apply(String line) {
-          final String trimmedLine = line.trim();
-          if (stderrFilter.parallelStream().noneMatch(trimmedLine::startsWith)) {
-            logger.warn(line);
-          }
-          return true;
-        }
-      });
-      if (exitCode != 0) {
-        throw new TextExtractorException("Text analyzer " + binary + " exited with code " + exitCode);
-      }
+      outputFile = run(image, outputFileBase);
       // Read the tesseract output file
-      outputFile = new File(outputFileBase.getAbsolutePath() + ".txt");
       is = new FileInputStream(outputFile);
       TextFrame textFrame = TesseractTextFrame.parse(is);
       is.close();
@@ -174,6 +193,128 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * The images are split into one part per worker. Each part is passed to a single tesseract process as a list of
+   * files, so that tesseract loads its language data only once per part instead of once per image.
+   *
+   * @see org.opencastproject.textextractor.api.TextExtractor#extract(java.util.List)
+   */
+  @Override
+  public List<TextFrame> extract(List<File> images) throws TextExtractorException {
+    if (images.size() < 2) {
+      List<TextFrame> frames = new ArrayList<TextFrame>(images.size());
+      for (File image : images) {
+        frames.add(extract(image));
+      }
+      return frames;
+    }
+
+    int runs = Math.min(workers, images.size());
+    int partSize = (images.size() + runs - 1) / runs;
+    ExecutorService executor = Executors.newFixedThreadPool(runs);
+    try {
+      List<Future<List<TextFrame>>> parts = new ArrayList<Future<List<TextFrame>>>();
+      for (int i = 0; i < images.size(); i += partSize) {
+        final List<File> part = images.subList(i, Math.min(images.size(), i + partSize));
+        parts.add(executor.submit(() -> extractInSingleRun(part)));
+      }
+      List<TextFrame> frames = new ArrayList<TextFrame>(images.size());
+      for (Future<List<TextFrame>> part : parts) {
+        frames.addAll(part.get());
+      }
+      return frames;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TextExtractorException("Interrupted while running text extractor " + binary, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof TextExtractorException) {
+        throw (TextExtractorException) e.getCause();
+      }
+      throw new TextExtractorException("Error running text extractor " + binary, e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Extracts the text from several images using a single tesseract process.
+   *
+   * @param images
+   *          the images
+   * @return the text of each image, in the order of the images
+   * @throws TextExtractorException
+   *           if text extraction fails
+   */
+  private List<TextFrame> extractInSingleRun(List<File> images) throws TextExtractorException {
+    File listFile = null;
+    File outputFile = null;
+    try {
+      listFile = File.createTempFile("tesseract-", ".lst");
+      List<String> paths = new ArrayList<String>(images.size());
+      for (File image : images) {
+        paths.add(image.getAbsolutePath());
+      }
+      FileUtils.writeLines(listFile, "UTF-8", paths);
+
+      File outputFileBase = new File(listFile.getParentFile(), FilenameUtils.getBaseName(listFile.getName()));
+      outputFile = run(listFile, outputFileBase);
+      List<TextFrame> frames;
+      try (InputStream is = new FileInputStream(outputFile)) {
+        frames = TesseractTextFrame.parsePages(is);
+      }
+      if (frames.size() == images.size()) {
+        return frames;
+      }
+
+      // Without a reliable page separator we cannot tell which text belongs to which image
+      logger.warn("Tesseract returned {} pages for {} images, analyzing them one by one", frames.size(),
+              images.size());
+      frames = new ArrayList<TextFrame>(images.size());
+      for (File image : images) {
+        frames.add(extract(image));
+      }
+      return frames;
+    } catch (IOException e) {
+      throw new TextExtractorException("Error running text extractor " + binary, e);
+    } finally {
+      FileUtils.deleteQuietly(listFile);
+      FileUtils.deleteQuietly(outputFile);
+    }
+  }
+
+  /**
+   * Runs tesseract on the given input.
+   *
+   * @param input
+   *          the image or a file listing one image per line
+   * @param outputFileBase
+   *          the output file without the extension
+   * @return the text file written by tesseract
+   * @throws IOException
+   *           if tesseract could not be run
+   * @throws TextExtractorException
+   *           if tesseract failed
+   */
+  private File run(File input, File outputFileBase) throws IOException, TextExtractorException {
+    String opts = getAnalysisOptions(input, outputFileBase);
+    logger.info("Running Tesseract: {} {}", binary, opts);
+    final int exitCode = ProcessRunner.run(ProcessRunner.mk(binary, opts), fnLogDebug, new Pred<String>() {
+      @Override public Boolean apply(String line) {
+        final String trimmedLine = line.trim();
+        if (stderrFilter.parallelStream().noneMatch(trimmedLine::startsWith)) {
+          logger.warn(line);
+        }
+        return true;
+      }
+    });
+    if (exitCode != 0) {
+      throw new TextExtractorException("Text analyzer " + binary + " exited with code " + exitCode);
+    }
+    return new File(outputFileBase.getAbsolutePath() + ".txt");
+  }
+
   /**
    * The only parameter to <code>tesseract</code> is the filename, so this is what this method returns.
    *
@@ -204,6 +345,21 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
       logger.info("Setting additional options for Tesseract path to '{}'", addopts);
       this.addOptions = addopts;
     }
+    /* Set the number of tesseract processes for batches of images */
+    String w = (String) properties.get(TESSERACT_WORKERS_CONFIG_KEY);
+    if (w != null) {
+      configureWorkers(w);
+    }
+  }
+
+  private void configureWorkers(String w) {
+    try {
+      setWorkers(Integer.parseInt(w.trim()));
+      logger.info("Setting number of Tesseract workers to {}", workers);
+    } catch (NumberFormatException e) {
+      logger.warn("Invalid number of Tesseract workers '{}', using {}", w, DEFAULT_WORKERS);
+      this.workers = DEFAULT_WORKERS;
+    }
   }
 
   public void activate(ComponentContext cc) {
@@ -224,6 +380,10 @@ public class TesseractTextExtractor implements TextExtractor, ManagedService {
       logger.info("No additional options for Tesseract");
       this.addOptions = "";
     }
+    String w = (String) cc.getBundleContext().getProperty(TESSERACT_WORKERS_CONFIG_KEY);
+    if (w != null) {
+      configureWorkers(w);
+    }
   }
 
   private static final Pred<String> fnLogDebug = new Pred<String>() {
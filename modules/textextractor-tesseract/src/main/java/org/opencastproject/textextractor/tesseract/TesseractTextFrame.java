@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class represents a tesseract output frame that holds a number of lines found on an image. Note that Tesseract
@@ -36,6 +37,9 @@ import java.util.ArrayList;
  */
 public class TesseractTextFrame implements TextFrame {
 
+  /** The character tesseract terminates each page of a multi page output with */
+  public static final char PAGE_SEPARATOR = '\f';
+
   /** Words found on an output frame */
   protected ArrayList<TextLine> lines = new ArrayList<TextLine>();
 
@@ -60,6 +64,49 @@ public class TesseractTextFrame implements TextFrame {
     return textFrame;
   }
 
+  /**
+   * Parses the output of a tesseract run over several images, where the text of each image is terminated by a
+   * {@link #PAGE_SEPARATOR}.
+   *
+   * @param is
+   *          the input stream
+   * @return one text frame per page, in the order of the pages
+   * @throws IOException
+   *           if reading the tesseract output fails
+   */
+  public static List<TextFrame> parsePages(InputStream is) throws IOException {
+    BufferedReader in = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+    List<TextFrame> pages = new ArrayList<TextFrame>();
+    TesseractTextFrame page = new TesseractTextFrame();
+    boolean pageStarted = false;
+    String line;
+
+    while ((line = in.readLine()) != null) {
+      int separator = line.indexOf(PAGE_SEPARATOR);
+      while (separator >= 0) {
+        if (separator > 0) {
+          page.lines.add(new TesseractLine(line.substring(0, separator)));
+        }
+        pages.add(page);
+        page = new TesseractTextFrame();
+        pageStarted = false;
+        line = line.substring(separator + 1);
+        separator = line.indexOf(PAGE_SEPARATOR);
+      }
+      // The remainder of a separator line only belongs to the next page if there is text
+      if (pageStarted || !line.isEmpty()) {
+        page.lines.add(new TesseractLine(line));
+        pageStarted = true;
+      }
+    }
+
+    // Older tesseract versions do not terminate the last page
+    if (pageStarted) {
+      pages.add(page);
+    }
+    return pages;
+  }
+
   /**
    * {@inheritDoc}
    *
@@ -39,6 +39,8 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Test case for class {@link TesseractTextExtractor}.
@@ -145,4 +147,29 @@ public class TesseractTextExtractorTest {
     assertTrue(frame.hasText());
   }
 
+  /**
+   * Test method for {@link org.opencastproject.textextractor.tesseract.TesseractTextExtractor#extract(List)}.
+   */
+  @Test
+  public void testAnalyzeBatch() throws Exception {
+    if (!tesseractInstalled)
+      return;
+
+    File secondFile = File.createTempFile("ocrtest", ".jpg");
+    File thirdFile = File.createTempFile("ocrtest", ".jpg");
+    try {
+      FileUtils.copyFile(testFile, secondFile);
+      FileUtils.copyFile(testFile, thirdFile);
+      analyzer.setWorkers(2);
+      List<TextFrame> frames = analyzer.extract(Arrays.asList(testFile, secondFile, thirdFile));
+      assertEquals(3, frames.size());
+      for (TextFrame frame : frames) {
+        assertTrue(frame.hasText());
+      }
+    } finally {
+      FileUtils.deleteQuietly(secondFile);
+      FileUtils.deleteQuietly(thirdFile);
+    }
+  }
+
 }
@@ -32,7 +32,10 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Test case for class {@link TesseractTextFrame}.
@@ -83,4 +86,24 @@ public class TesseractTextFrameTest {
     assertFalse((new TesseractTextFrame()).hasText());
   }
 
+  /**
+   * Test method for {@link org.opencastproject.textextractor.tesseract.TesseractTextFrame#parsePages(InputStream)}.
+   */
+  @Test
+  public void testParsePages() throws Exception {
+    String output = text + "\nClimate Scene\n\f\fSecond page\n\f";
+    List<TextFrame> pages = TesseractTextFrame.parsePages(
+            new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(3, pages.size());
+    assertEquals(linesOnFrame, pages.get(0).getLines().length);
+    assertEquals(text, pages.get(0).getLines()[0].getText());
+    assertFalse(pages.get(1).hasText());
+    assertEquals("Second page", pages.get(2).getLines()[0].getText());
+
+    // The last page may not be terminated
+    pages = TesseractTextFrame.parsePages(new ByteArrayInputStream("One\fTwo".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(2, pages.size());
+    assertEquals("Two", pages.get(1).getLines()[0].getText());
+  }
+
 }
@@ -26,6 +26,8 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -37,6 +39,15 @@ public final class SHA256Util {
   /** The algorithm to use to encode the HMAC. */
   private static final String ALGORITHM = "HmacSHA256";
 
+  /** The maximum number of keys to keep initialized {@link Mac} instances for in each thread. */
+  private static final int MAX_KEYS_PER_THREAD = 16;
+
+  /**
+   * Initialized {@link Mac} instances by their secret key. A {@link Mac} is not thread safe but can be reused after
+   * {@link Mac#doFinal(byte[])}, so each thread keeps its own instances.
+   */
+  private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
   private SHA256Util() {
   }
 
@@ -57,10 +68,7 @@ public final class SHA256Util {
    */
   public static String digest(String plainText, String secretKey) throws NoSuchAlgorithmException, InvalidKeyException,
           UnsupportedEncodingException {
-    SecretKeySpec key = new SecretKeySpec((secretKey).getBytes(StandardCharsets.UTF_8), ALGORITHM);
-    Mac mac = Mac.getInstance(ALGORITHM);
-    mac.init(key);
-    byte[] bytes = mac.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+    byte[] bytes = getMac(secretKey).doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
     // Convert raw bytes to Hex
     byte[] hexBytes = new Hex().encode(bytes);
@@ -68,4 +76,22 @@ public final class SHA256Util {
     // Covert array of Hex bytes to a String
     return new String(hexBytes, "UTF-8");
   }
+
+  /**
+   * Get the {@link Mac} of the current thread for a secret key, creating it if needed.
+   */
+  private static Mac getMac(String secretKey) throws NoSuchAlgorithmException, InvalidKeyException {
+    Map<String, Mac> macs = MACS.get();
+    Mac mac = macs.get(secretKey);
+    if (mac == null) {
+      // Keys are rarely changed, so simply start over instead of tracking which key was used least recently
+      if (macs.size() >= MAX_KEYS_PER_THREAD) {
+        macs.clear();
+      }
+      mac = Mac.getInstance(ALGORITHM);
+      mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+      macs.put(secretKey, mac);
+    }
+    return mac;
+  }
 }
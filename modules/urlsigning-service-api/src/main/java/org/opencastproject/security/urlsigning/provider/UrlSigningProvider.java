@@ -34,6 +34,19 @@ public interface UrlSigningProvider {
    */
   boolean accepts(String baseUrl);
 
+  /**
+   * Returns an identifier of the key the implementation signs the {@code baseUrl} with. The identifier changes whenever
+   * the key is configured anew, so URLs signed with an identical identifier may be used interchangeably.
+   *
+   * @param baseUrl
+   *          The base URL of the resource that needs to be signed
+   * @return The key identifier or {@code null} if the provider does not accept to sign the URL or cannot identify the
+   *         key.
+   */
+  default String getKeyId(String baseUrl) {
+    return null;
+  }
+
   /**
    * Creates the necessary query string to sign a resource using the given {@link Policy}
    *
@@ -35,6 +35,19 @@ public interface UrlSigningService {
    */
   boolean accepts(String baseUrl);
 
+  /**
+   * Returns an identifier of the key the signing service signs the {@code baseUrl} with. The identifier changes
+   * whenever the key is configured anew, so URLs signed with an identical identifier may be used interchangeably.
+   *
+   * @param baseUrl
+   *          The base URL of the resource that needs to be signed
+   * @return The key identifier or {@code null} if the signing service does not accept to sign the URL or cannot
+   *         identify the key.
+   */
+  default String getKeyId(String baseUrl) {
+    return null;
+  }
+
   /**
    * Create a secure signature for a resource by adding the validUntilDuration to the current time and optionally adding
    * the validFromDuration to the current time to create the available and expiry dates for the signature.
@@ -26,6 +26,11 @@ import org.opencastproject.security.urlsigning.exception.UrlSigningException;
 import org.opencastproject.security.urlsigning.service.UrlSigningService;
 import org.opencastproject.security.urlsigning.utils.UrlSigningServiceOsgiUtil;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.joda.time.DateTime;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
@@ -34,6 +39,8 @@ import org.slf4j.LoggerFactory;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Dictionary;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of a {@link MediaPackageSerializer} that will securely sign urls of a Mediapackage.
@@ -55,6 +62,25 @@ public class SigningMediaPackageSerializer implements MediaPackageSerializer, Ma
   /** Signing of the URL should probably be something of the last things to do */
   public static final int RANKING = -1000;
 
+  /** The key in the configuration for the length of the time windows that signed URLs expire in. */
+  public static final String URL_SIGNING_BUCKET_SECONDS_KEY = "url.signing.bucket.seconds";
+
+  /** The default length of the time windows that signed URLs expire in. 5 Minutes. */
+  public static final long DEFAULT_URL_SIGNING_BUCKET_SECONDS = 5 * 60;
+
+  /** The maximum number of signed URLs to remember */
+  private static final long SIGNED_URL_CACHE_SIZE = 10000;
+
+  /**
+   * Signed URLs do not expire exactly after {@link #expireSeconds} but at the end of the time window of this length
+   * that point in time falls in. All URLs signed for the same client within a window are identical, which allows
+   * reusing them and caching responses containing them. A value of 0 makes every signature expire individually.
+   */
+  private long bucketSeconds = DEFAULT_URL_SIGNING_BUCKET_SECONDS;
+
+  /** The signed URLs by expiry, signing key, client IP and URL */
+  private volatile Cache<String, String> signedUrls = createCache(DEFAULT_URL_SIGNING_BUCKET_SECONDS);
+
   /**
    * Creates a new and unconfigured package serializer that will not be able to perform any redirecting.
    */
@@ -78,6 +104,16 @@ public class SigningMediaPackageSerializer implements MediaPackageSerializer, Ma
     expireSeconds = UrlSigningServiceOsgiUtil.getUpdatedSigningExpiration(properties, this.getClass().getSimpleName());
     signWithClientIP = UrlSigningServiceOsgiUtil.getUpdatedSignWithClientIP(properties,
             this.getClass().getSimpleName());
+    bucketSeconds = Math.max(0, NumberUtils.toLong(
+            Objects.toString(properties.get(URL_SIGNING_BUCKET_SECONDS_KEY), null), DEFAULT_URL_SIGNING_BUCKET_SECONDS));
+    signedUrls = createCache(bucketSeconds);
+    logger.debug("Signed URLs expire at the end of time windows of {} seconds", bucketSeconds);
+  }
+
+  private static Cache<String, String> createCache(long bucketSeconds) {
+    // Entries are of no use once their time window is over
+    return CacheBuilder.newBuilder().maximumSize(bucketSeconds > 0 ? SIGNED_URL_CACHE_SIZE : 0)
+            .expireAfterWrite(Math.max(bucketSeconds, 1), TimeUnit.SECONDS).build();
   }
 
   /**
@@ -104,6 +140,18 @@ public class SigningMediaPackageSerializer implements MediaPackageSerializer, Ma
     return sign(uri);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * Signed URLs depend on the time window they expire in and, if signing with the client IP, on the client.
+   */
+  @Override
+  public String getDecodingScope() {
+    if (bucketSeconds <= 0)
+      return null;
+    return getValidUntil() + "@" + Objects.toString(getClientIP(), "");
+  }
+
   @Override
   public int getRanking() {
     return RANKING;
@@ -128,11 +176,22 @@ public class SigningMediaPackageSerializer implements MediaPackageSerializer, Ma
     String path = uri.toString();
     if (urlSigningService != null && urlSigningService.accepts(path)) {
       try {
-        String clientIP = null;
-        if (signWithClientIP) {
-          clientIP = securityService.getUserIP();
+        String clientIP = getClientIP();
+        if (bucketSeconds > 0) {
+          long validUntil = getValidUntil();
+          // URLs signed with an unknown key cannot be reused as the key may have changed in the meantime
+          String keyId = urlSigningService.getKeyId(path);
+          String key = validUntil + "@" + keyId + "@" + Objects.toString(clientIP, "") + "@" + path;
+          String signedPath = keyId == null ? null : signedUrls.getIfPresent(key);
+          if (signedPath == null) {
+            signedPath = urlSigningService.sign(path, new DateTime(validUntil), null, clientIP);
+            if (keyId != null)
+              signedUrls.put(key, signedPath);
+          }
+          path = signedPath;
+        } else {
+          path = urlSigningService.sign(path, expireSeconds, null, clientIP);
         }
-        path = urlSigningService.sign(path, expireSeconds, null, clientIP);
       } catch (UrlSigningException e) {
         logger.debug("Unable to sign url '" + path + "' so not adding a signed query string.");
       }
@@ -140,8 +199,30 @@ public class SigningMediaPackageSerializer implements MediaPackageSerializer, Ma
     return new URI(path);
   }
 
+  /**
+   * Returns the IP address of the client to restrict signed URLs to, or <code>null</code> if not signing with the
+   * client IP.
+   */
+  private String getClientIP() {
+    return signWithClientIP ? securityService.getUserIP() : null;
+  }
+
+  /**
+   * Returns the end of the time window in milliseconds that URLs signed now expire in. The window is the first one
+   * ending after the configured expiry duration.
+   */
+  private long getValidUntil() {
+    long bucketMillis = TimeUnit.SECONDS.toMillis(bucketSeconds);
+    long expiry = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expireSeconds);
+    return (expiry / bucketMillis + 1) * bucketMillis;
+  }
+
   protected Long getExpirationSeconds() {
     return expireSeconds;
   }
 
+  protected Long getBucketSeconds() {
+    return bucketSeconds;
+  }
+
 }
@@ -49,6 +49,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public abstract class AbstractUrlSigningProvider implements UrlSigningProvider, ManagedService {
@@ -67,6 +68,9 @@ public abstract class AbstractUrlSigningProvider implements UrlSigningProvider,
   /** The security service */
   protected SecurityService securityService;
 
+  /** Counter of the configurations of all signing providers, identifying the keys of each configuration */
+  private static final AtomicLong configurations = new AtomicLong();
+
   /**
    * @return The method that an implementation class will convert base urls to resource urls.
    */
@@ -84,6 +88,7 @@ public abstract class AbstractUrlSigningProvider implements UrlSigningProvider,
     private String key = null;
     private String url = null;
     private String organization = ANY_ORGANIZATION;
+    private long configuration;
   }
 
   /** The map to contain the list of keys, their ids and the urls they match. */
@@ -180,6 +185,9 @@ public abstract class AbstractUrlSigningProvider implements UrlSigningProvider,
             .filter(entry -> entry.getValue().key != null && entry.getValue().url != null)
             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
+    long configuration = configurations.incrementAndGet();
+    keys.values().forEach(keyEntry -> keyEntry.configuration = configuration);
+
     // Has the rewriter been fully configured
     if (keys.size() == 0) {
       getLogger().info("{} configured to not sign any urls.", toString());
@@ -211,6 +219,15 @@ public abstract class AbstractUrlSigningProvider implements UrlSigningProvider,
             .orElse(false);
   }
 
+  @Override
+  public String getKeyId(String baseUrl) {
+    if (!accepts(baseUrl)) {
+      return null;
+    }
+    // The secret of a key may change with every configuration
+    return getKeyEntry(baseUrl).map(entry -> entry.getKey() + "#" + entry.getValue().configuration).orElse(null);
+  }
+
   @Override
   public String sign(Policy policy) throws UrlSigningException {
     if (!accepts(policy.getBaseUrl())) {
@@ -70,6 +70,16 @@ public class UrlSigningServiceImpl implements UrlSigningService {
     return false;
   }
 
+  @Override
+  public String getKeyId(String baseUrl) {
+    for (final UrlSigningProvider provider : signingProviders) {
+      if (provider.accepts(baseUrl)) {
+        return provider.getKeyId(baseUrl);
+      }
+    }
+    return null;
+  }
+
   @Override
   public String sign(final String baseUrl, final Long validUntilDuration, final Long validFromDuration,
           final String ipAddr) throws UrlSigningException {
@@ -21,12 +21,18 @@
 package org.opencastproject.security.urlsigning;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
+import org.opencastproject.security.urlsigning.service.UrlSigningService;
 import org.opencastproject.security.urlsigning.utils.UrlSigningServiceOsgiUtil;
 
+import org.easymock.EasyMock;
+import org.joda.time.DateTime;
 import org.junit.Test;
 import org.osgi.service.cm.ConfigurationException;
 
+import java.net.URI;
 import java.util.Properties;
 
 public class SigningMediaPackageSerializerTest {
@@ -41,5 +47,81 @@ public class SigningMediaPackageSerializerTest {
     properties.put(UrlSigningServiceOsgiUtil.URL_SIGNING_EXPIRES_DURATION_SECONDS_KEY, testValue.toString());
     serializer.updated(properties);
     assertEquals(testValue, serializer.getExpirationSeconds());
+    assertEquals(new Long(SigningMediaPackageSerializer.DEFAULT_URL_SIGNING_BUCKET_SECONDS),
+            serializer.getBucketSeconds());
+    properties.put(SigningMediaPackageSerializer.URL_SIGNING_BUCKET_SECONDS_KEY, "0");
+    serializer.updated(properties);
+    assertEquals(new Long(0), serializer.getBucketSeconds());
+    assertNull(serializer.getDecodingScope());
+  }
+
+  @Test
+  public void testSignedUrlsAreReusedWithinBucket() throws Exception {
+    String url = "http://localhost/files/track.mp4";
+    UrlSigningService urlSigningService = EasyMock.createMock(UrlSigningService.class);
+    EasyMock.expect(urlSigningService.accepts(url)).andReturn(true).anyTimes();
+    EasyMock.expect(urlSigningService.getKeyId(url)).andReturn("key").anyTimes();
+    EasyMock.expect(urlSigningService.sign(EasyMock.eq(url), EasyMock.anyObject(DateTime.class),
+            EasyMock.isNull(DateTime.class), EasyMock.isNull(String.class))).andReturn(url + "?signed").once();
+    EasyMock.replay(urlSigningService);
+
+    SigningMediaPackageSerializer serializer = new SigningMediaPackageSerializer();
+    serializer.setUrlSigningService(urlSigningService);
+    Properties properties = new Properties();
+    properties.put(SigningMediaPackageSerializer.URL_SIGNING_BUCKET_SECONDS_KEY, "3600");
+    serializer.updated(properties);
+
+    assertEquals(new URI(url + "?signed"), serializer.decodeURI(new URI(url)));
+    assertEquals(new URI(url + "?signed"), serializer.decodeURI(new URI(url)));
+    assertNotNull(serializer.getDecodingScope());
+    EasyMock.verify(urlSigningService);
+  }
+
+  @Test
+  public void testSignedUrlsAreNotReusedAfterKeyChange() throws Exception {
+    String url = "http://localhost/files/track.mp4";
+    UrlSigningService urlSigningService = EasyMock.createMock(UrlSigningService.class);
+    EasyMock.expect(urlSigningService.accepts(url)).andReturn(true).anyTimes();
+    EasyMock.expect(urlSigningService.getKeyId(url)).andReturn("old-key").times(2);
+    EasyMock.expect(urlSigningService.getKeyId(url)).andReturn("new-key").times(2);
+    EasyMock.expect(urlSigningService.sign(EasyMock.eq(url), EasyMock.anyObject(DateTime.class),
+            EasyMock.isNull(DateTime.class), EasyMock.isNull(String.class))).andReturn(url + "?old").once();
+    EasyMock.expect(urlSigningService.sign(EasyMock.eq(url), EasyMock.anyObject(DateTime.class),
+            EasyMock.isNull(DateTime.class), EasyMock.isNull(String.class))).andReturn(url + "?new").once();
+    EasyMock.replay(urlSigningService);
+
+    SigningMediaPackageSerializer serializer = new SigningMediaPackageSerializer();
+    serializer.setUrlSigningService(urlSigningService);
+    Properties properties = new Properties();
+    properties.put(SigningMediaPackageSerializer.URL_SIGNING_BUCKET_SECONDS_KEY, "3600");
+    serializer.updated(properties);
+
+    assertEquals(new URI(url + "?old"), serializer.decodeURI(new URI(url)));
+    assertEquals(new URI(url + "?old"), serializer.decodeURI(new URI(url)));
+    // The provider now signs the URL with another key
+    assertEquals(new URI(url + "?new"), serializer.decodeURI(new URI(url)));
+    assertEquals(new URI(url + "?new"), serializer.decodeURI(new URI(url)));
+    EasyMock.verify(urlSigningService);
+  }
+
+  @Test
+  public void testSignedUrlsAreNotReusedForUnknownKeys() throws Exception {
+    String url = "http://localhost/files/track.mp4";
+    UrlSigningService urlSigningService = EasyMock.createMock(UrlSigningService.class);
+    EasyMock.expect(urlSigningService.accepts(url)).andReturn(true).anyTimes();
+    EasyMock.expect(urlSigningService.getKeyId(url)).andReturn(null).anyTimes();
+    EasyMock.expect(urlSigningService.sign(EasyMock.eq(url), EasyMock.anyObject(DateTime.class),
+            EasyMock.isNull(DateTime.class), EasyMock.isNull(String.class))).andReturn(url + "?signed").times(2);
+    EasyMock.replay(urlSigningService);
+
+    SigningMediaPackageSerializer serializer = new SigningMediaPackageSerializer();
+    serializer.setUrlSigningService(urlSigningService);
+    Properties properties = new Properties();
+    properties.put(SigningMediaPackageSerializer.URL_SIGNING_BUCKET_SECONDS_KEY, "3600");
+    serializer.updated(properties);
+
+    assertEquals(new URI(url + "?signed"), serializer.decodeURI(new URI(url)));
+    assertEquals(new URI(url + "?signed"), serializer.decodeURI(new URI(url)));
+    EasyMock.verify(urlSigningService);
   }
 }
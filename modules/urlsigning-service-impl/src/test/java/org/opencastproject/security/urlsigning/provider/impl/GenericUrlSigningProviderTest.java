@@ -22,6 +22,8 @@ package org.opencastproject.security.urlsigning.provider.impl;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import org.opencastproject.security.api.JaxbOrganization;
@@ -163,6 +165,24 @@ public class GenericUrlSigningProviderTest {
     assertEquals(1, signer.getUris().size());
   }
 
+  @Test
+  public void testGetKeyId() throws ConfigurationException {
+    assertNull(signer.getKeyId(RESOURCE_PATH));
+    properties.put(String.join(".", AbstractUrlSigningProvider.KEY_ENTRY_PREFIX, KEY_ID, GenericUrlSigningProvider.URL), MATCHING_URI);
+    properties.put(String.join(".", AbstractUrlSigningProvider.KEY_ENTRY_PREFIX, KEY_ID, GenericUrlSigningProvider.SECRET), KEY);
+    signer.updated(properties);
+    String keyId = signer.getKeyId(RESOURCE_PATH);
+    assertTrue(keyId.startsWith(KEY_ID));
+    assertEquals(keyId, signer.getKeyId(RESOURCE_PATH));
+    assertNull(signer.getKeyId(NON_MATCHING_URI + RESOURCE_URL));
+
+    // Changing the secret of the key changes its identifier
+    properties.put(String.join(".", AbstractUrlSigningProvider.KEY_ENTRY_PREFIX, KEY_ID, GenericUrlSigningProvider.SECRET),
+            KEY + "-changed");
+    signer.updated(properties);
+    assertNotEquals(keyId, signer.getKeyId(RESOURCE_PATH));
+  }
+
   @Test
   public void testSign() throws UrlSigningException, ConfigurationException {
     properties.put(String.join(".", AbstractUrlSigningProvider.KEY_ENTRY_PREFIX, KEY_ID, GenericUrlSigningProvider.URL), MATCHING_URI);
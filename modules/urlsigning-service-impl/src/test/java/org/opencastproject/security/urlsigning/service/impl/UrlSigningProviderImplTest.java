@@ -90,6 +90,11 @@ public class UrlSigningProviderImplTest {
       return true;
     }
 
+    @Override
+    public String getKeyId(String baseUrl) {
+      return "key";
+    }
+
     @Override
     public String sign(Policy policy) throws UrlSigningException {
       return SIGNED_URL;
@@ -35,12 +35,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Enumeration;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -62,9 +62,16 @@ public class UrlSigningFilter implements Filter, ManagedService {
 
   private static final Logger logger = LoggerFactory.getLogger(UrlSigningFilter.class);
 
+  /** Matches back references like <code>\1</code> or <code>\k&lt;name&gt;</code> in a regular expression */
+  private static final Pattern GROUP_REFERENCE = Pattern.compile("(?<!\\\\)\\\\([1-9]|k<)");
+
   private UrlSigningVerifier urlSigningVerifier;
 
-  private List<String> urlRegularExpressions = new LinkedList<>();
+  /** The compiled url regular expressions */
+  private volatile List<Pattern> urlPatterns = new ArrayList<>();
+
+  /** All url regular expressions combined into one, or <code>null</code> if they cannot be combined */
+  private volatile Pattern combinedUrlPattern = null;
 
   private boolean enabled = true;
 
@@ -87,7 +94,7 @@ public class UrlSigningFilter implements Filter, ManagedService {
       return;
     }
 
-    if (urlRegularExpressions.size() == 0) {
+    if (urlPatterns.isEmpty()) {
       logger.debug("There are no regular expressions configured to protect endpoints, skipping filter.");
       chain.doFilter(request, response);
       return;
@@ -103,17 +110,7 @@ public class UrlSigningFilter implements Filter, ManagedService {
       return;
     }
 
-    boolean matches = false;
-    for (String urlRegularExpression : urlRegularExpressions) {
-      Pattern p = Pattern.compile(urlRegularExpression);
-      Matcher m = p.matcher(httpRequest.getRequestURL());
-      if (m.matches()) {
-        matches = true;
-        break;
-      }
-    }
-
-    if (!matches) {
+    if (!matches(httpRequest.getRequestURL())) {
       logger.debug("The request '{}' doesn't match any of the configured regular expressions so skipping the filter.",
               httpRequest.getRequestURL());
       chain.doFilter(request, response);
@@ -176,6 +173,22 @@ public class UrlSigningFilter implements Filter, ManagedService {
     }
   }
 
+  /**
+   * Whether the url matches any of the configured regular expressions.
+   */
+  boolean matches(CharSequence url) {
+    Pattern combined = combinedUrlPattern;
+    if (combined != null) {
+      return combined.matcher(url).matches();
+    }
+    for (Pattern pattern : urlPatterns) {
+      if (pattern.matcher(url).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void init(FilterConfig filterConfig) throws ServletException {
 
@@ -223,14 +236,16 @@ public class UrlSigningFilter implements Filter, ManagedService {
               STRICT_FILTER_CONFIG_KEY);
     }
 
-    // Clear the current set of keys
-    urlRegularExpressions.clear();
-
     if (properties == null) {
+      urlPatterns = new ArrayList<>();
+      combinedUrlPattern = null;
       logger.warn("UrlSigningFilter has no paths to match");
       return;
     }
 
+    List<String> urlRegularExpressions = new ArrayList<>();
+    List<Pattern> patterns = new ArrayList<>();
+
     Enumeration<String> propertyKeys = properties.keys();
     while (propertyKeys.hasMoreElements()) {
       String propertyKey = propertyKeys.nextElement();
@@ -246,9 +261,17 @@ public class UrlSigningFilter implements Filter, ManagedService {
         break;
       }
 
+      try {
+        patterns.add(Pattern.compile(urlRegularExpression));
+      } catch (PatternSyntaxException e) {
+        throw new ConfigurationException(propertyKey, "is not a valid regular expression", e);
+      }
       urlRegularExpressions.add(urlRegularExpression);
     }
 
+    urlPatterns = patterns;
+    combinedUrlPattern = combine(urlRegularExpressions);
+
     if (urlRegularExpressions.size() == 0) {
       logger.info("UrlSigningFilter configured to not verify any urls.");
       return;
@@ -256,4 +279,32 @@ public class UrlSigningFilter implements Filter, ManagedService {
     logger.info("Finished updating UrlSigningFilter");
   }
 
+  /**
+   * Combine regular expressions into a single one matching whatever any of them matches, so that a request url is
+   * scanned only once. Expressions referring to groups cannot be combined as the group numbers would change, neither
+   * can expressions defining the same named group.
+   *
+   * @return the combined expression or <code>null</code> if there are no expressions or they cannot be combined
+   */
+  static Pattern combine(List<String> regularExpressions) {
+    if (regularExpressions.isEmpty()) {
+      return null;
+    }
+    List<String> groups = new ArrayList<>();
+    for (String regularExpression : regularExpressions) {
+      if (GROUP_REFERENCE.matcher(regularExpression).find()) {
+        logger.debug("Not combining url regular expressions since '{}' refers to a group", regularExpression);
+        return null;
+      }
+      groups.add("(?:" + regularExpression + ")");
+    }
+    try {
+      return Pattern.compile(StringUtils.join(groups, "|"));
+    } catch (PatternSyntaxException e) {
+      logger.debug("Not combining url regular expressions since they are not valid in combination: {}",
+              e.getDescription());
+      return null;
+    }
+  }
+
 }
@@ -21,10 +21,16 @@
 package org.opencastproject.security.urlsigning.verifier.impl;
 
 import org.opencastproject.security.urlsigning.verifier.UrlSigningVerifier;
+import org.opencastproject.urlsigning.common.Policy;
 import org.opencastproject.urlsigning.common.ResourceRequest;
+import org.opencastproject.urlsigning.common.ResourceRequest.Status;
 import org.opencastproject.urlsigning.utils.ResourceRequestUtil;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
@@ -34,23 +40,65 @@ import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class UrlSigningVerifierImpl implements UrlSigningVerifier, ManagedService {
   /** Prefix for key entry configuration keys */
   public static final String KEY_PREFIX = "key.";
+  /** Configuration key for the maximum number of verified requests to remember */
+  public static final String CACHE_SIZE_KEY = "cache.size";
+  /** Configuration key for the number of seconds to remember a verified request */
+  public static final String CACHE_EXPIRE_KEY = "cache.expire";
   /** The logging facility */
   private static final Logger logger = LoggerFactory.getLogger(UrlSigningVerifierImpl.class);
 
+  private static final long DEFAULT_CACHE_SIZE = 10000;
+  private static final long DEFAULT_CACHE_EXPIRE = 60;
+
   private Properties keys = new Properties();
 
+  /**
+   * Successfully verified requests. Players request the same signed urls over and over again, e.g. HLS playlists, so
+   * this saves decoding the policy and computing its signature each time.
+   */
+  private Cache<String, ResourceRequest> verifiedRequests = createCache(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_EXPIRE);
+
   @Override
   public ResourceRequest verify(String queryString, String clientIp, String baseUri) {
-    return ResourceRequestUtil.resourceRequestFromQueryString(queryString, clientIp, baseUri, getKeys(), true);
+    return verify(queryString, clientIp, baseUri, true);
   }
 
   @Override
   public ResourceRequest verify(String queryString, String clientIp, String baseUri, boolean strict) {
-    return ResourceRequestUtil.resourceRequestFromQueryString(queryString, clientIp, baseUri, getKeys(), strict);
+    // The result depends on all of the arguments, including the client ip a policy may be restricted to
+    String cacheKey = strict + "|" + clientIp + "|" + baseUri + "|" + queryString;
+    ResourceRequest cached = verifiedRequests.getIfPresent(cacheKey);
+    if (cached != null) {
+      if (isValidNow(cached.getPolicy())) {
+        return cached;
+      }
+      verifiedRequests.invalidate(cacheKey);
+    }
+
+    ResourceRequest resourceRequest = ResourceRequestUtil.resourceRequestFromQueryString(queryString, clientIp,
+            baseUri, getKeys(), strict);
+    if (resourceRequest.getStatus() == Status.Ok) {
+      verifiedRequests.put(cacheKey, resourceRequest);
+    }
+    return resourceRequest;
+  }
+
+  /**
+   * Whether a policy is still within its validity period, as a cached verification must not outlive its policy.
+   */
+  private static boolean isValidNow(Policy policy) {
+    long now = System.currentTimeMillis();
+    return policy.getValidUntil().getMillis() >= now
+            && (!policy.getValidFrom().isPresent() || policy.getValidFrom().get().getMillis() <= now);
+  }
+
+  private static Cache<String, ResourceRequest> createCache(long size, long expire) {
+    return CacheBuilder.newBuilder().maximumSize(size).expireAfterWrite(expire, TimeUnit.SECONDS).build();
   }
 
   protected Properties getKeys() {
@@ -61,14 +109,21 @@ public class UrlSigningVerifierImpl implements UrlSigningVerifier, ManagedServic
   public void updated(Dictionary<String, ?> properties) throws ConfigurationException {
     logger.info("Updating UrlSigningVerifierImpl");
 
-    // Clear the current set of keys
+    // Clear the current set of keys and forget the requests verified with them
     keys.clear();
+    verifiedRequests.invalidateAll();
 
     if (properties == null) {
       logger.warn("UrlSigningVerifierImpl has no keys to verify urls");
       return;
     }
 
+    long cacheSize = NumberUtils.toLong(Objects.toString(properties.get(CACHE_SIZE_KEY), null), DEFAULT_CACHE_SIZE);
+    long cacheExpire = NumberUtils.toLong(Objects.toString(properties.get(CACHE_EXPIRE_KEY), null),
+            DEFAULT_CACHE_EXPIRE);
+    verifiedRequests = createCache(cacheSize, cacheExpire);
+    logger.debug("Remembering up to {} verified requests for {} seconds", cacheSize, cacheExpire);
+
     Enumeration<String> ids = properties.keys();
     while (ids.hasMoreElements()) {
       String propertyKey = ids.nextElement();
@@ -0,0 +1,190 @@
+/**
+ * Licensed to The Apereo Foundation under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ *
+ * The Apereo Foundation licenses this file to you under the Educational
+ * Community License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License
+ * at:
+ *
+ *   http://opensource.org/licenses/ecl2.txt
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ *
+ */
+
+package org.opencastproject.security.urlsigning.filter;
+
+import org.opencastproject.security.urlsigning.verifier.impl.UrlSigningVerifierImpl;
+import org.opencastproject.urlsigning.common.Policy;
+import org.opencastproject.urlsigning.common.ResourceRequest;
+import org.opencastproject.urlsigning.utils.ResourceRequestUtil;
+import org.opencastproject.urlsigning.utils.SHA256Util;
+
+import org.apache.commons.codec.binary.Hex;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Benchmark for verifying signed requests with the {@link UrlSigningFilter}.
+ * <p>
+ * The <code>legacy</code> benchmarks reproduce the former implementation, which compiled every configured regular
+ * expression and created a new HMAC for each request. Run the benchmark with the <code>main</code> method after
+ * compiling the test classes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlSigningFilterBenchmark {
+
+  private static final String KEY_ID = "TheKeyID";
+  private static final String KEY = "TheFullKey";
+  private static final String CLIENT_IP = "10.0.0.1";
+  private static final String URL = "http://test.com/files/mediapackage/mp/track/segment_42.ts";
+
+  private UrlSigningFilter filter;
+
+  private UrlSigningVerifierImpl verifier;
+
+  private List<String> urlRegularExpressions = new ArrayList<>();
+
+  private String queryString;
+
+  private HttpServletRequest request;
+
+  private HttpServletResponse response;
+
+  private FilterChain chain;
+
+  @Setup
+  public void setUp() throws Exception {
+    Dictionary<String, String> keys = new Hashtable<>();
+    keys.put(UrlSigningVerifierImpl.KEY_PREFIX + KEY_ID, KEY);
+    verifier = new UrlSigningVerifierImpl();
+    verifier.updated(keys);
+
+    Properties properties = new Properties();
+    try (InputStream in = UrlSigningFilterBenchmark.class.getResourceAsStream("/UrlSigningFilter.properties")) {
+      properties.load(in);
+    }
+    Dictionary<String, String> filterProperties = new Hashtable<>();
+    for (String key : properties.stringPropertyNames()) {
+      filterProperties.put(key, properties.getProperty(key));
+      if (key.startsWith(UrlSigningFilter.URL_REGEX_PREFIX)) {
+        urlRegularExpressions.add(properties.getProperty(key));
+      }
+    }
+    filter = new UrlSigningFilter();
+    filter.setUrlSigningVerifier(verifier);
+    filter.updated(filterProperties);
+
+    Policy policy = Policy.mkSimplePolicy(URL, new DateTime().plusHours(2));
+    queryString = ResourceRequestUtil.policyToResourceRequestQueryString(policy, KEY_ID, KEY);
+    request = (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { HttpServletRequest.class }, (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "getMethod":
+                  return "GET";
+                case "getRequestURL":
+                  return new StringBuffer(URL);
+                case "getQueryString":
+                  return queryString;
+                case "getRemoteAddr":
+                  return CLIENT_IP;
+                default:
+                  return null;
+              }
+            });
+    response = (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { HttpServletResponse.class }, (proxy, method, args) -> {
+              throw new IllegalStateException("The benchmark request was not accepted");
+            });
+    chain = (req, resp) -> { };
+  }
+
+  @Benchmark
+  public void doFilter() throws Exception {
+    filter.doFilter(request, response, chain);
+  }
+
+  @Benchmark
+  public boolean match() {
+    return filter.matches(URL);
+  }
+
+  @Benchmark
+  public boolean matchLegacy() {
+    for (String urlRegularExpression : urlRegularExpressions) {
+      if (Pattern.compile(urlRegularExpression).matcher(URL).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Benchmark
+  public ResourceRequest verify() {
+    return verifier.verify(queryString, CLIENT_IP, URL, true);
+  }
+
+  @Benchmark
+  public ResourceRequest verifyUncached() {
+    Properties keys = new Properties();
+    keys.setProperty(KEY_ID, KEY);
+    return ResourceRequestUtil.resourceRequestFromQueryString(queryString, CLIENT_IP, URL, keys, true);
+  }
+
+  @Benchmark
+  public String digest() throws Exception {
+    return SHA256Util.digest(queryString, KEY);
+  }
+
+  @Benchmark
+  public String digestLegacy() throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return new String(new Hex().encode(mac.doFinal(queryString.getBytes(StandardCharsets.UTF_8))), "UTF-8");
+  }
+
+  public static void main(String[] args) throws Exception {
+    new Runner(new OptionsBuilder().include(UrlSigningFilterBenchmark.class.getSimpleName()).build()).run();
+  }
+
+}
@@ -20,6 +20,11 @@
  */
 package org.opencastproject.security.urlsigning.filter;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
 import org.opencastproject.security.urlsigning.exception.UrlSigningException;
 import org.opencastproject.security.urlsigning.verifier.UrlSigningVerifier;
 import org.opencastproject.security.urlsigning.verifier.impl.UrlSigningVerifierImpl;
@@ -36,8 +41,10 @@ import org.junit.Test;
 import org.osgi.service.cm.ConfigurationException;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
@@ -191,6 +198,61 @@ public class UrlSigningFilterTest {
     filter.doFilter(request, response, filterChain);
   }
 
+  @Test
+  public void testCombinedUrlMatching() throws Exception {
+    UrlSigningFilter filter = createFilter(".*/files/collection/.*", ".*/static/[0-9]+");
+    assertNotNull(UrlSigningFilter.combine(Arrays.asList(".*/files/collection/.*", ".*/static/[0-9]+")));
+    assertTrue(filter.matches(BASE_URL + "/files/collection/id/file.mp4"));
+    assertTrue(filter.matches(BASE_URL + "/static/42"));
+    assertFalse(filter.matches(BASE_URL + "/static/id"));
+    assertFalse(filter.matches(BASE_URL + "/files/mediapackage/id"));
+  }
+
+  @Test
+  public void testInlineFlagsStayWithTheirExpression() throws Exception {
+    List<String> expressions = Arrays.asList("(?i).*/files/.*", ".*/static/.*", "(?x) .*/archive/ .* # comment");
+    assertNotNull(UrlSigningFilter.combine(expressions.subList(0, 2)));
+    // The comment would swallow the end of the combined expression
+    assertNull(UrlSigningFilter.combine(expressions));
+    UrlSigningFilter filter = createFilter(expressions.toArray(new String[0]));
+    assertTrue(filter.matches(BASE_URL + "/FILES/id"));
+    assertTrue(filter.matches(BASE_URL + "/static/id"));
+    assertFalse(filter.matches(BASE_URL + "/STATIC/id"));
+    assertTrue(filter.matches(BASE_URL + "/archive/id"));
+  }
+
+  @Test
+  public void testBackReferencesAreNotCombined() throws Exception {
+    String[] expressions = { ".*/(files|static)/\\1/.*", ".*/(?<type>archive)/\\k<type>/.*" };
+    assertNull(UrlSigningFilter.combine(Arrays.asList(expressions)));
+    UrlSigningFilter filter = createFilter(expressions);
+    assertTrue(filter.matches(BASE_URL + "/files/files/id"));
+    assertFalse(filter.matches(BASE_URL + "/files/static/id"));
+    assertTrue(filter.matches(BASE_URL + "/archive/archive/id"));
+  }
+
+  @Test
+  public void testNamedGroupsAreCombinedUnlessDuplicated() throws Exception {
+    assertNotNull(UrlSigningFilter.combine(Arrays.asList(".*/files/(?<id>[0-9]+)", ".*/static/(?<uuid>[a-z]+)")));
+
+    String[] expressions = { ".*/files/(?<id>[0-9]+)", ".*/static/(?<id>[a-z]+)" };
+    assertNull(UrlSigningFilter.combine(Arrays.asList(expressions)));
+    UrlSigningFilter filter = createFilter(expressions);
+    assertTrue(filter.matches(BASE_URL + "/files/42"));
+    assertTrue(filter.matches(BASE_URL + "/static/id"));
+    assertFalse(filter.matches(BASE_URL + "/files/id"));
+  }
+
+  private static UrlSigningFilter createFilter(String... expressions) throws ConfigurationException {
+    Dictionary<String, String> properties = new Hashtable<>();
+    for (int i = 0; i < expressions.length; i++) {
+      properties.put(UrlSigningFilter.URL_REGEX_PREFIX + "." + i, expressions[i]);
+    }
+    UrlSigningFilter filter = new UrlSigningFilter();
+    filter.updated(properties);
+    return filter;
+  }
+
   @Test
   public void testCorrectPolicyAndSignature() throws Exception {
     String encryptionKeyId = "theKey";
@@ -84,4 +84,42 @@ public class UrlSigningVerifierImplTest {
     result = urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true);
     assertEquals(Status.Forbidden, result.getStatus());
   }
+
+  @Test
+  public void testCachedVerification() throws Exception {
+    String keyId = "theKeyId";
+    String key = "TheKeyIsThis";
+    DateTime future = new DateTime(4749125399000L);
+    Policy policy = Policy.mkPolicyValidWithIP(URL, future, CLIENT_IP);
+    String queryString = ResourceRequestUtil.policyToResourceRequestQueryString(policy, keyId, key);
+
+    UrlSigningVerifierImpl urlSigningVerifierImpl = new UrlSigningVerifierImpl();
+    Dictionary<String, String> keys = new Hashtable<>();
+    keys.put(UrlSigningVerifierImpl.KEY_PREFIX + keyId, key);
+    urlSigningVerifierImpl.updated(keys);
+    ResourceRequest result = urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true);
+    assertEquals(Status.Ok, result.getStatus());
+    assertEquals(result, urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true));
+
+    // A verification for one client must not be used for another one
+    result = urlSigningVerifierImpl.verify(queryString, "10.0.0.2", URL, true);
+    assertEquals(Status.Forbidden, result.getStatus());
+
+    // Verifications are forgotten when the keys change
+    keys.put(UrlSigningVerifierImpl.KEY_PREFIX + keyId, "The Wrong Key");
+    urlSigningVerifierImpl.updated(keys);
+    result = urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true);
+    assertEquals(Status.Forbidden, result.getStatus());
+
+    // Expired policies are not verified from the cache
+    policy = Policy.mkPolicyValidWithIP(URL, new DateTime().plusMillis(500), CLIENT_IP);
+    queryString = ResourceRequestUtil.policyToResourceRequestQueryString(policy, keyId, key);
+    keys.put(UrlSigningVerifierImpl.KEY_PREFIX + keyId, key);
+    urlSigningVerifierImpl.updated(keys);
+    result = urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true);
+    assertEquals(Status.Ok, result.getStatus());
+    Thread.sleep(1000);
+    result = urlSigningVerifierImpl.verify(queryString, CLIENT_IP, URL, true);
+    assertEquals(Status.Gone, result.getStatus());
+  }
 }
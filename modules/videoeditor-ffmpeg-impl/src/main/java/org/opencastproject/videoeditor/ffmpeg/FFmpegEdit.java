@@ -26,38 +26,92 @@ import org.opencastproject.util.IoSupport;
 import org.opencastproject.videoeditor.impl.VideoClip;
 import org.opencastproject.videoeditor.impl.VideoEditorProperties;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.osgi.framework.BundleContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.function.Predicate;
 
 /**
  * FFmpeg wrappers:
  * processEdits:    process SMIL definitions of segments into one consecutive video
  *                  There is a fade in and a fade out at the beginning and end of each clip
  *
+ * With smart cut enabled and no video fade, H.264 video is not re-encoded as a whole. Only the frames between the cut
+ * points and the nearest IDR frames are re-encoded, the complete GOPs in between are copied and all pieces are joined
+ * into an MP4 file without re-encoding.
  */
 public class FFmpegEdit {
 
   private static final Logger logger = LoggerFactory.getLogger(FFmpegEdit.class);
   private static final String FFMPEG_BINARY_DEFAULT = "ffmpeg";
   private static final String CONFIG_FFMPEG_PATH = "org.opencastproject.composer.ffmpeg.path";
+  private static final String FFPROBE_BINARY_DEFAULT = "ffprobe";
+  private static final String CONFIG_FFPROBE_PATH = "org.opencastproject.inspection.ffprobe.path";
+
+  /** The only codec smart cut can re-encode cut points with, so that they match the copied GOPs */
+  private static final String SMART_CUT_SOURCE_CODEC = "h264";
+  private static final String SMART_CUT_ENCODER = "libx264";
+
+  /** The output file types smart cut writes, as they can hold H.264 with changing parameter sets */
+  private static final List<String> SMART_CUT_EXTENSIONS = Arrays.asList("mp4", "m4v");
+
+  /** The MP4 sample entry type for H.264 with parameter sets in the stream, which the re-encoded pieces change */
+  private static final String SMART_CUT_SAMPLE_ENTRY = "avc3";
+
+  /** H.264 profiles reported by ffprobe and the matching profiles of the smart cut encoder */
+  private static final Map<String, String> SMART_CUT_PROFILES = new HashMap<String, String>();
+
+  static {
+    SMART_CUT_PROFILES.put("Constrained Baseline", "baseline");
+    SMART_CUT_PROFILES.put("Baseline", "baseline");
+    SMART_CUT_PROFILES.put("Main", "main");
+    SMART_CUT_PROFILES.put("High", "high");
+    SMART_CUT_PROFILES.put("High 10", "high10");
+    SMART_CUT_PROFILES.put("High 4:2:2", "high422");
+    SMART_CUT_PROFILES.put("High 4:4:4 Predictive", "high444");
+  }
+
+  /** H.264 NAL unit types of slices of IDR and other pictures */
+  private static final int NAL_IDR_SLICE = 5;
+  private static final int NAL_SLICE = 1;
+
+  /** The number of keyframes at either end of a clip checked for being IDR frames */
+  private static final int MAX_IDR_CANDIDATES = 5;
+
+  /** The number of bytes of a keyframe read to find its first slice */
+  private static final int MAX_PACKET_BYTES = 4096;
+
+  /** Tolerance for comparing frame times, in seconds */
+  private static final double TIME_EPSILON = 0.000001;
 
   private static final String DEFAULT_FFMPEG_PROPERTIES = "-strict -2 -preset faster -crf 18";
   public static final String DEFAULT_OUTPUT_FILE_EXTENSION = ".mp4";
   private static final String DEFAULT_AUDIO_FADE = "2.0";
   private static final String DEFAULT_VIDEO_FADE = "2.0";
   private static String binary = FFMPEG_BINARY_DEFAULT;
+  private static String probeBinary = FFPROBE_BINARY_DEFAULT;
 
   protected float vfade;
   protected float afade;
@@ -65,6 +119,7 @@ public class FFmpegEdit {
   protected String ffmpegScaleFilter = null;
   protected String videoCodec = null;  // By default, use the same codec as source
   protected String audioCodec = null;
+  protected boolean smartCut = false;
 
   public static void init(BundleContext bundleContext) {
     String path = bundleContext.getProperty(CONFIG_FFMPEG_PATH);
@@ -72,6 +127,11 @@ public class FFmpegEdit {
     if (StringUtils.isNotBlank(path)) {
       binary = path.trim();
     }
+
+    path = bundleContext.getProperty(CONFIG_FFPROBE_PATH);
+    if (StringUtils.isNotBlank(path)) {
+      probeBinary = path.trim();
+    }
   }
 
   public FFmpegEdit()
@@ -104,6 +164,7 @@ public class FFmpegEdit {
     this.ffmpegScaleFilter = properties.getProperty(VideoEditorProperties.FFMPEG_SCALE_FILTER, null);
     this.videoCodec = properties.getProperty(VideoEditorProperties.VIDEO_CODEC, null);
     this.audioCodec = properties.getProperty(VideoEditorProperties.AUDIO_CODEC, null);
+    this.smartCut = Boolean.parseBoolean(StringUtils.trim(properties.getProperty(VideoEditorProperties.SMART_CUT)));
   }
 
   public String processEdits(List<String> inputfiles, String dest, String outputSize, List<VideoClip> cleanclips)
@@ -113,10 +174,468 @@ public class FFmpegEdit {
 
   public String processEdits(List<String> inputfiles, String dest, String outputSize, List<VideoClip> cleanclips,
           boolean hasAudio, boolean hasVideo) throws Exception {
+    if (smartCut && hasVideo) {
+      String reason = smartCutUnsupported(dest, outputSize);
+      if (reason == null) {
+        String error = processSmartCut(inputfiles, dest, cleanclips, hasAudio);
+        if (error == null) {
+          return null;
+        }
+        logger.warn("Smart cut failed, re-encoding all clips instead: {}", error);
+      } else {
+        logger.info("Not using smart cut since {}", reason);
+      }
+    }
     List<String> cmd = makeEdits(inputfiles, dest, outputSize, cleanclips, hasAudio, hasVideo);
     return run(cmd);
   }
 
+  /*
+   * Returns why smart cut cannot be used with the current settings, or null if it can be used
+   */
+  private String smartCutUnsupported(String dest, String outputSize) {
+    if (vfade > 0.00001) {
+      return "video fades are enabled";
+    }
+    if (outputSize != null && outputSize.length() > 3) {
+      return "the clips are scaled to " + outputSize;
+    }
+    if (videoCodec != null && !SMART_CUT_ENCODER.equals(videoCodec)) {
+      return "the video is re-encoded with " + videoCodec;
+    }
+    if (!SMART_CUT_EXTENSIONS.contains(FilenameUtils.getExtension(dest).toLowerCase(Locale.US))) {
+      return "the output is no MP4 file: " + dest;
+    }
+    return null;
+  }
+
+  /*
+   * Edit the video by copying all complete GOPs of each clip and re-encoding only the frames between a cut point and
+   * the nearest IDR frame. The audio of all clips is rendered separately, including fades, and muxed with the joined
+   * video. Returns null on success or the error otherwise.
+   */
+  private String processSmartCut(List<String> inputfiles, String dest, List<VideoClip> clips, boolean hasAudio) {
+    File workDir = null;
+    try {
+      // All sources must share the video format so that the pieces can be joined into one stream
+      Map<String, String> stream = null;
+      String format = null;
+      List<Double> startTimes = new ArrayList<Double>();
+      List<List<Double>> frames = new ArrayList<List<Double>>();
+      List<List<Double>> keyframes = new ArrayList<List<Double>>();
+      for (String input : inputfiles) {
+        stream = probeVideoStream(input);
+        if (!SMART_CUT_SOURCE_CODEC.equals(stream.get("codec_name"))) {
+          return "unsupported video codec in " + input + ": " + stream.get("codec_name");
+        }
+        if (!SMART_CUT_PROFILES.containsKey(stream.get("profile"))) {
+          return "unsupported H.264 profile in " + input + ": " + stream.get("profile");
+        }
+        double frameRate = parseRate(stream.get("r_frame_rate"));
+        if (frameRate <= 0 || Math.abs(frameRate - parseRate(stream.get("avg_frame_rate"))) > frameRate * 0.001) {
+          return "variable frame rate in " + input;
+        }
+        String inputFormat = stream.get("width") + "x" + stream.get("height") + " " + stream.get("pix_fmt") + " "
+                + stream.get("profile") + "@" + stream.get("level") + " " + stream.get("r_frame_rate") + " fps "
+                + stream.get("time_base");
+        if (format != null && !format.equals(inputFormat)) {
+          return "video format of " + input + " (" + inputFormat + ") does not match " + format;
+        }
+        format = inputFormat;
+        double startTime = NumberUtils.toDouble(stream.get("start_time"), 0);
+        List<Double> inputFrames = new ArrayList<Double>();
+        List<Double> inputKeyframes = new ArrayList<Double>();
+        probePackets(input, startTime, inputFrames, inputKeyframes);
+        startTimes.add(startTime);
+        frames.add(inputFrames);
+        keyframes.add(inputKeyframes);
+      }
+      final double frameDuration = 1 / parseRate(stream.get("r_frame_rate"));
+
+      DecimalFormat seconds = new DecimalFormat("0.000000", new DecimalFormatSymbols(Locale.US));
+      workDir = Files.createTempDirectory(new File(dest).getAbsoluteFile().getParentFile().toPath(), "smartcut")
+              .toFile();
+      List<String> pieces = new ArrayList<String>();
+      List<VideoClip> audioClips = new ArrayList<VideoClip>();
+      int copied = 0;
+      for (VideoClip clip : clips) {
+        final String input = inputfiles.get(clip.getSrc());
+        final double startTime = startTimes.get(clip.getSrc());
+        List<CutPiece> clipPieces = planCut(clip, frames.get(clip.getSrc()), keyframes.get(clip.getSrc()),
+                keyframe -> isIdrFrame(input, startTime + keyframe, frameDuration));
+        if (clipPieces.isEmpty()) {
+          continue;
+        }
+        for (CutPiece piece : clipPieces) {
+          File pieceFile = new File(workDir, "piece" + pieces.size() / 2 + ".ts");
+          List<String> cmd = new ArrayList<String>();
+          cmd.add("-y");
+          cmd.add("-ss");
+          if (piece.isCopy()) {
+            // Stream copy starts at the last keyframe before the position, which is the IDR frame starting the piece
+            cmd.add(seconds.format(piece.getStart() + frameDuration / 2));
+          } else {
+            // Decoding starts with the first frame at or after the position
+            cmd.add(seconds.format(Math.max(0, piece.getStart() - frameDuration / 2)));
+          }
+          cmd.add("-i");
+          cmd.add(input);
+          cmd.add("-map");
+          cmd.add("0:v:0");
+          cmd.add("-frames:v");
+          cmd.add(Integer.toString(piece.getFrames()));
+          if (piece.isCopy()) {
+            cmd.add("-c:v");
+            cmd.add("copy");
+            copied++;
+          } else {
+            // Match the copied GOPs, except for the parameter sets which are repeated in-band before each IDR frame
+            cmd.addAll(Arrays.asList(ffmpegProperties.split(" ")));
+            cmd.add("-c:v");
+            cmd.add(SMART_CUT_ENCODER);
+            cmd.add("-profile:v");
+            cmd.add(SMART_CUT_PROFILES.get(stream.get("profile")));
+            cmd.add("-level");
+            cmd.add(stream.get("level"));
+            cmd.add("-pix_fmt");
+            cmd.add(stream.get("pix_fmt"));
+            cmd.add("-r");
+            cmd.add(stream.get("r_frame_rate"));
+          }
+          cmd.add(pieceFile.getAbsolutePath());
+          String error = run(cmd);
+          if (error != null) {
+            return error;
+          }
+          pieces.add("file '" + pieceFile.getAbsolutePath() + "'");
+          pieces.add("duration " + seconds.format(piece.getFrames() * frameDuration));
+        }
+        // Cut the audio at the same frames as the video, so that both stay in sync after each clip
+        CutPiece first = clipPieces.get(0);
+        int clipFrames = 0;
+        for (CutPiece piece : clipPieces) {
+          clipFrames += piece.getFrames();
+        }
+        audioClips.add(new VideoClip(clip.getSrc(), first.getStart(), first.getStart() + clipFrames * frameDuration));
+      }
+      logger.info("Smart cut copies {} of {} video pieces", copied, pieces.size() / 2);
+      if (pieces.isEmpty()) {
+        return "no video frames within the clips";
+      }
+
+      File pieceList = new File(workDir, "pieces.txt");
+      FileUtils.writeLines(pieceList, StandardCharsets.UTF_8.name(), pieces);
+
+      File audio = null;
+      if (hasAudio) {
+        audio = new File(workDir, "audio.mp4");
+        String error = run(makeEdits(inputfiles, audio.getAbsolutePath(), null, audioClips, true, false));
+        if (error != null) {
+          return error;
+        }
+      }
+
+      // Join the video pieces and mux them with the audio without re-encoding
+      List<String> cmd = new ArrayList<String>();
+      cmd.add("-y");
+      cmd.add("-f");
+      cmd.add("concat");
+      cmd.add("-safe");
+      cmd.add("0");
+      cmd.add("-i");
+      cmd.add(pieceList.getAbsolutePath());
+      if (audio != null) {
+        cmd.add("-i");
+        cmd.add(audio.getAbsolutePath());
+        cmd.add("-map");
+        cmd.add("1:a");
+      }
+      cmd.add("-map");
+      cmd.add("0:v");
+      cmd.add("-c");
+      cmd.add("copy");
+      // The re-encoded pieces carry their own parameter sets, which only this sample entry type allows
+      cmd.add("-tag:v");
+      cmd.add(SMART_CUT_SAMPLE_ENTRY);
+      String timeBase = stream.get("time_base");
+      if (timeBase != null && timeBase.startsWith("1/")) {
+        cmd.add("-video_track_timescale");
+        cmd.add(timeBase.substring(2));
+      }
+      cmd.add(dest);
+      return run(cmd);
+    } catch (Exception e) {
+      logger.debug("Smart cut failed", e);
+      return e.toString();
+    } finally {
+      FileUtils.deleteQuietly(workDir);
+    }
+  }
+
+  /*
+   * Split a clip into the pieces that need to be re-encoded, from the in point up to the first IDR frame and from the
+   * last IDR frame up to the out point, and the complete GOPs in between which can be copied. Other keyframes cannot
+   * start a copied piece, as the frames following them may refer to frames before them. Only a few keyframes at either
+   * end of the clip are checked for being IDR frames.
+   *
+   * frames are the presentation times of all frames in ascending order, keyframes those of the keyframes
+   */
+  static List<CutPiece> planCut(VideoClip clip, List<Double> frames, List<Double> keyframes,
+          Predicate<Double> isIdrFrame) {
+    int from = frameIndex(frames, clip.getStart());
+    int to = frameIndex(frames, clip.getEnd());
+    List<CutPiece> pieces = new ArrayList<CutPiece>();
+    if (from >= to) {
+      return pieces;
+    }
+
+    List<Integer> candidates = new ArrayList<Integer>();
+    for (Double keyframe : keyframes) {
+      int index = frameIndex(frames, keyframe);
+      if (index >= from && index <= to) {
+        candidates.add(index);
+      }
+    }
+    int first = -1;
+    for (int i = 0; i < Math.min(candidates.size(), MAX_IDR_CANDIDATES); i++) {
+      if (isIdrFrame.test(frames.get(candidates.get(i)))) {
+        first = candidates.get(i);
+        break;
+      }
+    }
+    int last = -1;
+    for (int i = candidates.size() - 1; first >= 0 && i >= Math.max(0, candidates.size() - MAX_IDR_CANDIDATES); i--) {
+      if (candidates.get(i) <= first) {
+        break;
+      }
+      if (isIdrFrame.test(frames.get(candidates.get(i)))) {
+        last = candidates.get(i);
+        break;
+      }
+    }
+
+    if (first < 0 || last < 0) {
+      // Not a single complete GOP in the clip
+      pieces.add(new CutPiece(frames.get(from), to - from, false));
+      return pieces;
+    }
+    if (first > from) {
+      pieces.add(new CutPiece(frames.get(from), first - from, false));
+    }
+    pieces.add(new CutPiece(frames.get(first), last - first, true));
+    if (to > last) {
+      pieces.add(new CutPiece(frames.get(last), to - last, false));
+    }
+    return pieces;
+  }
+
+  /*
+   * The index of the first frame presented at or after the time
+   */
+  private static int frameIndex(List<Double> frames, double time) {
+    int index = Collections.binarySearch(frames, time - TIME_EPSILON);
+    return index < 0 ? -index - 1 : index;
+  }
+
+  /*
+   * Parse a frame rate like 30000/1001, returns 0 if it is unknown
+   */
+  private static double parseRate(String rate) {
+    String[] parts = StringUtils.split(StringUtils.trimToEmpty(rate), "/");
+    double numerator = parts.length > 0 ? NumberUtils.toDouble(parts[0], 0) : 0;
+    double denominator = parts.length > 1 ? NumberUtils.toDouble(parts[1], 0) : 1;
+    return denominator > 0 ? numerator / denominator : 0;
+  }
+
+  /*
+   * Probe codec, format, frame rate and time base of the first video stream and the start time of the file
+   */
+  private Map<String, String> probeVideoStream(String input) throws IOException {
+    Map<String, String> result = new HashMap<String, String>();
+    for (String line : probe(Arrays.asList("-v", "error", "-select_streams", "v:0",
+            "-show_entries", "stream=codec_name,width,height,pix_fmt,profile,level,r_frame_rate,avg_frame_rate,"
+                    + "time_base:format=start_time",
+            "-of", "default=noprint_wrappers=1", input))) {
+      String[] entry = line.split("=", 2);
+      if (entry.length == 2) {
+        result.put(entry[0].trim(), entry[1].trim());
+      }
+    }
+    return result;
+  }
+
+  /*
+   * Probe the presentation times of all frames and of the keyframes of the first video stream, relative to the start
+   * of the file. Only the packet headers are read, nothing is decoded.
+   */
+  private void probePackets(String input, double startTime, List<Double> frames, List<Double> keyframes)
+          throws IOException {
+    for (String line : probe(Arrays.asList("-v", "error", "-select_streams", "v:0",
+            "-show_entries", "packet=pts_time,flags", "-of", "csv=print_section=0", input))) {
+      String[] packet = line.split(",");
+      if (packet.length >= 2 && NumberUtils.isCreatable(packet[0])) {
+        double time = Double.parseDouble(packet[0]) - startTime;
+        frames.add(time);
+        if (packet[1].contains("K")) {
+          keyframes.add(time);
+        }
+      }
+    }
+    frames.sort(null);
+    keyframes.sort(null);
+  }
+
+  /*
+   * Whether the keyframe at the given time is an IDR frame. With open GOPs, other keyframes are I-frames which the
+   * following frames may not only refer to. Reads only the data of that single packet.
+   */
+  private boolean isIdrFrame(String input, double time, double frameDuration) {
+    DecimalFormat seconds = new DecimalFormat("0.000000", new DecimalFormatSymbols(Locale.US));
+    try {
+      List<String> lines = probe(Arrays.asList("-v", "error", "-select_streams", "v:0",
+              "-read_intervals", seconds.format(time + frameDuration / 2) + "%+#1",
+              "-show_packets", "-show_data", input));
+      byte[] data = parsePacketData(lines, time, frameDuration / 2);
+      boolean idr = data != null && isIdrSlice(data);
+      logger.debug("Keyframe at {}s in {} is {}an IDR frame", time, input, idr ? "" : "not ");
+      return idr;
+    } catch (IOException e) {
+      logger.warn("Could not check the keyframe at {}s in {}, not copying from there: {}", time, input, e.getMessage());
+      return false;
+    }
+  }
+
+  /*
+   * Get the first bytes of the data of the packet presented at the given time from the ffprobe packet output
+   */
+  static byte[] parsePacketData(List<String> lines, double time, double tolerance) {
+    Double pts = null;
+    ByteArrayOutputStream data = null;
+    for (String line : lines) {
+      if (line.startsWith("[PACKET]")) {
+        pts = null;
+        data = null;
+      } else if (line.startsWith("pts_time=")) {
+        pts = NumberUtils.isCreatable(line.substring(9)) ? Double.valueOf(line.substring(9)) : null;
+      } else if (line.startsWith("data=")) {
+        data = new ByteArrayOutputStream();
+      } else if (line.startsWith("[/PACKET]")) {
+        if (pts != null && data != null && Math.abs(pts - time) <= tolerance) {
+          return data.toByteArray();
+        }
+        data = null;
+      } else if (data != null && data.size() < MAX_PACKET_BYTES && line.length() > 10 && line.charAt(8) == ':') {
+        // Hex dump lines like "00000000: 0000 0002 0910 0000 001b 6764 001f acd9  ..........gd...."
+        for (String group : line.substring(10).split(" ")) {
+          if (group.isEmpty() || !group.matches("[0-9a-fA-F]+") || group.length() % 2 != 0) {
+            break;
+          }
+          for (int i = 0; i < group.length(); i += 2) {
+            data.write(Integer.parseInt(group.substring(i, i + 2), 16));
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /*
+   * Whether the first slice in H.264 packet data, either length prefixed as in MP4 or with Annex B start codes as in
+   * MPEG-TS, belongs to an IDR picture
+   */
+  static boolean isIdrSlice(byte[] data) {
+    boolean annexB = data.length > 3 && data[0] == 0 && data[1] == 0 && (data[2] == 1 || data[2] == 0 && data[3] == 1);
+    int pos = 0;
+    while (pos < data.length) {
+      int header;
+      if (annexB) {
+        header = -1;
+        for (int i = pos; i + 3 < data.length; i++) {
+          if (data[i] == 0 && data[i + 1] == 0 && data[i + 2] == 1) {
+            header = i + 3;
+            break;
+          }
+        }
+        if (header < 0) {
+          return false;
+        }
+        pos = header + 1;
+      } else {
+        if (pos + 4 >= data.length) {
+          return false;
+        }
+        int size = (data[pos] & 0xff) << 24 | (data[pos + 1] & 0xff) << 16 | (data[pos + 2] & 0xff) << 8
+                | data[pos + 3] & 0xff;
+        header = pos + 4;
+        pos = size > 0 && size <= data.length - header ? header + size : data.length;
+      }
+      int type = data[header] & 0x1f;
+      if (type == NAL_IDR_SLICE) {
+        return true;
+      }
+      if (type == NAL_SLICE) {
+        return false;
+      }
+    }
+    return false;
+  }
+
+  /*
+   * Run ffprobe with the params and return its output lines
+   */
+  private List<String> probe(List<String> params) throws IOException {
+    List<String> command = new ArrayList<String>();
+    command.add(probeBinary);
+    command.addAll(params);
+    logger.debug("executing command: {}", StringUtils.join(command, " "));
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    List<String> lines = new ArrayList<String>();
+    try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(),
+            StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        lines.add(line);
+      }
+      if (process.waitFor() != 0) {
+        throw new IOException("Ffprobe exited abnormally with status " + process.exitValue());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while running ffprobe", e);
+    } finally {
+      IoSupport.closeQuietly(process);
+    }
+    return lines;
+  }
+
+  /*
+   * A part of a clip that is either copied or re-encoded
+   */
+  static final class CutPiece {
+    private final double start;
+    private final int frames;
+    private final boolean copy;
+
+    CutPiece(double start, int frames, boolean copy) {
+      this.start = start;
+      this.frames = frames;
+      this.copy = copy;
+    }
+
+    /* The presentation time of the first frame */
+    double getStart() {
+      return start;
+    }
+
+    int getFrames() {
+      return frames;
+    }
+
+    boolean isCopy() {
+      return copy;
+    }
+  }
+
   /* Run the ffmpeg command with the params
    * Takes a list of words as params, the output is logged
    */
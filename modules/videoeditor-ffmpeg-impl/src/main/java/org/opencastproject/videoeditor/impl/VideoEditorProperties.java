@@ -39,6 +39,9 @@ public interface VideoEditorProperties {
   String FFMPEG_SCALE_FILTER = "ffmpeg.scalefilter";
   String AUDIO_FADE = "audio.fade";
   String VIDEO_FADE = "video.fade";
+
+  /** Copy complete GOPs and re-encode only the frames around the cut points */
+  String SMART_CUT = "smartcut";
   String DEFAULT_EXTENSION = ".mp4";
 
 }
@@ -24,7 +24,10 @@ package org.opencastproject.videoeditor.ffmpeg;
 import org.opencastproject.util.IoSupport;
 import org.opencastproject.util.StreamHelper;
 import org.opencastproject.videoeditor.impl.VideoClip;
+import org.opencastproject.videoeditor.impl.VideoEditorProperties;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -32,7 +35,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Predicate;
 
 import junit.framework.Assert;
 
@@ -138,4 +146,217 @@ public class FFmpegTest {
     Assert.assertTrue("Edited File is nonzero",new File(outputFilePath).length() > 0);
     logger.info("Ffmpeg concat 2 clips from 2 files OK!");
   }
+
+  /**
+   * Test that smart cut copies the complete GOPs between IDR frames and re-encodes only the frames around the cut
+   * points
+   */
+  @Test
+  public void smartCutPlanTest() {
+    // 25 fps with a keyframe every two seconds, only every second one an IDR frame as with open GOPs
+    List<Double> frames = new ArrayList<Double>();
+    for (int i = 0; i < 250; i++) {
+      frames.add(i * 0.04);
+    }
+    List<Double> keyframes = Arrays.asList(0.0, 2.0, 4.0, 6.0, 8.0);
+    List<Double> idrFrames = Arrays.asList(0.0, 4.0, 8.0);
+    List<Double> checked = new ArrayList<Double>();
+    Predicate<Double> isIdrFrame = keyframe -> {
+      checked.add(keyframe);
+      return idrFrames.contains(keyframe);
+    };
+
+    List<FFmpegEdit.CutPiece> pieces = FFmpegEdit.planCut(new VideoClip(0, 1.3, 9.5), frames, keyframes, isIdrFrame);
+    Assert.assertEquals(3, pieces.size());
+    Assert.assertFalse(pieces.get(0).isCopy());
+    Assert.assertEquals(1.32, pieces.get(0).getStart(), 0.0001);
+    Assert.assertEquals(67, pieces.get(0).getFrames());
+    Assert.assertTrue(pieces.get(1).isCopy());
+    Assert.assertEquals(4.0, pieces.get(1).getStart(), 0.0001);
+    Assert.assertEquals(100, pieces.get(1).getFrames());
+    Assert.assertFalse(pieces.get(2).isCopy());
+    Assert.assertEquals(8.0, pieces.get(2).getStart(), 0.0001);
+    Assert.assertEquals(38, pieces.get(2).getFrames());
+    // The keyframe at 2s is not used to start copying as it is no IDR frame
+    Assert.assertEquals(Arrays.asList(2.0, 4.0, 8.0), checked);
+
+    // Cuts on IDR frames need no re-encoding at all
+    pieces = FFmpegEdit.planCut(new VideoClip(0, 4.0, 8.0), frames, keyframes, isIdrFrame);
+    Assert.assertEquals(1, pieces.size());
+    Assert.assertTrue(pieces.get(0).isCopy());
+    Assert.assertEquals(100, pieces.get(0).getFrames());
+
+    // Clips without a complete GOP between IDR frames are re-encoded as a whole
+    pieces = FFmpegEdit.planCut(new VideoClip(0, 1.5, 7.0), frames, keyframes, isIdrFrame);
+    Assert.assertEquals(1, pieces.size());
+    Assert.assertFalse(pieces.get(0).isCopy());
+    Assert.assertEquals(1.52, pieces.get(0).getStart(), 0.0001);
+    Assert.assertEquals(137, pieces.get(0).getFrames());
+
+    // Clips without any frame are dropped
+    Assert.assertTrue(FFmpegEdit.planCut(new VideoClip(0, 1.21, 1.23), frames, keyframes, isIdrFrame).isEmpty());
+  }
+
+  /**
+   * Test that IDR frames are told apart from other keyframes by their first slice
+   */
+  @Test
+  public void smartCutIdrSliceTest() {
+    // Length prefixed as in MP4: access unit delimiter, SEI and an IDR slice
+    Assert.assertTrue(FFmpegEdit.isIdrSlice(new byte[] { 0, 0, 0, 2, 0x09, 0x10, 0, 0, 0, 3, 0x06, 0x05, 0x01,
+            0, 0, 0, 4, 0x65, (byte) 0x88, (byte) 0x84, 0x00 }));
+    // The I-frame of an open GOP has a non-IDR slice
+    Assert.assertFalse(FFmpegEdit.isIdrSlice(new byte[] { 0, 0, 0, 2, 0x09, 0x10, 0, 0, 0, 3, 0x06, 0x05, 0x01,
+            0, 0, 0, 4, 0x41, (byte) 0x9a, 0x00, 0x00 }));
+    // Annex B as in MPEG-TS: parameter sets followed by an IDR slice
+    Assert.assertTrue(FFmpegEdit.isIdrSlice(new byte[] { 0, 0, 0, 1, 0x67, 0x64, 0x00, 0x0d, 0, 0, 1, 0x68,
+            (byte) 0xeb, 0, 0, 1, 0x65, (byte) 0x88, 0x00 }));
+    Assert.assertFalse(FFmpegEdit.isIdrSlice(new byte[] { 0, 0, 1, 0x09, 0x10, 0, 0, 1, 0x01, (byte) 0x9a, 0x00 }));
+    // Truncated data
+    Assert.assertFalse(FFmpegEdit.isIdrSlice(new byte[] { 0, 0, 0, 2, 0x09, 0x10 }));
+    Assert.assertFalse(FFmpegEdit.isIdrSlice(new byte[0]));
+  }
+
+  /**
+   * Test reading the data of a packet from the ffprobe output
+   */
+  @Test
+  public void smartCutPacketDataTest() {
+    List<String> lines = Arrays.asList(
+            "[PACKET]",
+            "codec_type=video",
+            "pts_time=3.960000",
+            "flags=__",
+            "data=",
+            "00000000: 0000 0002 0910 0000 0004 419a 0000       ..........A...",
+            "[/PACKET]",
+            "[PACKET]",
+            "codec_type=video",
+            "pts_time=4.000000",
+            "flags=K_",
+            "data=",
+            "00000000: 0000 0002 0910 0000 0003 0605 0100 0000  ................",
+            "00000010: 0465 8884 00                             .e...",
+            "[/PACKET]");
+    byte[] data = FFmpegEdit.parsePacketData(lines, 4.0, 0.02);
+    Assert.assertEquals(21, data.length);
+    Assert.assertEquals(0x65, data[17]);
+    Assert.assertTrue(FFmpegEdit.isIdrSlice(data));
+    Assert.assertFalse(FFmpegEdit.isIdrSlice(FFmpegEdit.parsePacketData(lines, 3.96, 0.02)));
+    Assert.assertNull(FFmpegEdit.parsePacketData(lines, 5.0, 0.02));
+  }
+
+  /**
+   * Test if ffmpeg can split and join 1 file using smart cut. The source has open GOPs with non-IDR keyframes between
+   * its IDR frames, and a white frame and a beep at every full second.
+   * Skip if no ffmpeg
+   */
+  @Test
+  public void ffmpegSmartCutTest() throws Exception {
+
+    if (!ffmpegInstalled) {
+      return;
+    }
+    String source = new File(outputFilePath).getParentFile().getAbsolutePath() + "/smartcut-source.mp4";
+    run(FFMPEG_BINARY, "-y", "-v", "error",
+            "-f", "lavfi", "-i", "testsrc=size=320x180:rate=25:duration=20",
+            "-f", "lavfi", "-i", "aevalsrc=if(lt(mod(t\\,1)\\,0.04)\\,0.8*sin(2*PI*1000*t)\\,0):s=48000:d=20",
+            "-vf", "drawbox=x=0:y=0:w=iw:h=ih:color=white:t=fill:enable='lt(mod(t,1),0.04)'",
+            "-c:v", "libx264", "-pix_fmt", "yuv420p", "-x264-params", "keyint=50:min-keyint=50:scenecut=0:open-gop=1",
+            "-force_key_frames", "expr:eq(mod(n,100),0)", "-forced-idr", "1",
+            "-c:a", "aac", "-shortest", source);
+
+    ArrayList<String> input = new ArrayList<String>();
+    ArrayList<VideoClip> clips = new ArrayList<VideoClip>();
+    clips.add(new VideoClip(0, 1.3, 9.5));
+    clips.add(new VideoClip(0, 10.7, 17.3));
+    input.add(source);
+    Properties properties = new Properties();
+    properties.setProperty(VideoEditorProperties.SMART_CUT, "true");
+    properties.setProperty(VideoEditorProperties.VIDEO_FADE, "0");
+    properties.setProperty(VideoEditorProperties.AUDIO_FADE, "0");
+    FFmpegEdit fmp = new FFmpegEdit(properties);
+    Assert.assertNull(fmp.processEdits(input, outputFilePath, null, clips));
+
+    // Smart cut was used instead of re-encoding everything
+    String[] video = probeStream(outputFilePath, "v:0");
+    Assert.assertEquals("avc3", video[0]);
+    String[] audio = probeStream(outputFilePath, "a:0");
+
+    // The duration is the sum of the clips
+    double frameDuration = 0.04;
+    Assert.assertEquals(8.2 + 6.6, Double.parseDouble(video[2]), frameDuration);
+    Assert.assertEquals(Double.parseDouble(video[1]), Double.parseDouble(audio[1]), frameDuration);
+    Assert.assertEquals(Double.parseDouble(video[2]), Double.parseDouble(audio[2]), frameDuration);
+
+    // Every frame, including those at the cut points, is the one a frame accurate trim of the source yields
+    byte[] frames = run(FFMPEG_BINARY, "-v", "error", "-i", outputFilePath, "-vf", "scale=32:18,format=gray",
+            "-vsync", "passthrough", "-f", "rawvideo", "-");
+    byte[] expected = run(FFMPEG_BINARY, "-v", "error", "-i", source, "-filter_complex",
+            "[0:v]trim=1.3:9.5,setpts=PTS-STARTPTS[a];[0:v]trim=10.7:17.3,setpts=PTS-STARTPTS[b];"
+                    + "[a][b]concat=n=2:v=1:a=0,scale=32:18,format=gray[v]",
+            "-map", "[v]", "-vsync", "passthrough", "-f", "rawvideo", "-");
+    int frameSize = 32 * 18;
+    Assert.assertEquals((8.2 + 6.6) / frameDuration, expected.length / frameSize, 0.5);
+    Assert.assertEquals(expected.length, frames.length);
+    List<Double> flashes = new ArrayList<Double>();
+    for (int i = 0; i < frames.length / frameSize; i++) {
+      long difference = 0;
+      long brightness = 0;
+      for (int j = i * frameSize; j < (i + 1) * frameSize; j++) {
+        difference += Math.abs((frames[j] & 0xff) - (expected[j] & 0xff));
+        brightness += frames[j] & 0xff;
+      }
+      Assert.assertTrue("Frame " + i + " does not match the source", difference / frameSize < 8);
+      if (brightness / frameSize > 200) {
+        flashes.add(i * frameDuration);
+      }
+    }
+
+    // Audio and video stay in sync across the cuts: each white frame comes with its beep
+    byte[] samples = run(FFMPEG_BINARY, "-v", "error", "-i", outputFilePath, "-map", "0:a:0", "-ac", "1",
+            "-ar", "48000", "-f", "s16le", "-");
+    List<Double> beeps = new ArrayList<Double>();
+    double lastLoud = -1;
+    for (int i = 0; i + 1 < samples.length; i += 2) {
+      double time = i / 2 / 48000.0;
+      if (Math.abs((short) ((samples[i] & 0xff) | samples[i + 1] << 8)) > 10000) {
+        if (time - lastLoud > 0.5) {
+          beeps.add(time);
+        }
+        lastLoud = time;
+      }
+    }
+    Assert.assertEquals(8 + 7, flashes.size());
+    Assert.assertEquals(flashes.size(), beeps.size());
+    for (int i = 0; i < flashes.size(); i++) {
+      Assert.assertEquals("Beep " + i + " is out of sync", flashes.get(i), beeps.get(i), frameDuration);
+    }
+    logger.info("Ffmpeg smart cut of 2 clips from 1 file OK!");
+  }
+
+  /**
+   * Probe the codec tag, start time and duration of a stream
+   */
+  private String[] probeStream(String file, String stream) throws Exception {
+    String result = new String(run("ffprobe", "-v", "error", "-select_streams", stream,
+            "-show_entries", "stream=codec_tag_string,start_time,duration", "-of", "csv=p=0", file),
+            StandardCharsets.UTF_8);
+    return result.trim().split(",");
+  }
+
+  /**
+   * Run a command and return its standard output
+   */
+  private byte[] run(String... command) throws Exception {
+    File errors = File.createTempFile("ffmpeg", ".log");
+    try {
+      Process process = new ProcessBuilder(command).redirectError(errors).start();
+      byte[] output = IOUtils.toByteArray(process.getInputStream());
+      Assert.assertEquals(FileUtils.readFileToString(errors, StandardCharsets.UTF_8), 0, process.waitFor());
+      return output;
+    } finally {
+      FileUtils.deleteQuietly(errors);
+    }
+  }
 }